@@ -11,4 +11,5 @@ dependencies {
     implementation("com.palantir.gradle.docker:gradle-docker:0.34.0")
     implementation("com.kiwigrid:gradle-helm-plugin:1.7.0")
     implementation("com.github.ben-manes:gradle-versions-plugin:0.42.0")
+    implementation("me.champeau.jmh:jmh-gradle-plugin:0.6.6")
 }
@@ -0,0 +1,19 @@
+import net.ltgt.gradle.errorprone.errorprone
+
+plugins {
+    id("java")
+    id("net.ltgt.errorprone")
+    id("me.champeau.jmh")
+}
+
+jmh {
+    jmhVersion.set("1.35")
+    resultFormat.set("JSON")
+}
+
+tasks {
+    // generated JMH sources are not NullAway clean
+    withType<JavaCompile>().matching { it.name.contains("jmh", ignoreCase = true) }.configureEach {
+        options.errorprone.isEnabled.set(false)
+    }
+}
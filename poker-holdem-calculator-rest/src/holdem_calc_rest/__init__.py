@@ -3,20 +3,24 @@ import os
 import traceback
 from flask_apispec import MethodResource, doc, marshal_with, use_kwargs, FlaskApiSpec
 import flask.views
-from flask import json, Response
-from werkzeug.exceptions import HTTPException
+from flask import json, request, Response
+from werkzeug.exceptions import BadRequest, HTTPException
 from marshmallow.exceptions import ValidationError
 
 if 'LOCAL_RUN' in os.environ:
     from models import WinPercentageRequestSchema, WinPercentageRequest, WinPercentageResponseSchema, \
         PlayerWinPercentage, WinPercentageResponse, ShowdownPercentageRequest, ShowdownPercentageResponse, \
-        ShowdownPercentageRequestSchema, ShowdownPercentageResponseSchema
+        ShowdownPercentageRequestSchema, ShowdownPercentageResponseSchema, WinPercentageBatchRequestSchema, \
+        WinPercentageBatchResponseSchema, ShowdownPercentageBatchRequestSchema, ShowdownPercentageBatchResponseSchema
     from api_handler import calculate_win_percentage, calculate_showdown_percentage
+    import binary_codec
 else:
     from .models import WinPercentageRequestSchema, WinPercentageRequest, WinPercentageResponseSchema, \
         PlayerWinPercentage, WinPercentageResponse, ShowdownPercentageRequest, ShowdownPercentageResponse, \
-        ShowdownPercentageRequestSchema, ShowdownPercentageResponseSchema
+        ShowdownPercentageRequestSchema, ShowdownPercentageResponseSchema, WinPercentageBatchRequestSchema, \
+        WinPercentageBatchResponseSchema, ShowdownPercentageBatchRequestSchema, ShowdownPercentageBatchResponseSchema
     from .api_handler import calculate_win_percentage, calculate_showdown_percentage
+    from . import binary_codec
 
 app = flask.Flask(__name__)
 docs = FlaskApiSpec(app)
@@ -65,6 +69,35 @@ def handle_generic_exception(e):
     return response
 
 
+BINARY_HANDLERS = {
+    '/holdem/calc/win/percentage': lambda data: binary_codec.encode_win_response(
+        calculate_win_percentage(binary_codec.decode_win_request(data))),
+    '/holdem/calc/showdown/percentage': lambda data: binary_codec.encode_showdown_response(
+        calculate_showdown_percentage(binary_codec.decode_showdown_request(data))),
+    '/holdem/calc/win/percentage/batch': lambda data: binary_codec.encode_win_batch_response(
+        [calculate_win_percentage(r) for r in binary_codec.decode_win_batch_request(data)]),
+    '/holdem/calc/showdown/percentage/batch': lambda data: binary_codec.encode_showdown_batch_response(
+        [calculate_showdown_percentage(r) for r in binary_codec.decode_showdown_batch_request(data)]),
+}
+
+
+@app.before_request
+def binary_request_handler():
+    """Answer the calls sent in the binary encoding in the same encoding, bypassing the JSON resources."""
+    if request.method != 'POST' or request.mimetype != binary_codec.BINARY_CONTENT_TYPE:
+        return None
+    handler = BINARY_HANDLERS.get(request.path)
+    if handler is None:
+        return None
+    try:
+        data = handler(request.get_data())
+    except ValueError as e:
+        _badRequest = BadRequest()
+        _badRequest.description = str(e)
+        raise _badRequest
+    return Response(data, content_type=binary_codec.BINARY_CONTENT_TYPE)
+
+
 @doc(tags=['Poker Calculator'])
 class HoldemCalcWinPercentageResource(MethodResource):
 
@@ -87,6 +120,25 @@ class HoldemCalcShowdownPercentageResource(MethodResource):
         return result
 
 
+@doc(tags=['Poker Calculator'])
+class HoldemCalcWinPercentageBatchResource(MethodResource):
+
+    @use_kwargs(WinPercentageBatchRequestSchema)
+    @marshal_with(WinPercentageBatchResponseSchema, code=200)
+    def post(self, requests):
+        return {'responses': [calculate_win_percentage(WinPercentageRequest(**request)) for request in requests]}
+
+
+@doc(tags=['Poker Calculator'])
+class HoldemCalcShowdownPercentageBatchResource(MethodResource):
+
+    @use_kwargs(ShowdownPercentageBatchRequestSchema)
+    @marshal_with(ShowdownPercentageBatchResponseSchema, code=200)
+    def post(self, requests):
+        return {'responses': [calculate_showdown_percentage(ShowdownPercentageRequest(**request))
+                              for request in requests]}
+
+
 @doc(tags=['Internal'])
 class HealthResource(MethodResource):
 
@@ -100,9 +152,16 @@ app.add_url_rule('/holdem/calc/win/percentage',
                  view_func=HoldemCalcWinPercentageResource.as_view('HoldemCalcWinPercentageResource'))
 app.add_url_rule('/holdem/calc/showdown/percentage',
                  view_func=HoldemCalcShowdownPercentageResource.as_view('HoldemCalcShowdownPercentageResource'))
+app.add_url_rule('/holdem/calc/win/percentage/batch',
+                 view_func=HoldemCalcWinPercentageBatchResource.as_view('HoldemCalcWinPercentageBatchResource'))
+app.add_url_rule('/holdem/calc/showdown/percentage/batch',
+                 view_func=HoldemCalcShowdownPercentageBatchResource.as_view(
+                     'HoldemCalcShowdownPercentageBatchResource'))
 
 docs.register(HoldemCalcWinPercentageResource, endpoint='HoldemCalcWinPercentageResource')
 docs.register(HoldemCalcShowdownPercentageResource, endpoint='HoldemCalcShowdownPercentageResource')
+docs.register(HoldemCalcWinPercentageBatchResource, endpoint='HoldemCalcWinPercentageBatchResource')
+docs.register(HoldemCalcShowdownPercentageBatchResource, endpoint='HoldemCalcShowdownPercentageBatchResource')
 docs.register(HealthResource, endpoint='HealthResource')
 
 if __name__ == '__main__':
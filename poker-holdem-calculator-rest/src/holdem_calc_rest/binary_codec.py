@@ -0,0 +1,120 @@
+import io
+import os
+import struct
+import typing
+
+if 'LOCAL_RUN' in os.environ:
+    from models import WinPercentageRequest, WinPercentageResponse, ShowdownPercentageRequest, \
+        ShowdownPercentageResponse
+else:
+    from .models import WinPercentageRequest, WinPercentageResponse, ShowdownPercentageRequest, \
+        ShowdownPercentageResponse
+
+# Compact big endian encoding of the calculator calls, the same as the rule engine BinaryCalculatorCodec.
+# A card is the byte suit * 13 + value, a percentage an int of millionths of a percent and an operation
+# time an int of microseconds. The players of a win response are in the order of the request.
+BINARY_CONTENT_TYPE = 'application/x-holdem-calc'
+
+CARD_VALUES = '23456789TJQKA'
+CARD_SUITS = 'cdhs'
+ABSENT = -1
+
+
+def _read(stream: io.BytesIO, fmt: str):
+    size = struct.calcsize(fmt)
+    data = stream.read(size)
+    if len(data) != size:
+        raise ValueError('Binary request is truncated')
+    return struct.unpack(fmt, data)
+
+
+def _read_card(stream: io.BytesIO) -> str:
+    index, = _read(stream, '>B')
+    if index >= len(CARD_VALUES) * len(CARD_SUITS):
+        raise ValueError(f'Binary request contains invalid card: {index}')
+    return CARD_VALUES[index % len(CARD_VALUES)] + CARD_SUITS[index // len(CARD_VALUES)]
+
+
+def _read_cards(stream: io.BytesIO) -> typing.List[str]:
+    count, = _read(stream, '>B')
+    return [_read_card(stream) for _ in range(count)]
+
+
+def _read_win_request(stream: io.BytesIO) -> WinPercentageRequest:
+    players_count, = _read(stream, '>B')
+    players = [f'{_read_card(stream)}|{_read_card(stream)}' for _ in range(players_count)]
+    board = _read_cards(stream)
+    excludes = _read_cards(stream)
+    return WinPercentageRequest(players=players, board=board, excludes=excludes)
+
+
+def _read_showdown_request(stream: io.BytesIO) -> ShowdownPercentageRequest:
+    board = _read_cards(stream)
+    player = [_read_card(stream), _read_card(stream)]
+    return ShowdownPercentageRequest(player=player, board=board)
+
+
+def _read_batch(stream: io.BytesIO, read_request) -> list:
+    count, = _read(stream, '>H')
+    return [read_request(stream) for _ in range(count)]
+
+
+def _percentage(value: float) -> bytes:
+    return struct.pack('>i', round(value * 1_000_000))
+
+
+def _operation_time(value: float) -> bytes:
+    if value is None or value < 0:
+        return struct.pack('>i', ABSENT)
+    return struct.pack('>i', round(value * 1_000_000))
+
+
+def _write_win_response(response: WinPercentageResponse) -> bytes:
+    # no samples count, the percentages are computed from the simulations of the request
+    data = _percentage(response.tiesPercentage) + _operation_time(response.operationTime) \
+           + struct.pack('>qB', ABSENT, len(response.players))
+    for player in response.players:
+        data += _percentage(player.winPercentage)
+        if player.handRank is None:
+            data += struct.pack('>b', ABSENT)
+        else:
+            name = player.handRank.name.encode('utf-8')
+            data += struct.pack('>bB', player.handRank.rank, len(name)) + name
+    return data
+
+
+def _write_showdown_response(response: ShowdownPercentageResponse) -> bytes:
+    return _percentage(response.showdownPercentage) + _operation_time(response.operationTime)
+
+
+def decode_win_request(data: bytes) -> WinPercentageRequest:
+    return _read_win_request(io.BytesIO(data))
+
+
+def decode_win_batch_request(data: bytes) -> typing.List[WinPercentageRequest]:
+    return _read_batch(io.BytesIO(data), _read_win_request)
+
+
+def decode_showdown_request(data: bytes) -> ShowdownPercentageRequest:
+    return _read_showdown_request(io.BytesIO(data))
+
+
+def decode_showdown_batch_request(data: bytes) -> typing.List[ShowdownPercentageRequest]:
+    return _read_batch(io.BytesIO(data), _read_showdown_request)
+
+
+def encode_win_response(response: WinPercentageResponse) -> bytes:
+    return _write_win_response(response)
+
+
+def encode_win_batch_response(responses: typing.List[WinPercentageResponse]) -> bytes:
+    return struct.pack('>H', len(responses)) + b''.join(_write_win_response(response) for response in responses)
+
+
+def encode_showdown_response(response: ShowdownPercentageResponse) -> bytes:
+    return _write_showdown_response(response)
+
+
+def encode_showdown_batch_response(responses: typing.List[ShowdownPercentageResponse]) -> bytes:
+    return struct.pack('>H', len(responses)) \
+        + b''.join(_write_showdown_response(response) for response in responses)
@@ -157,10 +157,11 @@ def detect_three_of_a_kind_kickers(histogram_board):
                 return kicker1, elem[0]
 
 
-# Returns the highest kicker available
-def detect_highest_kicker(histogram_board):
+# Returns the highest kicker available beside the two given pairs, a third pair
+# may provide the kicker
+def detect_two_pair_kicker(histogram_board, high_pair, low_pair):
     for elem in histogram_board:
-        if elem[1] == 1:
+        if elem[0] != high_pair and elem[0] != low_pair:
             return elem[0]
 
 
@@ -245,8 +246,8 @@ def detect_hand(hole_cards, given_board, suit_histogram,
     if current_max == 2:
         # Check to see if there is a two pair
         if second_max == 2:
-            return 2, max_val, second_max_val, detect_highest_kicker(
-                histogram_board)
+            return 2, max_val, second_max_val, detect_two_pair_kicker(
+                histogram_board, max_val, second_max_val)
         # Return pair
         else:
             return 1, max_val, detect_pair_kickers(histogram_board)
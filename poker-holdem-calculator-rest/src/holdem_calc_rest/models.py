@@ -136,6 +136,10 @@ class WinPercentageRequestSchema(ma.Schema):
     scale = ma.fields.Int(required=False, validate=[Range(min=0, error="Value must be positive")])
 
 
+class WinPercentageBatchRequestSchema(ma.Schema):
+    requests = ma.fields.List(ma.fields.Nested(WinPercentageRequestSchema), required=True)
+
+
 class HandRankSchema(ma.Schema):
     name = ma.fields.Str()
     rank = ma.fields.Int()
@@ -153,6 +157,10 @@ class WinPercentageResponseSchema(ma.Schema):
     operationTime = ma.fields.Float()
 
 
+class WinPercentageBatchResponseSchema(ma.Schema):
+    responses = ma.fields.List(ma.fields.Nested(WinPercentageResponseSchema))
+
+
 @auto_str
 class ShowdownPercentageRequest:
     def __init__(self, player: typing.List[str], board: typing.List[str],
@@ -189,3 +197,11 @@ class ShowdownPercentageRequestSchema(ma.Schema):
 class ShowdownPercentageResponseSchema(ma.Schema):
     showdownPercentage = ma.fields.Float()
     operationTime = ma.fields.Float()
+
+
+class ShowdownPercentageBatchRequestSchema(ma.Schema):
+    requests = ma.fields.List(ma.fields.Nested(ShowdownPercentageRequestSchema), required=True)
+
+
+class ShowdownPercentageBatchResponseSchema(ma.Schema):
+    responses = ma.fields.List(ma.fields.Nested(ShowdownPercentageResponseSchema))
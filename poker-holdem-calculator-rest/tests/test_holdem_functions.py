@@ -0,0 +1,37 @@
+import unittest
+
+import holdem_functions
+from holdem_functions import Card
+
+
+def detect_hand(hole_cards, board):
+    hole_cards = tuple(Card(card) for card in hole_cards)
+    board = [Card(card) for card in board]
+    suit_histogram, histogram, max_suit = holdem_functions.preprocess_board(
+        board)
+    return holdem_functions.detect_hand(hole_cards, board, suit_histogram,
+                                        histogram, max_suit)
+
+
+class TwoPairKickerTest(unittest.TestCase):
+
+    # Board: Ks Kd Qc Qh 2s
+    board = ["Ks", "Kd", "Qc", "Qh", "2s"]
+
+    def test_kicker_taken_from_third_pair(self):
+        # Kings and queens with a 9 kicker from the pocket pair, the kicker
+        # was the 2 of the board before, the highest single card
+        self.assertEqual((2, 13, 12, 9), detect_hand(["9h", "9d"], self.board))
+
+    def test_kicker_taken_from_single_card(self):
+        self.assertEqual((2, 13, 12, 8), detect_hand(["8h", "3d"], self.board))
+
+    def test_third_pair_kicker_beats_lower_single_card(self):
+        # The 8 kicker won before, against the 2 kicker of the pocket nines
+        result_list = [detect_hand(["9h", "9d"], self.board),
+                       detect_hand(["8h", "3d"], self.board)]
+        self.assertEqual(1, holdem_functions.compare_hands(result_list))
+
+
+if __name__ == "__main__":
+    unittest.main()
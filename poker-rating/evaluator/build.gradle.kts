@@ -0,0 +1,4 @@
+plugins {
+    id("java.convention")
+    id("jmh.convention")
+}
@@ -0,0 +1,61 @@
+package com.poker.evaluator;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Seven card evaluations per second, run with {@code ./gradlew :poker-rating:evaluator:jmh}. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HandEvaluatorBenchmark {
+
+  private static final int HANDS = 1 << 16;
+
+  private final long[] hands = new long[HANDS];
+
+  @Setup
+  public void setup() {
+    SplittableRandom random = new SplittableRandom(42);
+    for (int i = 0; i < HANDS; i++) {
+      long cards = 0L;
+      while (Long.bitCount(cards) < 7) {
+        cards |= 1L << random.nextInt(52);
+      }
+      hands[i] = cards;
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(HANDS)
+  public int tableEvaluator() {
+    int result = 0;
+    for (long cards : hands) {
+      result ^= HandEvaluator.evaluate(cards);
+    }
+    return result;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(HANDS)
+  public int rankMaskEvaluator() {
+    int result = 0;
+    for (long cards : hands) {
+      result ^= RankMaskEvaluator.evaluate(cards);
+    }
+    return result;
+  }
+}
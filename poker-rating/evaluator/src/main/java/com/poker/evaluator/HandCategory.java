@@ -0,0 +1,34 @@
+package com.poker.evaluator;
+
+/** Hand categories named and ranked like the Python holdem calculator hand rankings. */
+public enum HandCategory {
+  HIGH_CARD("High Card"),
+  PAIR("Pair"),
+  TWO_PAIR("Two Pair"),
+  THREE_OF_A_KIND("Three of a Kind"),
+  STRAIGHT("Straight"),
+  FLUSH("Flush"),
+  FULL_HOUSE("Full House"),
+  FOUR_OF_A_KIND("Four of a Kind"),
+  STRAIGHT_FLUSH("Straight Flush"),
+  ROYAL_FLUSH("Royal Flush");
+
+  private static final HandCategory[] VALUES = values();
+  private final String title;
+
+  HandCategory(String title) {
+    this.title = title;
+  }
+
+  public static HandCategory of(int rank) {
+    return VALUES[rank];
+  }
+
+  public String title() {
+    return title;
+  }
+
+  public int rank() {
+    return ordinal();
+  }
+}
@@ -0,0 +1,180 @@
+package com.poker.evaluator;
+
+import static com.poker.evaluator.RankMaskEvaluator.CATEGORY_SHIFT;
+import static com.poker.evaluator.RankMaskEvaluator.RANK_MASK;
+
+/**
+ * Table driven hand evaluator. Cards are a 52 bit mask, bit {@code suit * 13 + (value - 2)} per
+ * card, the same layout as {@code Card#index()}.
+ *
+ * <p>The returned strength is comparable: the better hand has the greater value and equal hands
+ * have equal values. Seven card hands are answered from tables built once at class load: a flush
+ * table indexed by the 13 bit rank mask of the flush suit and a table indexed by a perfect hash of
+ * the per rank card counts. Evaluation neither allocates nor loops.
+ */
+public final class HandEvaluator {
+
+  private static final int HAND_SIZE = 7;
+  private static final int MAX_RANK_COUNT = 4;
+  private static final int RADIX = MAX_RANK_COUNT + 1;
+
+  // rank counts are hashed as two base 5 numbers, one digit per rank: deuce to eight, nine to ace
+  private static final int LOW_RANKS = 7;
+  private static final int HIGH_RANKS = 13 - LOW_RANKS;
+  private static final int LOW_RANKS_MASK = (1 << LOW_RANKS) - 1;
+  private static final int[] BASE5 = initBase5();
+
+  private static final int[] FLUSH = initFlush();
+
+  /** Offset of the low ranks block: preceding low rank counts times their high rank completions. */
+  private static final int[] LOW_OFFSET = new int[pow(RADIX, LOW_RANKS)];
+
+  /** Position of the high rank counts among those holding the same number of cards. */
+  private static final int[] HIGH_OFFSET = new int[pow(RADIX, HIGH_RANKS)];
+
+  private static final int[] RANK_COUNTS = new int[initOffsets()];
+
+  static {
+    initRankCounts(new int[LOW_RANKS + HIGH_RANKS], 0, HAND_SIZE);
+  }
+
+  private HandEvaluator() {
+    throw new UnsupportedOperationException("No instance for util class");
+  }
+
+  public static int evaluate(long cards) {
+    if (Long.bitCount(cards) != HAND_SIZE) {
+      return RankMaskEvaluator.evaluate(cards);
+    }
+    int clubs = (int) (cards & RANK_MASK);
+    int diamonds = (int) ((cards >>> 13) & RANK_MASK);
+    int hearts = (int) ((cards >>> 26) & RANK_MASK);
+    int spades = (int) ((cards >>> 39) & RANK_MASK);
+
+    // seven cards can't hold a flush and a full house or four of a kind together
+    if (Integer.bitCount(clubs) >= 5) {
+      return FLUSH[clubs];
+    } else if (Integer.bitCount(diamonds) >= 5) {
+      return FLUSH[diamonds];
+    } else if (Integer.bitCount(hearts) >= 5) {
+      return FLUSH[hearts];
+    } else if (Integer.bitCount(spades) >= 5) {
+      return FLUSH[spades];
+    }
+    return RANK_COUNTS[rankCountsIndex(clubs, diamonds, hearts, spades)];
+  }
+
+  public static HandCategory category(int strength) {
+    return HandCategory.of(strength >>> CATEGORY_SHIFT);
+  }
+
+  private static int rankCountsIndex(int clubs, int diamonds, int hearts, int spades) {
+    // bit sliced per rank counter: count = quads * 4 + high * 2 + low
+    int clubsDiamondsSum = clubs ^ diamonds;
+    int heartsSpadesSum = hearts ^ spades;
+    int low = clubsDiamondsSum ^ heartsSpadesSum;
+    int high = (clubsDiamondsSum & heartsSpadesSum) ^ (clubs & diamonds) ^ (hearts & spades);
+    int quads = clubs & diamonds & hearts & spades;
+
+    int lowRanks =
+        BASE5[low & LOW_RANKS_MASK]
+            + 2 * BASE5[high & LOW_RANKS_MASK]
+            + 4 * BASE5[quads & LOW_RANKS_MASK];
+    int highRanks =
+        BASE5[low >>> LOW_RANKS] + 2 * BASE5[high >>> LOW_RANKS] + 4 * BASE5[quads >>> LOW_RANKS];
+    return LOW_OFFSET[lowRanks] + HIGH_OFFSET[highRanks];
+  }
+
+  /** Base 5 number with digit 1 for every rank bit of a mask of up to {@value #LOW_RANKS} ranks. */
+  private static int[] initBase5() {
+    int[] base5 = new int[1 << LOW_RANKS];
+    for (int mask = 0; mask < base5.length; mask++) {
+      for (int rank = 0; rank < LOW_RANKS; rank++) {
+        if ((mask >>> rank & 1) != 0) {
+          base5[mask] += pow(RADIX, rank);
+        }
+      }
+    }
+    return base5;
+  }
+
+  private static int[] initFlush() {
+    int[] flush = new int[RANK_MASK + 1];
+    for (int ranks = 0; ranks <= RANK_MASK; ranks++) {
+      if (Integer.bitCount(ranks) >= 5) {
+        flush[ranks] = RankMaskEvaluator.evaluate(ranks);
+      }
+    }
+    return flush;
+  }
+
+  /** Fills the offset tables and returns the number of seven card rank count vectors. */
+  private static int initOffsets() {
+    int[] highRanksBySize = new int[HAND_SIZE + 1];
+    for (int highRanks = 0; highRanks < HIGH_OFFSET.length; highRanks++) {
+      int size = digitsSum(highRanks);
+      if (size <= HAND_SIZE) {
+        HIGH_OFFSET[highRanks] = highRanksBySize[size]++;
+      }
+    }
+    int offset = 0;
+    for (int lowRanks = 0; lowRanks < LOW_OFFSET.length; lowRanks++) {
+      int size = digitsSum(lowRanks);
+      if (size <= HAND_SIZE) {
+        LOW_OFFSET[lowRanks] = offset;
+        offset += highRanksBySize[HAND_SIZE - size];
+      }
+    }
+    return offset;
+  }
+
+  private static void initRankCounts(int[] counts, int rank, int remaining) {
+    if (rank == counts.length) {
+      if (remaining == 0) {
+        long cards = cardsWithoutFlush(counts);
+        int index =
+            rankCountsIndex(
+                (int) (cards & RANK_MASK),
+                (int) ((cards >>> 13) & RANK_MASK),
+                (int) ((cards >>> 26) & RANK_MASK),
+                (int) ((cards >>> 39) & RANK_MASK));
+        RANK_COUNTS[index] = RankMaskEvaluator.evaluate(cards);
+      }
+      return;
+    }
+    for (int count = 0; count <= Math.min(remaining, MAX_RANK_COUNT); count++) {
+      counts[rank] = count;
+      initRankCounts(counts, rank + 1, remaining - count);
+    }
+    counts[rank] = 0;
+  }
+
+  /** Deals the cards of each rank to the suits in turn, so no suit gets more than 2 cards. */
+  private static long cardsWithoutFlush(int[] counts) {
+    long cards = 0L;
+    int suit = 0;
+    for (int rank = 0; rank < counts.length; rank++) {
+      for (int i = 0; i < counts[rank]; i++) {
+        cards |= 1L << (suit * counts.length + rank);
+        suit = (suit + 1) % 4;
+      }
+    }
+    return cards;
+  }
+
+  private static int digitsSum(int base5) {
+    int sum = 0;
+    for (int rest = base5; rest != 0; rest /= RADIX) {
+      sum += rest % RADIX;
+    }
+    return sum;
+  }
+
+  private static int pow(int base, int exponent) {
+    int result = 1;
+    for (int i = 0; i < exponent; i++) {
+      result *= base;
+    }
+    return result;
+  }
+}
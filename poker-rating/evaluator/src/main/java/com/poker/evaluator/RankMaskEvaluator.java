@@ -0,0 +1,118 @@
+package com.poker.evaluator;
+
+/**
+ * Reference evaluator computing the hand strength from the rank masks of each suit, used to build
+ * the {@link HandEvaluator} tables and for hands of 5 or 6 cards.
+ *
+ * <p>Strength layout: {@code category << 26 | primary << 13 | secondary} where primary and
+ * secondary are 13 bit rank masks (bit 0 is a deuce) of the ranks deciding the hand.
+ */
+final class RankMaskEvaluator {
+
+  static final int RANK_MASK = 0x1FFF;
+  static final int CATEGORY_SHIFT = 26;
+  private static final int PRIMARY_SHIFT = 13;
+  private static final int WHEEL = 0b1_0000_0000_1111;
+  private static final int FIVE = 1 << 3;
+  private static final int ACE = 1 << 12;
+
+  private RankMaskEvaluator() {
+    throw new UnsupportedOperationException("No instance for util class");
+  }
+
+  static int evaluate(long cards) {
+    int clubs = (int) (cards & RANK_MASK);
+    int diamonds = (int) ((cards >>> 13) & RANK_MASK);
+    int hearts = (int) ((cards >>> 26) & RANK_MASK);
+    int spades = (int) ((cards >>> 39) & RANK_MASK);
+
+    int flush = flushRanks(clubs, diamonds, hearts, spades);
+    if (flush != 0) {
+      int straightFlush = straightHigh(flush);
+      if (straightFlush == ACE) {
+        return strength(HandCategory.ROYAL_FLUSH, 0, 0);
+      } else if (straightFlush != 0) {
+        return strength(HandCategory.STRAIGHT_FLUSH, straightFlush, 0);
+      }
+      return strength(HandCategory.FLUSH, 0, top(flush, 5));
+    }
+
+    // bit sliced per rank counter of the four suits: count = quads * 4 + high * 2 + low
+    int clubsDiamondsSum = clubs ^ diamonds;
+    int clubsDiamondsCarry = clubs & diamonds;
+    int heartsSpadesSum = hearts ^ spades;
+    int heartsSpadesCarry = hearts & spades;
+    int low = clubsDiamondsSum ^ heartsSpadesSum;
+    int lowCarry = clubsDiamondsSum & heartsSpadesSum;
+    int high = lowCarry ^ clubsDiamondsCarry ^ heartsSpadesCarry;
+    int quads = clubs & diamonds & hearts & spades;
+
+    int ranks = clubs | diamonds | hearts | spades;
+    int trips = low & high;
+    int pairs = high & ~low;
+
+    if (quads != 0) {
+      return strength(HandCategory.FOUR_OF_A_KIND, quads, top(ranks & ~quads, 1));
+    }
+    if (trips != 0) {
+      int topTrips = Integer.highestOneBit(trips);
+      int fullHousePair = (trips & ~topTrips) | pairs;
+      if (fullHousePair != 0) {
+        return strength(
+            HandCategory.FULL_HOUSE, topTrips, Integer.highestOneBit(fullHousePair));
+      }
+    }
+    int straight = straightHigh(ranks);
+    if (straight != 0) {
+      return strength(HandCategory.STRAIGHT, straight, 0);
+    }
+    if (trips != 0) {
+      return strength(HandCategory.THREE_OF_A_KIND, trips, top(ranks & ~trips, 2));
+    }
+    if (pairs != 0) {
+      if (Integer.bitCount(pairs) > 1) {
+        int twoPairs = top(pairs, 2);
+        return strength(HandCategory.TWO_PAIR, twoPairs, top(ranks & ~twoPairs, 1));
+      }
+      return strength(HandCategory.PAIR, pairs, top(ranks & ~pairs, 3));
+    }
+    return strength(HandCategory.HIGH_CARD, 0, top(ranks, 5));
+  }
+
+  private static int strength(HandCategory category, int primary, int secondary) {
+    return category.rank() << CATEGORY_SHIFT | primary << PRIMARY_SHIFT | secondary;
+  }
+
+  private static int flushRanks(int clubs, int diamonds, int hearts, int spades) {
+    if (Integer.bitCount(clubs) >= 5) {
+      return clubs;
+    } else if (Integer.bitCount(diamonds) >= 5) {
+      return diamonds;
+    } else if (Integer.bitCount(hearts) >= 5) {
+      return hearts;
+    } else if (Integer.bitCount(spades) >= 5) {
+      return spades;
+    }
+    return 0;
+  }
+
+  /** Returns the rank bit of the straight high card or 0 when there is no straight. */
+  private static int straightHigh(int ranks) {
+    int runs = ranks & (ranks >>> 1) & (ranks >>> 2) & (ranks >>> 3) & (ranks >>> 4);
+    if (runs != 0) {
+      return Integer.highestOneBit(runs) << 4;
+    }
+    return (ranks & WHEEL) == WHEEL ? FIVE : 0;
+  }
+
+  private static int top(int ranks, int count) {
+    int result = 0;
+    int remaining = ranks;
+    for (int i = 0; i < count && remaining != 0; i++) {
+      int highest = Integer.highestOneBit(remaining);
+      result |= highest;
+      remaining &= ~highest;
+    }
+    return result;
+  }
+}
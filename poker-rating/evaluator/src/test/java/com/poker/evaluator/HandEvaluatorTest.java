@@ -0,0 +1,67 @@
+package com.poker.evaluator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class HandEvaluatorTest {
+
+  private static final String VALUES = "23456789TJQKA";
+  private static final String SUITS = "cdhs";
+
+  private static long cards(String... cards) {
+    long mask = 0L;
+    for (String card : cards) {
+      mask |= 1L << (SUITS.indexOf(card.charAt(1)) * 13 + VALUES.indexOf(card.charAt(0)));
+    }
+    return mask;
+  }
+
+  private static HandCategory category(String... cards) {
+    return HandEvaluator.category(HandEvaluator.evaluate(cards(cards)));
+  }
+
+  @Test
+  void test_categories() {
+    assertEquals(HandCategory.HIGH_CARD, category("As", "Kd", "9c", "7h", "5s", "3d", "2c"));
+    assertEquals(HandCategory.PAIR, category("As", "Ad", "9c", "7h", "5s", "3d", "2c"));
+    assertEquals(HandCategory.TWO_PAIR, category("As", "Ad", "9c", "9h", "5s", "5d", "2c"));
+    assertEquals(HandCategory.THREE_OF_A_KIND, category("As", "Ad", "Ac", "7h", "5s", "3d", "2c"));
+    assertEquals(HandCategory.STRAIGHT, category("As", "2d", "3c", "4h", "5s", "9d", "Kc"));
+    assertEquals(HandCategory.FLUSH, category("As", "Ts", "9s", "7s", "5s", "3d", "2c"));
+    assertEquals(HandCategory.FULL_HOUSE, category("As", "Ad", "Ac", "7h", "7s", "7d", "2c"));
+    assertEquals(HandCategory.FOUR_OF_A_KIND, category("As", "Ad", "Ac", "Ah", "5s", "3d", "2c"));
+    assertEquals(HandCategory.STRAIGHT_FLUSH, category("9s", "Ts", "Js", "Qs", "Ks", "3d", "2c"));
+    assertEquals(HandCategory.ROYAL_FLUSH, category("As", "Ts", "Js", "Qs", "Ks", "3d", "2c"));
+  }
+
+  @Test
+  void test_kickers() {
+    // two pair kicker may come from a third pair
+    assertTrue(
+        HandEvaluator.evaluate(cards("As", "Ad", "Kc", "Kh", "Qs", "Qd", "2c"))
+            > HandEvaluator.evaluate(cards("Ah", "Ac", "Ks", "Kd", "Jc", "9d", "2h")));
+    // six high straight beats the wheel
+    assertTrue(
+        HandEvaluator.evaluate(cards("6s", "2d", "3c", "4h", "5s", "9d", "Kc"))
+            > HandEvaluator.evaluate(cards("As", "2d", "3c", "4h", "5s", "9d", "Kc")));
+    // same best five cards tie
+    assertEquals(
+        HandEvaluator.evaluate(cards("As", "Kd", "Qc", "Jh", "9s", "3d", "2c")),
+        HandEvaluator.evaluate(cards("Ad", "Kc", "Qh", "Js", "9d", "4h", "2d")));
+  }
+
+  @Test
+  void test_tables_match_rank_mask_evaluator() {
+    SplittableRandom random = new SplittableRandom(42);
+    for (int i = 0; i < 1_000_000; i++) {
+      long cards = 0L;
+      while (Long.bitCount(cards) < 7) {
+        cards |= 1L << random.nextInt(52);
+      }
+      assertEquals(RankMaskEvaluator.evaluate(cards), HandEvaluator.evaluate(cards));
+    }
+  }
+}
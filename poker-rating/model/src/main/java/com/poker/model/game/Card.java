@@ -3,8 +3,6 @@ package com.poker.model.game;
 import com.fasterxml.jackson.annotation.JsonValue;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.poker.model.game.deser.CardDeserializer;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nullable;
 import lombok.EqualsAndHashCode;
 import lombok.EqualsAndHashCode.Include;
@@ -17,15 +15,34 @@ import lombok.experimental.Accessors;
 @Accessors(fluent = true)
 @JsonDeserialize(using = CardDeserializer.class)
 public class Card {
-  private static final ConcurrentHashMap<Map.Entry<CardValue, CardSuit>, Card> CARDS_CACHE =
-      new ConcurrentHashMap<>();
+  public static final int DECK_SIZE = 52;
+  private static final int SUIT_SIZE = 13;
+  private static final Card[] CARDS = initCards();
 
   @Include private final CardValue cardValue;
   @Include private final CardSuit cardSuit;
 
+  /** Stable card index in range 0..51: {@code suit * 13 + (value - 2)}. */
+  private final int index;
+
   Card(CardValue cardValue, CardSuit cardSuit) {
     this.cardValue = cardValue;
     this.cardSuit = cardSuit;
+    this.index = index(cardValue, cardSuit);
+  }
+
+  private static Card[] initCards() {
+    var cards = new Card[DECK_SIZE];
+    for (CardSuit cardSuit : CardSuit.values()) {
+      for (CardValue cardValue : CardValue.values()) {
+        cards[index(cardValue, cardSuit)] = new Card(cardValue, cardSuit);
+      }
+    }
+    return cards;
+  }
+
+  private static int index(CardValue cardValue, CardSuit cardSuit) {
+    return cardSuit.ordinal() * SUIT_SIZE + cardValue.value() - 2;
   }
 
   public static Card of(@Nullable String value) {
@@ -42,8 +59,19 @@ public class Card {
   }
 
   public static Card of(CardValue cardValue, CardSuit cardSuit) {
-    return CARDS_CACHE.computeIfAbsent(
-        Map.entry(cardValue, cardSuit), k -> new Card(k.getKey(), k.getValue()));
+    return CARDS[index(cardValue, cardSuit)];
+  }
+
+  public static Card of(int index) {
+    if (index < 0 || index >= DECK_SIZE) {
+      throw new IllegalArgumentException("Invalid card index: " + index);
+    }
+    return CARDS[index];
+  }
+
+  /** Single bit card mask, see {@link CardSet}. */
+  public long mask() {
+    return 1L << index();
   }
 
   @JsonValue
@@ -0,0 +1,136 @@
+package com.poker.model.game;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import javax.annotation.Nullable;
+
+/** Immutable set of cards backed by a single {@code long}, bit {@link Card#index()} per card. */
+public final class CardSet implements Iterable<Card> {
+
+  public static final CardSet EMPTY = new CardSet(0L);
+  public static final CardSet DECK = new CardSet((1L << Card.DECK_SIZE) - 1);
+
+  private final long mask;
+
+  private CardSet(long mask) {
+    this.mask = mask;
+  }
+
+  public static CardSet ofMask(long mask) {
+    if ((mask & ~DECK.mask) != 0) {
+      throw new IllegalArgumentException("Invalid card mask: " + Long.toHexString(mask));
+    }
+    return mask == 0 ? EMPTY : new CardSet(mask);
+  }
+
+  public static CardSet of(Card... cards) {
+    long mask = 0L;
+    for (Card card : cards) {
+      mask |= validMask(card);
+    }
+    return ofMask(mask);
+  }
+
+  public static CardSet of(@Nullable Collection<? extends Card> cards) {
+    if (cards == null) {
+      return EMPTY;
+    }
+    long mask = 0L;
+    for (Card card : cards) {
+      mask |= validMask(card);
+    }
+    return ofMask(mask);
+  }
+
+  private static long validMask(Card card) {
+    if (card instanceof InvalidCard) {
+      throw new IllegalArgumentException("Invalid card: " + card);
+    }
+    return card.mask();
+  }
+
+  public long mask() {
+    return mask;
+  }
+
+  public int size() {
+    return Long.bitCount(mask);
+  }
+
+  public boolean isEmpty() {
+    return mask == 0;
+  }
+
+  public boolean contains(Card card) {
+    return !(card instanceof InvalidCard) && (mask & card.mask()) != 0;
+  }
+
+  public boolean containsAll(CardSet cards) {
+    return (mask & cards.mask) == cards.mask;
+  }
+
+  public boolean intersects(CardSet cards) {
+    return (mask & cards.mask) != 0;
+  }
+
+  public CardSet union(CardSet cards) {
+    return ofMask(mask | cards.mask);
+  }
+
+  public CardSet with(Card card) {
+    return ofMask(mask | validMask(card));
+  }
+
+  public CardSet minus(CardSet cards) {
+    return ofMask(mask & ~cards.mask);
+  }
+
+  /** Iterates cards in {@link Card#index()} order. */
+  @Override
+  public Iterator<Card> iterator() {
+    return new Iterator<>() {
+      private long remaining = mask;
+
+      @Override
+      public boolean hasNext() {
+        return remaining != 0;
+      }
+
+      @Override
+      public Card next() {
+        if (remaining == 0) {
+          throw new NoSuchElementException();
+        }
+        int index = Long.numberOfTrailingZeros(remaining);
+        remaining &= remaining - 1;
+        return Card.of(index);
+      }
+    };
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    return o instanceof CardSet cardSet && mask == cardSet.mask;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(mask);
+  }
+
+  @Override
+  public String toString() {
+    var sb = new StringBuilder("[");
+    for (Card card : this) {
+      if (sb.length() > 1) {
+        sb.append(", ");
+      }
+      sb.append(card);
+    }
+    return sb.append(']').toString();
+  }
+}
@@ -39,6 +39,8 @@ public final class GameHand {
 
   @NotNull @Valid private final RoundBets roundBets;
 
+  @Nullable private CardSet boardCardSet;
+
   @JsonCreator(mode = Mode.PROPERTIES)
   public GameHand(
       @JsonProperty("applicationId") String applicationId,
@@ -68,6 +70,16 @@ public final class GameHand {
     return boardCards;
   }
 
+  /** Lazily computed since cards are validated after deserialization. */
+  public CardSet boardCardSet() {
+    CardSet result = boardCardSet;
+    if (result == null) {
+      result = CardSet.of(boardCards);
+      boardCardSet = result;
+    }
+    return result;
+  }
+
   public List<Player> getPlayers() {
     return players;
   }
@@ -13,6 +13,11 @@ public final class InvalidCard extends Card {
     this.invalidCard = value;
   }
 
+  @Override
+  public int index() {
+    throw new IllegalStateException("Invalid card has no index: " + invalidCard);
+  }
+
   @Override
   public String toString() {
     return String.valueOf(invalidCard);
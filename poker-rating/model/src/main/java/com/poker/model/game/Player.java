@@ -6,6 +6,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import javax.annotation.Nullable;
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotEmpty;
@@ -21,6 +22,8 @@ public final class Player {
   @Size(min = 2, max = 2)
   private final List<Card> cards;
 
+  @Nullable private CardSet cardSet;
+
   @JsonCreator(mode = Mode.PROPERTIES)
   public Player(
       @JsonProperty("userId") String userId,
@@ -46,4 +49,14 @@ public final class Player {
   public List<Card> getCards() {
     return cards;
   }
+
+  /** Lazily computed since cards are validated after deserialization. */
+  public CardSet cardSet() {
+    CardSet result = cardSet;
+    if (result == null) {
+      result = CardSet.of(cards);
+      cardSet = result;
+    }
+    return result;
+  }
 }
@@ -6,7 +6,6 @@ import com.poker.model.game.BetPosition;
 import com.poker.model.game.BettingRoundType;
 import com.poker.model.game.Player;
 import java.util.List;
-import java.util.Map;
 import javax.annotation.Nonnull;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -27,6 +26,5 @@ public final class GameState {
   @Nonnull
   private final List<Tuple2<BettingRoundType, List<Bet>>> roundBets; // do we need all round bets?
 
-  @Nonnull
-  private final Map<GameStateIndex, Map<String, PlayerPercentage>> gameStateIndexPlayerPercentage;
+  @Nonnull private final HandPercentageTable handPercentageTable;
 }
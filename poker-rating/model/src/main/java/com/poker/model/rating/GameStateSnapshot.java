@@ -0,0 +1,23 @@
+package com.poker.model.rating;
+
+import java.util.List;
+import javax.annotation.Nonnull;
+
+/**
+ * Immutable player percentages of a game state, taken once by hand and referenced by all the
+ * decisions of the state.
+ *
+ * @param gameStateIndex game state of the percentages
+ * @param playerPercentagesByWinDesc players of the state by win percentage descending
+ * @param playerPercentagesByShowdownDesc players of the state by showdown percentage descending
+ */
+public record GameStateSnapshot(
+    @Nonnull GameStateIndex gameStateIndex,
+    @Nonnull List<PlayerPercentage> playerPercentagesByWinDesc,
+    @Nonnull List<PlayerPercentage> playerPercentagesByShowdownDesc) {
+
+  public GameStateSnapshot {
+    playerPercentagesByWinDesc = List.copyOf(playerPercentagesByWinDesc);
+    playerPercentagesByShowdownDesc = List.copyOf(playerPercentagesByShowdownDesc);
+  }
+}
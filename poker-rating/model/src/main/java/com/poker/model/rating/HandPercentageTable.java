@@ -0,0 +1,264 @@
+package com.poker.model.rating;
+
+import com.poker.model.game.BettingRoundType;
+import com.poker.model.game.Player;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Player percentages of the game states of a hand in dense tables: the players are seated by their
+ * order in the hand and the states get a slot by betting round and turn. The percentages of a state
+ * are read from the game state percentages on the first read of the state, then kept in primitive
+ * arrays by slot and seat along with the snapshot of the state shared by its decisions.
+ */
+public final class HandPercentageTable {
+
+  public static final int MAX_SEATS = 10;
+  public static final int NO_RANK = -1;
+
+  private static final BettingRoundType[] ROUNDS = BettingRoundType.values();
+
+  @Nonnull
+  private final Map<GameStateIndex, Map<String, PlayerPercentage>> gameStateIndexPlayerPercentage;
+
+  private final Map<String, Integer> seats;
+  private final int[] roundLastTurns;
+  private final int[] roundSlotOffsets;
+  private final GameStateIndex[] slotIndexes;
+
+  // by slot * MAX_SEATS + seat, written once before the slot state is published
+  private final PlayerPercentage[] playerPercentages;
+  private final double[] winPercentages;
+  private final int[] ranks;
+  private final AtomicReferenceArray<SlotState> slotStates;
+
+  private record SlotState(
+      int players,
+      double maxWinPercentage,
+      int maxRank,
+      boolean allRanked,
+      GameStateSnapshot snapshot) {}
+
+  /**
+   * @param players players of the hand, seated in their order
+   * @param gameStateIndexPlayerPercentage player percentages by game state, read once by state
+   */
+  public HandPercentageTable(
+      @Nonnull List<Player> players,
+      @Nonnull Map<GameStateIndex, Map<String, PlayerPercentage>> gameStateIndexPlayerPercentage) {
+    if (players.size() > MAX_SEATS) {
+      throw new IllegalArgumentException(
+          "Hand players over " + MAX_SEATS + " seats: " + players.size());
+    }
+    this.gameStateIndexPlayerPercentage = gameStateIndexPlayerPercentage;
+    this.seats = new HashMap<>();
+    for (int seat = 0; seat < players.size(); seat++) {
+      seats.put(players.get(seat).getUserId(), seat);
+    }
+
+    this.roundLastTurns = new int[ROUNDS.length];
+    Arrays.fill(roundLastTurns, -1);
+    // the keys of the states are known without reading their percentages
+    for (GameStateIndex gameStateIndex : gameStateIndexPlayerPercentage.keySet()) {
+      int round = gameStateIndex.bettingRound().ordinal();
+      roundLastTurns[round] = Math.max(roundLastTurns[round], gameStateIndex.playerTurnIndex());
+    }
+    this.roundSlotOffsets = new int[ROUNDS.length + 1];
+    for (int round = 0; round < ROUNDS.length; round++) {
+      roundSlotOffsets[round + 1] = roundSlotOffsets[round] + roundLastTurns[round] + 1;
+    }
+    int slots = roundSlotOffsets[ROUNDS.length];
+    this.slotIndexes = new GameStateIndex[slots];
+    for (GameStateIndex gameStateIndex : gameStateIndexPlayerPercentage.keySet()) {
+      slotIndexes[rawSlot(gameStateIndex)] = gameStateIndex;
+    }
+
+    this.playerPercentages = new PlayerPercentage[slots * MAX_SEATS];
+    this.winPercentages = new double[slots * MAX_SEATS];
+    this.ranks = new int[slots * MAX_SEATS];
+    this.slotStates = new AtomicReferenceArray<>(slots);
+  }
+
+  private int rawSlot(GameStateIndex gameStateIndex) {
+    return roundSlotOffsets[gameStateIndex.bettingRound().ordinal()]
+        + gameStateIndex.playerTurnIndex();
+  }
+
+  private int slot(GameStateIndex gameStateIndex) {
+    int turn = gameStateIndex.playerTurnIndex();
+    if (turn < 0 || turn > roundLastTurns[gameStateIndex.bettingRound().ordinal()]) {
+      return -1;
+    }
+    int slot = rawSlot(gameStateIndex);
+    return slotIndexes[slot] != null ? slot : -1;
+  }
+
+  private int seat(String userId) {
+    return seats.getOrDefault(userId, -1);
+  }
+
+  private int requiredSlot(GameStateIndex gameStateIndex) {
+    int slot = slot(gameStateIndex);
+    if (slot < 0) {
+      throw new IllegalArgumentException(
+          "Missing player percentages of game state: " + gameStateIndex);
+    }
+    return slot;
+  }
+
+  private SlotState slotState(int slot) {
+    SlotState slotState = slotStates.get(slot);
+    if (slotState != null) {
+      return slotState;
+    }
+    // read outside the lock, the percentages may be calculated on read
+    GameStateIndex gameStateIndex = slotIndexes[slot];
+    Map<String, PlayerPercentage> statePercentages =
+        gameStateIndexPlayerPercentage.get(gameStateIndex);
+    if (statePercentages == null) {
+      throw new IllegalArgumentException(
+          "Missing player percentages of game state: " + gameStateIndex);
+    }
+    synchronized (this) {
+      slotState = slotStates.get(slot);
+      if (slotState == null) {
+        slotState = fill(slot, statePercentages);
+        slotStates.set(slot, slotState);
+      }
+      return slotState;
+    }
+  }
+
+  private SlotState fill(int slot, Map<String, PlayerPercentage> statePercentages) {
+    double maxWinPercentage = Double.NEGATIVE_INFINITY;
+    int maxRank = NO_RANK;
+    boolean allRanked = true;
+    for (PlayerPercentage playerPercentage : statePercentages.values()) {
+      int seat = seat(playerPercentage.getUserId());
+      if (seat < 0) {
+        throw new IllegalArgumentException(
+            "Player percentage of a player not in the hand: " + playerPercentage.getUserId());
+      }
+      int offset = slot * MAX_SEATS + seat;
+      playerPercentages[offset] = playerPercentage;
+      winPercentages[offset] = playerPercentage.getWinPercentage();
+      Integer rank = playerPercentage.getRank();
+      ranks[offset] = rank != null ? rank : NO_RANK;
+      maxWinPercentage = Math.max(maxWinPercentage, playerPercentage.getWinPercentage());
+      if (rank != null) {
+        maxRank = Math.max(maxRank, rank);
+      } else {
+        allRanked = false;
+      }
+    }
+    // stable sorts, equal players stay in the order of the state percentages
+    return new SlotState(
+        statePercentages.size(),
+        maxWinPercentage,
+        maxRank,
+        allRanked,
+        new GameStateSnapshot(
+            slotIndexes[slot],
+            statePercentages.values().stream()
+                .sorted(Comparator.comparingDouble(PlayerPercentage::getWinPercentage).reversed())
+                .toList(),
+            statePercentages.values().stream()
+                .sorted(
+                    Comparator.comparingDouble(PlayerPercentage::getShowdownPercentage).reversed())
+                .toList()));
+  }
+
+  private int offset(GameStateIndex gameStateIndex, String userId) {
+    int slot = requiredSlot(gameStateIndex);
+    slotState(slot);
+    int seat = seat(userId);
+    return seat < 0 ? -1 : slot * MAX_SEATS + seat;
+  }
+
+  private int requiredOffset(GameStateIndex gameStateIndex, String userId) {
+    int offset = offset(gameStateIndex, userId);
+    if (offset < 0 || playerPercentages[offset] == null) {
+      throw new IllegalArgumentException(
+          "Missing player percentage of game state: " + gameStateIndex + " and user: " + userId);
+    }
+    return offset;
+  }
+
+  /** Whether the hand has percentages for the game state, without reading them. */
+  public boolean contains(@Nonnull GameStateIndex gameStateIndex) {
+    return slot(gameStateIndex) >= 0;
+  }
+
+  /** @return last turn of the betting round with percentages, -1 when none has */
+  public int lastTurn(@Nonnull BettingRoundType bettingRound) {
+    return roundLastTurns[bettingRound.ordinal()];
+  }
+
+  public int playerCount(@Nonnull GameStateIndex gameStateIndex) {
+    return slotState(requiredSlot(gameStateIndex)).players();
+  }
+
+  public boolean isPlaying(@Nonnull GameStateIndex gameStateIndex, @Nonnull String userId) {
+    int offset = offset(gameStateIndex, userId);
+    return offset >= 0 && playerPercentages[offset] != null;
+  }
+
+  @Nullable
+  public PlayerPercentage playerPercentage(
+      @Nonnull GameStateIndex gameStateIndex, @Nonnull String userId) {
+    int offset = offset(gameStateIndex, userId);
+    return offset < 0 ? null : playerPercentages[offset];
+  }
+
+  public double winPercentage(@Nonnull GameStateIndex gameStateIndex, @Nonnull String userId) {
+    return winPercentages[requiredOffset(gameStateIndex, userId)];
+  }
+
+  public double maxWinPercentage(@Nonnull GameStateIndex gameStateIndex) {
+    return slotState(requiredSlot(gameStateIndex)).maxWinPercentage();
+  }
+
+  /** @return hand rank of the player, {@value #NO_RANK} when not ranked */
+  public int rank(@Nonnull GameStateIndex gameStateIndex, @Nonnull String userId) {
+    return ranks[requiredOffset(gameStateIndex, userId)];
+  }
+
+  /**
+   * @return best hand rank of the players, who must all be ranked unless alone, {@value #NO_RANK}
+   *     when the player alone is not ranked
+   */
+  public int maxRank(@Nonnull GameStateIndex gameStateIndex) {
+    SlotState slotState = slotState(requiredSlot(gameStateIndex));
+    if (slotState.players() == 0) {
+      throw new IllegalStateException("No player percentage on: " + gameStateIndex);
+    }
+    if (!slotState.allRanked() && slotState.players() > 1) {
+      throw new IllegalStateException("Player ranks are missing on: " + gameStateIndex);
+    }
+    return slotState.maxRank();
+  }
+
+  /** @return snapshot of the state, the same one on every read */
+  @Nonnull
+  public GameStateSnapshot snapshot(@Nonnull GameStateIndex gameStateIndex) {
+    return slotState(requiredSlot(gameStateIndex)).snapshot();
+  }
+
+  /** @return players of the state by win percentage descending */
+  @Nonnull
+  public List<PlayerPercentage> orderByWinDesc(@Nonnull GameStateIndex gameStateIndex) {
+    return snapshot(gameStateIndex).playerPercentagesByWinDesc();
+  }
+
+  /** @return players of the state by showdown percentage descending */
+  @Nonnull
+  public List<PlayerPercentage> orderByShowdownDesc(@Nonnull GameStateIndex gameStateIndex) {
+    return snapshot(gameStateIndex).playerPercentagesByShowdownDesc();
+  }
+}
@@ -0,0 +1,52 @@
+package com.poker.model.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CardSetTest {
+
+  @Test
+  void test_card_index_is_stable() {
+    for (int i = 0; i < Card.DECK_SIZE; i++) {
+      assertEquals(i, Card.of(i).index());
+    }
+    assertEquals(0, Card.of("2c").index());
+    assertEquals(51, Card.of("As").index());
+    assertSame(Card.of("Td"), Card.of(CardValue.TEN, CardSuit.DIAMOND));
+    assertThrows(IllegalStateException.class, () -> Card.of("Xx").index());
+  }
+
+  @Test
+  void test_union_contains_and_iteration() {
+    CardSet board = CardSet.of(Card.of("Ts"), Card.of("4s"), Card.of("Qd"));
+    CardSet player = CardSet.of(List.of(Card.of("As"), Card.of("Ks")));
+    CardSet cards = board.union(player);
+
+    assertEquals(5, cards.size());
+    assertTrue(cards.contains(Card.of("As")));
+    assertFalse(cards.contains(Card.of("Ah")));
+    assertTrue(cards.containsAll(board));
+    assertFalse(board.intersects(player));
+    assertEquals(board, cards.minus(player));
+
+    List<Card> iterated = new ArrayList<>();
+    cards.forEach(iterated::add);
+    assertEquals(
+        List.of(Card.of("Qd"), Card.of("4s"), Card.of("Ts"), Card.of("Ks"), Card.of("As")),
+        iterated);
+    assertEquals(52, CardSet.DECK.size());
+  }
+
+  @Test
+  void test_invalid_card() {
+    assertThrows(IllegalArgumentException.class, () -> CardSet.of(Card.of("Xx")));
+    assertFalse(CardSet.DECK.contains(Card.of("Xx")));
+  }
+}
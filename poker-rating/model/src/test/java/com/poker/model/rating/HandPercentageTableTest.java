@@ -0,0 +1,101 @@
+package com.poker.model.rating;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.poker.model.game.BettingRoundType;
+import com.poker.model.game.Card;
+import com.poker.model.game.Player;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class HandPercentageTableTest {
+
+  private static final GameStateIndex FLOP_START = new GameStateIndex(BettingRoundType.FLOP, 0);
+  private static final GameStateIndex FLOP_FOLD = new GameStateIndex(BettingRoundType.FLOP, 2);
+  private static final GameStateIndex RIVER_START = new GameStateIndex(BettingRoundType.RIVER, 0);
+  private static final List<Player> PLAYERS =
+      List.of(
+          new Player("u1", List.of(Card.of("Ks"), Card.of("Td"))),
+          new Player("u2", List.of(Card.of("Jc"), Card.of("Th"))),
+          new Player("u3", List.of(Card.of("2c"), Card.of("2h"))));
+
+  private final List<GameStateIndex> reads = new ArrayList<>();
+  private final Map<GameStateIndex, Map<String, PlayerPercentage>> percentages =
+      new HashMap<>() {
+        @Override
+        public Map<String, PlayerPercentage> get(Object key) {
+          reads.add((GameStateIndex) key);
+          return super.get(key);
+        }
+      };
+
+  private HandPercentageTable handPercentageTable() {
+    percentages.put(
+        FLOP_START,
+        Map.of(
+            "u1", new PlayerPercentage("u1", 40, 50),
+            "u2", new PlayerPercentage("u2", 40, 30),
+            "u3", new PlayerPercentage("u3", 20, 60)));
+    percentages.put(
+        FLOP_FOLD,
+        Map.of(
+            "u1", new PlayerPercentage("u1", 75, 75),
+            "u2", new PlayerPercentage("u2", 25, 25)));
+    percentages.put(
+        RIVER_START,
+        Map.of(
+            "u1", new PlayerPercentage("u1", 0, 0, 2, "Pair"),
+            "u2", new PlayerPercentage("u2", 100, 100, 5, "Straight")));
+    return new HandPercentageTable(PLAYERS, percentages);
+  }
+
+  @Test
+  void test_state_read_once_on_first_read() {
+    var handPercentageTable = handPercentageTable();
+    assertTrue(handPercentageTable.contains(FLOP_FOLD));
+    assertFalse(handPercentageTable.contains(new GameStateIndex(BettingRoundType.FLOP, 1)));
+    assertFalse(handPercentageTable.contains(new GameStateIndex(BettingRoundType.TURN, 0)));
+    assertEquals(2, handPercentageTable.lastTurn(BettingRoundType.FLOP));
+    assertEquals(-1, handPercentageTable.lastTurn(BettingRoundType.TURN));
+    assertTrue(reads.isEmpty());
+
+    assertEquals(75, handPercentageTable.winPercentage(FLOP_FOLD, "u1"));
+    assertEquals(75, handPercentageTable.maxWinPercentage(FLOP_FOLD));
+    assertEquals(2, handPercentageTable.playerCount(FLOP_FOLD));
+    assertFalse(handPercentageTable.isPlaying(FLOP_FOLD, "u3"));
+    assertNull(handPercentageTable.playerPercentage(FLOP_FOLD, "u3"));
+    assertEquals(List.of(FLOP_FOLD), reads);
+    var turnStart = new GameStateIndex(BettingRoundType.TURN, 0);
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> handPercentageTable.playerPercentage(turnStart, "u1"));
+  }
+
+  @Test
+  void test_orderings_and_ranks() {
+    var handPercentageTable = handPercentageTable();
+    assertEquals(
+        List.of("u3", "u1", "u2"),
+        handPercentageTable.orderByShowdownDesc(FLOP_START).stream()
+            .map(PlayerPercentage::getUserId)
+            .toList());
+    assertEquals(20, handPercentageTable.orderByWinDesc(FLOP_START).get(2).getWinPercentage());
+    // the decisions of a state reference the same snapshot
+    assertSame(handPercentageTable.snapshot(FLOP_START), handPercentageTable.snapshot(FLOP_START));
+    assertSame(
+        handPercentageTable.snapshot(FLOP_START).playerPercentagesByWinDesc(),
+        handPercentageTable.orderByWinDesc(FLOP_START));
+
+    assertEquals(5, handPercentageTable.maxRank(RIVER_START));
+    assertEquals(2, handPercentageTable.rank(RIVER_START, "u1"));
+    assertThrows(IllegalStateException.class, () -> handPercentageTable.maxRank(FLOP_FOLD));
+  }
+}
@@ -7,8 +7,10 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.retry.annotation.EnableRetry;
 
 @Configuration(proxyBeanMethods = false)
+@EnableRetry
 public class PlayerRatingServiceConfig {
 
   @Bean
@@ -1,21 +1,25 @@
 plugins {
     id("spring.boot.convention")
     id("helm.convention")
+    id("jmh.convention")
 }
 
 version = "1.0.1"
 
+springBoot {
+    mainClass.set("com.poker.rating.Application")
+}
+
 dependencies {
     implementation(project(":poker-rating:model"))
     implementation(project(":poker-rating:util"))
+    implementation(project(":poker-rating:evaluator"))
     implementation(project(":poker-rating:player-rating-service"))
 
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-validation")
     implementation("org.springdoc:springdoc-openapi-ui")
     implementation("org.springframework.boot:spring-boot-starter-actuator")
-    implementation("org.springframework.retry:spring-retry")
-    implementation("org.springframework.boot:spring-boot-starter-aop")
     implementation("io.micrometer:micrometer-registry-prometheus")
     implementation("org.zalando:problem-spring-web-starter")
     implementation("org.springframework.boot:spring-boot-starter-data-mongodb")
@@ -29,3 +33,38 @@ dependencies {
     testImplementation("org.testcontainers:junit-jupiter")
     testImplementation("org.testcontainers:mongodb")
 }
+
+jmh {
+    // benchmarks rate the test game hands
+    includeTests.set(true)
+}
+
+val flopShowdownTableDir = layout.buildDirectory.dir("generated/resources/flop-showdown")
+
+// exact enumeration of every canonical flop, about 10 minutes on one core, so generated at build
+// time rather than committed, and generated again only when the main classes change
+val generateFlopShowdownTable by tasks.registering(JavaExec::class) {
+    description = "Generates the flop showdown table resource."
+    // the main resources output is not on it, they depend on this task
+    classpath = files(sourceSets.main.get().output.classesDirs, configurations.runtimeClasspath)
+    mainClass.set("com.poker.rating.client.calc.local.FlopShowdownTableGenerator")
+    val output = flopShowdownTableDir.map { it.file("flop_showdown.bin") }
+    outputs.file(output)
+    argumentProviders.add(CommandLineArgumentProvider { listOf(output.get().asFile.path) })
+}
+
+sourceSets.main {
+    resources.srcDir(flopShowdownTableDir)
+}
+
+tasks.processResources {
+    dependsOn(generateFlopShowdownTable)
+}
+
+// exact enumeration of every heads-up matchup takes hours, so the generated table is committed
+tasks.register<JavaExec>("generatePreFlopHeadsUpTable") {
+    description = "Generates the heads-up pre-flop win table resource."
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("com.poker.rating.client.calc.local.HeadsUpPreFlopTableGenerator")
+    args(file("src/main/resources/preflop_headsup.bin"))
+}
@@ -0,0 +1,98 @@
+package com.poker.rating;
+
+import static java.util.Objects.requireNonNull;
+
+import com.poker.model.game.GameHand;
+import com.poker.model.rating.RatingRuleExecResult;
+import com.poker.util.json.JacksonUtils;
+import com.poker.util.task.TaskExecutor;
+import com.poker.util.task.TaskExecutorFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Hands rated per second by rule execution, alone, under a load of concurrent hands and rated
+ * {@value #HANDS_TOGETHER} together, run with {@code ./gradlew :poker-rating:rule-engine:jmh}. The
+ * percentages are random to time the rules only.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RatingRuleEngineBenchmark {
+
+  private static final int HANDS_TOGETHER = 16;
+
+  @Param({"SEQUENTIAL", "PARALLEL_BETS", "PARALLEL_HANDS"})
+  public RuleExecution execution;
+
+  private GameHand gameHand;
+  private List<GameHand> gameHands;
+  private TaskExecutor handTaskExecutor;
+  private TaskExecutor betTaskExecutor;
+  private RatingRuleEngine ratingRuleEngine;
+
+  @Setup
+  public void setup() throws IOException {
+    try (InputStream json = getClass().getResourceAsStream("/games/sample-1/game-hand.json")) {
+      gameHand = JacksonUtils.fromJson(requireNonNull(json), GameHand.class);
+    }
+    gameHands = Collections.nCopies(HANDS_TOGETHER, gameHand);
+    int parallelism = Runtime.getRuntime().availableProcessors();
+    var taskExecutorFactory = new TaskExecutorFactory();
+    handTaskExecutor =
+        taskExecutorFactory.create(execution == RuleExecution.PARALLEL_HANDS ? parallelism : 1);
+    betTaskExecutor =
+        taskExecutorFactory.create(execution == RuleExecution.PARALLEL_BETS ? parallelism : 1);
+    ratingRuleEngine =
+        new RatingRuleEngine(
+            new RatingRuleRegister(),
+            new RandomPokerPercentageCalculator(),
+            handTaskExecutor,
+            betTaskExecutor);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    handTaskExecutor.close();
+    betTaskExecutor.close();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public RatingRuleExecResult singleHand() {
+    return ratingRuleEngine.executeRules(gameHand);
+  }
+
+  @Benchmark
+  @Threads(16)
+  public RatingRuleExecResult concurrentHands() {
+    return ratingRuleEngine.executeRules(gameHand);
+  }
+
+  @Benchmark
+  @Threads(1)
+  @OperationsPerInvocation(HANDS_TOGETHER)
+  public List<RatingRuleExecResult> handsTogether() {
+    return ratingRuleEngine.executeRules(gameHands);
+  }
+}
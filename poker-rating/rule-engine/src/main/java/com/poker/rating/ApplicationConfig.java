@@ -1,8 +1,18 @@
 package com.poker.rating;
 
+import static java.util.Objects.requireNonNullElse;
+
+import com.poker.rating.client.calc.CachingPokerHoldemCalculatorClient;
+import com.poker.rating.client.calc.CoalescingPokerHoldemCalculatorClient;
 import com.poker.rating.client.calc.HttpJdkPokerHoldemCalculatorClient;
+import com.poker.rating.client.calc.LocalPokerHoldemCalculatorClient;
+import com.poker.rating.client.calc.LocalPokerHoldemCalculatorConfig;
+import com.poker.rating.client.calc.PokerHoldemCalculatorCacheConfig;
 import com.poker.rating.client.calc.PokerHoldemCalculatorClient;
 import com.poker.rating.client.calc.PokerHoldemCalculatorClientConfig;
+import com.poker.rating.client.calc.PokerHoldemCalculatorLimiterConfig;
+import com.poker.rating.client.calc.PokerHoldemCalculatorType;
+import com.poker.rating.client.calc.PreFlopTablePokerHoldemCalculatorClient;
 import com.poker.rating.rule.extra.BetExtraDecisionSupplier;
 import com.poker.rating.rule.extra.CallExtraDecisionSupplier;
 import com.poker.rating.rule.extra.CrackedExtraDecisionSupplier;
@@ -13,26 +23,40 @@ import com.poker.rating.rule.point.CallPointSupplier;
 import com.poker.rating.rule.point.CrackedPointSupplier;
 import com.poker.rating.rule.point.FoldPointSupplier;
 import com.poker.rating.rule.point.RiverPointSupplier;
+import com.poker.rating.service.BoardTableShowdownPercentageCalc;
+import com.poker.rating.service.ClientShowdownPercentageCalc;
 import com.poker.rating.service.DefaultPokerPercentageCalculator;
+import com.poker.rating.service.FlopTableShowdownPercentageCalc;
+import com.poker.rating.service.PercentageBackend;
 import com.poker.rating.service.PokerPercentageCalculator;
 import com.poker.rating.service.PokerPercentageCalculatorConfig;
+import com.poker.rating.service.PokerPercentageRoutingConfig;
 import com.poker.rating.service.PokerRatingCalculator;
 import com.poker.rating.service.PreFlopShowdownPercentageCalc;
+import com.poker.rating.service.RoutingPokerPercentageCalculator;
+import com.poker.rating.service.ShowdownPercentageCalc;
 import com.poker.rating.service.player.PlayerRatingService;
 import com.poker.util.task.TaskExecutor;
 import com.poker.util.task.TaskExecutorFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Map;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.context.annotation.Primary;
 
 @Configuration(proxyBeanMethods = false)
 @EnableConfigurationProperties({
   PokerHoldemCalculatorClientConfig.class,
-  PokerPercentageCalculatorConfig.class
+  LocalPokerHoldemCalculatorConfig.class,
+  PokerHoldemCalculatorCacheConfig.class,
+  PokerHoldemCalculatorLimiterConfig.class,
+  PokerPercentageCalculatorConfig.class,
+  PokerPercentageRoutingConfig.class,
+  RatingRuleEngineConfig.class
 })
-@EnableRetry
 public class ApplicationConfig {
 
   @Bean
@@ -115,9 +139,43 @@ public class ApplicationConfig {
   }
 
   @Bean
+  @Qualifier("livePokerHoldemCalculatorClient")
+  public PokerHoldemCalculatorClient livePokerHoldemCalculatorClient(
+      PokerHoldemCalculatorClientConfig config,
+      LocalPokerHoldemCalculatorConfig localConfig,
+      PokerHoldemCalculatorLimiterConfig limiterConfig,
+      MeterRegistry meterRegistry) {
+    var type = requireNonNullElse(config.type(), PokerHoldemCalculatorType.HTTP);
+    return switch (type) {
+      case HTTP -> new HttpJdkPokerHoldemCalculatorClient(config, limiterConfig, meterRegistry);
+      case LOCAL -> new LocalPokerHoldemCalculatorClient(localConfig);
+    };
+  }
+
+  /** Live client behind the caches, a bean of its own for the caching client to be closed. */
+  @Bean
+  @Qualifier("cachedPokerHoldemCalculatorClient")
+  public PokerHoldemCalculatorClient cachedPokerHoldemCalculatorClient(
+      @Qualifier("livePokerHoldemCalculatorClient") PokerHoldemCalculatorClient liveClient,
+      PokerHoldemCalculatorCacheConfig cacheConfig,
+      MeterRegistry meterRegistry) {
+    PokerHoldemCalculatorClient client =
+        new CoalescingPokerHoldemCalculatorClient(liveClient, meterRegistry);
+    if (requireNonNullElse(cacheConfig.enabled(), false)) {
+      client = new CachingPokerHoldemCalculatorClient(client, cacheConfig, meterRegistry);
+    }
+    return client;
+  }
+
+  @Bean
+  @Primary
   public PokerHoldemCalculatorClient pokerHoldemCalculatorClient(
-      PokerHoldemCalculatorClientConfig config) {
-    return new HttpJdkPokerHoldemCalculatorClient(config);
+      @Qualifier("cachedPokerHoldemCalculatorClient") PokerHoldemCalculatorClient cachedClient,
+      PokerPercentageCalculatorConfig percentageCalcConfig) {
+    if (requireNonNullElse(percentageCalcConfig.preFlopWinTable(), false)) {
+      return new PreFlopTablePokerHoldemCalculatorClient(cachedClient);
+    }
+    return cachedClient;
   }
 
   @Bean
@@ -138,19 +196,104 @@ public class ApplicationConfig {
     return taskExecutorFactory.create(percentageCalcConfig.showdownCalcParallelism());
   }
 
+  @Bean
+  @Qualifier("postFlopShowdownPercentageCalc")
+  public ShowdownPercentageCalc postFlopShowdownPercentageCalc(
+      PokerHoldemCalculatorClientConfig config,
+      PokerPercentageCalculatorConfig percentageCalcConfig,
+      PokerHoldemCalculatorClient pokerCalculatorClient,
+      @Qualifier("showdownTaskExecutor") TaskExecutor showdownTaskExecutor) {
+    var type = requireNonNullElse(config.type(), PokerHoldemCalculatorType.HTTP);
+    ShowdownPercentageCalc showdownPercentageCalc =
+        switch (type) {
+          case HTTP -> new ClientShowdownPercentageCalc(pokerCalculatorClient);
+          case LOCAL -> new BoardTableShowdownPercentageCalc(showdownTaskExecutor);
+        };
+    if (requireNonNullElse(percentageCalcConfig.flopShowdownTable(), false)) {
+      return new FlopTableShowdownPercentageCalc(showdownPercentageCalc);
+    }
+    return showdownPercentageCalc;
+  }
+
   @Bean
   public PokerPercentageCalculator pokerPercentageCalculator(
       PokerHoldemCalculatorClient pokerCalculatorClient,
       PreFlopShowdownPercentageCalc preFlopShowdownPercentageCalc,
-      @Qualifier("showdownTaskExecutor") TaskExecutor showdownTaskExecutor) {
-    return new DefaultPokerPercentageCalculator(
-        pokerCalculatorClient, preFlopShowdownPercentageCalc, showdownTaskExecutor);
+      @Qualifier("postFlopShowdownPercentageCalc")
+          ShowdownPercentageCalc postFlopShowdownPercentageCalc,
+      PokerPercentageRoutingConfig routingConfig,
+      PokerPercentageCalculatorConfig percentageCalcConfig,
+      LocalPokerHoldemCalculatorConfig localConfig,
+      @Qualifier("showdownTaskExecutor") TaskExecutor showdownTaskExecutor,
+      MeterRegistry meterRegistry) {
+    var remoteCalculator =
+        new DefaultPokerPercentageCalculator(
+            pokerCalculatorClient, preFlopShowdownPercentageCalc, postFlopShowdownPercentageCalc);
+    if (!requireNonNullElse(routingConfig.enabled(), false)) {
+      return remoteCalculator;
+    }
+
+    ShowdownPercentageCalc localShowdownPercentageCalc =
+        new BoardTableShowdownPercentageCalc(showdownTaskExecutor);
+    if (requireNonNullElse(percentageCalcConfig.flopShowdownTable(), false)) {
+      localShowdownPercentageCalc =
+          new FlopTableShowdownPercentageCalc(localShowdownPercentageCalc);
+    }
+    // out of the table, the percentages are calculated by the configured client
+    PokerHoldemCalculatorClient tableClient =
+        requireNonNullElse(percentageCalcConfig.preFlopWinTable(), false)
+            ? pokerCalculatorClient
+            : new PreFlopTablePokerHoldemCalculatorClient(pokerCalculatorClient);
+    Map<PercentageBackend, PokerPercentageCalculator> backends =
+        Map.of(
+            PercentageBackend.TABLE,
+            new DefaultPokerPercentageCalculator(
+                tableClient, preFlopShowdownPercentageCalc, localShowdownPercentageCalc),
+            PercentageBackend.LOCAL,
+            new DefaultPokerPercentageCalculator(
+                new LocalPokerHoldemCalculatorClient(localConfig),
+                preFlopShowdownPercentageCalc,
+                localShowdownPercentageCalc),
+            PercentageBackend.REMOTE,
+            remoteCalculator);
+    return new RoutingPokerPercentageCalculator(
+        backends, requireNonNullElse(routingConfig.routes(), List.of()), meterRegistry);
+  }
+
+  private static int ruleTaskParallelism(
+      RatingRuleEngineConfig ruleEngineConfig, RuleExecution parallelExecution) {
+    var execution = requireNonNullElse(ruleEngineConfig.execution(), RuleExecution.SEQUENTIAL);
+    if (execution != parallelExecution) {
+      return 1;
+    }
+    return requireNonNullElse(
+        ruleEngineConfig.parallelism(), Runtime.getRuntime().availableProcessors());
+  }
+
+  @Bean
+  @Qualifier("ruleHandTaskExecutor")
+  public TaskExecutor ruleHandTaskExecutor(
+      TaskExecutorFactory taskExecutorFactory, RatingRuleEngineConfig ruleEngineConfig) {
+    return taskExecutorFactory.create(
+        ruleTaskParallelism(ruleEngineConfig, RuleExecution.PARALLEL_HANDS));
+  }
+
+  @Bean
+  @Qualifier("ruleBetTaskExecutor")
+  public TaskExecutor ruleBetTaskExecutor(
+      TaskExecutorFactory taskExecutorFactory, RatingRuleEngineConfig ruleEngineConfig) {
+    return taskExecutorFactory.create(
+        ruleTaskParallelism(ruleEngineConfig, RuleExecution.PARALLEL_BETS));
   }
 
   @Bean
   public RatingRuleEngine ratingRuleEngine(
-      RatingRuleRegister ratingRuleRegister, PokerPercentageCalculator pokerPercentageCalculator) {
-    return new RatingRuleEngine(ratingRuleRegister, pokerPercentageCalculator);
+      RatingRuleRegister ratingRuleRegister,
+      PokerPercentageCalculator pokerPercentageCalculator,
+      @Qualifier("ruleHandTaskExecutor") TaskExecutor ruleHandTaskExecutor,
+      @Qualifier("ruleBetTaskExecutor") TaskExecutor ruleBetTaskExecutor) {
+    return new RatingRuleEngine(
+        ratingRuleRegister, pokerPercentageCalculator, ruleHandTaskExecutor, ruleBetTaskExecutor);
   }
 
   @Bean
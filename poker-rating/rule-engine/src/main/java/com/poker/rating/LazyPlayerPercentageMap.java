@@ -0,0 +1,189 @@
+package com.poker.rating;
+
+import com.poker.model.rating.GameStateIndex;
+import com.poker.model.rating.PlayerPercentage;
+import com.poker.rating.service.PercentageCalculatorContext;
+import com.poker.rating.service.PokerPercentageCalculator;
+import com.poker.util.task.FutureUtils;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Player percentages by game state, calculated on the first read of a state and kept for the hand.
+ * The states sharing the percentages of a previous state read the ones of that state. A fold state
+ * read once its round start is calculated reuses the showdown percentages of the round start, which
+ * only depend on the board and player cards. The entries only calculate their percentages once
+ * their value is read, filtering them by key reads none. A failed calculation is not kept, the next
+ * read of the state calculates it again.
+ */
+final class LazyPlayerPercentageMap
+    extends AbstractMap<GameStateIndex, Map<String, PlayerPercentage>> {
+
+  @Nonnull private final PokerPercentageCalculator pokerPercentageCalculator;
+  @Nonnull private final Map<GameStateIndex, PercentageCalculatorContext> calcContexts;
+  @Nonnull private final Map<GameStateIndex, GameStateIndex> sharedIndexes;
+  @Nonnull private final Map<GameStateIndex, GameStateIndex> roundStartIndexes;
+
+  private final Map<GameStateIndex, CompletableFuture<Map<String, PlayerPercentage>>>
+      calculations = new ConcurrentHashMap<>();
+
+  /**
+   * @param calcContexts contexts of the calculated states
+   * @param sharedIndexes calculated state of each state sharing its percentages
+   * @param roundStartIndexes round start state of each calculated fold state
+   */
+  LazyPlayerPercentageMap(
+      @Nonnull PokerPercentageCalculator pokerPercentageCalculator,
+      @Nonnull Map<GameStateIndex, PercentageCalculatorContext> calcContexts,
+      @Nonnull Map<GameStateIndex, GameStateIndex> sharedIndexes,
+      @Nonnull Map<GameStateIndex, GameStateIndex> roundStartIndexes) {
+    this.pokerPercentageCalculator = pokerPercentageCalculator;
+    this.calcContexts = Map.copyOf(calcContexts);
+    this.sharedIndexes = Map.copyOf(sharedIndexes);
+    this.roundStartIndexes = Map.copyOf(roundStartIndexes);
+    if (!this.calcContexts.keySet().containsAll(this.sharedIndexes.values())) {
+      throw new IllegalArgumentException("Shared game states not calculated: " + sharedIndexes);
+    }
+    if (!this.calcContexts.keySet().containsAll(this.roundStartIndexes.values())) {
+      throw new IllegalArgumentException(
+          "Round start game states not calculated: " + roundStartIndexes);
+    }
+  }
+
+  @Nullable
+  private GameStateIndex calculatedIndex(@Nullable Object key) {
+    if (!(key instanceof GameStateIndex gameStateIndex)) {
+      return null;
+    }
+    GameStateIndex calculatedIndex = sharedIndexes.getOrDefault(gameStateIndex, gameStateIndex);
+    return calcContexts.containsKey(calculatedIndex) ? calculatedIndex : null;
+  }
+
+  @Nullable
+  @Override
+  public Map<String, PlayerPercentage> get(Object key) {
+    GameStateIndex calculatedIndex = calculatedIndex(key);
+    if (calculatedIndex == null) {
+      return null;
+    }
+    return FutureUtils.join(calculation(calculatedIndex));
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return calculatedIndex(key) != null;
+  }
+
+  @Override
+  public int size() {
+    return calcContexts.size() + sharedIndexes.size();
+  }
+
+  @Override
+  public Set<Entry<GameStateIndex, Map<String, PlayerPercentage>>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<GameStateIndex, Map<String, PlayerPercentage>>> iterator() {
+        return Stream.concat(calcContexts.keySet().stream(), sharedIndexes.keySet().stream())
+            .<Entry<GameStateIndex, Map<String, PlayerPercentage>>>map(LazyEntry::new)
+            .iterator();
+      }
+
+      @Override
+      public int size() {
+        return LazyPlayerPercentageMap.this.size();
+      }
+    };
+  }
+
+  @Nonnull
+  private CompletableFuture<Map<String, PlayerPercentage>> calculation(
+      @Nonnull GameStateIndex calculatedIndex) {
+    var calculation = new CompletableFuture<Map<String, PlayerPercentage>>();
+    // another thread reading the state calculates it
+    CompletableFuture<Map<String, PlayerPercentage>> existing =
+        calculations.putIfAbsent(calculatedIndex, calculation);
+    if (existing != null) {
+      return existing;
+    }
+    try {
+      calculation.complete(
+          pokerPercentageCalculator.calculate(calcContext(calculatedIndex)).getPlayerPercentages());
+    } catch (RuntimeException e) {
+      calculations.remove(calculatedIndex, calculation);
+      calculation.completeExceptionally(e);
+    }
+    return calculation;
+  }
+
+  /** Context of the state, with the showdown percentages of its round start once calculated. */
+  @Nonnull
+  private PercentageCalculatorContext calcContext(@Nonnull GameStateIndex calculatedIndex) {
+    PercentageCalculatorContext calcContext = calcContexts.get(calculatedIndex);
+    GameStateIndex roundStartIndex = roundStartIndexes.get(calculatedIndex);
+    CompletableFuture<Map<String, PlayerPercentage>> roundStart =
+        roundStartIndex != null ? calculations.get(roundStartIndex) : null;
+    if (roundStart == null || !roundStart.isDone() || roundStart.isCompletedExceptionally()) {
+      return calcContext;
+    }
+    return new PercentageCalculatorContext(
+        calcContext.getPlayingPlayers(),
+        calcContext.getBoardCards(),
+        calcContext.getDeadCards(),
+        roundStart.join().values().stream()
+            .collect(
+                Collectors.toUnmodifiableMap(
+                    PlayerPercentage::getUserId, PlayerPercentage::getShowdownPercentage)));
+  }
+
+  private final class LazyEntry implements Entry<GameStateIndex, Map<String, PlayerPercentage>> {
+
+    private final GameStateIndex key;
+
+    private LazyEntry(GameStateIndex key) {
+      this.key = key;
+    }
+
+    @Override
+    public GameStateIndex getKey() {
+      return key;
+    }
+
+    @Override
+    public Map<String, PlayerPercentage> getValue() {
+      return Objects.requireNonNull(get(key));
+    }
+
+    @Override
+    public Map<String, PlayerPercentage> setValue(Map<String, PlayerPercentage> value) {
+      throw new UnsupportedOperationException("Player percentages are calculated");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Entry<?, ?> entry
+          && key.equals(entry.getKey())
+          && getValue().equals(entry.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return key.hashCode() ^ getValue().hashCode();
+    }
+
+    @Override
+    public String toString() {
+      return key + "=" + getValue();
+    }
+  }
+}
@@ -13,34 +13,54 @@ import com.poker.model.game.Player;
 import com.poker.model.game.RoundBets;
 import com.poker.model.rating.GameState;
 import com.poker.model.rating.GameStateIndex;
-import com.poker.model.rating.PlayerPercentage;
+import com.poker.model.rating.HandPercentageTable;
 import com.poker.model.rating.RatingRuleExecResult;
 import com.poker.model.rating.RuleContext;
 import com.poker.model.rating.RuleDecision;
 import com.poker.rating.rule.RatingRule;
 import com.poker.rating.service.PercentageCalculatorContext;
 import com.poker.rating.service.PokerPercentageCalculator;
-import com.poker.rating.service.PokerPercentageResult;
+import com.poker.util.CollectionUtils;
+import com.poker.util.task.SequentialTaskExecutor;
+import com.poker.util.task.TaskExecutor;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 import javax.annotation.Nullable;
-import org.springframework.util.CollectionUtils;
 
 public class RatingRuleEngine {
 
   private final RatingRuleRegister ratingRuleRegister;
   private final PokerPercentageCalculator pokerPercentageCalculator;
+  private final TaskExecutor handTaskExecutor;
+  private final TaskExecutor betTaskExecutor;
 
   public RatingRuleEngine(
       RatingRuleRegister ratingRuleRegister, PokerPercentageCalculator pokerPercentageCalculator) {
+    this(
+        ratingRuleRegister,
+        pokerPercentageCalculator,
+        new SequentialTaskExecutor(),
+        new SequentialTaskExecutor());
+  }
+
+  /**
+   * @param handTaskExecutor executor of the hands rated together by {@link #executeRules(List)}
+   * @param betTaskExecutor executor of the rules of the bets of a hand
+   */
+  public RatingRuleEngine(
+      RatingRuleRegister ratingRuleRegister,
+      PokerPercentageCalculator pokerPercentageCalculator,
+      TaskExecutor handTaskExecutor,
+      TaskExecutor betTaskExecutor) {
     this.ratingRuleRegister = requireNonNull(ratingRuleRegister);
     this.pokerPercentageCalculator = requireNonNull(pokerPercentageCalculator);
+    this.handTaskExecutor = requireNonNull(handTaskExecutor);
+    this.betTaskExecutor = requireNonNull(betTaskExecutor);
   }
 
   static List<Tuple2<BettingRoundType, List<Bet>>> roundBetsToTuples(RoundBets roundBets) {
@@ -51,34 +71,31 @@ public class RatingRuleEngine {
         Tuple2.of(BettingRoundType.RIVER, roundBets.getRiver()));
   }
 
-  private static Map<String, PlayerPercentage> getRequiredPlayerPercentage(
-      Map<GameStateIndex, Map<String, PlayerPercentage>> gameStateIndexPlayerPercentage,
-      BettingRoundType bettingRound,
-      int turnIndex) {
-    return requireNonNull(
-        gameStateIndexPlayerPercentage.get(new GameStateIndex(bettingRound, turnIndex)),
-        "Missing player percentages for " + bettingRound + " on turn " + turnIndex);
-  }
-
-  private static Map<String, Double> mapUserIdToShowdownPercentage(PokerPercentageResult result) {
-    return result.getPlayerPercentages().entrySet().stream()
-        .collect(
-            Collectors.toUnmodifiableMap(
-                Entry::getKey,
-                playerPercentage -> playerPercentage.getValue().getShowdownPercentage()));
+  /**
+   * Rates the hands at the same time on the hand executor.
+   *
+   * @return results in the order of the hands
+   */
+  public List<RatingRuleExecResult> executeRules(List<GameHand> gameHands) {
+    List<Supplier<RatingRuleExecResult>> handExecutions =
+        gameHands.stream()
+            .<Supplier<RatingRuleExecResult>>map(gameHand -> () -> executeRules(gameHand))
+            .toList();
+    return handTaskExecutor.execute(handExecutions);
   }
 
+  /** Rates the hand on the caller thread, its bets on the bet executor. */
   public RatingRuleExecResult executeRules(GameHand gameHand) {
-    List<RatingRule> rules = ratingRuleRegister.getRules();
-    List<RuleDecision> rulesResults = new ArrayList<>(100);
-
     // ordered map to be used here
     List<Tuple2<BettingRoundType, List<Bet>>> roundsBets =
         roundBetsToTuples(gameHand.getRoundBets());
 
-    Map<GameStateIndex, Map<String, PlayerPercentage>> gameStateIndexPlayerPercentage =
+    LazyPlayerPercentageMap gameStateIndexPlayerPercentage =
         gameStateIndexPlayerPercentage(roundsBets, gameHand);
+    var handPercentageTable =
+        new HandPercentageTable(gameHand.getPlayers(), gameStateIndexPlayerPercentage);
 
+    List<Supplier<List<RuleDecision>>> betExecutions = new ArrayList<>(100);
     for (Tuple2<BettingRoundType, List<Bet>> roundBet : roundsBets) {
       BettingRoundType bettingRound = roundBet.v1();
       List<Bet> bets = roundBet.v2();
@@ -91,6 +108,10 @@ public class RatingRuleEngine {
 
         int turnIndex = i;
         var bet = bets.get(i);
+        List<RatingRule> rules = ratingRuleRegister.getRules(bettingRound, bet.getType());
+        if (rules.isEmpty()) {
+          continue;
+        }
         String userId = bet.getUserId();
         final BetPosition betPosition;
         if (turnIndex == 0) {
@@ -100,59 +121,61 @@ public class RatingRuleEngine {
         } else {
           betPosition = BetPosition.NEITHER;
         }
-        rulesResults.addAll(
-            rules.parallelStream()
-                .flatMap(
-                    rule ->
-                        rule
-                            .execute(
-                                new RuleContext(
-                                    new GameState(
-                                        userId,
-                                        gameHand.getPlayers(),
-                                        new GameStateIndex(bettingRound, turnIndex),
-                                        bet,
-                                        betPosition,
-                                        roundsBets,
-                                        gameStateIndexPlayerPercentage)))
-                            .stream())
-                .toList());
+        var ruleContext =
+            new RuleContext(
+                new GameState(
+                    userId,
+                    gameHand.getPlayers(),
+                    new GameStateIndex(bettingRound, turnIndex),
+                    bet,
+                    betPosition,
+                    roundsBets,
+                    handPercentageTable));
+        betExecutions.add(
+            () -> rules.stream().flatMap(rule -> rule.execute(ruleContext).stream()).toList());
       }
     }
 
-    return new RatingRuleExecResult(
-        Collections.unmodifiableList(rulesResults), gameStateIndexPlayerPercentage);
+    // decisions in the order of the bets whatever the executor
+    List<RuleDecision> rulesResults =
+        betTaskExecutor.execute(betExecutions).stream().flatMap(List::stream).toList();
+    // the states no rule read are calculated once the result percentages are read
+    return new RatingRuleExecResult(rulesResults, gameStateIndexPlayerPercentage);
   }
 
+  /**
+   * Percentages of a game state are calculated on the round start and on each fold, the other
+   * states share the percentages of the previous state. The contexts of the calculated states only
+   * depend on the hand and are known up front, their percentages are calculated once read, the fold
+   * states reusing the showdown percentages of their round start.
+   */
   @SuppressWarnings("java:S3776")
-  private Map<GameStateIndex, Map<String, PlayerPercentage>> gameStateIndexPlayerPercentage(
+  private LazyPlayerPercentageMap gameStateIndexPlayerPercentage(
       List<Tuple2<BettingRoundType, List<Bet>>> roundsBets, GameHand gameHand) {
-    final Map<GameStateIndex, Map<String, PlayerPercentage>> gameStateIndexPlayerPercentage =
-        CollectionUtils.newHashMap(100);
-
     final List<Card> gameBoardCards = gameHand.getBoardCards();
     final List<Player> playingPlayers =
         new ArrayList<>(gameHand.getPlayers()); // mutable playing players
     final Set<Card> deadCards = new HashSet<>(); // mutable dead cards
-    Map<String, Double> latestUserIdToShowdownPercentage =
-        null; // latest calculated on board cards adding
+    final Map<GameStateIndex, PercentageCalculatorContext> calcContexts = new HashMap<>();
+    final Map<GameStateIndex, GameStateIndex> sharedIndexes = new HashMap<>();
+    final Map<GameStateIndex, GameStateIndex> roundStartIndexes = new HashMap<>();
     for (Tuple2<BettingRoundType, List<Bet>> roundBet : roundsBets) {
       BettingRoundType bettingRound = roundBet.v1();
       List<Card> boardCards = boardCardsForRound(gameBoardCards, bettingRound);
       List<Bet> bets = roundBet.v2();
+      GameStateIndex roundStartIndex = new GameStateIndex(bettingRound, 0);
 
       for (int i = 0; i < bets.size(); i++) {
         Bet bet = bets.get(i);
         if (i == 0 || bet.getType() == BetType.FOLD) {
-          if (i == 0) {
-            latestUserIdToShowdownPercentage = null; // clean on new round
-          }
-          PercentageCalculatorContext calcContext =
+          // context views the mutable players and dead cards, snapshot them
+          calcContexts.put(
+              new GameStateIndex(bettingRound, i),
               new PercentageCalculatorContext(
-                  playingPlayers, boardCards, deadCards, latestUserIdToShowdownPercentage);
-          PokerPercentageResult result = pokerPercentageCalculator.calculate(calcContext);
-          gameStateIndexPlayerPercentage.put(
-              new GameStateIndex(bettingRound, i), result.getPlayerPercentages());
+                  List.copyOf(playingPlayers), boardCards, Set.copyOf(deadCards)));
+          if (i > 0) {
+            roundStartIndexes.put(new GameStateIndex(bettingRound, i), roundStartIndex);
+          }
 
           if (bet.getType() == BetType.FOLD) {
             String foldedUserId = bet.getUserId();
@@ -161,29 +184,25 @@ public class RatingRuleEngine {
             deadCards.addAll(player.getCards());
           }
 
-          if (i == 0) {
-            latestUserIdToShowdownPercentage =
-                mapUserIdToShowdownPercentage(result); // cache on new round
-          }
-
           if (i == bets.size() - 1) {
             // last bet is fold then calculate percentage far all remaining players
-            calcContext =
+            calcContexts.put(
+                new GameStateIndex(bettingRound, i + 1),
                 new PercentageCalculatorContext(
-                    playingPlayers, boardCards, deadCards, latestUserIdToShowdownPercentage);
-            result = pokerPercentageCalculator.calculate(calcContext);
-            gameStateIndexPlayerPercentage.put(
-                new GameStateIndex(bettingRound, i + 1), result.getPlayerPercentages());
+                    List.copyOf(playingPlayers), boardCards, Set.copyOf(deadCards)));
+            roundStartIndexes.put(new GameStateIndex(bettingRound, i + 1), roundStartIndex);
           }
         } else {
-          gameStateIndexPlayerPercentage.put(
+          GameStateIndex previousIndex = new GameStateIndex(bettingRound, i - 1);
+          sharedIndexes.put(
               new GameStateIndex(bettingRound, i),
-              getRequiredPlayerPercentage(gameStateIndexPlayerPercentage, bettingRound, i - 1));
+              sharedIndexes.getOrDefault(previousIndex, previousIndex));
         }
       }
     }
 
-    return Collections.unmodifiableMap(gameStateIndexPlayerPercentage);
+    return new LazyPlayerPercentageMap(
+        pokerPercentageCalculator, calcContexts, sharedIndexes, roundStartIndexes);
   }
 
   private Player findPlayer(List<Player> players, String userId) {
@@ -201,9 +220,9 @@ public class RatingRuleEngine {
       List<Card> gameBoardCards, BettingRoundType bettingRound) {
     return switch (bettingRound) {
       case PRE_FLOP -> null;
-      case FLOP -> com.poker.util.CollectionUtils.safeSubList(gameBoardCards, 0, 3);
-      case TURN -> com.poker.util.CollectionUtils.safeSubList(gameBoardCards, 0, 4);
-      case RIVER -> com.poker.util.CollectionUtils.safeSubList(gameBoardCards, 0, 5);
+      case FLOP -> CollectionUtils.safeSubList(gameBoardCards, 0, 3);
+      case TURN -> CollectionUtils.safeSubList(gameBoardCards, 0, 4);
+      case RIVER -> CollectionUtils.safeSubList(gameBoardCards, 0, 5);
     };
   }
 }
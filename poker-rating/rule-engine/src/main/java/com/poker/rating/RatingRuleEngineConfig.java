@@ -0,0 +1,15 @@
+package com.poker.rating;
+
+import javax.annotation.Nullable;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+/**
+ * @param execution how the rules of the bets are executed, sequential when not set
+ * @param parallelism threads of the rule engine pool of the parallel executions, the available
+ *     processors when not set
+ */
+@ConstructorBinding
+@ConfigurationProperties(prefix = "poker.rule.engine")
+public record RatingRuleEngineConfig(
+    @Nullable RuleExecution execution, @Nullable Integer parallelism) {}
@@ -2,6 +2,8 @@ package com.poker.rating;
 
 import static java.util.Objects.requireNonNull;
 
+import com.poker.model.game.BetType;
+import com.poker.model.game.BettingRoundType;
 import com.poker.rating.rule.BetRule;
 import com.poker.rating.rule.CallRule;
 import com.poker.rating.rule.CrackedRule;
@@ -18,13 +20,16 @@ import com.poker.rating.rule.point.CallPointSupplier;
 import com.poker.rating.rule.point.CrackedPointSupplier;
 import com.poker.rating.rule.point.FoldPointSupplier;
 import com.poker.rating.rule.point.RiverPointSupplier;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class RatingRuleRegister {
 
   private final List<RatingRule> rules;
+  private final Map<BettingRoundType, Map<BetType, List<RatingRule>>> dispatchRules;
 
   public RatingRuleRegister(
       ShowdownTypeMapper showdownTypeMapper,
@@ -70,6 +75,23 @@ public class RatingRuleRegister {
 
   public RatingRuleRegister(List<RatingRule> rules) {
     this.rules = List.copyOf(requireNonNull(rules));
+    this.dispatchRules = dispatchRules(this.rules);
+  }
+
+  /** Rules applying to each bet type of each betting round, in the order of the rules. */
+  private static Map<BettingRoundType, Map<BetType, List<RatingRule>>> dispatchRules(
+      List<RatingRule> rules) {
+    Map<BettingRoundType, Map<BetType, List<RatingRule>>> dispatchRules =
+        new EnumMap<>(BettingRoundType.class);
+    for (BettingRoundType bettingRound : BettingRoundType.values()) {
+      Map<BetType, List<RatingRule>> betTypeRules = new EnumMap<>(BetType.class);
+      for (BetType betType : BetType.values()) {
+        betTypeRules.put(
+            betType, rules.stream().filter(r -> r.appliesTo(bettingRound, betType)).toList());
+      }
+      dispatchRules.put(bettingRound, betTypeRules);
+    }
+    return dispatchRules;
   }
 
   @SuppressWarnings({"java:S2201", "ReturnValueIgnored"})
@@ -90,4 +112,8 @@ public class RatingRuleRegister {
   public List<RatingRule> getRules() {
     return rules;
   }
+
+  public List<RatingRule> getRules(BettingRoundType bettingRound, BetType betType) {
+    return dispatchRules.get(bettingRound).get(betType);
+  }
 }
@@ -0,0 +1,11 @@
+package com.poker.rating;
+
+/** How the rules of the bets of game hands are executed, the decisions staying in bet order. */
+public enum RuleExecution {
+  /** Bets one after the other on the thread rating the hand. */
+  SEQUENTIAL,
+  /** Bets of a hand at the same time on the rule engine pool. */
+  PARALLEL_BETS,
+  /** Hands rated together at the same time on the rule engine pool, the bets of each in order. */
+  PARALLEL_HANDS
+}
@@ -0,0 +1,173 @@
+package com.poker.rating.client.calc;
+
+import com.poker.model.game.Card;
+import com.poker.rating.client.calc.local.CardMasks;
+import com.poker.rating.client.calc.model.HandRank;
+import com.poker.rating.client.calc.model.ShowdownPercentageRequest;
+import com.poker.rating.client.calc.model.ShowdownPercentageResponse;
+import com.poker.rating.client.calc.model.WinPercentagePlayer;
+import com.poker.rating.client.calc.model.WinPercentageRequest;
+import com.poker.rating.client.calc.model.WinPercentageResponse;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Compact binary encoding of the calculator calls, big endian. A card is its {@link Card#index()}
+ * byte, a percentage an int of millionths of a percent, an operation time an int of microseconds
+ * and the players of a win response are in the order of the request. Absent values are -1.
+ *
+ * <ul>
+ *   <li>win request: players count, 2 cards per player, board count and cards, excludes count and
+ *       cards
+ *   <li>win response: ties percentage, operation time, samples long, players count, then per
+ *       player the win percentage and hand rank byte, followed by the name length and UTF-8 name
+ *       when present
+ *   <li>showdown request: board count and cards, 2 player cards
+ *   <li>showdown response: showdown percentage, operation time
+ *   <li>batch: unsigned short count followed by the requests or responses
+ * </ul>
+ */
+final class BinaryCalculatorCodec {
+
+  static final String CONTENT_TYPE = "application/x-holdem-calc";
+
+  private static final double PERCENTAGE_SCALE = 1_000_000.0;
+  private static final double MICROS_PER_SECOND = 1_000_000.0;
+  private static final int ABSENT = -1;
+
+  private BinaryCalculatorCodec() {
+    throw new UnsupportedOperationException("No instance for util class");
+  }
+
+  static void writeWin(DataOutput out, WinPercentageRequest winPercentageRequest)
+      throws IOException {
+    List<String> players = winPercentageRequest.getPlayers();
+    out.writeByte(players.size());
+    for (String player : players) {
+      for (int index : CardMasks.indexes(LocalPokerHoldemCalculatorClient.playerCards(player))) {
+        out.writeByte(index);
+      }
+    }
+    writeCards(out, winPercentageRequest.getBoard());
+    writeCards(out, winPercentageRequest.getExcludes());
+  }
+
+  static void writeWinBatch(DataOutput out, List<WinPercentageRequest> winPercentageRequests)
+      throws IOException {
+    out.writeShort(winPercentageRequests.size());
+    for (WinPercentageRequest winPercentageRequest : winPercentageRequests) {
+      writeWin(out, winPercentageRequest);
+    }
+  }
+
+  static void writeShowdown(DataOutput out, ShowdownPercentageRequest showdownPercentageRequest)
+      throws IOException {
+    writeCards(out, showdownPercentageRequest.getBoard());
+    for (Card card : showdownPercentageRequest.getPlayer()) {
+      out.writeByte(cardIndex(card));
+    }
+  }
+
+  static void writeShowdownBatch(
+      DataOutput out, List<ShowdownPercentageRequest> showdownPercentageRequests)
+      throws IOException {
+    out.writeShort(showdownPercentageRequests.size());
+    for (ShowdownPercentageRequest showdownPercentageRequest : showdownPercentageRequests) {
+      writeShowdown(out, showdownPercentageRequest);
+    }
+  }
+
+  /** Players cards are those of the request, the response players are in the same order. */
+  static WinPercentageResponse readWin(DataInput in, WinPercentageRequest winPercentageRequest)
+      throws IOException {
+    double tiesPercentage = readPercentage(in);
+    Double operationTime = readOperationTime(in);
+    long samples = in.readLong();
+    List<String> requestPlayers = winPercentageRequest.getPlayers();
+    int playersCount = in.readUnsignedByte();
+    if (playersCount != requestPlayers.size()) {
+      throw new IllegalStateException(
+          "Win response has " + playersCount + " players for " + requestPlayers.size());
+    }
+    List<WinPercentagePlayer> players = new ArrayList<>(playersCount);
+    for (String cards : requestPlayers) {
+      double winPercentage = readPercentage(in);
+      HandRank handRank = null;
+      int rank = in.readByte();
+      if (rank != ABSENT) {
+        byte[] name = new byte[in.readUnsignedByte()];
+        in.readFully(name);
+        handRank = new HandRank(new String(name, StandardCharsets.UTF_8), rank);
+      }
+      players.add(new WinPercentagePlayer(cards, winPercentage, handRank));
+    }
+    return new WinPercentageResponse(
+        players, operationTime, tiesPercentage, samples == ABSENT ? null : samples);
+  }
+
+  static List<WinPercentageResponse> readWinBatch(
+      DataInput in, List<WinPercentageRequest> winPercentageRequests) throws IOException {
+    readBatchCount(in, winPercentageRequests.size());
+    List<WinPercentageResponse> responses = new ArrayList<>(winPercentageRequests.size());
+    for (WinPercentageRequest winPercentageRequest : winPercentageRequests) {
+      responses.add(readWin(in, winPercentageRequest));
+    }
+    return responses;
+  }
+
+  static ShowdownPercentageResponse readShowdown(DataInput in) throws IOException {
+    double showdownPercentage = readPercentage(in);
+    return new ShowdownPercentageResponse(showdownPercentage, readOperationTime(in));
+  }
+
+  static List<ShowdownPercentageResponse> readShowdownBatch(DataInput in, int requests)
+      throws IOException {
+    readBatchCount(in, requests);
+    List<ShowdownPercentageResponse> responses = new ArrayList<>(requests);
+    for (int i = 0; i < requests; i++) {
+      responses.add(readShowdown(in));
+    }
+    return responses;
+  }
+
+  private static void writeCards(DataOutput out, @Nullable Collection<Card> cards)
+      throws IOException {
+    if (cards == null) {
+      out.writeByte(0);
+      return;
+    }
+    out.writeByte(cards.size());
+    for (Card card : cards) {
+      out.writeByte(cardIndex(card));
+    }
+  }
+
+  private static int cardIndex(Card card) {
+    // rejects invalid cards
+    return Long.numberOfTrailingZeros(CardMasks.mask(card));
+  }
+
+  private static void readBatchCount(DataInput in, int requests) throws IOException {
+    int responses = in.readUnsignedShort();
+    if (responses != requests) {
+      throw new IllegalStateException(
+          "Batch response has " + responses + " responses for " + requests + " requests");
+    }
+  }
+
+  private static double readPercentage(DataInput in) throws IOException {
+    return in.readInt() / PERCENTAGE_SCALE;
+  }
+
+  @Nullable
+  private static Double readOperationTime(DataInput in) throws IOException {
+    int micros = in.readInt();
+    return micros == ABSENT ? null : micros / MICROS_PER_SECOND;
+  }
+}
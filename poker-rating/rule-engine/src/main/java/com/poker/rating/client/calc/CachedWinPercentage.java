@@ -0,0 +1,52 @@
+package com.poker.rating.client.calc;
+
+import com.poker.rating.client.calc.local.CanonicalSituation;
+import com.poker.rating.client.calc.model.WinPercentagePlayer;
+import com.poker.rating.client.calc.model.WinPercentageResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+
+/** Win result of a {@link CanonicalSituation} with the players in the canonical order. */
+record CachedWinPercentage(
+    List<WinPercentagePlayer> canonicalPlayers,
+    @Nullable Double operationTime,
+    double tiesPercentage,
+    @Nullable Long samples) {
+
+  /** Null when some request player is missing in the response. */
+  @Nullable
+  static CachedWinPercentage of(
+      CanonicalSituation situation, List<String> players, WinPercentageResponse winPercentage) {
+    Map<String, WinPercentagePlayer> cardsToPlayer =
+        winPercentage.getPlayers().stream()
+            .collect(
+                Collectors.toMap(WinPercentagePlayer::getCards, Function.identity(), (a, b) -> a));
+    WinPercentagePlayer[] canonicalPlayers = new WinPercentagePlayer[players.size()];
+    for (int i = 0; i < canonicalPlayers.length; i++) {
+      WinPercentagePlayer player = cardsToPlayer.get(players.get(i));
+      if (player == null) {
+        return null;
+      }
+      canonicalPlayers[situation.canonicalIndex(i)] = player;
+    }
+    return new CachedWinPercentage(
+        List.of(canonicalPlayers),
+        winPercentage.getOperationTime(),
+        winPercentage.getTiesPercentage(),
+        winPercentage.getSamples());
+  }
+
+  WinPercentageResponse toResponse(CanonicalSituation situation, List<String> players) {
+    List<WinPercentagePlayer> playerPercentages = new ArrayList<>(players.size());
+    for (int i = 0; i < players.size(); i++) {
+      WinPercentagePlayer player = canonicalPlayers.get(situation.canonicalIndex(i));
+      playerPercentages.add(
+          new WinPercentagePlayer(players.get(i), player.getWinPercentage(), player.getHandRank()));
+    }
+    return new WinPercentageResponse(playerPercentages, operationTime, tiesPercentage, samples);
+  }
+}
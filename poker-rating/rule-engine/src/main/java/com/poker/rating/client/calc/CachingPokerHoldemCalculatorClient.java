@@ -0,0 +1,437 @@
+package com.poker.rating.client.calc;
+
+import static java.util.Objects.requireNonNullElse;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.poker.rating.client.calc.local.CanonicalSituation;
+import com.poker.rating.client.calc.local.CardMasks;
+import com.poker.rating.client.calc.model.ShowdownPercentageRequest;
+import com.poker.rating.client.calc.model.ShowdownPercentageResponse;
+import com.poker.rating.client.calc.model.WinPercentageRequest;
+import com.poker.rating.client.calc.model.WinPercentageResponse;
+import com.poker.util.task.FutureUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded in memory cache of the calculator results keyed by {@link CanonicalSituation}, so
+ * situations equal up to suit symmetry and player order are calculated once. Win results are kept
+ * in the canonical players order and mapped back to the players order of each request. When a file
+ * is configured, the {@link MappedEquityStore} shared by the processes of the node is the second
+ * level looked up on a miss and keeps the results across restarts. The asynchronous calls read and
+ * write the file on a dedicated thread, not on the threads completing the calculator calls, until
+ * the client is closed.
+ */
+@SuppressWarnings("SameNameButDifferent")
+@Slf4j
+public class CachingPokerHoldemCalculatorClient
+    implements PokerHoldemCalculatorClient, AutoCloseable {
+
+  private static final long DEFAULT_MAXIMUM_WEIGHT = 100_000L;
+  private static final long DEFAULT_EXPIRE_AFTER_WRITE_SECONDS = 3600L;
+  private static final long DEFAULT_FILE_MAXIMUM_BYTES = 256L * 1024 * 1024;
+  private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+  @Nonnull private final PokerHoldemCalculatorClient delegate;
+  @Nonnull private final Cache<CanonicalSituation, CachedWinPercentage> winCache;
+  @Nonnull private final Cache<CanonicalSituation, ShowdownPercentageResponse> showdownCache;
+  @Nullable private final MappedEquityStore fileStore;
+  @Nullable private final ExecutorService fileExecutor;
+  private final AtomicBoolean flushScheduled = new AtomicBoolean();
+  @Nonnull private final Counter fileHits;
+  @Nonnull private final Counter fileMisses;
+
+  public CachingPokerHoldemCalculatorClient(
+      @Nonnull PokerHoldemCalculatorClient delegate,
+      @Nonnull PokerHoldemCalculatorCacheConfig config,
+      @Nonnull MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    long maximumWeight = requireNonNullElse(config.maximumWeight(), DEFAULT_MAXIMUM_WEIGHT);
+    Duration expireAfterWrite =
+        Duration.ofSeconds(
+            requireNonNullElse(
+                config.expireAfterWriteSeconds(), DEFAULT_EXPIRE_AFTER_WRITE_SECONDS));
+    this.winCache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maximumWeight)
+            .<CanonicalSituation, CachedWinPercentage>weigher(
+                (situation, cached) -> situation.players())
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+    this.showdownCache =
+        CacheBuilder.newBuilder()
+            .maximumSize(maximumWeight)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+    GuavaCacheMetrics.monitor(meterRegistry, winCache, "pokerHoldemCalculatorWin");
+    GuavaCacheMetrics.monitor(meterRegistry, showdownCache, "pokerHoldemCalculatorShowdown");
+    this.fileStore =
+        config.file() == null
+            ? null
+            : new MappedEquityStore(
+                Path.of(config.file()),
+                requireNonNullElse(config.fileMaximumBytes(), DEFAULT_FILE_MAXIMUM_BYTES));
+    this.fileExecutor =
+        fileStore == null
+            ? null
+            : Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder()
+                    .setNameFormat("equity-store-%d")
+                    .setDaemon(true)
+                    .build());
+    this.fileHits = fileGets(meterRegistry, "hit");
+    this.fileMisses = fileGets(meterRegistry, "miss");
+  }
+
+  private static Counter fileGets(MeterRegistry meterRegistry, String result) {
+    return Counter.builder("pokerHoldemCalculatorFileCache.gets")
+        .description("Lookups of the calculator results file on in memory cache misses")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+
+  static CanonicalSituation winSituation(WinPercentageRequest winPercentageRequest) {
+    List<String> players = winPercentageRequest.getPlayers();
+    long[] playerMasks = new long[players.size()];
+    long used = CardMasks.mask(winPercentageRequest.getBoard());
+    for (int i = 0; i < playerMasks.length; i++) {
+      playerMasks[i] = LocalPokerHoldemCalculatorClient.playerCards(players.get(i));
+      used |= playerMasks[i];
+    }
+    // excluding a card already on the board or in a hand changes nothing
+    long excludes = CardMasks.mask(winPercentageRequest.getExcludes()) & ~used;
+    return CanonicalSituation.of(
+        CardMasks.mask(winPercentageRequest.getBoard()), excludes, playerMasks);
+  }
+
+  static CanonicalSituation showdownSituation(ShowdownPercentageRequest showdownPercentageRequest) {
+    return CanonicalSituation.of(
+        CardMasks.mask(showdownPercentageRequest.getBoard()),
+        0L,
+        CardMasks.mask(showdownPercentageRequest.getPlayer()));
+  }
+
+  @Override
+  public WinPercentageResponse winPercentage(WinPercentageRequest winPercentageRequest) {
+    CanonicalSituation situation = winSituation(winPercentageRequest);
+    List<String> players = winPercentageRequest.getPlayers();
+    CachedWinPercentage cached = cachedWin(situation);
+    if (cached != null) {
+      return cached.toResponse(situation, players);
+    }
+
+    WinPercentageResponse winPercentage = delegate.winPercentage(winPercentageRequest);
+    putWin(situation, players, winPercentage);
+    return winPercentage;
+  }
+
+  @Override
+  public List<WinPercentageResponse> winPercentages(
+      List<WinPercentageRequest> winPercentageRequests) {
+    return FutureUtils.join(winPercentagesAsync(winPercentageRequests));
+  }
+
+  @Override
+  public CompletableFuture<WinPercentageResponse> winPercentageAsync(
+      WinPercentageRequest winPercentageRequest) {
+    CanonicalSituation situation = winSituation(winPercentageRequest);
+    List<String> players = winPercentageRequest.getPlayers();
+    CachedWinPercentage cached = winCache.getIfPresent(situation);
+    if (cached != null) {
+      return CompletableFuture.completedFuture(cached.toResponse(situation, players));
+    }
+
+    return FutureUtils.composeCancelling(
+        readFileAsync(() -> fileWin(situation)),
+        fileCached ->
+            fileCached != null
+                ? CompletableFuture.completedFuture(fileCached.toResponse(situation, players))
+                : thenPut(
+                    delegate.winPercentageAsync(winPercentageRequest),
+                    winPercentage -> {
+                      putWin(situation, players, winPercentage);
+                      return winPercentage;
+                    }));
+  }
+
+  /** Cached responses are served, all the other requests go to the delegate in one batch. */
+  @Override
+  public CompletableFuture<List<WinPercentageResponse>> winPercentagesAsync(
+      List<WinPercentageRequest> winPercentageRequests) {
+    var winPercentages = new WinPercentageResponse[winPercentageRequests.size()];
+    var situations = new CanonicalSituation[winPercentages.length];
+    List<Integer> memoryMissIndexes = new ArrayList<>();
+    for (int i = 0; i < winPercentages.length; i++) {
+      situations[i] = winSituation(winPercentageRequests.get(i));
+      CachedWinPercentage cached = winCache.getIfPresent(situations[i]);
+      if (cached != null) {
+        List<String> players = winPercentageRequests.get(i).getPlayers();
+        winPercentages[i] = cached.toResponse(situations[i], players);
+      } else {
+        memoryMissIndexes.add(i);
+      }
+    }
+    if (memoryMissIndexes.isEmpty()) {
+      return CompletableFuture.completedFuture(List.of(winPercentages));
+    }
+    return FutureUtils.composeCancelling(
+        readFileAsync(
+            () -> {
+              List<Integer> missIndexes = new ArrayList<>();
+              for (int index : memoryMissIndexes) {
+                CachedWinPercentage cached = fileWin(situations[index]);
+                if (cached != null) {
+                  List<String> players = winPercentageRequests.get(index).getPlayers();
+                  winPercentages[index] = cached.toResponse(situations[index], players);
+                } else {
+                  missIndexes.add(index);
+                }
+              }
+              return missIndexes;
+            }),
+        missIndexes -> {
+          if (missIndexes.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of(winPercentages));
+          }
+          List<WinPercentageRequest> missRequests =
+              missIndexes.stream().map(winPercentageRequests::get).toList();
+          return thenPut(
+              delegate.winPercentagesAsync(missRequests),
+              calculated -> {
+                for (int i = 0; i < missIndexes.size(); i++) {
+                  int index = missIndexes.get(i);
+                  winPercentages[index] = calculated.get(i);
+                  List<String> players = winPercentageRequests.get(index).getPlayers();
+                  putWin(situations[index], players, calculated.get(i));
+                }
+                return List.of(winPercentages);
+              });
+        });
+  }
+
+  /** File read on the file thread, the read being in memory only without a file. */
+  private <T> CompletableFuture<T> readFileAsync(Supplier<T> read) {
+    return fileExecutor == null
+        ? FutureUtils.supplyNow(read)
+        : CompletableFuture.supplyAsync(read, this::executeFileTask);
+  }
+
+  /** Calculated results put on the file thread, on the completing thread without a file. */
+  private <T, R> CompletableFuture<R> thenPut(CompletableFuture<T> calculated, Function<T, R> put) {
+    return FutureUtils.cancelling(
+        fileExecutor == null
+            ? calculated.thenApply(put)
+            : calculated.thenApplyAsync(put, this::executeFileTask),
+        calculated);
+  }
+
+  /** File task on the file thread, on the calling thread once the client is closed. */
+  private void executeFileTask(Runnable task) {
+    try {
+      Objects.requireNonNull(fileExecutor).execute(task);
+    } catch (RejectedExecutionException e) {
+      task.run();
+    }
+  }
+
+  /** Flushes the results put until the file tasks already queued are done, in one batch. */
+  private void scheduleFlush() {
+    if (flushScheduled.compareAndSet(false, true)) {
+      executeFileTask(
+          () -> {
+            flushScheduled.set(false);
+            Objects.requireNonNull(fileStore).flush();
+          });
+    }
+  }
+
+  /** Waits for the pending file reads and writes, stops the file thread and closes the file. */
+  @Override
+  public void close() {
+    if (fileStore == null || fileExecutor == null) {
+      return;
+    }
+    fileExecutor.shutdown();
+    try {
+      if (!fileExecutor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        log.warn("Equity store file tasks still pending after {}s, dropped", CLOSE_TIMEOUT_SECONDS);
+        fileExecutor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      fileExecutor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+    fileStore.close();
+  }
+
+  private @Nullable CachedWinPercentage cachedWin(CanonicalSituation situation) {
+    CachedWinPercentage cached = winCache.getIfPresent(situation);
+    return cached != null ? cached : fileWin(situation);
+  }
+
+  private @Nullable CachedWinPercentage fileWin(CanonicalSituation situation) {
+    if (fileStore == null) {
+      return null;
+    }
+    CachedWinPercentage cached = fileStore.win(situation);
+    countFileGet(cached != null);
+    if (cached != null) {
+      winCache.put(situation, cached);
+    }
+    return cached;
+  }
+
+  private void putWin(
+      CanonicalSituation situation, List<String> players, WinPercentageResponse winPercentage) {
+    CachedWinPercentage calculated = CachedWinPercentage.of(situation, players, winPercentage);
+    if (calculated != null) {
+      winCache.put(situation, calculated);
+      if (fileStore != null) {
+        fileStore.putWin(situation, calculated);
+        scheduleFlush();
+      }
+    }
+  }
+
+  @Override
+  public ShowdownPercentageResponse showdownPercentage(
+      ShowdownPercentageRequest showdownPercentageRequest) {
+    CanonicalSituation situation = showdownSituation(showdownPercentageRequest);
+    ShowdownPercentageResponse cached = cachedShowdown(situation);
+    if (cached != null) {
+      return cached;
+    }
+
+    ShowdownPercentageResponse showdownPercentage =
+        delegate.showdownPercentage(showdownPercentageRequest);
+    putShowdown(situation, showdownPercentage);
+    return showdownPercentage;
+  }
+
+  @Override
+  public List<ShowdownPercentageResponse> showdownPercentages(
+      List<ShowdownPercentageRequest> showdownPercentageRequests) {
+    return FutureUtils.join(showdownPercentagesAsync(showdownPercentageRequests));
+  }
+
+  @Override
+  public CompletableFuture<ShowdownPercentageResponse> showdownPercentageAsync(
+      ShowdownPercentageRequest showdownPercentageRequest) {
+    CanonicalSituation situation = showdownSituation(showdownPercentageRequest);
+    ShowdownPercentageResponse cached = showdownCache.getIfPresent(situation);
+    if (cached != null) {
+      return CompletableFuture.completedFuture(cached);
+    }
+
+    return FutureUtils.composeCancelling(
+        readFileAsync(() -> fileShowdown(situation)),
+        fileCached ->
+            fileCached != null
+                ? CompletableFuture.completedFuture(fileCached)
+                : thenPut(
+                    delegate.showdownPercentageAsync(showdownPercentageRequest),
+                    showdownPercentage -> {
+                      putShowdown(situation, showdownPercentage);
+                      return showdownPercentage;
+                    }));
+  }
+
+  /** Cached responses are served, all the other requests go to the delegate in one batch. */
+  @Override
+  public CompletableFuture<List<ShowdownPercentageResponse>> showdownPercentagesAsync(
+      List<ShowdownPercentageRequest> showdownPercentageRequests) {
+    var showdownPercentages = new ShowdownPercentageResponse[showdownPercentageRequests.size()];
+    var situations = new CanonicalSituation[showdownPercentages.length];
+    List<Integer> memoryMissIndexes = new ArrayList<>();
+    for (int i = 0; i < showdownPercentages.length; i++) {
+      situations[i] = showdownSituation(showdownPercentageRequests.get(i));
+      showdownPercentages[i] = showdownCache.getIfPresent(situations[i]);
+      if (showdownPercentages[i] == null) {
+        memoryMissIndexes.add(i);
+      }
+    }
+    if (memoryMissIndexes.isEmpty()) {
+      return CompletableFuture.completedFuture(List.of(showdownPercentages));
+    }
+    return FutureUtils.composeCancelling(
+        readFileAsync(
+            () -> {
+              List<Integer> missIndexes = new ArrayList<>();
+              for (int index : memoryMissIndexes) {
+                showdownPercentages[index] = fileShowdown(situations[index]);
+                if (showdownPercentages[index] == null) {
+                  missIndexes.add(index);
+                }
+              }
+              return missIndexes;
+            }),
+        missIndexes -> {
+          if (missIndexes.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of(showdownPercentages));
+          }
+          List<ShowdownPercentageRequest> missRequests =
+              missIndexes.stream().map(showdownPercentageRequests::get).toList();
+          return thenPut(
+              delegate.showdownPercentagesAsync(missRequests),
+              calculated -> {
+                for (int i = 0; i < missIndexes.size(); i++) {
+                  int index = missIndexes.get(i);
+                  showdownPercentages[index] = calculated.get(i);
+                  putShowdown(situations[index], calculated.get(i));
+                }
+                return List.of(showdownPercentages);
+              });
+        });
+  }
+
+  private @Nullable ShowdownPercentageResponse cachedShowdown(CanonicalSituation situation) {
+    ShowdownPercentageResponse cached = showdownCache.getIfPresent(situation);
+    return cached != null ? cached : fileShowdown(situation);
+  }
+
+  private @Nullable ShowdownPercentageResponse fileShowdown(CanonicalSituation situation) {
+    if (fileStore == null) {
+      return null;
+    }
+    ShowdownPercentageResponse cached = fileStore.showdown(situation);
+    countFileGet(cached != null);
+    if (cached != null) {
+      showdownCache.put(situation, cached);
+    }
+    return cached;
+  }
+
+  private void putShowdown(
+      CanonicalSituation situation, ShowdownPercentageResponse showdownPercentage) {
+    showdownCache.put(situation, showdownPercentage);
+    if (fileStore != null) {
+      fileStore.putShowdown(situation, showdownPercentage);
+      scheduleFlush();
+    }
+  }
+
+  private void countFileGet(boolean hit) {
+    (hit ? fileHits : fileMisses).increment();
+  }
+}
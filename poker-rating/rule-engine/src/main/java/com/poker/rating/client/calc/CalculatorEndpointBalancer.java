@@ -0,0 +1,230 @@
+package com.poker.rating.client.calc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Power of two choices over the calculator endpoints: of two random endpoints the call goes to the
+ * one of lower cost, its outstanding calls weighted by its latency EWMA, so an endpoint slowed by
+ * expensive calls gets fewer.
+ *
+ * <p>Each endpoint has a circuit breaker, opened by {@value #FAILURES_TO_OPEN} failed calls in a
+ * row for {@value #OPEN_SECONDS} seconds. Then a single probe call is let through, closing the
+ * circuit when it succeeds and opening it again when it fails. Calls fail fast with a {@link
+ * CircuitOpenException} while all circuits are open, the one of a single endpoint included, rather
+ * than waiting for a failing calculator. Opened circuits are counted in
+ * pokerHoldemCalculator.client.circuit.opened and the open ones gauged in
+ * pokerHoldemCalculator.client.circuit.open, by endpoint.
+ */
+@Slf4j
+class CalculatorEndpointBalancer {
+
+  static final int FAILURES_TO_OPEN = 3;
+  static final long OPEN_SECONDS = 10;
+  // weight of the last call latency
+  private static final double EWMA_ALPHA = 0.3;
+
+  @Nonnull private final List<Endpoint> endpoints;
+  @Nonnull private final LongSupplier nanoTime;
+
+  CalculatorEndpointBalancer(
+      @Nonnull List<String> endpoints, @Nonnull MeterRegistry meterRegistry) {
+    this(endpoints, meterRegistry, System::nanoTime);
+  }
+
+  CalculatorEndpointBalancer(
+      @Nonnull List<String> endpoints,
+      @Nonnull MeterRegistry meterRegistry,
+      @Nonnull LongSupplier nanoTime) {
+    if (endpoints.isEmpty()) {
+      throw new IllegalArgumentException("Calculator endpoints are empty");
+    }
+    this.endpoints = endpoints.stream().map(uri -> new Endpoint(uri, meterRegistry)).toList();
+    this.nanoTime = nanoTime;
+    for (Endpoint endpoint : this.endpoints) {
+      Gauge.builder(
+              "pokerHoldemCalculator.client.circuit.open",
+              endpoint,
+              open -> open.isOpen(nanoTime.getAsLong()) ? 1 : 0)
+          .description("Calculator endpoints whose circuit is open")
+          .tag("endpoint", endpoint.uri)
+          .register(meterRegistry);
+    }
+  }
+
+  /** Failure of a call not sent, the circuits of all the endpoints being open. */
+  static final class CircuitOpenException extends IllegalStateException {
+
+    private CircuitOpenException() {
+      super("Circuits of all calculator endpoints are open");
+    }
+  }
+
+  /**
+   * Endpoint picked for a call.
+   *
+   * @param probe whether the call is the probe of the half open circuit of the endpoint
+   */
+  record Lease(@Nonnull Endpoint endpoint, boolean probe) {}
+
+  /**
+   * @return endpoint of the next call, started by {@link #start}
+   * @throws CircuitOpenException when the circuits of all endpoints are open
+   */
+  @Nonnull
+  Lease pick() {
+    while (true) {
+      long now = nanoTime.getAsLong();
+      List<Endpoint> candidates = new ArrayList<>(endpoints.size());
+      for (Endpoint endpoint : endpoints) {
+        if (endpoint.isAvailable(now)) {
+          candidates.add(endpoint);
+        }
+      }
+      if (candidates.isEmpty()) {
+        throw new CircuitOpenException();
+      }
+      Endpoint endpoint = candidates.get(0);
+      if (candidates.size() > 1) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+          second++;
+        }
+        Endpoint firstEndpoint = candidates.get(first);
+        Endpoint secondEndpoint = candidates.get(second);
+        endpoint = firstEndpoint.cost() <= secondEndpoint.cost() ? firstEndpoint : secondEndpoint;
+      }
+      // lost when the probe of a half open circuit was taken meanwhile
+      Lease lease = endpoint.tryAcquire(now);
+      if (lease != null) {
+        return lease;
+      }
+    }
+  }
+
+  /** Starts a call to the endpoint, to be finished by {@link #finish} or {@link #cancel}. */
+  long start(@Nonnull Lease lease) {
+    lease.endpoint().outstanding.incrementAndGet();
+    return nanoTime.getAsLong();
+  }
+
+  /**
+   * @param healthy whether the endpoint answered, with any status below 500
+   */
+  void finish(@Nonnull Lease lease, long startNanos, boolean healthy) {
+    long now = nanoTime.getAsLong();
+    Endpoint endpoint = lease.endpoint();
+    endpoint.outstanding.decrementAndGet();
+    if (healthy) {
+      endpoint.succeeded(now - startNanos);
+    } else if (endpoint.failed(now, lease.probe())) {
+      endpoint.opened.increment();
+      log.warn("Calculator endpoint {} circuit open for {}s", endpoint.uri, OPEN_SECONDS);
+    }
+  }
+
+  /** Finishes a call given up before its end, neither a success nor a failure of the endpoint. */
+  void cancel(@Nonnull Lease lease) {
+    lease.endpoint().outstanding.decrementAndGet();
+    if (lease.probe()) {
+      lease.endpoint().release();
+    }
+  }
+
+  static final class Endpoint {
+
+    @Nonnull private final String uri;
+    @Nonnull private final Counter opened;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private double latencyEwmaNanos;
+    private int consecutiveFailures;
+    private boolean open;
+    private long openUntilNanos;
+    private boolean probing;
+
+    private Endpoint(@Nonnull String uri, @Nonnull MeterRegistry meterRegistry) {
+      this.uri = uri;
+      this.opened =
+          Counter.builder("pokerHoldemCalculator.client.circuit.opened")
+              .description("Calculator endpoint circuits opened by failed calls")
+              .tag("endpoint", uri)
+              .register(meterRegistry);
+    }
+
+    @Nonnull
+    String uri() {
+      return uri;
+    }
+
+    // not measured endpoints cost their outstanding calls, so they are tried first
+    private synchronized double cost() {
+      return (outstanding.get() + 1) * Math.max(latencyEwmaNanos, 1.0);
+    }
+
+    private synchronized boolean isOpen(long now) {
+      return open && now - openUntilNanos < 0;
+    }
+
+    private synchronized boolean isAvailable(long now) {
+      return !open || now - openUntilNanos >= 0 && !probing;
+    }
+
+    @Nullable
+    private synchronized Lease tryAcquire(long now) {
+      if (!open) {
+        return new Lease(this, false);
+      }
+      if (now - openUntilNanos < 0 || probing) {
+        return null;
+      }
+      probing = true;
+      return new Lease(this, true);
+    }
+
+    private synchronized void release() {
+      probing = false;
+    }
+
+    private synchronized void succeeded(long latencyNanos) {
+      consecutiveFailures = 0;
+      open = false;
+      probing = false;
+      latencyEwmaNanos =
+          latencyEwmaNanos == 0
+              ? latencyNanos
+              : latencyEwmaNanos + EWMA_ALPHA * (latencyNanos - latencyEwmaNanos);
+    }
+
+    /**
+     * @param probe whether the failed call is the probe of the half open circuit
+     * @return whether the circuit got opened by this failure
+     */
+    private synchronized boolean failed(long now, boolean probe) {
+      if (open) {
+        if (!probe) {
+          // a call started before the circuit opened, the probe decides
+          return false;
+        }
+      } else if (++consecutiveFailures < FAILURES_TO_OPEN) {
+        return false;
+      }
+      consecutiveFailures = 0;
+      probing = false;
+      open = true;
+      openUntilNanos = now + TimeUnit.SECONDS.toNanos(OPEN_SECONDS);
+      return true;
+    }
+  }
+}
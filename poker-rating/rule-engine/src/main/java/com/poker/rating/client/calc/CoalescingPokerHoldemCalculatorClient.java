@@ -0,0 +1,337 @@
+package com.poker.rating.client.calc;
+
+import com.poker.rating.client.calc.local.CanonicalSituation;
+import com.poker.rating.client.calc.model.ShowdownPercentageRequest;
+import com.poker.rating.client.calc.model.ShowdownPercentageResponse;
+import com.poker.rating.client.calc.model.WinPercentageRequest;
+import com.poker.rating.client.calc.model.WinPercentageResponse;
+import com.poker.util.task.FutureUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Single flight of the calculator calls: a call arriving while a call of the same {@link
+ * CanonicalSituation} is in flight waits for and shares its result instead of calling the
+ * calculator again, the asynchronous calls by composing the future in flight. Collapsed calls are
+ * counted in pokerHoldemCalculator.collapsed.calls. The requests of a batch are coalesced one by
+ * one, those not in flight go to the delegate in one batch and are in flight until it ends. A call
+ * cancelled by its caller cancels the delegate call, the calls collapsed on it calling the delegate
+ * again.
+ */
+public class CoalescingPokerHoldemCalculatorClient implements PokerHoldemCalculatorClient {
+
+  @Nonnull private final PokerHoldemCalculatorClient delegate;
+
+  // null result when the win response can not be mapped to other players order
+  private final ConcurrentMap<CanonicalSituation, CompletableFuture<CachedWinPercentage>>
+      inFlightWins = new ConcurrentHashMap<>();
+
+  private final ConcurrentMap<CanonicalSituation, CompletableFuture<ShowdownPercentageResponse>>
+      inFlightShowdowns = new ConcurrentHashMap<>();
+
+  @Nonnull private final Counter collapsedWins;
+  @Nonnull private final Counter collapsedShowdowns;
+
+  public CoalescingPokerHoldemCalculatorClient(
+      @Nonnull PokerHoldemCalculatorClient delegate, @Nonnull MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.collapsedWins = collapsedCalls(meterRegistry, "win");
+    this.collapsedShowdowns = collapsedCalls(meterRegistry, "showdown");
+  }
+
+  private static Counter collapsedCalls(MeterRegistry meterRegistry, String type) {
+    return Counter.builder("pokerHoldemCalculator.collapsed.calls")
+        .description("Calculator calls sharing the result of an identical call in flight")
+        .tag("type", type)
+        .register(meterRegistry);
+  }
+
+  @Override
+  public WinPercentageResponse winPercentage(WinPercentageRequest winPercentageRequest) {
+    CanonicalSituation situation =
+        CachingPokerHoldemCalculatorClient.winSituation(winPercentageRequest);
+    List<String> players = winPercentageRequest.getPlayers();
+    var call = new CompletableFuture<CachedWinPercentage>();
+    CompletableFuture<CachedWinPercentage> inFlight = inFlightWins.putIfAbsent(situation, call);
+    if (inFlight != null) {
+      collapsedWins.increment();
+      @Nullable CachedWinPercentage shared;
+      try {
+        shared = FutureUtils.join(inFlight);
+      } catch (CancellationException e) {
+        shared = null;
+      }
+      if (shared != null) {
+        return shared.toResponse(situation, players);
+      }
+      return delegate.winPercentage(winPercentageRequest);
+    }
+
+    try {
+      WinPercentageResponse winPercentage = delegate.winPercentage(winPercentageRequest);
+      call.complete(CachedWinPercentage.of(situation, players, winPercentage));
+      return winPercentage;
+    } catch (Throwable e) {
+      call.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlightWins.remove(situation, call);
+    }
+  }
+
+  @Override
+  public ShowdownPercentageResponse showdownPercentage(
+      ShowdownPercentageRequest showdownPercentageRequest) {
+    CanonicalSituation situation =
+        CachingPokerHoldemCalculatorClient.showdownSituation(showdownPercentageRequest);
+    var call = new CompletableFuture<ShowdownPercentageResponse>();
+    CompletableFuture<ShowdownPercentageResponse> inFlight =
+        inFlightShowdowns.putIfAbsent(situation, call);
+    if (inFlight != null) {
+      collapsedShowdowns.increment();
+      try {
+        return FutureUtils.join(inFlight);
+      } catch (CancellationException e) {
+        return delegate.showdownPercentage(showdownPercentageRequest);
+      }
+    }
+
+    try {
+      ShowdownPercentageResponse showdownPercentage =
+          delegate.showdownPercentage(showdownPercentageRequest);
+      call.complete(showdownPercentage);
+      return showdownPercentage;
+    } catch (Throwable e) {
+      call.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlightShowdowns.remove(situation, call);
+    }
+  }
+
+  @Override
+  public List<WinPercentageResponse> winPercentages(
+      List<WinPercentageRequest> winPercentageRequests) {
+    return FutureUtils.join(winPercentagesAsync(winPercentageRequests));
+  }
+
+  @Override
+  public List<ShowdownPercentageResponse> showdownPercentages(
+      List<ShowdownPercentageRequest> showdownPercentageRequests) {
+    return FutureUtils.join(showdownPercentagesAsync(showdownPercentageRequests));
+  }
+
+  @Override
+  public CompletableFuture<WinPercentageResponse> winPercentageAsync(
+      WinPercentageRequest winPercentageRequest) {
+    CanonicalSituation situation =
+        CachingPokerHoldemCalculatorClient.winSituation(winPercentageRequest);
+    List<String> players = winPercentageRequest.getPlayers();
+    var call = new CompletableFuture<CachedWinPercentage>();
+    CompletableFuture<CachedWinPercentage> inFlight = inFlightWins.putIfAbsent(situation, call);
+    if (inFlight != null) {
+      collapsedWins.increment();
+      return joinShared(
+          inFlight,
+          shared ->
+              shared != null
+                  ? CompletableFuture.completedFuture(shared.toResponse(situation, players))
+                  : delegate.winPercentageAsync(winPercentageRequest),
+          () -> delegate.winPercentageAsync(winPercentageRequest));
+    }
+
+    CompletableFuture<WinPercentageResponse> delegated =
+        FutureUtils.composeNow(() -> delegate.winPercentageAsync(winPercentageRequest));
+    delegated.whenComplete(
+        (winPercentage, e) -> {
+          if (e != null) {
+            call.completeExceptionally(e);
+          } else {
+            call.complete(CachedWinPercentage.of(situation, players, winPercentage));
+          }
+          inFlightWins.remove(situation, call);
+        });
+    // a copy, the collapsed calls are released even when the caller cancels it
+    return FutureUtils.cancelling(delegated.copy(), delegated);
+  }
+
+  @Override
+  public CompletableFuture<ShowdownPercentageResponse> showdownPercentageAsync(
+      ShowdownPercentageRequest showdownPercentageRequest) {
+    CanonicalSituation situation =
+        CachingPokerHoldemCalculatorClient.showdownSituation(showdownPercentageRequest);
+    var call = new CompletableFuture<ShowdownPercentageResponse>();
+    CompletableFuture<ShowdownPercentageResponse> inFlight =
+        inFlightShowdowns.putIfAbsent(situation, call);
+    if (inFlight != null) {
+      collapsedShowdowns.increment();
+      return joinShared(
+          inFlight,
+          CompletableFuture::completedFuture,
+          () -> delegate.showdownPercentageAsync(showdownPercentageRequest));
+    }
+
+    CompletableFuture<ShowdownPercentageResponse> delegated =
+        FutureUtils.composeNow(() -> delegate.showdownPercentageAsync(showdownPercentageRequest));
+    delegated.whenComplete(
+        (showdownPercentage, e) -> {
+          if (e != null) {
+            call.completeExceptionally(e);
+          } else {
+            call.complete(showdownPercentage);
+          }
+          inFlightShowdowns.remove(situation, call);
+        });
+    // a copy, the collapsed calls are released even when the caller cancels it
+    return FutureUtils.cancelling(delegated.copy(), delegated);
+  }
+
+  @Override
+  public CompletableFuture<List<WinPercentageResponse>> winPercentagesAsync(
+      List<WinPercentageRequest> winPercentageRequests) {
+    return coalesceAll(
+        winPercentageRequests,
+        CachingPokerHoldemCalculatorClient::winSituation,
+        inFlightWins,
+        collapsedWins,
+        delegate::winPercentagesAsync,
+        (situation, request, winPercentage) ->
+            CachedWinPercentage.of(situation, request.getPlayers(), winPercentage),
+        (situation, request, shared) ->
+            shared != null
+                ? CompletableFuture.completedFuture(
+                    shared.toResponse(situation, request.getPlayers()))
+                : delegate.winPercentageAsync(request));
+  }
+
+  @Override
+  public CompletableFuture<List<ShowdownPercentageResponse>> showdownPercentagesAsync(
+      List<ShowdownPercentageRequest> showdownPercentageRequests) {
+    return coalesceAll(
+        showdownPercentageRequests,
+        CachingPokerHoldemCalculatorClient::showdownSituation,
+        inFlightShowdowns,
+        collapsedShowdowns,
+        delegate::showdownPercentagesAsync,
+        (situation, request, showdownPercentage) -> showdownPercentage,
+        (situation, request, shared) -> CompletableFuture.completedFuture(shared));
+  }
+
+  /**
+   * @return response of a call collapsed on the call in flight, calling again when the call in
+   *     flight was cancelled by its caller
+   */
+  private static <S, R> CompletableFuture<R> joinShared(
+      CompletableFuture<S> inFlight,
+      Function<S, CompletableFuture<R>> join,
+      Supplier<CompletableFuture<R>> call) {
+    return inFlight
+        .handle(
+            (shared, e) -> {
+              if (e == null) {
+                return join.apply(shared);
+              }
+              return FutureUtils.isCancellation(e)
+                  ? call.get()
+                  : CompletableFuture.<R>failedFuture(e);
+            })
+        .thenCompose(Function.identity());
+  }
+
+  /** Result of a call as shared with the calls collapsed on it. */
+  @FunctionalInterface
+  private interface Sharing<Q, R, S> {
+    @Nullable
+    S share(CanonicalSituation situation, Q request, R response);
+  }
+
+  /** Response of a collapsed call from the shared result. */
+  @FunctionalInterface
+  private interface Joining<Q, R, S> {
+    CompletableFuture<R> join(CanonicalSituation situation, Q request, @Nullable S shared);
+  }
+
+  private <Q, R, S> CompletableFuture<List<R>> coalesceAll(
+      List<Q> requests,
+      Function<Q, CanonicalSituation> situationOf,
+      ConcurrentMap<CanonicalSituation, CompletableFuture<S>> inFlight,
+      Counter collapsed,
+      Function<List<Q>, CompletableFuture<List<R>>> batchCall,
+      Sharing<Q, R, S> sharing,
+      Joining<Q, R, S> joining) {
+    if (requests.isEmpty()) {
+      return CompletableFuture.completedFuture(List.of());
+    }
+    var situations = new CanonicalSituation[requests.size()];
+    // call in flight joined by each request, null for the requests called
+    List<CompletableFuture<S>> joined = new ArrayList<>(requests.size());
+    List<Integer> callIndexes = new ArrayList<>();
+    List<CompletableFuture<S>> calls = new ArrayList<>();
+    for (int i = 0; i < situations.length; i++) {
+      situations[i] = situationOf.apply(requests.get(i));
+      var call = new CompletableFuture<S>();
+      CompletableFuture<S> existing = inFlight.putIfAbsent(situations[i], call);
+      if (existing != null) {
+        collapsed.increment();
+      } else {
+        callIndexes.add(i);
+        calls.add(call);
+      }
+      joined.add(existing);
+    }
+
+    CompletableFuture<List<R>> batch =
+        callIndexes.isEmpty()
+            ? CompletableFuture.completedFuture(List.of())
+            : FutureUtils.composeNow(
+                () -> batchCall.apply(callIndexes.stream().map(requests::get).toList()));
+    CompletableFuture<List<R>> called =
+        batch.whenComplete(
+            (calculated, e) -> {
+              for (int i = 0; i < callIndexes.size(); i++) {
+                int index = callIndexes.get(i);
+                if (e != null) {
+                  calls.get(i).completeExceptionally(e);
+                } else {
+                  calls
+                      .get(i)
+                      .complete(
+                          sharing.share(situations[index], requests.get(index), calculated.get(i)));
+                }
+                inFlight.remove(situations[index], calls.get(i));
+              }
+            });
+
+    List<CompletableFuture<R>> responses = new ArrayList<>(requests.size());
+    int calledIndex = 0;
+    for (int i = 0; i < situations.length; i++) {
+      CanonicalSituation situation = situations[i];
+      Q request = requests.get(i);
+      if (joined.get(i) == null) {
+        int callIndex = calledIndex++;
+        responses.add(called.thenApply(calculated -> calculated.get(callIndex)));
+      } else {
+        responses.add(
+            joinShared(
+                joined.get(i),
+                shared -> joining.join(situation, request, shared),
+                () ->
+                    batchCall.apply(List.of(request)).thenApply(calculated -> calculated.get(0))));
+      }
+    }
+    return FutureUtils.cancelling(
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new))
+            .thenApply(done -> responses.stream().map(CompletableFuture::join).toList()),
+        batch);
+  }
+}
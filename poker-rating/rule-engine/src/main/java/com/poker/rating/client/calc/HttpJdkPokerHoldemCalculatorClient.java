@@ -2,62 +2,573 @@ package com.poker.rating.client.calc;
 
 import static java.util.Objects.requireNonNullElse;
 
+import com.poker.rating.client.calc.CalculatorEndpointBalancer.CircuitOpenException;
+import com.poker.rating.client.calc.CalculatorEndpointBalancer.Lease;
+import com.poker.rating.client.calc.VegasConcurrencyLimiter.RejectedCallException;
+import com.poker.rating.client.calc.model.ShowdownPercentageBatchRequest;
+import com.poker.rating.client.calc.model.ShowdownPercentageBatchResponse;
 import com.poker.rating.client.calc.model.ShowdownPercentageRequest;
 import com.poker.rating.client.calc.model.ShowdownPercentageResponse;
+import com.poker.rating.client.calc.model.WinPercentageBatchRequest;
+import com.poker.rating.client.calc.model.WinPercentageBatchResponse;
 import com.poker.rating.client.calc.model.WinPercentageRequest;
 import com.poker.rating.client.calc.model.WinPercentageResponse;
-import com.poker.util.jdk.http.JdkHttpClientUtils;
+import com.poker.util.jdk.http.HttpClientException;
+import com.poker.util.json.JacksonUtils;
+import com.poker.util.task.FutureUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
-import java.net.URISyntaxException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import lombok.SneakyThrows;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
 
+/**
+ * Calculator REST client. The calls are sent with {@link HttpClient#sendAsync} over HTTP/2 when the
+ * calculator supports it, and retried by chaining the next attempt to the failed one, so no thread
+ * waits for a response; the blocking calls wait for the asynchronous ones. With the binary protocol
+ * enabled the requests are sent in the {@link BinaryCalculatorCodec} encoding, and the responses
+ * are read in the encoding of their Content-Type. Each attempt goes to an endpoint picked by the
+ * {@link CalculatorEndpointBalancer}. Batches are sent in chunks at the same time, the calculator
+ * computing the requests of a batch one after the other, so the chunks are computed by several
+ * calculator workers and endpoints.
+ *
+ * <p>With the limiter enabled each attempt is made under the {@link VegasConcurrencyLimiter}, so
+ * its latency is the one of a single exchange, without backoff nor hedge delay. Attempts are
+ * compared by call type, Monte Carlo win calls apart, and by batch size rounded up to a power of 2.
+ *
+ * <p>An attempt still running after the hedge percentile of the latencies of its call type is
+ * hedged by a second one, the first response wins and the other attempt is cancelled. Retries and
+ * hedges are bounded by the {@link RetryBudget}, calls answered by the calculator with a status
+ * below 500 are not retried. A call cancelled by its caller cancels its attempts in flight, their
+ * exchanges included, and is not retried. Metrics are in pokerHoldemCalculator.client.*, by call
+ * type.
+ */
 @SuppressWarnings("SameNameButDifferent")
 public class HttpJdkPokerHoldemCalculatorClient implements PokerHoldemCalculatorClient {
 
+  private static final int MAX_ATTEMPTS = 5;
+  private static final long MIN_BACKOFF_MILLIS = 100;
+  private static final long MAX_BACKOFF_MILLIS = 500;
+  // latencies measured before the hedge percentile is trusted
+  private static final long MIN_HEDGE_SAMPLES = 20;
+  private static final long HEDGE_DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+  private static final double DEFAULT_RETRY_BUDGET_RATIO = 0.1;
+  private static final int DEFAULT_BATCH_CHUNK_SIZE = 8;
+  private static final PokerHoldemCalculatorLimiterConfig NO_LIMITER =
+      new PokerHoldemCalculatorLimiterConfig(false, null, null, null, null, null);
+
   @Nonnull private final HttpClient httpClient;
   @Nonnull private final PokerHoldemCalculatorClientConfig config;
+  private final boolean binaryProtocol;
+  @Nullable private final Double hedgePercentile;
+  private final int batchChunkSize;
+  @Nonnull private final CalculatorEndpointBalancer balancer;
+  @Nonnull private final RetryBudget retryBudget;
+  @Nullable private final VegasConcurrencyLimiter limiter;
+  @Nonnull private final CallMeters winMeters;
+  @Nonnull private final CallMeters showdownMeters;
+  @Nonnull private final CallMeters winBatchMeters;
+  @Nonnull private final CallMeters showdownBatchMeters;
+  @Nonnull private final LongSupplier nanoTime;
+
+  public HttpJdkPokerHoldemCalculatorClient(
+      PokerHoldemCalculatorClientConfig config, MeterRegistry meterRegistry) {
+    this(config, NO_LIMITER, meterRegistry);
+  }
+
+  public HttpJdkPokerHoldemCalculatorClient(
+      PokerHoldemCalculatorClientConfig config,
+      PokerHoldemCalculatorLimiterConfig limiterConfig,
+      MeterRegistry meterRegistry) {
+    this(config, limiterConfig, meterRegistry, System::nanoTime);
+  }
 
-  public HttpJdkPokerHoldemCalculatorClient(PokerHoldemCalculatorClientConfig config) {
+  HttpJdkPokerHoldemCalculatorClient(
+      PokerHoldemCalculatorClientConfig config,
+      PokerHoldemCalculatorLimiterConfig limiterConfig,
+      MeterRegistry meterRegistry,
+      LongSupplier nanoTime) {
     this.config = config;
-    this.httpClient = HttpClient.newBuilder().connectTimeout(connectTimeout(config)).build();
+    this.nanoTime = nanoTime;
+    this.binaryProtocol = requireNonNullElse(config.binaryProtocol(), false);
+    this.hedgePercentile = config.hedgePercentile();
+    if (hedgePercentile != null && (hedgePercentile <= 0 || hedgePercentile >= 1)) {
+      throw new IllegalArgumentException("Hedge percentile out of range: " + hedgePercentile);
+    }
+    this.batchChunkSize = requireNonNullElse(config.batchChunkSize(), DEFAULT_BATCH_CHUNK_SIZE);
+    if (batchChunkSize < 1) {
+      throw new IllegalArgumentException("Batch chunk size out of range: " + batchChunkSize);
+    }
+    this.balancer = new CalculatorEndpointBalancer(endpoints(config), meterRegistry, nanoTime);
+    this.retryBudget =
+        new RetryBudget(requireNonNullElse(config.retryBudgetRatio(), DEFAULT_RETRY_BUDGET_RATIO));
+    this.limiter =
+        requireNonNullElse(limiterConfig.enabled(), false)
+            ? new VegasConcurrencyLimiter(
+                requireNonNullElse(limiterConfig.initialLimit(), 10),
+                requireNonNullElse(limiterConfig.minLimit(), 1),
+                requireNonNullElse(limiterConfig.maxLimit(), 200),
+                requireNonNullElse(limiterConfig.maxQueued(), 1000),
+                requireNonNullElse(
+                    limiterConfig.queueTimeoutMillis(), readTimeout().toMillis()),
+                meterRegistry)
+            : null;
+    this.winMeters = new CallMeters(meterRegistry, "win");
+    this.showdownMeters = new CallMeters(meterRegistry, "showdown");
+    this.winBatchMeters = new CallMeters(meterRegistry, "winBatch");
+    this.showdownBatchMeters = new CallMeters(meterRegistry, "showdownBatch");
+    this.httpClient =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(connectTimeout(config))
+            .build();
+  }
+
+  private static List<String> endpoints(PokerHoldemCalculatorClientConfig config) {
+    List<String> endpoints = config.endpoints();
+    return endpoints == null || endpoints.isEmpty() ? List.of(config.endpoint()) : endpoints;
+  }
+
+  private final class CallMeters {
+
+    @Nonnull private final Timer latency;
+    @Nonnull private final Counter retries;
+    @Nonnull private final Counter hedges;
+    @Nonnull private final Counter overBudget;
+    // percentile of the latencies, taken from a snapshot at most once by refresh period
+    private volatile long hedgeDelayNanos;
+    private volatile long hedgeDelayRefreshedNanos;
+
+    private CallMeters(MeterRegistry meterRegistry, String type) {
+      this.hedgeDelayRefreshedNanos = nanoTime.getAsLong() - HEDGE_DELAY_REFRESH_NANOS;
+      Timer.Builder latencyBuilder =
+          Timer.builder("pokerHoldemCalculator.client.calls")
+              .description("Latency of the calculator calls answered")
+              .tag("type", type);
+      if (hedgePercentile != null) {
+        latencyBuilder.publishPercentiles(hedgePercentile);
+      }
+      this.latency = latencyBuilder.register(meterRegistry);
+      this.retries = counter(meterRegistry, "retries", "Calculator calls retried", type);
+      this.hedges = counter(meterRegistry, "hedges", "Calculator calls hedged", type);
+      this.overBudget =
+          counter(
+              meterRegistry,
+              "overBudget",
+              "Calculator retries and hedges not sent, over the retry budget",
+              type);
+    }
+
+    /**
+     * @return hedge delay, not positive while not measured
+     */
+    private long hedgeDelayNanos() {
+      if (hedgePercentile == null) {
+        return 0;
+      }
+      long now = nanoTime.getAsLong();
+      if (now - hedgeDelayRefreshedNanos >= HEDGE_DELAY_REFRESH_NANOS) {
+        // concurrent refreshes take the same percentile, either one is kept
+        hedgeDelayRefreshedNanos = now;
+        hedgeDelayNanos = measuredHedgeDelayNanos();
+      }
+      return hedgeDelayNanos;
+    }
+
+    private long measuredHedgeDelayNanos() {
+      if (latency.count() < MIN_HEDGE_SAMPLES) {
+        return 0;
+      }
+      // the hedge percentile is the only one published
+      ValueAtPercentile[] values = latency.takeSnapshot().percentileValues();
+      return values.length == 0 ? 0 : (long) values[0].value(TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private static Counter counter(
+      MeterRegistry meterRegistry, String name, String description, String type) {
+    return Counter.builder("pokerHoldemCalculator.client." + name)
+        .description(description)
+        .tag("type", type)
+        .register(meterRegistry);
+  }
+
+  /**
+   * A calculator call in both encodings.
+   *
+   * @param limiterType attempts of comparable latency
+   */
+  private record Call<J, T>(
+      String resource,
+      String limiterType,
+      Object jsonRequest,
+      Class<J> jsonResponseType,
+      Function<J, T> fromJson,
+      BinaryWriter binaryRequest,
+      BinaryReader<T> binaryResponse,
+      CallMeters meters) {}
+
+  @FunctionalInterface
+  private interface BinaryWriter {
+    void write(DataOutput out) throws IOException;
+  }
+
+  @FunctionalInterface
+  private interface BinaryReader<T> {
+    T read(DataInput in) throws IOException;
+  }
+
+  private Call<WinPercentageResponse, WinPercentageResponse> winCall(
+      WinPercentageRequest winPercentageRequest) {
+    return new Call<>(
+        WIN_PERCENTAGE_RESOURCE,
+        limiterType("win", isMonteCarlo(winPercentageRequest), 1),
+        winPercentageRequest,
+        WinPercentageResponse.class,
+        Function.identity(),
+        out -> BinaryCalculatorCodec.writeWin(out, winPercentageRequest),
+        in -> BinaryCalculatorCodec.readWin(in, winPercentageRequest),
+        winMeters);
+  }
+
+  private Call<ShowdownPercentageResponse, ShowdownPercentageResponse> showdownCall(
+      ShowdownPercentageRequest showdownPercentageRequest) {
+    return new Call<>(
+        SHOWDOWN_PERCENTAGE_RESOURCE,
+        limiterType("showdown", false, 1),
+        showdownPercentageRequest,
+        ShowdownPercentageResponse.class,
+        Function.identity(),
+        out -> BinaryCalculatorCodec.writeShowdown(out, showdownPercentageRequest),
+        BinaryCalculatorCodec::readShowdown,
+        showdownMeters);
+  }
+
+  private Call<WinPercentageBatchResponse, List<WinPercentageResponse>> winBatchCall(
+      List<WinPercentageRequest> winPercentageRequests) {
+    return new Call<>(
+        WIN_PERCENTAGE_BATCH_RESOURCE,
+        limiterType(
+            "win",
+            winPercentageRequests.stream()
+                .anyMatch(HttpJdkPokerHoldemCalculatorClient::isMonteCarlo),
+            winPercentageRequests.size()),
+        new WinPercentageBatchRequest(winPercentageRequests),
+        WinPercentageBatchResponse.class,
+        WinPercentageBatchResponse::getResponses,
+        out -> BinaryCalculatorCodec.writeWinBatch(out, winPercentageRequests),
+        in -> BinaryCalculatorCodec.readWinBatch(in, winPercentageRequests),
+        winBatchMeters);
+  }
+
+  private Call<ShowdownPercentageBatchResponse, List<ShowdownPercentageResponse>>
+      showdownBatchCall(List<ShowdownPercentageRequest> showdownPercentageRequests) {
+    return new Call<>(
+        SHOWDOWN_PERCENTAGE_BATCH_RESOURCE,
+        limiterType("showdown", false, showdownPercentageRequests.size()),
+        new ShowdownPercentageBatchRequest(showdownPercentageRequests),
+        ShowdownPercentageBatchResponse.class,
+        ShowdownPercentageBatchResponse::getResponses,
+        out -> BinaryCalculatorCodec.writeShowdownBatch(out, showdownPercentageRequests),
+        in -> BinaryCalculatorCodec.readShowdownBatch(in, showdownPercentageRequests.size()),
+        showdownBatchMeters);
+  }
+
+  // the calculator simulates pre-flop win percentages, slower than the enumerations with a board
+  private static boolean isMonteCarlo(WinPercentageRequest winPercentageRequest) {
+    var board = winPercentageRequest.getBoard();
+    return board == null || board.isEmpty();
+  }
+
+  private static String limiterType(String type, boolean monteCarlo, int items) {
+    int itemsBucket = items <= 1 ? 1 : Integer.highestOneBit(items - 1) << 1;
+    return type + (monteCarlo ? ".monteCarlo" : "") + "." + itemsBucket;
   }
 
-  @Retryable(maxAttempts = 5, backoff = @Backoff(delay = 100, maxDelay = 500))
-  @SneakyThrows
   @Override
   public WinPercentageResponse winPercentage(WinPercentageRequest winPercentageRequest) {
-    HttpRequest request = postJson(WIN_PERCENTAGE_RESOURCE, winPercentageRequest);
-    HttpResponse<String> httpResponse = httpClient.send(request, BodyHandlers.ofString());
-    return JdkHttpClientUtils.mapSuccessOrThrow(httpResponse, WinPercentageResponse.class);
+    return FutureUtils.join(winPercentageAsync(winPercentageRequest));
   }
 
-  @Retryable(maxAttempts = 5, backoff = @Backoff(delay = 100, maxDelay = 500))
-  @SneakyThrows
   @Override
   public ShowdownPercentageResponse showdownPercentage(
       ShowdownPercentageRequest showdownPercentageRequest) {
-    HttpRequest request = postJson(SHOWDOWN_PERCENTAGE_RESOURCE, showdownPercentageRequest);
-    HttpResponse<String> httpResponse = httpClient.send(request, BodyHandlers.ofString());
-    return JdkHttpClientUtils.mapSuccessOrThrow(httpResponse, ShowdownPercentageResponse.class);
+    return FutureUtils.join(showdownPercentageAsync(showdownPercentageRequest));
   }
 
-  private HttpRequest postJson(String resource, Object request) throws URISyntaxException {
-    return HttpRequest.newBuilder(new URI(config.endpoint() + resource))
-        .header("Accept", "application/json")
-        .header("Content-Type", "application/json")
+  @Override
+  public List<WinPercentageResponse> winPercentages(
+      List<WinPercentageRequest> winPercentageRequests) {
+    return FutureUtils.join(winPercentagesAsync(winPercentageRequests));
+  }
+
+  @Override
+  public List<ShowdownPercentageResponse> showdownPercentages(
+      List<ShowdownPercentageRequest> showdownPercentageRequests) {
+    return FutureUtils.join(showdownPercentagesAsync(showdownPercentageRequests));
+  }
+
+  @Override
+  public CompletableFuture<WinPercentageResponse> winPercentageAsync(
+      WinPercentageRequest winPercentageRequest) {
+    return send(winCall(winPercentageRequest));
+  }
+
+  @Override
+  public CompletableFuture<ShowdownPercentageResponse> showdownPercentageAsync(
+      ShowdownPercentageRequest showdownPercentageRequest) {
+    return send(showdownCall(showdownPercentageRequest));
+  }
+
+  @Override
+  public CompletableFuture<List<WinPercentageResponse>> winPercentagesAsync(
+      List<WinPercentageRequest> winPercentageRequests) {
+    return sendChunks(winPercentageRequests, this::winBatchCall);
+  }
+
+  @Override
+  public CompletableFuture<List<ShowdownPercentageResponse>> showdownPercentagesAsync(
+      List<ShowdownPercentageRequest> showdownPercentageRequests) {
+    return sendChunks(showdownPercentageRequests, this::showdownBatchCall);
+  }
+
+  /** Batch calls of at most the chunk size sent at the same time, responses in request order. */
+  private <Q, R> CompletableFuture<List<R>> sendChunks(
+      List<Q> requests, Function<List<Q>, Call<?, List<R>>> batchCall) {
+    if (requests.isEmpty()) {
+      return CompletableFuture.completedFuture(List.of());
+    }
+    List<CompletableFuture<List<R>>> chunks = new ArrayList<>();
+    for (int from = 0; from < requests.size(); from += batchChunkSize) {
+      int to = Math.min(requests.size(), from + batchChunkSize);
+      chunks.add(send(batchCall.apply(requests.subList(from, to))));
+    }
+    if (chunks.size() == 1) {
+      return chunks.get(0);
+    }
+    return FutureUtils.cancelling(
+        CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new))
+            .thenApply(done -> chunks.stream().flatMap(chunk -> chunk.join().stream()).toList()),
+        chunks.toArray(CompletableFuture[]::new));
+  }
+
+  /** Response of the call, cancelling the attempt in flight and the next ones when cancelled. */
+  private <J, T> CompletableFuture<T> send(Call<J, T> call) {
+    retryBudget.deposit();
+    var response = new CompletableFuture<T>();
+    try {
+      retry(call, body(call), 1, response);
+    } catch (RuntimeException e) {
+      response.completeExceptionally(e);
+    }
+    return response;
+  }
+
+  private <J, T> void retry(
+      Call<J, T> call, byte[] body, int attempt, CompletableFuture<T> response) {
+    if (response.isDone()) {
+      // cancelled during the backoff
+      return;
+    }
+    CompletableFuture<T> hedged = FutureUtils.composeNow(() -> hedgeAsync(call, body));
+    FutureUtils.cancelling(response, hedged);
+    hedged.whenComplete(
+        (hedgedResponse, e) -> {
+          if (e == null) {
+            response.complete(hedgedResponse);
+            return;
+          }
+          if (attempt >= MAX_ATTEMPTS
+              || isAnswered(e)
+              || isNotSent(e)
+              || FutureUtils.isCancellation(e)
+              || response.isDone()) {
+            response.completeExceptionally(unwrap(e));
+            return;
+          }
+          if (!retryBudget.tryWithdraw()) {
+            call.meters().overBudget.increment();
+            response.completeExceptionally(unwrap(e));
+            return;
+          }
+          call.meters().retries.increment();
+          long backoffMillis =
+              ThreadLocalRandom.current().nextLong(MIN_BACKOFF_MILLIS, MAX_BACKOFF_MILLIS);
+          CompletableFuture.delayedExecutor(backoffMillis, TimeUnit.MILLISECONDS)
+              .execute(() -> retry(call, body, attempt + 1, response));
+        });
+  }
+
+  /** First response of the attempt and of its hedge, failed when both failed. */
+  private <J, T> CompletableFuture<T> hedgeAsync(Call<J, T> call, byte[] body) {
+    long hedgeDelayNanos = call.meters().hedgeDelayNanos();
+    CompletableFuture<T> attempt = attemptAsync(call, body);
+    if (hedgeDelayNanos <= 0) {
+      return attempt;
+    }
+    var response = new CompletableFuture<T>();
+    var pendingAttempts = new AtomicInteger(1);
+    BiConsumer<T, Throwable> completion =
+        (attemptResponse, e) -> {
+          if (e == null) {
+            response.complete(attemptResponse);
+          } else if (pendingAttempts.decrementAndGet() == 0) {
+            response.completeExceptionally(e);
+          }
+        };
+    attempt.whenComplete(completion);
+    response.whenComplete((ignored, e) -> attempt.cancel(true));
+    CompletableFuture.delayedExecutor(hedgeDelayNanos, TimeUnit.NANOSECONDS)
+        .execute(
+            () -> {
+              if (response.isDone()) {
+                return;
+              }
+              if (!retryBudget.tryWithdraw()) {
+                call.meters().overBudget.increment();
+                return;
+              }
+              call.meters().hedges.increment();
+              pendingAttempts.incrementAndGet();
+              CompletableFuture<T> hedge = attemptAsync(call, body);
+              hedge.whenComplete(completion);
+              response.whenComplete((ignored, e) -> hedge.cancel(true));
+            });
+    return response;
+  }
+
+  /** Single attempt under the limit, cancelling its exchange when cancelled. */
+  private <J, T> CompletableFuture<T> attemptAsync(Call<J, T> call, byte[] body) {
+    if (limiter == null) {
+      return exchangeAsync(call, body);
+    }
+    return limiter.submit(call.limiterType(), () -> exchangeAsync(call, body));
+  }
+
+  private <J, T> CompletableFuture<T> exchangeAsync(Call<J, T> call, byte[] body) {
+    return FutureUtils.composeNow(
+        () -> {
+          Lease lease = balancer.pick();
+          long startNanos = balancer.start(lease);
+          CompletableFuture<HttpResponse<byte[]>> exchange;
+          try {
+            exchange = httpClient.sendAsync(post(lease, call, body), BodyHandlers.ofByteArray());
+          } catch (RuntimeException e) {
+            balancer.finish(lease, startNanos, false);
+            throw e;
+          }
+          CompletableFuture<T> response =
+              exchange.thenApply(httpResponse -> read(call, httpResponse));
+          response.whenComplete(
+              (ignored, e) -> {
+                if (response.isCancelled()) {
+                  exchange.cancel(true);
+                  balancer.cancel(lease);
+                  return;
+                }
+                long latencyNanos = nanoTime.getAsLong() - startNanos;
+                balancer.finish(lease, startNanos, e == null || isAnswered(e));
+                if (e == null) {
+                  call.meters().latency.record(latencyNanos, TimeUnit.NANOSECONDS);
+                }
+              });
+          return response;
+        });
+  }
+
+  // calls answered, even rejected, are neither retried nor a failure of the endpoint
+  private static boolean isAnswered(Throwable failure) {
+    return unwrap(failure) instanceof HttpClientException httpClientException
+        && httpClientException.getStatusCode() < 500;
+  }
+
+  // calls not sent, retrying them would only spend the retry budget until the circuits close or
+  // the limiter queue drains
+  private static boolean isNotSent(Throwable failure) {
+    Throwable cause = unwrap(failure);
+    return cause instanceof CircuitOpenException || cause instanceof RejectedCallException;
+  }
+
+  private static Throwable unwrap(Throwable failure) {
+    return failure instanceof CompletionException && failure.getCause() != null
+        ? failure.getCause()
+        : failure;
+  }
+
+  private <J, T> byte[] body(Call<J, T> call) {
+    if (!binaryProtocol) {
+      return JacksonUtils.toJson(call.jsonRequest()).getBytes(StandardCharsets.UTF_8);
+    }
+    var body = new ByteArrayOutputStream();
+    try {
+      call.binaryRequest().write(new DataOutputStream(body));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return body.toByteArray();
+  }
+
+  private HttpRequest post(Lease lease, Call<?, ?> call, byte[] body) {
+    String contentType = binaryProtocol ? BinaryCalculatorCodec.CONTENT_TYPE : "application/json";
+    String accept =
+        binaryProtocol ? BinaryCalculatorCodec.CONTENT_TYPE + ", application/json" : contentType;
+    return HttpRequest.newBuilder(URI.create(lease.endpoint().uri() + call.resource()))
+        .header("Accept", accept)
+        .header("Content-Type", contentType)
         .timeout(readTimeout())
-        .POST(JdkHttpClientUtils.jacksonBodyPublisher(request))
+        .POST(BodyPublishers.ofByteArray(body))
         .build();
   }
 
+  @SneakyThrows
+  private static <J, T> T read(Call<J, T> call, HttpResponse<byte[]> httpResponse) {
+    int statusCode = httpResponse.statusCode();
+    if (statusCode < 200 || statusCode > 299) {
+      throw new HttpClientException(
+          statusCode, new String(httpResponse.body(), StandardCharsets.UTF_8));
+    }
+    InputStream body = new ByteArrayInputStream(httpResponse.body());
+    boolean binary =
+        httpResponse
+            .headers()
+            .firstValue("Content-Type")
+            .filter(contentType -> contentType.startsWith(BinaryCalculatorCodec.CONTENT_TYPE))
+            .isPresent();
+    if (binary) {
+      return call.binaryResponse().read(new DataInputStream(body));
+    }
+    return call.fromJson().apply(JacksonUtils.fromJson(body, call.jsonResponseType()));
+  }
+
   private Duration connectTimeout(PokerHoldemCalculatorClientConfig config) {
     return Duration.ofSeconds(requireNonNullElse(config.connectTimeoutSeconds(), 10));
   }
@@ -0,0 +1,225 @@
+package com.poker.rating.client.calc;
+
+import static java.util.Objects.requireNonNullElse;
+
+import com.poker.evaluator.HandCategory;
+import com.poker.evaluator.HandEvaluator;
+import com.poker.model.game.Card;
+import com.poker.model.game.CardSet;
+import com.poker.rating.client.calc.local.AdaptiveMonteCarloSimulator;
+import com.poker.rating.client.calc.local.CardMasks;
+import com.poker.rating.client.calc.local.ShowdownPercentageEnumerator;
+import com.poker.rating.client.calc.local.WinPercentageEnumerator;
+import com.poker.rating.client.calc.local.WinTally;
+import com.poker.rating.client.calc.model.HandRank;
+import com.poker.rating.client.calc.model.ShowdownPercentageRequest;
+import com.poker.rating.client.calc.model.ShowdownPercentageResponse;
+import com.poker.rating.client.calc.model.WinPercentagePlayer;
+import com.poker.rating.client.calc.model.WinPercentageRequest;
+import com.poker.rating.client.calc.model.WinPercentageResponse;
+import com.poker.util.task.FutureUtils;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * In process calculator with the semantics of the Python holdem calculator REST API: exhaustive
+ * enumeration when board cards are given, Monte Carlo simulation otherwise. Large enumerations are
+ * split across a fork join pool, the common pool unless a parallelism is configured. The requests
+ * of an asynchronous batch are computed at the same time as tasks of the same pool.
+ */
+@SuppressWarnings("SameNameButDifferent")
+public class LocalPokerHoldemCalculatorClient
+    implements PokerHoldemCalculatorClient, AutoCloseable {
+
+  private static final String CARDS_DELIMITER = "\\|";
+  private static final int DEFAULT_WIN_SIMULATIONS = 100_000;
+  private static final int PERCENTAGE_SCALE = 0;
+  private static final int FULL_BOARD_SIZE = 5;
+
+  @Nonnull private final LocalPokerHoldemCalculatorConfig config;
+  @Nonnull private final ForkJoinPool forkJoinPool;
+  @Nonnull private final AdaptiveMonteCarloSimulator adaptiveMonteCarloSimulator;
+
+  public LocalPokerHoldemCalculatorClient(LocalPokerHoldemCalculatorConfig config) {
+    this.config = config;
+    Integer parallelism = config.parallelism();
+    this.forkJoinPool =
+        parallelism != null ? new ForkJoinPool(parallelism) : ForkJoinPool.commonPool();
+    this.adaptiveMonteCarloSimulator = new AdaptiveMonteCarloSimulator(forkJoinPool);
+  }
+
+  public static double toPercentage(double ratio, int scale) {
+    return new BigDecimal(ratio * 100).setScale(scale, RoundingMode.HALF_EVEN).doubleValue();
+  }
+
+  public static double operationTime(long startNanos) {
+    return BigDecimal.valueOf(System.nanoTime() - startNanos, 9)
+        .setScale(6, RoundingMode.HALF_EVEN)
+        .doubleValue();
+  }
+
+  static long playerCards(String cards) {
+    String[] playerCards = cards.split(CARDS_DELIMITER);
+    if (playerCards.length != 2) {
+      throw new IllegalArgumentException("Player must have exactly 2 cards: " + cards);
+    }
+    return CardMasks.mask(Arrays.stream(playerCards).map(Card::of).toList());
+  }
+
+  private static long requireDisjoint(long used, long cards) {
+    if ((used & cards) != 0) {
+      throw new IllegalArgumentException(
+          "Duplicate cards: " + CardSet.ofMask(used & cards));
+    }
+    return used | cards;
+  }
+
+  private static void validateBoard(long board) {
+    int boardSize = Long.bitCount(board);
+    if (boardSize != 0 && (boardSize < 3 || boardSize > FULL_BOARD_SIZE)) {
+      throw new IllegalArgumentException("Board must contains 3 to 5 cards, actual: " + boardSize);
+    }
+  }
+
+  @Override
+  public WinPercentageResponse winPercentage(WinPercentageRequest winPercentageRequest) {
+    long start = System.nanoTime();
+    List<String> players = winPercentageRequest.getPlayers();
+    if (players.size() < 2) {
+      throw new IllegalArgumentException("Win percentage requires at least 2 players");
+    }
+
+    long board = CardMasks.mask(winPercentageRequest.getBoard());
+    validateBoard(board);
+    long used = board;
+    long[] playerMasks = new long[players.size()];
+    for (int i = 0; i < playerMasks.length; i++) {
+      playerMasks[i] = playerCards(players.get(i));
+      used = requireDisjoint(used, playerMasks[i]);
+    }
+    used |= excludes(winPercentageRequest);
+
+    WinTally tally = winTally(playerMasks, board, used);
+    return winPercentageResponse(players, playerMasks, board, tally, start);
+  }
+
+  static WinPercentageResponse winPercentageResponse(
+      List<String> players, long[] playerMasks, long board, WinTally tally, long startNanos) {
+    List<WinPercentagePlayer> playerPercentages = new ArrayList<>(players.size());
+    for (int i = 0; i < playerMasks.length; i++) {
+      playerPercentages.add(
+          new WinPercentagePlayer(
+              players.get(i),
+              toPercentage(tally.winRatio(i), PERCENTAGE_SCALE),
+              handRank(board, playerMasks[i])));
+    }
+    return new WinPercentageResponse(
+        playerPercentages,
+        operationTime(startNanos),
+        toPercentage(tally.tiesRatio(), PERCENTAGE_SCALE),
+        tally.boards());
+  }
+
+  private WinTally winTally(long[] players, long board, long used) {
+    if (board != 0) {
+      return WinPercentageEnumerator.exhaustive(players, board, used, forkJoinPool);
+    }
+    Double winStandardError = config.winStandardError();
+    if (winStandardError != null) {
+      return adaptiveMonteCarloSimulator.simulate(
+          players, board, used, winStandardError / 100, winSimulations());
+    }
+    return WinPercentageEnumerator.monteCarlo(
+        players, board, used, winSimulations(), ThreadLocalRandom.current());
+  }
+
+  @Override
+  public ShowdownPercentageResponse showdownPercentage(
+      ShowdownPercentageRequest showdownPercentageRequest) {
+    long start = System.nanoTime();
+    long board = CardMasks.mask(showdownPercentageRequest.getBoard());
+    if (board == 0) {
+      throw new IllegalArgumentException("Showdown percentage requires board cards");
+    }
+    validateBoard(board);
+    List<Card> playerCards = showdownPercentageRequest.getPlayer();
+    if (playerCards.size() != 2) {
+      throw new IllegalArgumentException("Player must have exactly 2 cards: " + playerCards);
+    }
+    long player = CardMasks.mask(playerCards);
+    requireDisjoint(board, player);
+
+    double showdownRatio = ShowdownPercentageEnumerator.showdownRatio(player, board);
+    return new ShowdownPercentageResponse(
+        toPercentage(showdownRatio, PERCENTAGE_SCALE), operationTime(start));
+  }
+
+  @Override
+  public List<WinPercentageResponse> winPercentages(
+      List<WinPercentageRequest> winPercentageRequests) {
+    return FutureUtils.join(winPercentagesAsync(winPercentageRequests));
+  }
+
+  @Override
+  public List<ShowdownPercentageResponse> showdownPercentages(
+      List<ShowdownPercentageRequest> showdownPercentageRequests) {
+    return FutureUtils.join(showdownPercentagesAsync(showdownPercentageRequests));
+  }
+
+  @Override
+  public CompletableFuture<List<WinPercentageResponse>> winPercentagesAsync(
+      List<WinPercentageRequest> winPercentageRequests) {
+    return computeAll(winPercentageRequests, this::winPercentage);
+  }
+
+  @Override
+  public CompletableFuture<List<ShowdownPercentageResponse>> showdownPercentagesAsync(
+      List<ShowdownPercentageRequest> showdownPercentageRequests) {
+    return computeAll(showdownPercentageRequests, this::showdownPercentage);
+  }
+
+  private <Q, R> CompletableFuture<List<R>> computeAll(List<Q> requests, Function<Q, R> compute) {
+    List<CompletableFuture<R>> responses =
+        requests.stream()
+            .map(
+                request ->
+                    CompletableFuture.supplyAsync(() -> compute.apply(request), forkJoinPool))
+            .toList();
+    return CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new))
+        .thenApply(done -> responses.stream().map(CompletableFuture::join).toList());
+  }
+
+  @Override
+  public void close() {
+    if (forkJoinPool != ForkJoinPool.commonPool()) {
+      forkJoinPool.shutdown();
+    }
+  }
+
+  private long excludes(WinPercentageRequest winPercentageRequest) {
+    var excludes = winPercentageRequest.getExcludes();
+    return excludes == null ? 0L : CardMasks.mask(excludes);
+  }
+
+  private int winSimulations() {
+    return requireNonNullElse(config.winSimulations(), DEFAULT_WIN_SIMULATIONS);
+  }
+
+  @Nullable
+  private static HandRank handRank(long board, long player) {
+    if (Long.bitCount(board) != FULL_BOARD_SIZE) {
+      return null;
+    }
+    HandCategory category = HandEvaluator.category(HandEvaluator.evaluate(board | player));
+    return new HandRank(category.title(), category.rank());
+  }
+}
@@ -0,0 +1,20 @@
+package com.poker.rating.client.calc;
+
+import javax.annotation.Nullable;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+/**
+ * @param winSimulations pre flop Monte Carlo simulations, the samples limit when sampling
+ *     adaptively
+ * @param winStandardError when set, pre flop sampling stops as soon as the standard error of every
+ *     player win percentage is below this value (in percentage points), the flop being enumerated
+ *     exactly in fewer boards than a single sampling round
+ * @param parallelism fork join pool parallelism, common pool when not set
+ */
+@ConstructorBinding
+@ConfigurationProperties(prefix = "poker.holdem.calc.local")
+public record LocalPokerHoldemCalculatorConfig(
+    @Nullable Integer winSimulations,
+    @Nullable Double winStandardError,
+    @Nullable Integer parallelism) {}
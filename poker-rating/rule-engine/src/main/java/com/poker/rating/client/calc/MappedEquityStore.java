@@ -0,0 +1,527 @@
+package com.poker.rating.client.calc;
+
+import com.poker.rating.client.calc.local.CanonicalSituation;
+import com.poker.rating.client.calc.model.HandRank;
+import com.poker.rating.client.calc.model.ShowdownPercentageResponse;
+import com.poker.rating.client.calc.model.WinPercentagePlayer;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append only file of calculator results keyed by {@link CanonicalSituation}, memory mapped for
+ * reads and shared by the processes of a node. The file starts with a magic number, a format
+ * version and a generation, and a record is its length, type, key, value and CRC32. The file is
+ * indexed lazily on the first lookup and caught up with the records appended by other processes on
+ * each miss. It grows by zero filled chunks, is mapped by segments of at most {@value
+ * #SEGMENT_BYTES} bytes, so records are addressed by long offsets past 2 GiB, and is mapped again
+ * only when it grew, the records ending at the first zero length.
+ *
+ * <p>Puts are queued and appended in batches by {@link #flush}, on one open file under one lock
+ * taken on a sibling lock file, which serializes the appends and compactions of the processes. The
+ * file is never truncated nor replaced, other processes may have it mapped: a record torn by a
+ * crashed writer is overwritten by the next append, and a compaction rewrites the newest record of
+ * each key in place, from the start of the file, under an odd generation. Each read checks the key
+ * and CRC of the record at its indexed position, and the other processes reindex once they see the
+ * generation changed. Reads and appends do file IO, the asynchronous calls make them on a dedicated
+ * executor, see {@link CachingPokerHoldemCalculatorClient}.
+ */
+@Slf4j
+class MappedEquityStore implements AutoCloseable {
+
+  private static final int MAGIC = 0x45515459;
+  private static final int VERSION = 1;
+  // magic, version and generation
+  private static final int HEADER_BYTES = 3 * Integer.BYTES;
+  private static final long GROWTH_CHUNK_BYTES = 1024 * 1024;
+  private static final long SEGMENT_BYTES = 1L << 30;
+  private static final int MAXIMUM_PENDING_RECORDS = 1024;
+  private static final byte WIN = 1;
+  private static final byte SHOWDOWN = 2;
+  // length and CRC32
+  private static final int RECORD_OVERHEAD = 2 * Integer.BYTES;
+  private static final long NULL_SAMPLES = -1L;
+
+  @Nonnull private final Path path;
+  @Nonnull private final Path lockPath;
+  private final long maximumBytes;
+  private final long segmentBytes;
+  private final Map<CanonicalSituation, Long> winPositions = new HashMap<>();
+  private final Map<CanonicalSituation, Long> showdownPositions = new HashMap<>();
+  private final List<ByteBuffer> pending = new ArrayList<>();
+  private MappedByteBuffer[] segments = new MappedByteBuffer[0];
+  private long mappedBytes;
+  @Nullable private Object fileKey;
+  private int generation;
+  // 0 until the header is read
+  private long indexedBytes;
+  @Nullable private FileChannel channel;
+  @Nullable private FileChannel lockChannel;
+
+  /**
+   * @param maximumBytes file size above which the oldest records are compacted away to half of it
+   */
+  MappedEquityStore(@Nonnull Path path, long maximumBytes) {
+    this(path, maximumBytes, SEGMENT_BYTES);
+  }
+
+  MappedEquityStore(@Nonnull Path path, long maximumBytes, long segmentBytes) {
+    if (maximumBytes <= 0) {
+      throw new IllegalArgumentException(
+          "Equity store maximum bytes out of range: " + maximumBytes);
+    }
+    if (segmentBytes <= 0 || segmentBytes > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException(
+          "Equity store segment bytes out of range: " + segmentBytes);
+    }
+    this.path = path;
+    this.lockPath = path.resolveSibling(path.getFileName() + ".lock");
+    this.maximumBytes = maximumBytes;
+    this.segmentBytes = segmentBytes;
+  }
+
+  @Nullable
+  synchronized CachedWinPercentage win(@Nonnull CanonicalSituation situation) {
+    ByteBuffer value = lookup(WIN, winPositions, situation);
+    if (value == null) {
+      return null;
+    }
+    double tiesPercentage = value.getDouble();
+    long samples = value.getLong();
+    Double operationTime = getNullableDouble(value);
+    List<WinPercentagePlayer> canonicalPlayers = new ArrayList<>(situation.players());
+    for (int i = 0; i < situation.players(); i++) {
+      double winPercentage = value.getDouble();
+      HandRank handRank = null;
+      if (value.get() != 0) {
+        byte[] name = new byte[value.getShort()];
+        value.get(name);
+        handRank = new HandRank(new String(name, StandardCharsets.UTF_8), value.getInt());
+      }
+      // cards are those of the request, mapped by CachedWinPercentage#toResponse
+      canonicalPlayers.add(new WinPercentagePlayer("", winPercentage, handRank));
+    }
+    return new CachedWinPercentage(
+        canonicalPlayers,
+        operationTime,
+        tiesPercentage,
+        samples == NULL_SAMPLES ? null : samples);
+  }
+
+  @Nullable
+  synchronized ShowdownPercentageResponse showdown(@Nonnull CanonicalSituation situation) {
+    ByteBuffer value = lookup(SHOWDOWN, showdownPositions, situation);
+    if (value == null) {
+      return null;
+    }
+    double showdownPercentage = value.getDouble();
+    return new ShowdownPercentageResponse(showdownPercentage, getNullableDouble(value));
+  }
+
+  synchronized void putWin(
+      @Nonnull CanonicalSituation situation, @Nonnull CachedWinPercentage winPercentage) {
+    List<byte[]> handRankNames = new ArrayList<>();
+    int valueBytes = 3 * Long.BYTES;
+    for (WinPercentagePlayer player : winPercentage.canonicalPlayers()) {
+      valueBytes += Double.BYTES + 1;
+      HandRank handRank = player.getHandRank();
+      if (handRank != null) {
+        byte[] name = handRank.getName().getBytes(StandardCharsets.UTF_8);
+        handRankNames.add(name);
+        valueBytes += Short.BYTES + name.length + Integer.BYTES;
+      }
+    }
+    ByteBuffer value = ByteBuffer.allocate(valueBytes);
+    value.putDouble(winPercentage.tiesPercentage());
+    value.putLong(Objects.requireNonNullElse(winPercentage.samples(), NULL_SAMPLES));
+    putNullableDouble(value, winPercentage.operationTime());
+    int handRankIndex = 0;
+    for (WinPercentagePlayer player : winPercentage.canonicalPlayers()) {
+      value.putDouble(player.getWinPercentage());
+      HandRank handRank = player.getHandRank();
+      if (handRank == null) {
+        value.put((byte) 0);
+      } else {
+        byte[] name = handRankNames.get(handRankIndex++);
+        value.put((byte) 1).putShort((short) name.length).put(name).putInt(handRank.getRank());
+      }
+    }
+    queue(WIN, situation, value.flip());
+  }
+
+  synchronized void putShowdown(
+      @Nonnull CanonicalSituation situation, @Nonnull ShowdownPercentageResponse showdown) {
+    ByteBuffer value = ByteBuffer.allocate(2 * Double.BYTES);
+    value.putDouble(showdown.getShowdownPercentage());
+    putNullableDouble(value, showdown.getOperationTime());
+    queue(SHOWDOWN, situation, value.flip());
+  }
+
+  /** Appends the queued puts, readable by the other stores of the file once flushed. */
+  synchronized void flush() {
+    if (pending.isEmpty()) {
+      return;
+    }
+    try {
+      Path parent = path.toAbsolutePath().getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      if (lockChannel == null) {
+        lockChannel =
+            FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+      }
+      try (FileLock ignored = lockChannel.lock()) {
+        catchUp();
+        if (channel == null) {
+          channel =
+              FileChannel.open(
+                  path,
+                  StandardOpenOption.CREATE,
+                  StandardOpenOption.READ,
+                  StandardOpenOption.WRITE);
+        }
+        if (indexedBytes == 0) {
+          if (channel.size() > 0) {
+            log.warn("Equity store {} is not of format version {}, rewritten", path, VERSION);
+          }
+          endRewrite(channel, beginRewrite(channel), HEADER_BYTES, channel.size());
+        }
+        // compacted before the records appended would take the file past the maximum
+        List<ByteBuffer> records = new ArrayList<>();
+        long end = indexedBytes;
+        for (ByteBuffer record : pending) {
+          if (end + record.remaining() > maximumBytes && end > HEADER_BYTES) {
+            append(channel, records, end);
+            records.clear();
+            compact(channel);
+            end = indexedBytes;
+          }
+          records.add(record);
+          end += record.remaining();
+        }
+        append(channel, records, end);
+      }
+    } catch (IOException e) {
+      log.warn("Equity store {} is not writable", path, e);
+    } finally {
+      pending.clear();
+    }
+  }
+
+  /** Flushes the queued puts and closes the file. */
+  @Override
+  public synchronized void close() {
+    flush();
+    try {
+      closeChannel();
+      if (lockChannel != null) {
+        lockChannel.close();
+        lockChannel = null;
+      }
+    } catch (IOException e) {
+      log.warn("Equity store {} not closed", path, e);
+    }
+  }
+
+  /** Value of the newest record of the key, null when not stored. */
+  @Nullable
+  private ByteBuffer lookup(
+      byte type, Map<CanonicalSituation, Long> positions, CanonicalSituation key) {
+    Long position = positions.get(key);
+    if (position == null) {
+      try {
+        catchUp();
+      } catch (IOException e) {
+        log.warn("Equity store {} is not readable", path, e);
+        return null;
+      }
+      position = positions.get(key);
+      if (position == null) {
+        return null;
+      }
+    }
+    ByteBuffer record = record(position);
+    if (record == null || record.get() != type || !hasKey(record, key)) {
+      // rewritten by the compaction of another process since indexed
+      reset();
+      return null;
+    }
+    return record;
+  }
+
+  private void queue(byte type, CanonicalSituation situation, ByteBuffer value) {
+    int recordLength = 1 + keyBytes(situation.players()) + value.remaining();
+    ByteBuffer record = ByteBuffer.allocate(recordLength + RECORD_OVERHEAD);
+    record.putInt(recordLength).put(type);
+    record.putLong(situation.board()).putLong(situation.excludes());
+    record.put((byte) situation.players());
+    for (int i = 0; i < situation.players(); i++) {
+      record.putLong(situation.player(i));
+    }
+    record.put(value);
+    CRC32 crc = new CRC32();
+    crc.update(record.array(), Integer.BYTES, recordLength);
+    pending.add(record.putInt((int) crc.getValue()).flip());
+    if (pending.size() >= MAXIMUM_PENDING_RECORDS) {
+      flush();
+    }
+  }
+
+  /** Writes the records in one gathering write after the indexed ones, then indexes them. */
+  private void append(FileChannel channel, List<ByteBuffer> records, long end)
+      throws IOException {
+    if (records.isEmpty()) {
+      return;
+    }
+    // over a record torn by a crashed writer, it would hide the records appended after it
+    channel.position(indexedBytes);
+    ByteBuffer[] buffers = records.toArray(ByteBuffer[]::new);
+    for (long written = indexedBytes; written < end; ) {
+      written += channel.write(buffers);
+    }
+    grow(channel, end);
+    catchUp();
+  }
+
+  /** Indexes the records appended since the last call, from the start of a rewritten file. */
+  private void catchUp() throws IOException {
+    if (Files.notExists(path)) {
+      closeChannel();
+      unmap();
+      fileKey = null;
+      return;
+    }
+    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+    if (fileKey != null && !fileKey.equals(attributes.fileKey())) {
+      // deleted and created again
+      closeChannel();
+      unmap();
+    }
+    fileKey = attributes.fileKey();
+    map(attributes.size());
+    int fileGeneration = fileGeneration();
+    if (fileGeneration == -1 || fileGeneration % 2 != 0) {
+      // written by another version, or being rewritten
+      reset();
+      return;
+    }
+    if (indexedBytes == 0 || fileGeneration != generation) {
+      reset();
+      generation = fileGeneration;
+      indexedBytes = HEADER_BYTES;
+    }
+    for (ByteBuffer record = record(indexedBytes); record != null; record = record(indexedBytes)) {
+      byte type = record.get();
+      long board = record.getLong();
+      long excludes = record.getLong();
+      long[] players = new long[record.get()];
+      for (int i = 0; i < players.length; i++) {
+        players[i] = record.getLong();
+      }
+      CanonicalSituation situation = CanonicalSituation.of(board, excludes, players);
+      (type == WIN ? winPositions : showdownPositions).put(situation, indexedBytes);
+      indexedBytes += record.capacity() - Integer.BYTES + RECORD_OVERHEAD;
+    }
+    // an append in progress or torn by a crashed writer ends the records
+  }
+
+  /** Generation of the mapped file, -1 when of another format. */
+  private int fileGeneration() {
+    if (mappedBytes < HEADER_BYTES) {
+      return -1;
+    }
+    ByteBuffer header = read(0, HEADER_BYTES);
+    return header.getInt() == MAGIC && header.getInt() == VERSION ? header.getInt() : -1;
+  }
+
+  /** Rewrites the newest record of each key in place, the oldest dropped to half the maximum. */
+  private void compact(FileChannel channel) throws IOException {
+    List<Long> positions = new ArrayList<>(winPositions.values());
+    positions.addAll(showdownPositions.values());
+    positions.sort(null);
+    long liveBytes = 0;
+    for (long position : positions) {
+      liveBytes += recordBytes(position);
+    }
+    int keptFrom = 0;
+    while (liveBytes > maximumBytes / 2) {
+      liveBytes -= recordBytes(positions.get(keptFrom++));
+    }
+    long compactedBytes = indexedBytes;
+    int compactedGeneration = beginRewrite(channel);
+    long end = HEADER_BYTES;
+    // moved towards the start in file order, so a record is read before anything is written over it
+    for (long position : positions.subList(keptFrom, positions.size())) {
+      end += write(channel, read(position, recordBytes(position)), end);
+    }
+    endRewrite(channel, compactedGeneration, end, compactedBytes);
+    log.info("Equity store {} compacted from {} to {} bytes", path, compactedBytes, indexedBytes);
+  }
+
+  /** Marks the file being rewritten by an odd generation, returns the generation rewritten to. */
+  private int beginRewrite(FileChannel channel) throws IOException {
+    int rewrittenGeneration = (fileGeneration() + 2) & ~1;
+    writeHeader(channel, rewrittenGeneration - 1);
+    return rewrittenGeneration;
+  }
+
+  /** Zero fills the file from the end of the rewritten records, then marks it rewritten. */
+  private void endRewrite(FileChannel channel, int rewrittenGeneration, long end, long dirtyEnd)
+      throws IOException {
+    ByteBuffer zeros = ByteBuffer.allocate((int) GROWTH_CHUNK_BYTES);
+    for (long position = end; position < dirtyEnd; position += zeros.capacity()) {
+      zeros.clear().limit((int) Math.min(zeros.capacity(), dirtyEnd - position));
+      write(channel, zeros, position);
+    }
+    grow(channel, end);
+    channel.force(false);
+    writeHeader(channel, rewrittenGeneration);
+    catchUp();
+  }
+
+  private static void writeHeader(FileChannel channel, int generation) throws IOException {
+    write(
+        channel,
+        ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).putInt(generation).flip(),
+        0);
+  }
+
+  /** Zero fills the file up to the chunk of its end, not past the maximum bytes. */
+  private void grow(FileChannel channel, long end) throws IOException {
+    long chunkEnd = (end + GROWTH_CHUNK_BYTES - 1) / GROWTH_CHUNK_BYTES * GROWTH_CHUNK_BYTES;
+    long size = Math.max(end, Math.min(chunkEnd, maximumBytes));
+    if (size > channel.size()) {
+      channel.write(ByteBuffer.allocate(1), size - 1);
+    }
+  }
+
+  /** Maps the file up to its size, the segments it already had kept. */
+  private void map(long size) throws IOException {
+    if (size <= mappedBytes) {
+      return;
+    }
+    int fullSegments = (int) (mappedBytes / segmentBytes);
+    MappedByteBuffer[] remapped =
+        Arrays.copyOf(segments, (int) ((size + segmentBytes - 1) / segmentBytes));
+    try (FileChannel readChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+      for (int i = fullSegments; i < remapped.length; i++) {
+        long start = i * segmentBytes;
+        remapped[i] =
+            readChannel.map(MapMode.READ_ONLY, start, Math.min(segmentBytes, size - start));
+      }
+    }
+    segments = remapped;
+    mappedBytes = size;
+  }
+
+  private void unmap() {
+    reset();
+    segments = new MappedByteBuffer[0];
+    mappedBytes = 0;
+  }
+
+  private void reset() {
+    winPositions.clear();
+    showdownPositions.clear();
+    indexedBytes = 0;
+  }
+
+  private void closeChannel() throws IOException {
+    if (channel != null) {
+      channel.close();
+      channel = null;
+    }
+  }
+
+  /** Copy of the mapped bytes, across the segments they span. */
+  private ByteBuffer read(long position, int length) {
+    ByteBuffer bytes = ByteBuffer.allocate(length);
+    while (bytes.hasRemaining()) {
+      MappedByteBuffer segment = segments[(int) (position / segmentBytes)];
+      int offset = (int) (position % segmentBytes);
+      int segmentLength = Math.min(bytes.remaining(), segment.capacity() - offset);
+      bytes.put(segment.slice(offset, segmentLength));
+      position += segmentLength;
+    }
+    return bytes.flip();
+  }
+
+  private int recordBytes(long position) {
+    return read(position, Integer.BYTES).getInt() + RECORD_OVERHEAD;
+  }
+
+  /**
+   * @return record from its type to its value followed by its CRC32, positioned at its type, null
+   *     when no valid record starts at the position
+   */
+  @Nullable
+  private ByteBuffer record(long position) {
+    if (position + RECORD_OVERHEAD > mappedBytes) {
+      return null;
+    }
+    int recordLength = read(position, Integer.BYTES).getInt();
+    if (recordLength <= 0 || position + recordLength + RECORD_OVERHEAD > mappedBytes) {
+      return null;
+    }
+    ByteBuffer record = read(position + Integer.BYTES, recordLength + Integer.BYTES);
+    CRC32 crc = new CRC32();
+    crc.update(record.array(), 0, recordLength);
+    return (int) crc.getValue() == record.getInt(recordLength) ? record : null;
+  }
+
+  private static boolean hasKey(ByteBuffer record, CanonicalSituation key) {
+    if (record.getLong() != key.board()
+        || record.getLong() != key.excludes()
+        || record.get() != key.players()) {
+      return false;
+    }
+    for (int i = 0; i < key.players(); i++) {
+      if (record.getLong() != key.player(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static long write(FileChannel channel, ByteBuffer buffer, long position)
+      throws IOException {
+    long written = 0;
+    while (buffer.hasRemaining()) {
+      written += channel.write(buffer, position + written);
+    }
+    return written;
+  }
+
+  private static int keyBytes(int players) {
+    return 2 * Long.BYTES + 1 + players * Long.BYTES;
+  }
+
+  private static void putNullableDouble(ByteBuffer value, @Nullable Double nullable) {
+    value.putDouble(nullable == null ? Double.NaN : nullable);
+  }
+
+  @Nullable
+  private static Double getNullableDouble(ByteBuffer value) {
+    double nullable = value.getDouble();
+    return Double.isNaN(nullable) ? null : nullable;
+  }
+}
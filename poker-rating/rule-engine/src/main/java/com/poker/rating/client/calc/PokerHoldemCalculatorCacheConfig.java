@@ -0,0 +1,24 @@
+package com.poker.rating.client.calc;
+
+import javax.annotation.Nullable;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+/**
+ * @param enabled whether calculator results are cached, disabled unless set to true
+ * @param maximumWeight maximum weight of each of the win and showdown caches, a win entry weighs
+ *     its players count and a showdown entry one
+ * @param expireAfterWriteSeconds time to live of the cached entries
+ * @param file path of the results file shared by the processes of the node and kept across
+ *     restarts, looked up on in memory cache misses, none when not set
+ * @param fileMaximumBytes size of the results file above which it is compacted, 256 MiB when not
+ *     set
+ */
+@ConstructorBinding
+@ConfigurationProperties(prefix = "poker.holdem.calc.cache")
+public record PokerHoldemCalculatorCacheConfig(
+    @Nullable Boolean enabled,
+    @Nullable Long maximumWeight,
+    @Nullable Long expireAfterWriteSeconds,
+    @Nullable String file,
+    @Nullable Long fileMaximumBytes) {}
@@ -4,13 +4,69 @@ import com.poker.rating.client.calc.model.ShowdownPercentageRequest;
 import com.poker.rating.client.calc.model.ShowdownPercentageResponse;
 import com.poker.rating.client.calc.model.WinPercentageRequest;
 import com.poker.rating.client.calc.model.WinPercentageResponse;
+import com.poker.util.task.FutureUtils;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Holdem calculator. The asynchronous calls complete on the caller thread unless overridden by a
+ * non-blocking implementation.
+ */
 public interface PokerHoldemCalculatorClient {
   String WIN_PERCENTAGE_RESOURCE = "/holdem/calc/win/percentage";
   String SHOWDOWN_PERCENTAGE_RESOURCE = "/holdem/calc/showdown/percentage";
+  String WIN_PERCENTAGE_BATCH_RESOURCE = "/holdem/calc/win/percentage/batch";
+  String SHOWDOWN_PERCENTAGE_BATCH_RESOURCE = "/holdem/calc/showdown/percentage/batch";
 
   WinPercentageResponse winPercentage(WinPercentageRequest winPercentageRequest);
 
   ShowdownPercentageResponse showdownPercentage(
       ShowdownPercentageRequest showdownPercentageRequest);
+
+  /**
+   * Win percentages of all the requests of a hand, one request after the other unless overridden.
+   *
+   * @return responses in the order of the requests
+   */
+  default List<WinPercentageResponse> winPercentages(
+      List<WinPercentageRequest> winPercentageRequests) {
+    return winPercentageRequests.stream().map(this::winPercentage).toList();
+  }
+
+  /**
+   * Showdown percentages of all the requests of a hand, one request after the other unless
+   * overridden.
+   *
+   * @return responses in the order of the requests
+   */
+  default List<ShowdownPercentageResponse> showdownPercentages(
+      List<ShowdownPercentageRequest> showdownPercentageRequests) {
+    return showdownPercentageRequests.stream().map(this::showdownPercentage).toList();
+  }
+
+  default CompletableFuture<WinPercentageResponse> winPercentageAsync(
+      WinPercentageRequest winPercentageRequest) {
+    return FutureUtils.supplyNow(() -> winPercentage(winPercentageRequest));
+  }
+
+  default CompletableFuture<ShowdownPercentageResponse> showdownPercentageAsync(
+      ShowdownPercentageRequest showdownPercentageRequest) {
+    return FutureUtils.supplyNow(() -> showdownPercentage(showdownPercentageRequest));
+  }
+
+  /**
+   * @see #winPercentages(List)
+   */
+  default CompletableFuture<List<WinPercentageResponse>> winPercentagesAsync(
+      List<WinPercentageRequest> winPercentageRequests) {
+    return FutureUtils.supplyNow(() -> winPercentages(winPercentageRequests));
+  }
+
+  /**
+   * @see #showdownPercentages(List)
+   */
+  default CompletableFuture<List<ShowdownPercentageResponse>> showdownPercentagesAsync(
+      List<ShowdownPercentageRequest> showdownPercentageRequests) {
+    return FutureUtils.supplyNow(() -> showdownPercentages(showdownPercentageRequests));
+  }
 }
@@ -1,13 +1,32 @@
 package com.poker.rating.client.calc;
 
+import java.util.List;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.ConstructorBinding;
 
+/**
+ * @param endpoint calculator endpoint, used when no endpoints are set
+ * @param binaryProtocol whether the calls are sent and answered in the compact binary encoding of
+ *     {@link BinaryCalculatorCodec} instead of JSON, disabled unless set to true
+ * @param endpoints calculator endpoints the calls are balanced over by {@link
+ *     CalculatorEndpointBalancer}, for instance the addresses of the calculator replicas
+ * @param hedgePercentile percentile of the call latencies after which a call is hedged by a second
+ *     one, between 0 and 1 exclusive, no hedging when not set
+ * @param retryBudgetRatio retries and hedges per call of the {@link RetryBudget}, 0.1 by default
+ * @param batchChunkSize requests of the batch calls sent at most in a single call, the chunks of a
+ *     batch being sent at the same time, 8 by default
+ */
 @ConstructorBinding
 @ConfigurationProperties(prefix = "poker.holdem.calc.client")
 public record PokerHoldemCalculatorClientConfig(
     @Nonnull String endpoint,
     @Nullable Integer connectTimeoutSeconds,
-    @Nullable Integer readTimeoutSeconds) {}
+    @Nullable Integer readTimeoutSeconds,
+    @Nullable PokerHoldemCalculatorType type,
+    @Nullable Boolean binaryProtocol,
+    @Nullable List<String> endpoints,
+    @Nullable Double hedgePercentile,
+    @Nullable Double retryBudgetRatio,
+    @Nullable Integer batchChunkSize) {}
@@ -0,0 +1,25 @@
+package com.poker.rating.client.calc;
+
+import javax.annotation.Nullable;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+/**
+ * @param enabled whether the attempts of the calculator calls over HTTP are under an adaptive
+ *     concurrency limit shared by the process, disabled unless set to true
+ * @param initialLimit calls in flight allowed until latencies are observed, 10 when not set
+ * @param minLimit calls in flight allowed however slow the calculator gets, 1 when not set
+ * @param maxLimit calls in flight allowed however fast the calculator stays, 200 when not set
+ * @param maxQueued calls waiting for the limit, the next ones rejected, 1000 when not set
+ * @param queueTimeoutMillis time a call waits for the limit before being rejected, not retried,
+ *     the client read timeout when not set
+ */
+@ConstructorBinding
+@ConfigurationProperties(prefix = "poker.holdem.calc.limiter")
+public record PokerHoldemCalculatorLimiterConfig(
+    @Nullable Boolean enabled,
+    @Nullable Integer initialLimit,
+    @Nullable Integer minLimit,
+    @Nullable Integer maxLimit,
+    @Nullable Integer maxQueued,
+    @Nullable Long queueTimeoutMillis) {}
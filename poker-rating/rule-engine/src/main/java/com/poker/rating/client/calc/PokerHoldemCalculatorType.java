@@ -0,0 +1,8 @@
+package com.poker.rating.client.calc;
+
+public enum PokerHoldemCalculatorType {
+  /** Remote Python holdem calculator REST API. */
+  HTTP,
+  /** In process Java calculator. */
+  LOCAL
+}
@@ -0,0 +1,152 @@
+package com.poker.rating.client.calc;
+
+import com.google.common.base.Preconditions;
+import com.poker.rating.client.calc.local.HeadsUpPreFlopTable;
+import com.poker.rating.client.calc.local.WinTally;
+import com.poker.rating.client.calc.model.ShowdownPercentageRequest;
+import com.poker.rating.client.calc.model.ShowdownPercentageResponse;
+import com.poker.rating.client.calc.model.WinPercentageRequest;
+import com.poker.rating.client.calc.model.WinPercentageResponse;
+import com.poker.util.task.FutureUtils;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Serves heads-up pre-flop win percentages without dead cards from the exact {@link
+ * HeadsUpPreFlopTable} loaded at startup, every other request goes to the delegate calculator.
+ */
+public class PreFlopTablePokerHoldemCalculatorClient implements PokerHoldemCalculatorClient {
+
+  private static final String RESOURCE_NAME = "preflop_headsup.bin";
+  private static final HeadsUpPreFlopTable HEADS_UP_PRE_FLOP_TABLE = loadHeadsUpPreFlopTable();
+
+  @Nonnull private final PokerHoldemCalculatorClient delegate;
+
+  public PreFlopTablePokerHoldemCalculatorClient(@Nonnull PokerHoldemCalculatorClient delegate) {
+    this.delegate = delegate;
+  }
+
+  private static HeadsUpPreFlopTable loadHeadsUpPreFlopTable() {
+    InputStream resource =
+        PreFlopTablePokerHoldemCalculatorClient.class
+            .getClassLoader()
+            .getResourceAsStream(RESOURCE_NAME);
+    Preconditions.checkNotNull(
+        resource, "Heads-up pre flop table is missing in classpath: " + RESOURCE_NAME);
+    try (var input = new DataInputStream(new BufferedInputStream(resource))) {
+      return HeadsUpPreFlopTable.read(input);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static boolean isPreFlopWithoutDeadCards(
+      @Nonnull WinPercentageRequest winPercentageRequest) {
+    var board = winPercentageRequest.getBoard();
+    var excludes = winPercentageRequest.getExcludes();
+    return (board == null || board.isEmpty()) && (excludes == null || excludes.isEmpty());
+  }
+
+  @Override
+  public WinPercentageResponse winPercentage(WinPercentageRequest winPercentageRequest) {
+    WinPercentageResponse winPercentage = tableWinPercentage(winPercentageRequest);
+    return winPercentage != null ? winPercentage : delegate.winPercentage(winPercentageRequest);
+  }
+
+  @Override
+  public List<WinPercentageResponse> winPercentages(
+      List<WinPercentageRequest> winPercentageRequests) {
+    return FutureUtils.join(winPercentagesAsync(winPercentageRequests));
+  }
+
+  @Override
+  public CompletableFuture<WinPercentageResponse> winPercentageAsync(
+      WinPercentageRequest winPercentageRequest) {
+    WinPercentageResponse winPercentage = tableWinPercentage(winPercentageRequest);
+    return winPercentage != null
+        ? CompletableFuture.completedFuture(winPercentage)
+        : delegate.winPercentageAsync(winPercentageRequest);
+  }
+
+  @Override
+  public CompletableFuture<List<WinPercentageResponse>> winPercentagesAsync(
+      List<WinPercentageRequest> winPercentageRequests) {
+    var winPercentages = new WinPercentageResponse[winPercentageRequests.size()];
+    List<Integer> delegatedIndexes = new ArrayList<>();
+    for (int i = 0; i < winPercentages.length; i++) {
+      winPercentages[i] = tableWinPercentage(winPercentageRequests.get(i));
+      if (winPercentages[i] == null) {
+        delegatedIndexes.add(i);
+      }
+    }
+    if (delegatedIndexes.isEmpty()) {
+      return CompletableFuture.completedFuture(List.of(winPercentages));
+    }
+    var delegated =
+        delegate.winPercentagesAsync(
+            delegatedIndexes.stream().map(winPercentageRequests::get).toList());
+    return FutureUtils.cancelling(
+        delegated.thenApply(
+            calculated -> {
+              for (int i = 0; i < delegatedIndexes.size(); i++) {
+                winPercentages[delegatedIndexes.get(i)] = calculated.get(i);
+              }
+              return List.of(winPercentages);
+            }),
+        delegated);
+  }
+
+  private @Nullable WinPercentageResponse tableWinPercentage(
+      WinPercentageRequest winPercentageRequest) {
+    long start = System.nanoTime();
+    List<String> players = winPercentageRequest.getPlayers();
+    if (players.size() != 2 || !isPreFlopWithoutDeadCards(winPercentageRequest)) {
+      return null;
+    }
+    long[] playerMasks = {
+      LocalPokerHoldemCalculatorClient.playerCards(players.get(0)),
+      LocalPokerHoldemCalculatorClient.playerCards(players.get(1))
+    };
+    if ((playerMasks[0] & playerMasks[1]) != 0) {
+      return null;
+    }
+    WinTally tally = HEADS_UP_PRE_FLOP_TABLE.tally(playerMasks[0], playerMasks[1]);
+    if (tally == null) {
+      return null;
+    }
+    return LocalPokerHoldemCalculatorClient.winPercentageResponse(
+        players, playerMasks, 0L, tally, start);
+  }
+
+  @Override
+  public ShowdownPercentageResponse showdownPercentage(
+      ShowdownPercentageRequest showdownPercentageRequest) {
+    return delegate.showdownPercentage(showdownPercentageRequest);
+  }
+
+  @Override
+  public List<ShowdownPercentageResponse> showdownPercentages(
+      List<ShowdownPercentageRequest> showdownPercentageRequests) {
+    return delegate.showdownPercentages(showdownPercentageRequests);
+  }
+
+  @Override
+  public CompletableFuture<ShowdownPercentageResponse> showdownPercentageAsync(
+      ShowdownPercentageRequest showdownPercentageRequest) {
+    return delegate.showdownPercentageAsync(showdownPercentageRequest);
+  }
+
+  @Override
+  public CompletableFuture<List<ShowdownPercentageResponse>> showdownPercentagesAsync(
+      List<ShowdownPercentageRequest> showdownPercentageRequests) {
+    return delegate.showdownPercentagesAsync(showdownPercentageRequests);
+  }
+}
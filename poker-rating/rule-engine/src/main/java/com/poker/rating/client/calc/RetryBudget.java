@@ -0,0 +1,46 @@
+package com.poker.rating.client.calc;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket bounding the extra calls, retries and hedges, to a ratio of the calls: each call
+ * deposits the ratio of a token and each extra call withdraws a whole one. The bucket starts full,
+ * so the first failures are retried, and holds at most {@value #MAX_TOKENS} tokens.
+ */
+class RetryBudget {
+
+  static final int MAX_TOKENS = 10;
+  private static final long TOKEN = 1000;
+
+  private final long deposit;
+  private final AtomicLong tokens = new AtomicLong(MAX_TOKENS * TOKEN);
+
+  /**
+   * @param ratio extra calls per call
+   */
+  RetryBudget(double ratio) {
+    if (ratio < 0) {
+      throw new IllegalArgumentException("Retry budget ratio is negative: " + ratio);
+    }
+    this.deposit = Math.round(ratio * TOKEN);
+  }
+
+  void deposit() {
+    tokens.accumulateAndGet(
+        deposit, (current, added) -> Math.min(current + added, MAX_TOKENS * TOKEN));
+  }
+
+  /**
+   * @return whether an extra call is in the budget
+   */
+  boolean tryWithdraw() {
+    long current;
+    do {
+      current = tokens.get();
+      if (current < TOKEN) {
+        return false;
+      }
+    } while (!tokens.compareAndSet(current, current - TOKEN));
+    return true;
+  }
+}
@@ -0,0 +1,267 @@
+package com.poker.rating.client.calc;
+
+import com.poker.util.task.FutureUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+
+/**
+ * Limit of the calls in flight adapted to their latency the TCP Vegas way: the calls queued at the
+ * callee are estimated from the ratio of the minimum latency to the latency of each call, the limit
+ * grows while few are and shrinks when many are. The minimum latency is kept by call type, a type
+ * being comparable calls, and is measured again every {@value #PROBE_CALLS} calls to follow a
+ * callee getting slower. Calls over the limit wait in a bounded queue for a call in flight to end,
+ * and are rejected with a {@link RejectedCallException} when the queue is full or when they waited
+ * over the queue timeout. Calls cancelled by their caller leave the queue, or are cancelled when
+ * already made.
+ *
+ * <p>The limit, calls in flight and queued are gauged in pokerHoldemCalculator.limiter.{limit,
+ * inFlight,queued}, the queue time timed in pokerHoldemCalculator.limiter.queueTime and the
+ * rejected calls counted in pokerHoldemCalculator.limiter.rejected by reason.
+ */
+class VegasConcurrencyLimiter {
+
+  static final int PROBE_CALLS = 1000;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final int maxQueued;
+  private final long queueTimeoutNanos;
+  @Nonnull private final LongSupplier nanoTime;
+  @Nonnull private final Timer queueTime;
+  @Nonnull private final Counter queueFull;
+  @Nonnull private final Counter queueTimeout;
+
+  private double limit;
+  private int inFlight;
+  private int callsToProbe = PROBE_CALLS;
+  private final Queue<Pending<?>> queue = new ArrayDeque<>();
+  private final Map<String, Long> minLatencyNanos = new HashMap<>();
+
+  VegasConcurrencyLimiter(
+      int initialLimit,
+      int minLimit,
+      int maxLimit,
+      int maxQueued,
+      long queueTimeoutMillis,
+      @Nonnull MeterRegistry meterRegistry) {
+    this(
+        initialLimit,
+        minLimit,
+        maxLimit,
+        maxQueued,
+        queueTimeoutMillis,
+        meterRegistry,
+        System::nanoTime);
+  }
+
+  VegasConcurrencyLimiter(
+      int initialLimit,
+      int minLimit,
+      int maxLimit,
+      int maxQueued,
+      long queueTimeoutMillis,
+      @Nonnull MeterRegistry meterRegistry,
+      @Nonnull LongSupplier nanoTime) {
+    if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+      throw new IllegalArgumentException(
+          "Concurrency limits out of order, min: %d, initial: %d, max: %d"
+              .formatted(minLimit, initialLimit, maxLimit));
+    }
+    if (maxQueued < 0 || queueTimeoutMillis <= 0) {
+      throw new IllegalArgumentException(
+          "Queue bounds out of range, max queued: %d, timeout: %dms"
+              .formatted(maxQueued, queueTimeoutMillis));
+    }
+    this.limit = initialLimit;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.maxQueued = maxQueued;
+    this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis);
+    this.nanoTime = nanoTime;
+    Gauge.builder("pokerHoldemCalculator.limiter.limit", this, VegasConcurrencyLimiter::limit)
+        .description("Adaptive limit of the calculator calls in flight")
+        .register(meterRegistry);
+    Gauge.builder("pokerHoldemCalculator.limiter.inFlight", this, VegasConcurrencyLimiter::inFlight)
+        .description("Calculator calls in flight")
+        .register(meterRegistry);
+    Gauge.builder("pokerHoldemCalculator.limiter.queued", this, VegasConcurrencyLimiter::queued)
+        .description("Calculator calls waiting for the limit")
+        .register(meterRegistry);
+    this.queueTime =
+        Timer.builder("pokerHoldemCalculator.limiter.queueTime")
+            .description("Time calculator calls waited for the limit")
+            .register(meterRegistry);
+    this.queueFull = rejected(meterRegistry, "queueFull");
+    this.queueTimeout = rejected(meterRegistry, "queueTimeout");
+  }
+
+  private static Counter rejected(MeterRegistry meterRegistry, String reason) {
+    return Counter.builder("pokerHoldemCalculator.limiter.rejected")
+        .description("Calculator calls rejected by the limiter, not made")
+        .tag("reason", reason)
+        .register(meterRegistry);
+  }
+
+  /** Failure of a call not made, rejected by the limiter. */
+  static final class RejectedCallException extends RejectedExecutionException {
+
+    private RejectedCallException(String message) {
+      super(message);
+    }
+  }
+
+  private record Pending<T>(
+      String type,
+      Supplier<CompletableFuture<T>> call,
+      CompletableFuture<T> response,
+      long queuedNanos) {}
+
+  /**
+   * @param type calls of comparable latency
+   * @return response of the call, made once under the limit
+   */
+  @Nonnull
+  <T> CompletableFuture<T> submit(
+      @Nonnull String type, @Nonnull Supplier<CompletableFuture<T>> call) {
+    var pending = new Pending<>(type, call, new CompletableFuture<>(), nanoTime.getAsLong());
+    boolean underLimit;
+    synchronized (this) {
+      underLimit = inFlight < (int) limit;
+      if (underLimit) {
+        inFlight++;
+      } else if (queue.size() < maxQueued) {
+        queue.add(pending);
+      } else {
+        queueFull.increment();
+        return CompletableFuture.failedFuture(
+            new RejectedCallException("Calculator calls queue is full: " + maxQueued));
+      }
+    }
+    if (underLimit) {
+      start(pending);
+    } else {
+      // a caller giving up leaves the queue
+      pending
+          .response()
+          .whenComplete(
+              (ignored, e) -> {
+                if (pending.response().isCancelled()) {
+                  dequeue(pending);
+                }
+              });
+      CompletableFuture.delayedExecutor(queueTimeoutNanos, TimeUnit.NANOSECONDS)
+          .execute(() -> expire(pending));
+    }
+    return pending.response();
+  }
+
+  private synchronized boolean dequeue(Pending<?> pending) {
+    return queue.remove(pending);
+  }
+
+  private void expire(Pending<?> pending) {
+    if (dequeue(pending)) {
+      queueTimeout.increment();
+      pending
+          .response()
+          .completeExceptionally(
+              new RejectedCallException(
+                  "Calculator call waited for the limit over "
+                      + TimeUnit.NANOSECONDS.toMillis(queueTimeoutNanos)
+                      + "ms"));
+    }
+  }
+
+  synchronized int limit() {
+    return (int) limit;
+  }
+
+  synchronized int inFlight() {
+    return inFlight;
+  }
+
+  synchronized int queued() {
+    return queue.size();
+  }
+
+  private <T> void start(Pending<T> pending) {
+    long startNanos = nanoTime.getAsLong();
+    queueTime.record(startNanos - pending.queuedNanos(), TimeUnit.NANOSECONDS);
+    CompletableFuture<T> call = FutureUtils.composeNow(pending.call());
+    call.whenComplete(
+        (response, e) -> {
+          release(pending.type(), nanoTime.getAsLong() - startNanos, e == null);
+          if (e != null) {
+            pending.response().completeExceptionally(e);
+          } else {
+            pending.response().complete(response);
+          }
+        });
+    // a caller giving up cancels the call made
+    pending
+        .response()
+        .whenComplete(
+            (ignored, e) -> {
+              if (pending.response().isCancelled()) {
+                call.cancel(true);
+              }
+            });
+  }
+
+  private void release(String type, long latencyNanos, boolean succeeded) {
+    List<Pending<?>> ready = new ArrayList<>();
+    synchronized (this) {
+      // failed calls may have ended early, their latency says nothing of the queue
+      if (succeeded) {
+        adapt(type, latencyNanos);
+      }
+      inFlight--;
+      while (inFlight < (int) limit && !queue.isEmpty()) {
+        Pending<?> next = queue.remove();
+        // cancelled or rejected while queued
+        if (!next.response().isDone()) {
+          inFlight++;
+          ready.add(next);
+        }
+      }
+    }
+    ready.forEach(this::start);
+  }
+
+  private void adapt(String type, long latencyNanos) {
+    if (--callsToProbe <= 0) {
+      callsToProbe = PROBE_CALLS;
+      minLatencyNanos.clear();
+    }
+    long minLatency = minLatencyNanos.merge(type, Math.max(latencyNanos, 1), Math::min);
+    double log = Math.max(1, Math.log10(limit));
+    double queued = Math.ceil(limit * (1 - (double) minLatency / Math.max(latencyNanos, 1)));
+    if (queued <= log) {
+      // no growth while the limit is not used, it would not be tested
+      if (inFlight * 2 >= limit) {
+        limit += 6 * log;
+      }
+    } else if (queued < 3 * log) {
+      if (inFlight * 2 >= limit) {
+        limit += log;
+      }
+    } else if (queued > 6 * log) {
+      limit -= log;
+    }
+    limit = Math.max(minLimit, Math.min(maxLimit, limit));
+  }
+}
@@ -0,0 +1,71 @@
+package com.poker.rating.client.calc.local;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Monte Carlo win percentage sampled in rounds of parallel tasks, each task drawing boards from its
+ * own {@link SplittableRandom} stream, until the standard error of every player win ratio is within
+ * the tolerance or the samples limit is reached. Used pre flop only: a flop has at most 990 runouts
+ * heads up, enumerated exactly in fewer boards than a task samples in one round.
+ */
+public final class AdaptiveMonteCarloSimulator {
+
+  private static final int ROUND_SAMPLES_PER_TASK = 2048;
+
+  private final ForkJoinPool pool;
+
+  public AdaptiveMonteCarloSimulator(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  static boolean converged(WinTally tally, double standardErrorTolerance) {
+    long boards = tally.boards();
+    if (boards == 0) {
+      return false;
+    }
+    double maxVariance = standardErrorTolerance * standardErrorTolerance * boards;
+    for (int i = 0; i < tally.players(); i++) {
+      double winRatio = tally.winRatio(i);
+      if (winRatio * (1 - winRatio) > maxVariance) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public WinTally simulate(
+      long[] players, long board, long used, double standardErrorTolerance, int maxSamples) {
+    int tasks = pool.getParallelism();
+    SplittableRandom seed = new SplittableRandom();
+    SplittableRandom[] streams = new SplittableRandom[tasks];
+    for (int i = 0; i < tasks; i++) {
+      streams[i] = seed.split();
+    }
+
+    WinTally tally = new WinTally(players.length);
+    while (tally.boards() < maxSamples) {
+      long remaining = maxSamples - tally.boards();
+      int samplesPerTask = (int) Math.min(ROUND_SAMPLES_PER_TASK, (remaining + tasks - 1) / tasks);
+      List<ForkJoinTask<WinTally>> round = new ArrayList<>(tasks);
+      for (int i = 0; i < tasks && remaining > 0; i++) {
+        int samples = (int) Math.min(samplesPerTask, remaining);
+        remaining -= samples;
+        SplittableRandom stream = streams[i];
+        round.add(
+            pool.submit(
+                () -> WinPercentageEnumerator.monteCarlo(players, board, used, samples, stream)));
+      }
+      for (ForkJoinTask<WinTally> task : round) {
+        tally.merge(task.join());
+      }
+      if (converged(tally, standardErrorTolerance)) {
+        break;
+      }
+    }
+    return tally;
+  }
+}
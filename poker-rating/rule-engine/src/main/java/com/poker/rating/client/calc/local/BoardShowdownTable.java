@@ -0,0 +1,162 @@
+package com.poker.rating.client.calc.local;
+
+import com.poker.evaluator.HandEvaluator;
+import com.poker.model.game.Card;
+import com.poker.model.game.CardSet;
+
+/**
+ * Strength of every hole cards holding on every runout of one board. Built once per board, the
+ * showdown ratio of each player on that board is derived from the shared table instead of
+ * enumerating all opponent holdings again per player.
+ */
+public final class BoardShowdownTable {
+
+  public static final int HOLDINGS = 1326;
+
+  private static final int BOARD_SIZE = 5;
+  private static final long[] HOLDING_MASKS = initHoldingMasks();
+
+  private final long board;
+  private final long[] runouts;
+  // holding major, zero for the runouts intersecting the holding which are left unevaluated
+  private final int[] strengths;
+  // runouts shared by any two disjoint holdings
+  private final int pairBoards;
+  // runouts intersecting one of two disjoint holdings only, the other holding beats its zero
+  private final int pairSingleOverlaps;
+
+  private BoardShowdownTable(long board) {
+    this.board = board;
+    int[] deck = CardMasks.indexes(CardMasks.DECK & ~board);
+    int missing = BOARD_SIZE - Long.bitCount(board);
+    this.runouts = ShowdownPercentageEnumerator.runouts(deck, missing);
+    this.strengths = new int[HOLDINGS * runouts.length];
+    this.pairBoards = ShowdownPercentageEnumerator.combinations(deck.length - 4, missing);
+    this.pairSingleOverlaps =
+        ShowdownPercentageEnumerator.combinations(deck.length - 2, missing) - pairBoards;
+    for (int holding = 0; holding < HOLDINGS; holding++) {
+      long holdingMask = HOLDING_MASKS[holding];
+      if ((holdingMask & board) != 0) {
+        continue;
+      }
+      int row = holding * runouts.length;
+      for (int i = 0; i < runouts.length; i++) {
+        if ((runouts[i] & holdingMask) == 0) {
+          strengths[row + i] = HandEvaluator.evaluate(board | runouts[i] | holdingMask);
+        }
+      }
+    }
+  }
+
+  private static long[] initHoldingMasks() {
+    long[] holdingMasks = new long[HOLDINGS];
+    for (int high = 1; high < Card.DECK_SIZE; high++) {
+      for (int low = 0; low < high; low++) {
+        holdingMasks[holding(high, low)] = 1L << high | 1L << low;
+      }
+    }
+    return holdingMasks;
+  }
+
+  private static int holding(int high, int low) {
+    return high * (high - 1) / 2 + low;
+  }
+
+  /**
+   * @return index from 0 to {@link #HOLDINGS} exclusive of the 2 cards holding
+   */
+  public static int holding(long holdingMask) {
+    int low = Long.numberOfTrailingZeros(holdingMask);
+    int high = Long.numberOfTrailingZeros(holdingMask & (holdingMask - 1));
+    return holding(high, low);
+  }
+
+  /**
+   * @param board flop, turn or river cards mask
+   */
+  public static BoardShowdownTable of(long board) {
+    int boardSize = Long.bitCount(board);
+    if (boardSize < 3 || boardSize > BOARD_SIZE) {
+      throw new IllegalArgumentException("Board must contains 3 to 5 cards, actual: " + boardSize);
+    }
+    return new BoardShowdownTable(board);
+  }
+
+  /**
+   * Same result as {@link ShowdownPercentageEnumerator#showdownRatio(long, long)} for the board of
+   * this table.
+   */
+  public double showdownRatio(long player) {
+    if (Long.bitCount(player) != 2 || (player & board) != 0) {
+      throw new IllegalArgumentException(
+          "Player must have exactly 2 cards not on the board: " + CardSet.ofMask(player));
+    }
+    int playerRow = holding(player) * runouts.length;
+    int opponents = 0;
+    int beaten = 0;
+    for (int holding = 0; holding < HOLDINGS; holding++) {
+      long opponent = HOLDING_MASKS[holding];
+      if ((opponent & (board | player)) != 0) {
+        continue;
+      }
+      opponents++;
+      int opponentRow = holding * runouts.length;
+      int wins = 0;
+      for (int i = 0; i < runouts.length; i++) {
+        wins += (strengths[opponentRow + i] - strengths[playerRow + i]) >>> 31;
+      }
+      if (ShowdownPercentageEnumerator.beatsMoreThanHalf(wins - pairSingleOverlaps, pairBoards)) {
+        beaten++;
+      }
+    }
+    return (double) beaten / opponents;
+  }
+
+  /**
+   * Showdown ratio of every holding, each pair of holdings is compared once for both sides.
+   *
+   * @return ratios indexed by {@link #holding(long)}, NaN for the holdings intersecting the board
+   */
+  public double[] showdownRatios() {
+    int[] opponents = new int[HOLDINGS];
+    int[] beaten = new int[HOLDINGS];
+    for (int player = 0; player < HOLDINGS; player++) {
+      long playerMask = HOLDING_MASKS[player];
+      if ((playerMask & board) != 0) {
+        continue;
+      }
+      int playerRow = player * runouts.length;
+      for (int opponent = player + 1; opponent < HOLDINGS; opponent++) {
+        long opponentMask = HOLDING_MASKS[opponent];
+        if ((opponentMask & (board | playerMask)) != 0) {
+          continue;
+        }
+        int opponentRow = opponent * runouts.length;
+        int playerWins = 0;
+        int opponentWins = 0;
+        for (int i = 0; i < runouts.length; i++) {
+          int playerStrength = strengths[playerRow + i];
+          int opponentStrength = strengths[opponentRow + i];
+          playerWins += (opponentStrength - playerStrength) >>> 31;
+          opponentWins += (playerStrength - opponentStrength) >>> 31;
+        }
+        opponents[player]++;
+        opponents[opponent]++;
+        if (ShowdownPercentageEnumerator.beatsMoreThanHalf(
+            playerWins - pairSingleOverlaps, pairBoards)) {
+          beaten[player]++;
+        }
+        if (ShowdownPercentageEnumerator.beatsMoreThanHalf(
+            opponentWins - pairSingleOverlaps, pairBoards)) {
+          beaten[opponent]++;
+        }
+      }
+    }
+    double[] showdownRatios = new double[HOLDINGS];
+    for (int holding = 0; holding < HOLDINGS; holding++) {
+      showdownRatios[holding] =
+          opponents[holding] == 0 ? Double.NaN : (double) beaten[holding] / opponents[holding];
+    }
+    return showdownRatios;
+  }
+}
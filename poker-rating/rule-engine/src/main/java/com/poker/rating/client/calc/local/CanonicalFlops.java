@@ -0,0 +1,106 @@
+package com.poker.rating.client.calc.local;
+
+import com.poker.model.game.Card;
+import java.util.Arrays;
+
+/**
+ * The 22100 flops up to suit symmetry. Each flop is mapped by a suit permutation to the canonical
+ * flop with the lowest card mask among its 24 suit permutations, leaving 1755 distinct flops.
+ */
+public final class CanonicalFlops {
+
+  public static final int COUNT = 1755;
+
+  private static final int FLOPS = 22100;
+  private static final long[] CANONICAL_FLOPS = new long[COUNT];
+  private static final short[] CANONICAL_INDEXES = new short[FLOPS];
+  private static final byte[] FLOP_PERMUTATIONS = new byte[FLOPS];
+
+  static {
+    long[] canonicalFlops = new long[FLOPS];
+    int canonicalCount = 0;
+    for (int high = 2; high < Card.DECK_SIZE; high++) {
+      for (int middle = 1; middle < high; middle++) {
+        for (int low = 0; low < middle; low++) {
+          long flop = 1L << high | 1L << middle | 1L << low;
+          int permutation = lowestPermutation(flop);
+          long canonicalFlop = SuitPermutations.permute(flop, permutation);
+          FLOP_PERMUTATIONS[index(flop)] = (byte) permutation;
+          if (canonicalFlop == flop) {
+            canonicalFlops[canonicalCount++] = flop;
+          }
+        }
+      }
+    }
+    if (canonicalCount != COUNT) {
+      throw new IllegalStateException("Unexpected canonical flops count: " + canonicalCount);
+    }
+    System.arraycopy(canonicalFlops, 0, CANONICAL_FLOPS, 0, COUNT);
+    Arrays.sort(CANONICAL_FLOPS);
+    for (int high = 2; high < Card.DECK_SIZE; high++) {
+      for (int middle = 1; middle < high; middle++) {
+        for (int low = 0; low < middle; low++) {
+          long flop = 1L << high | 1L << middle | 1L << low;
+          long canonicalFlop = SuitPermutations.permute(flop, FLOP_PERMUTATIONS[index(flop)]);
+          CANONICAL_INDEXES[index(flop)] =
+              (short) Arrays.binarySearch(CANONICAL_FLOPS, canonicalFlop);
+        }
+      }
+    }
+  }
+
+  private CanonicalFlops() {
+    throw new UnsupportedOperationException("No instance for util class");
+  }
+
+  private static int lowestPermutation(long flop) {
+    int lowest = 0;
+    long lowestFlop = SuitPermutations.permute(flop, 0);
+    for (int i = 1; i < SuitPermutations.COUNT; i++) {
+      long permuted = SuitPermutations.permute(flop, i);
+      if (permuted < lowestFlop) {
+        lowest = i;
+        lowestFlop = permuted;
+      }
+    }
+    return lowest;
+  }
+
+  // combinatorial number system rank of the 3 cards
+  private static int index(long flop) {
+    int low = Long.numberOfTrailingZeros(flop);
+    long rest = flop & (flop - 1);
+    int middle = Long.numberOfTrailingZeros(rest);
+    int high = Long.numberOfTrailingZeros(rest & (rest - 1));
+    return high * (high - 1) * (high - 2) / 6 + middle * (middle - 1) / 2 + low;
+  }
+
+  private static void checkFlop(long flop) {
+    if (Long.bitCount(flop) != 3 || (flop & ~CardMasks.DECK) != 0) {
+      throw new IllegalArgumentException("Flop must contains 3 cards, actual: " + flop);
+    }
+  }
+
+  /**
+   * @return canonical flop of the given index, in ascending card mask order
+   */
+  public static long canonicalFlop(int canonicalIndex) {
+    return CANONICAL_FLOPS[canonicalIndex];
+  }
+
+  /**
+   * @return index from 0 to {@link #COUNT} exclusive of the canonical flop of the given flop
+   */
+  public static int canonicalIndex(long flop) {
+    checkFlop(flop);
+    return CANONICAL_INDEXES[index(flop)];
+  }
+
+  /**
+   * @return cards mapped by the suit permutation taking the given flop to its canonical flop
+   */
+  public static long canonicalize(long flop, long cards) {
+    checkFlop(flop);
+    return SuitPermutations.permute(cards, FLOP_PERMUTATIONS[index(flop)]);
+  }
+}
@@ -0,0 +1,111 @@
+package com.poker.rating.client.calc.local;
+
+import java.util.Arrays;
+
+/**
+ * Calculator situation up to suit symmetry and player order: the board, excluded and sorted player
+ * cards of the suit permutation with the lowest encoding. Results of equal situations only differ
+ * by the players order, mapped with {@link #canonicalIndex(int)}.
+ */
+public final class CanonicalSituation {
+
+  private final long board;
+  private final long excludes;
+  private final long[] players;
+  // not part of the situation, index of each given player in the sorted players
+  private final int[] canonicalIndexes;
+
+  private CanonicalSituation(long board, long excludes, long[] players, int[] canonicalIndexes) {
+    this.board = board;
+    this.excludes = excludes;
+    this.players = players;
+    this.canonicalIndexes = canonicalIndexes;
+  }
+
+  /**
+   * @param players distinct hole cards masks of each player
+   */
+  public static CanonicalSituation of(long board, long excludes, long... players) {
+    CanonicalSituation lowest = permute(board, excludes, players, 0);
+    int lowestPermutation = 0;
+    for (int permutation = 1; permutation < SuitPermutations.COUNT; permutation++) {
+      CanonicalSituation permuted = permute(board, excludes, players, permutation);
+      if (permuted.compareTo(lowest) < 0) {
+        lowest = permuted;
+        lowestPermutation = permutation;
+      }
+    }
+    for (int i = 0; i < players.length; i++) {
+      lowest.canonicalIndexes[i] =
+          Arrays.binarySearch(
+              lowest.players, SuitPermutations.permute(players[i], lowestPermutation));
+    }
+    return lowest;
+  }
+
+  private static CanonicalSituation permute(
+      long board, long excludes, long[] players, int permutation) {
+    long[] permutedPlayers = new long[players.length];
+    for (int i = 0; i < players.length; i++) {
+      permutedPlayers[i] = SuitPermutations.permute(players[i], permutation);
+    }
+    Arrays.sort(permutedPlayers);
+    return new CanonicalSituation(
+        SuitPermutations.permute(board, permutation),
+        SuitPermutations.permute(excludes, permutation),
+        permutedPlayers,
+        new int[players.length]);
+  }
+
+  private int compareTo(CanonicalSituation other) {
+    int compare = Long.compare(board, other.board);
+    if (compare == 0) {
+      compare = Long.compare(excludes, other.excludes);
+    }
+    return compare == 0 ? Arrays.compare(players, other.players) : compare;
+  }
+
+  public long board() {
+    return board;
+  }
+
+  public long excludes() {
+    return excludes;
+  }
+
+  public int players() {
+    return players.length;
+  }
+
+  /**
+   * @return hole cards mask of the player at the given canonical index
+   */
+  public long player(int canonicalIndex) {
+    return players[canonicalIndex];
+  }
+
+  /**
+   * @return index in the canonical players order of the given player index
+   */
+  public int canonicalIndex(int player) {
+    return canonicalIndexes[player];
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof CanonicalSituation other)) {
+      return false;
+    }
+    return board == other.board
+        && excludes == other.excludes
+        && Arrays.equals(players, other.players);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * (31 * Long.hashCode(board) + Long.hashCode(excludes)) + Arrays.hashCode(players);
+  }
+}
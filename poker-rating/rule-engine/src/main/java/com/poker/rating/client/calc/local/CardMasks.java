@@ -0,0 +1,48 @@
+package com.poker.rating.client.calc.local;
+
+import com.poker.model.game.Card;
+import com.poker.model.game.CardSet;
+import com.poker.model.game.InvalidCard;
+import java.util.Collection;
+import javax.annotation.Nullable;
+
+/** Card bit masks of {@link CardSet}, rejecting invalid and duplicate cards. */
+public final class CardMasks {
+
+  public static final long DECK = CardSet.DECK.mask();
+
+  private CardMasks() {
+    throw new UnsupportedOperationException("No instance for util class");
+  }
+
+  public static long mask(Card card) {
+    if (card instanceof InvalidCard) {
+      throw new IllegalArgumentException("Invalid card: " + card);
+    }
+    return card.mask();
+  }
+
+  public static long mask(@Nullable Collection<Card> cards) {
+    long mask = 0L;
+    if (cards == null) {
+      return mask;
+    }
+    for (Card card : cards) {
+      long cardMask = mask(card);
+      if ((mask & cardMask) != 0) {
+        throw new IllegalArgumentException("Duplicate card: " + card);
+      }
+      mask |= cardMask;
+    }
+    return mask;
+  }
+
+  public static int[] indexes(long mask) {
+    int[] indexes = new int[Long.bitCount(mask)];
+    int i = 0;
+    for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+      indexes[i++] = Long.numberOfTrailingZeros(remaining);
+    }
+    return indexes;
+  }
+}
@@ -0,0 +1,82 @@
+package com.poker.rating.client.calc.local;
+
+import com.poker.model.game.CardSet;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory mapped showdown percentage of every holding on every {@link CanonicalFlops canonical
+ * flop}. The percentages are exact, every runout against every opponent holding enumerated, where
+ * the remote calculator samples 250 runouts on a flop. The file holds a header of 4 ints (magic,
+ * version, flops and holdings count) followed by one unsigned byte percentage per holding, flop
+ * major, {@link #MISSING} for holdings intersecting the flop.
+ */
+public final class FlopShowdownTable {
+
+  static final int MAGIC = 0x46534454;
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 4 * Integer.BYTES;
+  static final int MISSING = 0xFF;
+
+  private final ByteBuffer percentages;
+
+  private FlopShowdownTable(ByteBuffer percentages) {
+    this.percentages = percentages;
+  }
+
+  public static void writeHeader(DataOutput output) throws IOException {
+    output.writeInt(MAGIC);
+    output.writeInt(VERSION);
+    output.writeInt(CanonicalFlops.COUNT);
+    output.writeInt(BoardShowdownTable.HOLDINGS);
+  }
+
+  public static FlopShowdownTable map(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long expectedSize = HEADER_BYTES + (long) CanonicalFlops.COUNT * BoardShowdownTable.HOLDINGS;
+      if (channel.size() != expectedSize) {
+        throw new IllegalStateException(
+            String.format(
+                "Flop showdown table %s size %d, expected: %d",
+                path, channel.size(), expectedSize));
+      }
+      MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+      if (buffer.getInt(0) != MAGIC
+          || buffer.getInt(Integer.BYTES) != VERSION
+          || buffer.getInt(2 * Integer.BYTES) != CanonicalFlops.COUNT
+          || buffer.getInt(3 * Integer.BYTES) != BoardShowdownTable.HOLDINGS) {
+        throw new IllegalStateException("Unsupported flop showdown table header: " + path);
+      }
+      return new FlopShowdownTable(buffer);
+    }
+  }
+
+  /**
+   * @param flop 3 board cards mask
+   * @param player 2 hole cards mask not on the flop
+   */
+  public int showdownPercentage(long flop, long player) {
+    if (Long.bitCount(player) != 2 || (player & flop) != 0) {
+      throw new IllegalArgumentException(
+          "Player must have exactly 2 cards not on the flop: " + CardSet.ofMask(player));
+    }
+    long canonicalPlayer = CanonicalFlops.canonicalize(flop, player);
+    int percentage =
+        Byte.toUnsignedInt(
+            percentages.get(
+                HEADER_BYTES
+                    + CanonicalFlops.canonicalIndex(flop) * BoardShowdownTable.HOLDINGS
+                    + BoardShowdownTable.holding(canonicalPlayer)));
+    if (percentage == MISSING) {
+      throw new IllegalStateException(
+          "Flop showdown percentage is missing for: " + CardSet.ofMask(flop | player));
+    }
+    return percentage;
+  }
+}
@@ -0,0 +1,80 @@
+package com.poker.rating.client.calc.local;
+
+import com.poker.rating.client.calc.LocalPokerHoldemCalculatorClient;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Build time generator of the {@link FlopShowdownTable} file, run with the output path as the only
+ * argument. Canonical flops are enumerated exactly in parallel on the common fork join pool.
+ */
+@Slf4j
+public final class FlopShowdownTableGenerator {
+
+  private static final int PERCENTAGE_SCALE = 0;
+
+  private FlopShowdownTableGenerator() {
+    throw new UnsupportedOperationException("No instance for util class");
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 1) {
+      throw new IllegalArgumentException("Usage: FlopShowdownTableGenerator <output file>");
+    }
+    Path output = Path.of(args[0]);
+    long start = System.nanoTime();
+    AtomicInteger done = new AtomicInteger();
+    byte[][] percentages =
+        IntStream.range(0, CanonicalFlops.COUNT)
+            .parallel()
+            .mapToObj(
+                canonicalIndex -> {
+                  byte[] flopPercentages = flopPercentages(canonicalIndex);
+                  int flops = done.incrementAndGet();
+                  if (flops % 100 == 0) {
+                    log.info("Flop showdown percentages computed for {} flops", flops);
+                  }
+                  return flopPercentages;
+                })
+            .toArray(byte[][]::new);
+
+    Path parent = output.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    try (var dataOutput =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(output)))) {
+      FlopShowdownTable.writeHeader(dataOutput);
+      for (byte[] flopPercentages : percentages) {
+        dataOutput.write(flopPercentages);
+      }
+    }
+    log.info(
+        "Flop showdown table written to {} in {} s",
+        output,
+        (System.nanoTime() - start) / 1_000_000_000L);
+  }
+
+  static byte[] flopPercentages(int canonicalIndex) {
+    double[] showdownRatios =
+        BoardShowdownTable.of(CanonicalFlops.canonicalFlop(canonicalIndex)).showdownRatios();
+    byte[] percentages = new byte[BoardShowdownTable.HOLDINGS];
+    for (int holding = 0; holding < percentages.length; holding++) {
+      double showdownRatio = showdownRatios[holding];
+      percentages[holding] =
+          (byte)
+              (Double.isNaN(showdownRatio)
+                  ? FlopShowdownTable.MISSING
+                  : (int)
+                      LocalPokerHoldemCalculatorClient.toPercentage(
+                          showdownRatio, PERCENTAGE_SCALE));
+    }
+    return percentages;
+  }
+}
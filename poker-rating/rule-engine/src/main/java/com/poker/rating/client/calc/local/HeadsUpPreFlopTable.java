@@ -0,0 +1,136 @@
+package com.poker.rating.client.calc.local;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import javax.annotation.Nullable;
+
+/**
+ * Exact pre-flop win counts of every heads-up matchup without dead cards, held in memory. A
+ * matchup is keyed by the lowest {@code holding(first) * HOLDINGS + holding(second)} among its 24
+ * suit permutations and both player orders, leaving 47008 distinct matchups. The file holds a
+ * header of 3 ints (magic, version and matchups count) followed by the key and the win counts of
+ * both players for each matchup, in ascending key order.
+ */
+public final class HeadsUpPreFlopTable {
+
+  static final int MAGIC = 0x48555046;
+  static final int VERSION = 1;
+  static final long BOARDS = 1_712_304L;
+
+  private static final int HOLDINGS = BoardShowdownTable.HOLDINGS;
+
+  private final int[] keys;
+  private final int[] firstWins;
+  private final int[] secondWins;
+
+  private HeadsUpPreFlopTable(int[] keys, int[] firstWins, int[] secondWins) {
+    this.keys = keys;
+    this.firstWins = firstWins;
+    this.secondWins = secondWins;
+  }
+
+  /** Sign bit set when the lowest key orders the players the other way around. */
+  private static int canonicalKey(long first, long second) {
+    int canonicalKey = Integer.MAX_VALUE;
+    boolean swapped = false;
+    for (int permutation = 0; permutation < SuitPermutations.COUNT; permutation++) {
+      int permutedFirst = BoardShowdownTable.holding(SuitPermutations.permute(first, permutation));
+      int permutedSecond =
+          BoardShowdownTable.holding(SuitPermutations.permute(second, permutation));
+      int key = permutedFirst * HOLDINGS + permutedSecond;
+      if (key < canonicalKey) {
+        canonicalKey = key;
+        swapped = false;
+      }
+      int swappedKey = permutedSecond * HOLDINGS + permutedFirst;
+      if (swappedKey < canonicalKey) {
+        canonicalKey = swappedKey;
+        swapped = true;
+      }
+    }
+    return swapped ? canonicalKey | Integer.MIN_VALUE : canonicalKey;
+  }
+
+  private static long holdingMask(int holding) {
+    int high = 1;
+    while ((high + 1) * high / 2 <= holding) {
+      high++;
+    }
+    int low = holding - high * (high - 1) / 2;
+    return 1L << high | 1L << low;
+  }
+
+  /**
+   * @return players of each matchup, first and second holding masks, in ascending key order
+   */
+  static long[][] matchups() {
+    BitSet canonicalKeys = new BitSet(HOLDINGS * HOLDINGS);
+    for (int first = 0; first < HOLDINGS; first++) {
+      long firstMask = holdingMask(first);
+      for (int second = 0; second < HOLDINGS; second++) {
+        long secondMask = holdingMask(second);
+        if ((firstMask & secondMask) == 0) {
+          canonicalKeys.set(canonicalKey(firstMask, secondMask) & Integer.MAX_VALUE);
+        }
+      }
+    }
+    return canonicalKeys.stream()
+        .mapToObj(key -> new long[] {holdingMask(key / HOLDINGS), holdingMask(key % HOLDINGS)})
+        .toArray(long[][]::new);
+  }
+
+  public static void write(DataOutput output, long[][] matchups, WinTally[] tallies)
+      throws IOException {
+    output.writeInt(MAGIC);
+    output.writeInt(VERSION);
+    output.writeInt(matchups.length);
+    for (int i = 0; i < matchups.length; i++) {
+      output.writeInt(canonicalKey(matchups[i][0], matchups[i][1]) & Integer.MAX_VALUE);
+      output.writeInt(Math.toIntExact(tallies[i].wins(0)));
+      output.writeInt(Math.toIntExact(tallies[i].wins(1)));
+    }
+  }
+
+  public static HeadsUpPreFlopTable read(DataInput input) throws IOException {
+    if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+      throw new IllegalStateException("Unsupported heads-up pre-flop table header");
+    }
+    int matchups = input.readInt();
+    int[] keys = new int[matchups];
+    int[] firstWins = new int[matchups];
+    int[] secondWins = new int[matchups];
+    for (int i = 0; i < matchups; i++) {
+      keys[i] = input.readInt();
+      firstWins[i] = input.readInt();
+      secondWins[i] = input.readInt();
+      if (keys[i] < 0 || (i > 0 && keys[i] <= keys[i - 1])) {
+        throw new IllegalStateException("Heads-up pre-flop table keys are not canonical");
+      }
+    }
+    return new HeadsUpPreFlopTable(keys, firstWins, secondWins);
+  }
+
+  /**
+   * @param first hole cards mask of the first player
+   * @param second hole cards mask of the second player, disjoint from the first
+   * @return win counts over all boards in the players order, null for a missing matchup
+   */
+  public @Nullable WinTally tally(long first, long second) {
+    if (Long.bitCount(first) != 2 || Long.bitCount(second) != 2 || (first & second) != 0) {
+      throw new IllegalArgumentException("Players must have 2 distinct hole cards each");
+    }
+    int canonicalKey = canonicalKey(first, second);
+    int index = Arrays.binarySearch(keys, canonicalKey & Integer.MAX_VALUE);
+    if (index < 0) {
+      return null;
+    }
+    long[] wins =
+        canonicalKey < 0
+            ? new long[] {secondWins[index], firstWins[index]}
+            : new long[] {firstWins[index], secondWins[index]};
+    return new WinTally(wins, BOARDS - wins[0] - wins[1], BOARDS);
+  }
+}
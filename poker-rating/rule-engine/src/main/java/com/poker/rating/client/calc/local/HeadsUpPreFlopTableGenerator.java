@@ -0,0 +1,61 @@
+package com.poker.rating.client.calc.local;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Offline generator of the {@link HeadsUpPreFlopTable} file, run with the output path as the only
+ * argument. Every board of every matchup is enumerated, matchups in parallel on the common fork
+ * join pool.
+ */
+@Slf4j
+public final class HeadsUpPreFlopTableGenerator {
+
+  private HeadsUpPreFlopTableGenerator() {
+    throw new UnsupportedOperationException("No instance for util class");
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 1) {
+      throw new IllegalArgumentException("Usage: HeadsUpPreFlopTableGenerator <output file>");
+    }
+    Path output = Path.of(args[0]);
+    long start = System.nanoTime();
+    long[][] matchups = HeadsUpPreFlopTable.matchups();
+    log.info("Enumerating {} heads-up pre-flop matchups", matchups.length);
+    AtomicInteger done = new AtomicInteger();
+    WinTally[] tallies =
+        Arrays.stream(matchups)
+            .parallel()
+            .map(
+                players -> {
+                  WinTally tally =
+                      WinPercentageEnumerator.exhaustive(players, 0L, players[0] | players[1]);
+                  int enumerated = done.incrementAndGet();
+                  if (enumerated % 1000 == 0) {
+                    log.info("Heads-up pre-flop matchups enumerated: {}", enumerated);
+                  }
+                  return tally;
+                })
+            .toArray(WinTally[]::new);
+
+    Path parent = output.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    try (var dataOutput =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(output)))) {
+      HeadsUpPreFlopTable.write(dataOutput, matchups, tallies);
+    }
+    log.info(
+        "Heads-up pre-flop table written to {} in {} s",
+        output,
+        (System.nanoTime() - start) / 1_000_000_000L);
+  }
+}
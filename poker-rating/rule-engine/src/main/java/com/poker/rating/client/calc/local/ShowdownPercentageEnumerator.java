@@ -0,0 +1,99 @@
+package com.poker.rating.client.calc.local;
+
+import com.poker.evaluator.HandEvaluator;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Share of opponent hole cards the player beats heads-up more than half of the time, every runout
+ * of the board is enumerated.
+ */
+public final class ShowdownPercentageEnumerator {
+
+  private static final int BOARD_SIZE = 5;
+  private static final BigDecimal FIFTY_PERCENT = BigDecimal.valueOf(50);
+
+  private ShowdownPercentageEnumerator() {
+    throw new UnsupportedOperationException("No instance for util class");
+  }
+
+  public static double showdownRatio(long player, long board) {
+    int[] deck = CardMasks.indexes(CardMasks.DECK & ~(player | board));
+    long[] runouts = runouts(deck, BOARD_SIZE - Long.bitCount(board));
+    int[] playerStrengths = new int[runouts.length];
+    for (int i = 0; i < runouts.length; i++) {
+      playerStrengths[i] = HandEvaluator.evaluate(board | runouts[i] | player);
+    }
+
+    int opponents = 0;
+    int beaten = 0;
+    for (int first = 0; first < deck.length; first++) {
+      for (int second = first + 1; second < deck.length; second++) {
+        long opponent = 1L << deck[first] | 1L << deck[second];
+        opponents++;
+        if (beatsMoreThanHalf(opponent, board, runouts, playerStrengths)) {
+          beaten++;
+        }
+      }
+    }
+    return (double) beaten / opponents;
+  }
+
+  private static boolean beatsMoreThanHalf(
+      long opponent, long board, long[] runouts, int[] playerStrengths) {
+    long boards = 0;
+    long wins = 0;
+    for (int i = 0; i < runouts.length; i++) {
+      long runout = runouts[i];
+      if ((runout & opponent) != 0) {
+        continue;
+      }
+      boards++;
+      if (playerStrengths[i] > HandEvaluator.evaluate(board | runout | opponent)) {
+        wins++;
+      }
+    }
+    return beatsMoreThanHalf(wins, boards);
+  }
+
+  static boolean beatsMoreThanHalf(long wins, long boards) {
+    // only ratios between 50 and 50.1 percent depend on the rounding
+    if (2 * wins <= boards) {
+      return false;
+    }
+    if (1000 * wins >= 501 * boards) {
+      return true;
+    }
+    // the Python calculator compares the win percentage rounded to one decimal place
+    return new BigDecimal((double) wins / boards * 100)
+            .setScale(1, RoundingMode.HALF_EVEN)
+            .compareTo(FIFTY_PERCENT)
+        > 0;
+  }
+
+  static long[] runouts(int[] deck, int missing) {
+    long[] runouts = new long[combinations(deck.length, missing)];
+    fill(runouts, 0, deck, 0, missing, 0L);
+    return runouts;
+  }
+
+  private static int fill(long[] runouts, int at, int[] deck, int from, int missing, long runout) {
+    if (missing == 0) {
+      runouts[at] = runout;
+      return at + 1;
+    }
+    int next = at;
+    for (int i = from; i <= deck.length - missing; i++) {
+      next = fill(runouts, next, deck, i + 1, missing - 1, runout | 1L << deck[i]);
+    }
+    return next;
+  }
+
+  static int combinations(int n, int k) {
+    long result = 1;
+    for (int i = 1; i <= k; i++) {
+      result = result * (n - k + i) / i;
+    }
+    return Math.toIntExact(result);
+  }
+}
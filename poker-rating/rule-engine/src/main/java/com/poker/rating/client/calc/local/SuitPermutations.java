@@ -0,0 +1,41 @@
+package com.poker.rating.client.calc.local;
+
+/** The 24 permutations of the 4 suits applied to card masks, suits being 13 bit rank chunks. */
+final class SuitPermutations {
+
+  static final int COUNT = 24;
+
+  private static final int SUITS = 4;
+  private static final int RANKS = 13;
+  private static final int RANK_MASK = (1 << RANKS) - 1;
+  private static final int[][] PERMUTATIONS = initPermutations();
+
+  private SuitPermutations() {
+    throw new UnsupportedOperationException("No instance for util class");
+  }
+
+  private static int[][] initPermutations() {
+    int[][] permutations = new int[COUNT][];
+    int i = 0;
+    for (int a = 0; a < SUITS; a++) {
+      for (int b = 0; b < SUITS; b++) {
+        for (int c = 0; c < SUITS; c++) {
+          int d = 6 - a - b - c;
+          if (a != b && a != c && b != c && d != a && d != b && d != c) {
+            permutations[i++] = new int[] {a, b, c, d};
+          }
+        }
+      }
+    }
+    return permutations;
+  }
+
+  static long permute(long cards, int permutation) {
+    int[] suits = PERMUTATIONS[permutation];
+    long permuted = 0L;
+    for (int suit = 0; suit < SUITS; suit++) {
+      permuted |= ((cards >>> (RANKS * suit)) & RANK_MASK) << (RANKS * suits[suit]);
+    }
+    return permuted;
+  }
+}
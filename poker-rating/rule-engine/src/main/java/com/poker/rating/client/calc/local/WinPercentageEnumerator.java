@@ -0,0 +1,155 @@
+package com.poker.rating.client.calc.local;
+
+import com.poker.evaluator.HandEvaluator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.random.RandomGenerator;
+
+/**
+ * Counts how often each player holds the single best hand over completed boards. A board where the
+ * best hand is shared counts as a tie only, the same way the Python calculator counts it.
+ */
+public final class WinPercentageEnumerator {
+
+  private static final int BOARD_SIZE = 5;
+
+  /** Hand evaluations below which forking costs more than it saves. */
+  private static final long FORK_EVALUATIONS = 1L << 16;
+
+  private WinPercentageEnumerator() {
+    throw new UnsupportedOperationException("No instance for util class");
+  }
+
+  /** Evaluates every board completing the given board out of cards not in {@code used}. */
+  public static WinTally exhaustive(long[] players, long board, long used) {
+    int[] deck = CardMasks.indexes(CardMasks.DECK & ~used);
+    int missing = BOARD_SIZE - Long.bitCount(board);
+    WinTally tally = new WinTally(players.length);
+    enumerate(players, deck, 0, missing, board, tally);
+    return tally;
+  }
+
+  /**
+   * Same as {@link #exhaustive(long[], long, long)} with the boards split across the pool. Small
+   * enumerations, like the turn and the river, run in the caller thread.
+   */
+  public static WinTally exhaustive(long[] players, long board, long used, ForkJoinPool pool) {
+    int[] deck = CardMasks.indexes(CardMasks.DECK & ~used);
+    int missing = BOARD_SIZE - Long.bitCount(board);
+    var task = new ExhaustiveTask(players, deck, board, missing, 0, deck.length - missing + 1);
+    if (task.evaluations() < FORK_EVALUATIONS) {
+      return task.compute();
+    }
+    return pool.invoke(task);
+  }
+
+  /** Evaluates {@code simulations} random boards completing the given board. */
+  public static WinTally monteCarlo(
+      long[] players, long board, long used, int simulations, RandomGenerator random) {
+    int[] deck = CardMasks.indexes(CardMasks.DECK & ~used);
+    int missing = BOARD_SIZE - Long.bitCount(board);
+    WinTally tally = new WinTally(players.length);
+    for (int simulation = 0; simulation < simulations; simulation++) {
+      long fullBoard = board;
+      // partial Fisher-Yates shuffle, the deck stays a permutation so no reset is needed
+      for (int i = 0; i < missing; i++) {
+        int j = i + random.nextInt(deck.length - i);
+        int card = deck[j];
+        deck[j] = deck[i];
+        deck[i] = card;
+        fullBoard |= 1L << card;
+      }
+      tally.record(winner(players, fullBoard));
+    }
+    return tally;
+  }
+
+  /** Returns the index of the player with the single best hand or -1 on a tie. */
+  public static int winner(long[] players, long board) {
+    int winner = -1;
+    int best = -1;
+    for (int i = 0; i < players.length; i++) {
+      int strength = HandEvaluator.evaluate(board | players[i]);
+      if (strength > best) {
+        best = strength;
+        winner = i;
+      } else if (strength == best) {
+        winner = -1;
+      }
+    }
+    return winner;
+  }
+
+  private static void enumerate(
+      long[] players, int[] deck, int from, int missing, long board, WinTally tally) {
+    if (missing == 0) {
+      tally.record(winner(players, board));
+      return;
+    }
+    for (int i = from; i <= deck.length - missing; i++) {
+      enumerate(players, deck, i + 1, missing - 1, board | 1L << deck[i], tally);
+    }
+  }
+
+  private static long combinations(int n, int k) {
+    if (k > n) {
+      return 0;
+    }
+    long result = 1;
+    for (int i = 1; i <= k; i++) {
+      result = result * (n - k + i) / i;
+    }
+    return result;
+  }
+
+  /** Enumerates the boards whose first missing card is dealt from deck positions [from, to). */
+  @SuppressWarnings("serial")
+  private static final class ExhaustiveTask extends RecursiveTask<WinTally> {
+    private final long[] players;
+    private final int[] deck;
+    private final long board;
+    private final int missing;
+    private final int from;
+    private final int to;
+
+    private ExhaustiveTask(long[] players, int[] deck, long board, int missing, int from, int to) {
+      this.players = players;
+      this.deck = deck;
+      this.board = board;
+      this.missing = missing;
+      this.from = from;
+      this.to = to;
+    }
+
+    private long evaluations() {
+      if (missing == 0) {
+        return players.length;
+      }
+      // boards with first card at position i: C(deck.length - i - 1, missing - 1)
+      return (combinations(deck.length - from, missing) - combinations(deck.length - to, missing))
+          * players.length;
+    }
+
+    @Override
+    protected WinTally compute() {
+      if (missing > 0 && to - from > 1 && evaluations() >= FORK_EVALUATIONS) {
+        int middle = (from + to) >>> 1;
+        var left = new ExhaustiveTask(players, deck, board, missing, from, middle);
+        var right = new ExhaustiveTask(players, deck, board, missing, middle, to);
+        left.fork();
+        WinTally tally = right.compute();
+        return tally.merge(left.join());
+      }
+
+      WinTally tally = new WinTally(players.length);
+      if (missing == 0) {
+        tally.record(winner(players, board));
+        return tally;
+      }
+      for (int i = from; i < to; i++) {
+        enumerate(players, deck, i + 1, missing - 1, board | 1L << deck[i], tally);
+      }
+      return tally;
+    }
+  }
+}
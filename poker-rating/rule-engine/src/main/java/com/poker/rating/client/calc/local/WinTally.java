@@ -0,0 +1,65 @@
+package com.poker.rating.client.calc.local;
+
+/** Win and tie counters of the enumerated or simulated boards, one win counter per player. */
+public final class WinTally {
+
+  private final long[] wins;
+  private long ties;
+  private long boards;
+
+  public WinTally(int players) {
+    this.wins = new long[players];
+  }
+
+  WinTally(long[] wins, long ties, long boards) {
+    this.wins = wins;
+    this.ties = ties;
+    this.boards = boards;
+  }
+
+  void record(int winner) {
+    boards++;
+    if (winner < 0) {
+      ties++;
+    } else {
+      wins[winner]++;
+    }
+  }
+
+  public WinTally merge(WinTally other) {
+    if (other.wins.length != wins.length) {
+      throw new IllegalArgumentException(
+          "Unable to merge tallies of " + other.wins.length + " and " + wins.length + " players");
+    }
+    for (int i = 0; i < wins.length; i++) {
+      wins[i] += other.wins[i];
+    }
+    ties += other.ties;
+    boards += other.boards;
+    return this;
+  }
+
+  public int players() {
+    return wins.length;
+  }
+
+  public long wins(int player) {
+    return wins[player];
+  }
+
+  public long ties() {
+    return ties;
+  }
+
+  public long boards() {
+    return boards;
+  }
+
+  public double winRatio(int player) {
+    return boards == 0 ? 0.0 : (double) wins[player] / boards;
+  }
+
+  public double tiesRatio() {
+    return boards == 0 ? 0.0 : (double) ties / boards;
+  }
+}
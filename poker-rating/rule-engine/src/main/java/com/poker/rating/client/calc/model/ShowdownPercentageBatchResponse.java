@@ -0,0 +1,22 @@
+package com.poker.rating.client.calc.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonCreator.Mode;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import javax.annotation.Nonnull;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@SuppressWarnings("SameNameButDifferent")
+@RequiredArgsConstructor(onConstructor = @__(@JsonCreator(mode = Mode.PROPERTIES)))
+@Getter
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ShowdownPercentageBatchResponse {
+
+  /** Responses in the order of the batch requests. */
+  @Nonnull
+  @JsonProperty("responses")
+  private final List<ShowdownPercentageResponse> responses;
+}
@@ -0,0 +1,19 @@
+package com.poker.rating.client.calc.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonCreator.Mode;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import javax.annotation.Nonnull;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@SuppressWarnings("SameNameButDifferent")
+@RequiredArgsConstructor(onConstructor = @__(@JsonCreator(mode = Mode.PROPERTIES)))
+@Getter
+public class WinPercentageBatchRequest {
+
+  @Nonnull
+  @JsonProperty("requests")
+  private final List<WinPercentageRequest> requests;
+}
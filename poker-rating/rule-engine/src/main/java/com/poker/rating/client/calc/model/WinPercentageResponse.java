@@ -25,5 +25,10 @@ public class WinPercentageResponse {
   private final Double operationTime;
 
   @JsonProperty("tiesPercentage")
-  private double tiesPercentage;
+  private final double tiesPercentage;
+
+  /** Boards enumerated or simulated, when reported by the calculator. */
+  @Nullable
+  @JsonProperty("samples")
+  private final Long samples;
 }
@@ -87,17 +87,17 @@ public abstract class BaseRatingRule implements RatingRule {
       @Nullable Double equity,
       @Nullable Double pof,
       String... messages) {
-    var gameStateIndex = gameState.gameStateIndex();
+    var snapshot = RuleUtils.getCurrentStateSnapshot(gameState);
     var listMessages = Stream.of(messages).filter(Predicate.not(Objects::isNull)).toList();
     return new RuleDecision(
         gameState.currentBet(),
         name(),
-        gameStateIndex,
+        snapshot.gameStateIndex(),
         name,
         ratingChange,
         playerPercentage.getWinPercentage(),
         playerPercentage.getShowdownPercentage(),
-        RuleUtils.getCurrentStatePlayerPercentagesOrderByWinDesc(gameState),
+        snapshot.playerPercentagesByWinDesc(),
         equity,
         pof,
         listMessages);
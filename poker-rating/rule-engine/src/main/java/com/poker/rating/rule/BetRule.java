@@ -3,9 +3,11 @@ package com.poker.rating.rule;
 import com.andrebreves.tuple.Tuple;
 import com.andrebreves.tuple.Tuple2;
 import com.poker.model.game.Bet;
+import com.poker.model.game.BetType;
 import com.poker.model.game.BettingRoundType;
 import com.poker.model.rating.GameState;
 import com.poker.model.rating.GameStateIndex;
+import com.poker.model.rating.HandPercentageTable;
 import com.poker.model.rating.PlayerPercentage;
 import com.poker.model.rating.RuleContext;
 import com.poker.model.rating.RuleDecision;
@@ -13,7 +15,6 @@ import com.poker.rating.rule.extra.BetExtraDecisionSupplier;
 import com.poker.rating.rule.extra.ShowdownTypeMapper;
 import com.poker.rating.rule.point.BetPointSupplier;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -37,13 +38,17 @@ public class BetRule extends BaseRatingRule {
     this.betExtraDecisionSupplier = betExtraDecisionSupplier;
   }
 
+  @Override
+  public boolean appliesTo(BettingRoundType bettingRound, BetType betType) {
+    return RuleUtils.isAnyBet(betType) && bettingRound != BettingRoundType.RIVER;
+  }
+
   @Override
   public List<RuleDecision> baseExecute(RuleContext ruleContext) {
     var gameState = ruleContext.gameState();
     var userId = gameState.userId();
     var gameStateIndex = gameState.gameStateIndex();
-    Map<GameStateIndex, Map<String, PlayerPercentage>> gameStateIndexPlayerPercentage =
-        gameState.gameStateIndexPlayerPercentage();
+    HandPercentageTable handPercentageTable = gameState.handPercentageTable();
     var currentBet = gameState.currentBet();
 
     if (RuleUtils.isNotAnyBet(currentBet)
@@ -52,7 +57,7 @@ public class BetRule extends BaseRatingRule {
     }
 
     Tuple2<Boolean, PlayerPercentage> playerHasTheBestHand =
-        RuleUtils.hasTheBestHandOrEquals(userId, gameStateIndex, gameStateIndexPlayerPercentage);
+        RuleUtils.hasTheBestHandOrEquals(userId, gameStateIndex, handPercentageTable);
     if (Boolean.TRUE.equals(playerHasTheBestHand.v1())) {
       return currentlyHasTheBestHand(playerHasTheBestHand.v2(), ruleContext);
     } else {
@@ -74,11 +79,10 @@ public class BetRule extends BaseRatingRule {
       return goodBet(gameState, playerPercentage);
     }
 
-    Map<GameStateIndex, Map<String, PlayerPercentage>> gameStateIndexPlayerPercentage =
-        gameState.gameStateIndexPlayerPercentage();
+    HandPercentageTable handPercentageTable = gameState.handPercentageTable();
     Optional<Tuple2<GameStateIndex, PlayerPercentage>> aboveFiftyIncreaseOpt =
         RuleUtils.findFirstWinPercentageIncreaseToAbove(
-            gameStateIndexPlayerPercentage,
+            handPercentageTable,
             userId,
             gameStateIndex.bettingRound(),
             gameStateIndex.playerTurnIndex(),
@@ -233,12 +237,11 @@ public class BetRule extends BaseRatingRule {
     var gameState = ruleContext.gameState();
     var userId = gameState.userId();
     var gameStateIndex = gameState.gameStateIndex();
-    Map<GameStateIndex, Map<String, PlayerPercentage>> gameStateIndexPlayerPercentage =
-        gameState.gameStateIndexPlayerPercentage();
+    HandPercentageTable handPercentageTable = gameState.handPercentageTable();
 
     Optional<Tuple2<GameStateIndex, PlayerPercentage>> aboveFiftyIncreaseOpt =
         RuleUtils.findFirstWinPercentageIncreaseToAbove(
-            gameStateIndexPlayerPercentage,
+            handPercentageTable,
             userId,
             gameStateIndex.bettingRound(),
             gameStateIndex.playerTurnIndex(),
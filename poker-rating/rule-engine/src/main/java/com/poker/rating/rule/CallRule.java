@@ -1,9 +1,10 @@
 package com.poker.rating.rule;
 
 import com.andrebreves.tuple.Tuple2;
+import com.poker.model.game.BetType;
 import com.poker.model.game.BettingRoundType;
 import com.poker.model.rating.GameState;
-import com.poker.model.rating.GameStateIndex;
+import com.poker.model.rating.HandPercentageTable;
 import com.poker.model.rating.PlayerPercentage;
 import com.poker.model.rating.RuleContext;
 import com.poker.model.rating.RuleDecision;
@@ -11,7 +12,6 @@ import com.poker.rating.rule.extra.CallExtraDecisionSupplier;
 import com.poker.rating.rule.extra.ShowdownTypeMapper;
 import com.poker.rating.rule.point.CallPointSupplier;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Stream;
 
@@ -29,13 +29,17 @@ public class CallRule extends BaseRatingRule {
     this.callExtraDecisionSupplier = callExtraDecisionSupplier;
   }
 
+  @Override
+  public boolean appliesTo(BettingRoundType bettingRound, BetType betType) {
+    return betType == BetType.CALL && bettingRound != BettingRoundType.RIVER;
+  }
+
   @Override
   public List<RuleDecision> baseExecute(RuleContext ruleContext) {
     var gameState = ruleContext.gameState();
     var userId = gameState.userId();
     var gameStateIndex = gameState.gameStateIndex();
-    Map<GameStateIndex, Map<String, PlayerPercentage>> gameStateIndexPlayerPercentage =
-        gameState.gameStateIndexPlayerPercentage();
+    HandPercentageTable handPercentageTable = gameState.handPercentageTable();
     var currentBet = gameState.currentBet();
 
     if (RuleUtils.isNotCall(currentBet)
@@ -44,7 +48,7 @@ public class CallRule extends BaseRatingRule {
     }
 
     PlayerPercentage playerPercentage =
-        RuleUtils.getPlayerPercentage(gameStateIndexPlayerPercentage, gameStateIndex, userId);
+        RuleUtils.getPlayerPercentage(handPercentageTable, gameStateIndex, userId);
     double winPercentage = playerPercentage.getWinPercentage();
     double equityPercentage = RuleUtils.calcCallEquityPercentage(currentBet);
     double pof = RuleUtils.calcPOF(equityPercentage, playerPercentage.getWinPercentage());
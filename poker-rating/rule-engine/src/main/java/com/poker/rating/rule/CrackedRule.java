@@ -2,9 +2,10 @@ package com.poker.rating.rule;
 
 import static com.poker.util.FluentUtils.not;
 
+import com.poker.model.game.BetType;
 import com.poker.model.game.BettingRoundType;
 import com.poker.model.rating.GameState;
-import com.poker.model.rating.GameStateIndex;
+import com.poker.model.rating.HandPercentageTable;
 import com.poker.model.rating.PlayerPercentage;
 import com.poker.model.rating.RuleContext;
 import com.poker.model.rating.RuleDecision;
@@ -12,7 +13,6 @@ import com.poker.rating.rule.extra.CrackedExtraDecisionSupplier;
 import com.poker.rating.rule.extra.ShowdownTypeMapper;
 import com.poker.rating.rule.point.CrackedPointSupplier;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Stream;
 
@@ -30,6 +30,13 @@ public class CrackedRule extends BaseRatingRule {
     this.crackedExtraDecisionSupplier = crackedExtraDecisionSupplier;
   }
 
+  @Override
+  public boolean appliesTo(BettingRoundType bettingRound, BetType betType) {
+    return !RuleUtils.isAnyBet(betType)
+        && betType != BetType.FOLD
+        && bettingRound != BettingRoundType.RIVER;
+  }
+
   @Override
   public List<RuleDecision> baseExecute(RuleContext ruleContext) {
     var gameState = ruleContext.gameState();
@@ -43,8 +50,7 @@ public class CrackedRule extends BaseRatingRule {
       return List.of();
     }
 
-    Map<GameStateIndex, Map<String, PlayerPercentage>> gameStateIndexPlayerPercentage =
-        gameState.gameStateIndexPlayerPercentage();
+    HandPercentageTable handPercentageTable = gameState.handPercentageTable();
 
     List<PlayerPercentage> topWinPlayerPercentages =
         RuleUtils.getCurrentStatePlayerPercentagesOrderByWinDesc(gameState);
@@ -58,7 +64,7 @@ public class CrackedRule extends BaseRatingRule {
     }
 
     PlayerPercentage playerPercentage =
-        RuleUtils.getPlayerPercentage(gameStateIndexPlayerPercentage, gameStateIndex, userId);
+        RuleUtils.getPlayerPercentage(handPercentageTable, gameStateIndex, userId);
     var topFirstPercentage = topWinPlayerPercentages.get(0);
     if (not(playerPercentage.equals(topFirstPercentage))) {
       return List.of();
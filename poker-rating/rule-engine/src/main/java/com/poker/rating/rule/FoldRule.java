@@ -3,9 +3,11 @@ package com.poker.rating.rule;
 import com.andrebreves.tuple.Tuple2;
 import com.google.common.collect.Lists;
 import com.poker.model.game.Bet;
+import com.poker.model.game.BetType;
 import com.poker.model.game.BettingRoundType;
 import com.poker.model.rating.GameState;
 import com.poker.model.rating.GameStateIndex;
+import com.poker.model.rating.HandPercentageTable;
 import com.poker.model.rating.PlayerPercentage;
 import com.poker.model.rating.RuleContext;
 import com.poker.model.rating.RuleDecision;
@@ -13,7 +15,6 @@ import com.poker.rating.rule.extra.FoldExtraDecisionSupplier;
 import com.poker.rating.rule.extra.ShowdownTypeMapper;
 import com.poker.rating.rule.point.FoldPointSupplier;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Predicate;
@@ -33,13 +34,17 @@ public class FoldRule extends BaseRatingRule {
     this.foldExtraDecisionSupplier = foldExtraDecisionSupplier;
   }
 
+  @Override
+  public boolean appliesTo(BettingRoundType bettingRound, BetType betType) {
+    return betType == BetType.FOLD && bettingRound != BettingRoundType.RIVER;
+  }
+
   @Override
   public List<RuleDecision> baseExecute(RuleContext ruleContext) {
     var gameState = ruleContext.gameState();
     var userId = gameState.userId();
     var gameStateIndex = gameState.gameStateIndex();
-    Map<GameStateIndex, Map<String, PlayerPercentage>> gameStateIndexPlayerPercentage =
-        gameState.gameStateIndexPlayerPercentage();
+    HandPercentageTable handPercentageTable = gameState.handPercentageTable();
     var currentBet = gameState.currentBet();
 
     if (RuleUtils.isNotFold(currentBet)
@@ -48,7 +53,7 @@ public class FoldRule extends BaseRatingRule {
     }
 
     PlayerPercentage playerPercentage =
-        RuleUtils.getPlayerPercentage(gameStateIndexPlayerPercentage, gameStateIndex, userId);
+        RuleUtils.getPlayerPercentage(handPercentageTable, gameStateIndex, userId);
     double winPercentage = playerPercentage.getWinPercentage();
     double callAmountOnFold = findCallAmountOnFold(gameState);
     double equityPercentage = RuleUtils.calcEquityPercentage(callAmountOnFold, currentBet.getPot());
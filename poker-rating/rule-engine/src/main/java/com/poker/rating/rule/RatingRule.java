@@ -1,5 +1,7 @@
 package com.poker.rating.rule;
 
+import com.poker.model.game.BetType;
+import com.poker.model.game.BettingRoundType;
 import com.poker.model.rating.RuleContext;
 import com.poker.model.rating.RuleDecision;
 import java.util.List;
@@ -9,4 +11,12 @@ public interface RatingRule {
   List<RuleDecision> execute(RuleContext ruleContext);
 
   String name();
+
+  /**
+   * Whether the rule decides on bets of the type in the betting round, the rules are only executed
+   * on the bets they apply to.
+   */
+  default boolean appliesTo(BettingRoundType bettingRound, BetType betType) {
+    return true;
+  }
 }
@@ -4,9 +4,11 @@ import static com.poker.util.FluentUtils.not;
 
 import com.poker.model.game.Bet;
 import com.poker.model.game.BetPosition;
+import com.poker.model.game.BetType;
 import com.poker.model.game.BettingRoundType;
 import com.poker.model.rating.GameState;
 import com.poker.model.rating.GameStateIndex;
+import com.poker.model.rating.HandPercentageTable;
 import com.poker.model.rating.PlayerPercentage;
 import com.poker.model.rating.RuleContext;
 import com.poker.model.rating.RuleDecision;
@@ -20,9 +22,7 @@ import com.poker.rating.rule.extra.CrackedExtraDecisionSupplier;
 import com.poker.rating.rule.extra.FoldExtraDecisionSupplier;
 import com.poker.rating.rule.extra.ShowdownTypeMapper;
 import com.poker.rating.rule.point.RiverPointSupplier;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
@@ -53,12 +53,9 @@ public class RiverRule extends BaseRatingRule {
     this.crackedExtraDecisionSupplier = crackedExtraDecisionSupplier;
   }
 
-  private static Integer requiredRankOrThrow(PlayerPercentage playerPercentage) {
-    if (playerPercentage.getRank() == null) {
-      throw new IllegalStateException("Player rank value is required on river");
-    }
-
-    return playerPercentage.getRank();
+  @Override
+  public boolean appliesTo(BettingRoundType bettingRound, BetType betType) {
+    return bettingRound == BettingRoundType.RIVER;
   }
 
   @Override
@@ -71,8 +68,7 @@ public class RiverRule extends BaseRatingRule {
     }
 
     var currentUserId = gameState.userId();
-    Map<GameStateIndex, Map<String, PlayerPercentage>> gameStateIndexPlayerPercentage =
-        gameState.gameStateIndexPlayerPercentage();
+    HandPercentageTable handPercentageTable = gameState.handPercentageTable();
     List<PlayerPercentage> winPercentagesDesc =
         RuleUtils.getCurrentStatePlayerPercentagesOrderByWinDesc(gameState);
     PlayerPercentage topFirstWinPercentage = requiredFirstPlayerPercentage(winPercentagesDesc);
@@ -81,8 +77,7 @@ public class RiverRule extends BaseRatingRule {
             && topFirstWinPercentage.getWinPercentage() == 100.0;
 
     PlayerPercentage playerPercentage =
-        RuleUtils.getPlayerPercentage(
-            gameStateIndexPlayerPercentage, gameStateIndex, currentUserId);
+        RuleUtils.getPlayerPercentage(handPercentageTable, gameStateIndex, currentUserId);
     if (isCurrentUserWinner) {
       return winnerRules(gameState, playerPercentage);
     } else {
@@ -231,19 +226,12 @@ public class RiverRule extends BaseRatingRule {
 
   private List<RuleDecision> nonWinnerRules(
       GameState gameState, PlayerPercentage playerPercentage) {
-    Map<GameStateIndex, Map<String, PlayerPercentage>> gameStateIndexPlayerPercentage =
-        gameState.gameStateIndexPlayerPercentage();
-
-    List<PlayerPercentage> topRankHandPlayers =
-        RuleUtils.getPlayerPercentageMap(gameStateIndexPlayerPercentage, gameState.gameStateIndex())
-            .values()
-            .stream()
-            .sorted(Comparator.comparing(RiverRule::requiredRankOrThrow).reversed())
-            .toList();
-    PlayerPercentage topFirstRankHandPlayer = requiredFirstPlayerPercentage(topRankHandPlayers);
+    HandPercentageTable handPercentageTable = gameState.handPercentageTable();
+    GameStateIndex gameStateIndex = gameState.gameStateIndex();
 
     boolean bestRankHand =
-        Objects.equals(topFirstRankHandPlayer.getRank(), playerPercentage.getRank());
+        handPercentageTable.rank(gameStateIndex, playerPercentage.getUserId())
+            == handPercentageTable.maxRank(gameStateIndex);
     if (bestRankHand) {
       return nonWinnerBestRankHandRules(gameState, playerPercentage);
     } else {
@@ -10,12 +10,12 @@ import com.poker.model.game.BetType;
 import com.poker.model.game.BettingRoundType;
 import com.poker.model.rating.GameState;
 import com.poker.model.rating.GameStateIndex;
+import com.poker.model.rating.GameStateSnapshot;
+import com.poker.model.rating.HandPercentageTable;
 import com.poker.model.rating.PlayerPercentage;
 import com.poker.util.CollectionUtils;
 import java.math.RoundingMode;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Predicate;
@@ -45,14 +45,12 @@ public final class RuleUtils {
       lastPlayerTurnIndex += 1;
     }
     GameStateIndex lastGameStateIndex = new GameStateIndex(lastBetRoundType, lastPlayerTurnIndex);
-    Map<String, PlayerPercentage> lasPercentagesMap =
-        getPlayerPercentageMap(gameState.gameStateIndexPlayerPercentage(), lastGameStateIndex);
-    PlayerPercentage currentPlayerPercentage = lasPercentagesMap.get(gameState.userId());
-    if (currentPlayerPercentage == null) {
+    HandPercentageTable handPercentageTable = gameState.handPercentageTable();
+    if (!handPercentageTable.isPlaying(lastGameStateIndex, gameState.userId())) {
       return false;
     }
 
-    return currentPlayerPercentage.getWinPercentage() >= 100.0d;
+    return handPercentageTable.winPercentage(lastGameStateIndex, gameState.userId()) >= 100.0d;
   }
 
   public static boolean isTheWinner(GameState gameState, String userId) {
@@ -64,82 +62,57 @@ public final class RuleUtils {
   }
 
   public static Tuple2<Boolean, PlayerPercentage> hasTheBestHandOrEquals(
-      String userId,
-      GameStateIndex gameStateIndex,
-      Map<GameStateIndex, Map<String, PlayerPercentage>> gameStateIndexPlayerPercentage) {
+      String userId, GameStateIndex gameStateIndex, HandPercentageTable handPercentageTable) {
     PlayerPercentage playerPercentage =
-        getPlayerPercentage(gameStateIndexPlayerPercentage, gameStateIndex, userId);
-    PlayerPercentage maxWinPercentage =
-        maxWinPercentage(gameStateIndexPlayerPercentage, gameStateIndex);
+        getPlayerPercentage(handPercentageTable, gameStateIndex, userId);
     boolean hasBestHand =
-        playerPercentage.getWinPercentage() >= maxWinPercentage.getWinPercentage();
+        playerPercentage.getWinPercentage()
+            >= handPercentageTable.maxWinPercentage(gameStateIndex);
     return Tuple2.of(hasBestHand, playerPercentage);
   }
 
   public static PlayerPercentage maxWinPercentage(
-      Map<GameStateIndex, Map<String, PlayerPercentage>> gameStateIndexPlayerPercentage,
-      GameStateIndex gameStateIndex) {
-    return getPlayerPercentageMap(gameStateIndexPlayerPercentage, gameStateIndex).values().stream()
-        .max(Comparator.comparing(PlayerPercentage::getWinPercentage))
+      HandPercentageTable handPercentageTable, GameStateIndex gameStateIndex) {
+    return handPercentageTable.orderByWinDesc(gameStateIndex).stream()
+        .findFirst()
         .orElseThrow(
             () ->
                 new IllegalArgumentException(
-                    "Game state index player percentage map is missing max win percentage for: "
+                    "Hand percentage table is missing max win percentage for: "
                         + gameStateIndex));
   }
 
   public static PlayerPercentage getPlayerPercentage(
-      Map<GameStateIndex, Map<String, PlayerPercentage>> gameStateIndexPlayerPercentage,
-      GameStateIndex gameStateIndex,
-      String userId) {
+      HandPercentageTable handPercentageTable, GameStateIndex gameStateIndex, String userId) {
     return Objects.requireNonNull(
-        getPlayerPercentageMap(gameStateIndexPlayerPercentage, gameStateIndex).get(userId),
+        handPercentageTable.playerPercentage(gameStateIndex, userId),
         () ->
-            "Game state index player percentage map is missing value for: "
+            "Hand percentage table is missing value for: "
                 + gameStateIndex
-                + "and user ID:"
+                + " and user ID: "
                 + userId);
   }
 
-  public static Map<String, PlayerPercentage> getPlayerPercentageMap(
-      Map<GameStateIndex, Map<String, PlayerPercentage>> gameStateIndexPlayerPercentage,
-      GameStateIndex gameStateIndex) {
-    return Objects.requireNonNull(
-        gameStateIndexPlayerPercentage.get(gameStateIndex),
-        () -> "Game state index player percentage map is missing value for: " + gameStateIndex);
+  /** Snapshot of the current state, shared by all the decisions of the state in the hand. */
+  public static GameStateSnapshot getCurrentStateSnapshot(GameState gameState) {
+    return gameState.handPercentageTable().snapshot(gameState.gameStateIndex());
   }
 
   public static List<PlayerPercentage> getCurrentStatePlayerPercentagesOrderByWinDesc(
       GameState gameState) {
-    var playerPercentageComparator =
-        Comparator.comparingDouble(PlayerPercentage::getWinPercentage).reversed();
-    return getCurrentStatePlayerPercentagesOrderBy(gameState, playerPercentageComparator);
+    return getCurrentStateSnapshot(gameState).playerPercentagesByWinDesc();
   }
 
   public static List<PlayerPercentage> getCurrentStatePlayerPercentagesOrderByShowdownDesc(
       GameState gameState) {
-    var playerPercentageComparator =
-        Comparator.comparingDouble(PlayerPercentage::getShowdownPercentage).reversed();
-    return getCurrentStatePlayerPercentagesOrderBy(gameState, playerPercentageComparator);
-  }
-
-  public static List<PlayerPercentage> getCurrentStatePlayerPercentagesOrderBy(
-      GameState gameState, Comparator<PlayerPercentage> playerPercentageComparator) {
-    Map<GameStateIndex, Map<String, PlayerPercentage>> gameStateIndexPlayerPercentage =
-        gameState.gameStateIndexPlayerPercentage();
-    GameStateIndex gameStateIndex = gameState.gameStateIndex();
-    return getPlayerPercentageMap(gameStateIndexPlayerPercentage, gameStateIndex).values().stream()
-        .sorted(playerPercentageComparator)
-        .toList();
+    return getCurrentStateSnapshot(gameState).playerPercentagesByShowdownDesc();
   }
 
   public static PlayerPercentage getCurrentOpponentTopShowdownPlayerPercentage(
       GameState gameState) {
     var currentPlayerPercentage =
         RuleUtils.getPlayerPercentage(
-            gameState.gameStateIndexPlayerPercentage(),
-            gameState.gameStateIndex(),
-            gameState.userId());
+            gameState.handPercentageTable(), gameState.gameStateIndex(), gameState.userId());
     return getCurrentStatePlayerPercentagesOrderByShowdownDesc(gameState).stream()
         .filter(
             Predicate.not(
@@ -251,14 +224,16 @@ public final class RuleUtils {
     }
 
     GameStateIndex lastGameState = new GameStateIndex(bettingRoundType, lastGameStateIndex);
-    Map<String, PlayerPercentage> lasPercentagesMap =
-        getPlayerPercentageMap(gameState.gameStateIndexPlayerPercentage(), lastGameState);
-    return lasPercentagesMap.size() == 1
-        && lasPercentagesMap.containsKey(gameState.currentBet().getUserId());
+    HandPercentageTable handPercentageTable = gameState.handPercentageTable();
+    return handPercentageTable.playerCount(lastGameState) == 1
+        && handPercentageTable.isPlaying(lastGameState, gameState.currentBet().getUserId());
   }
 
   public static boolean isAnyBet(Bet bet) {
-    var betType = bet.getType();
+    return isAnyBet(bet.getType());
+  }
+
+  public static boolean isAnyBet(BetType betType) {
     return betType == BetType.RAISE
         || betType == BetType.ALL_IN
         || betType == BetType.SMALL_BLIND
@@ -325,19 +300,23 @@ public final class RuleUtils {
 
   public static Optional<Tuple2<GameStateIndex, PlayerPercentage>>
       findFirstWinPercentageIncreaseToAbove(
-          Map<GameStateIndex, Map<String, PlayerPercentage>> gameStateIndexPlayerPercentage,
+          HandPercentageTable handPercentageTable,
           String userId,
           BettingRoundType bettingRound,
           int afterTurn,
           double aboveInclusive) {
-    return gameStateIndexPlayerPercentage.entrySet().stream()
-        .filter(e -> e.getKey().bettingRound() == bettingRound)
-        .filter(e -> e.getKey().playerTurnIndex() > afterTurn)
-        .flatMap(e -> e.getValue().values().stream().map(p -> Tuple2.of(e.getKey(), p)))
-        .filter(t2 -> userId.equals(t2.v2().getUserId()))
-        .sorted(Comparator.comparingInt(t2 -> t2.v1().playerTurnIndex()))
-        .filter(t2 -> t2.v2().getWinPercentage() >= aboveInclusive)
-        .findFirst();
+    // states in turn order, read up to the first found
+    for (int turn = afterTurn + 1; turn <= handPercentageTable.lastTurn(bettingRound); turn++) {
+      var gameStateIndex = new GameStateIndex(bettingRound, turn);
+      if (handPercentageTable.contains(gameStateIndex)) {
+        PlayerPercentage playerPercentage =
+            handPercentageTable.playerPercentage(gameStateIndex, userId);
+        if (playerPercentage != null && playerPercentage.getWinPercentage() >= aboveInclusive) {
+          return Optional.of(Tuple2.of(gameStateIndex, playerPercentage));
+        }
+      }
+    }
+    return Optional.empty();
   }
 
   public static double calcBetEquityPercentage(Bet bet) {
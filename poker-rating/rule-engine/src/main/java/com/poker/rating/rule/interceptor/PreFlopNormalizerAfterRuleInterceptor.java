@@ -33,22 +33,21 @@ public class PreFlopNormalizerAfterRuleInterceptor implements AfterRatingRuleInt
     long normalizeRatingChange = -(sumDecisions - Math.round(sumDecisions * normalizeCoefficient));
     PlayerPercentage playerPercentage =
         RuleUtils.getPlayerPercentage(
-            gameState.gameStateIndexPlayerPercentage(),
-            gameState.gameStateIndex(),
-            gameState.userId());
+            gameState.handPercentageTable(), gameState.gameStateIndex(), gameState.userId());
     String normalizeMessage =
         String.format(
             "Normalize Pre-Flop total rule decisions '%d' to '%.1f' coefficient on '%s' decision",
             sumDecisions, normalizeCoefficient, decision);
+    var snapshot = RuleUtils.getCurrentStateSnapshot(gameState);
     return new RuleDecision(
         gameState.currentBet(),
         "Normalize Pre-Flop",
-        gameState.gameStateIndex(),
+        snapshot.gameStateIndex(),
         "Normalize Pre-Flop gain/lost points",
         normalizeRatingChange,
         playerPercentage.getWinPercentage(),
         playerPercentage.getShowdownPercentage(),
-        RuleUtils.getCurrentStatePlayerPercentagesOrderByWinDesc(gameState),
+        snapshot.playerPercentagesByWinDesc(),
         null,
         null,
         List.of(normalizeMessage));
@@ -0,0 +1,97 @@
+package com.poker.rating.service;
+
+import com.poker.model.game.Card;
+import com.poker.rating.client.calc.LocalPokerHoldemCalculatorClient;
+import com.poker.rating.client.calc.local.BoardShowdownTable;
+import com.poker.rating.client.calc.local.CardMasks;
+import com.poker.rating.client.calc.model.ShowdownPercentageResponse;
+import com.poker.util.task.FutureUtils;
+import com.poker.util.task.TaskExecutor;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * In process calculation evaluating all 1326 holdings once per board, every player showdown
+ * percentage is then derived from the same {@link BoardShowdownTable}. The asynchronous
+ * calculation of several boards runs one task per board off the caller thread.
+ */
+@RequiredArgsConstructor
+public class BoardTableShowdownPercentageCalc implements ShowdownPercentageCalc {
+
+  private static final int PERCENTAGE_SCALE = 0;
+
+  @Nonnull private final TaskExecutor showdownTaskExecutor;
+
+  @Override
+  public @Nonnull List<ShowdownPercentageResponse> calculate(
+      @Nonnull List<Card> boardCards, @Nonnull List<List<Card>> playersCards) {
+    long start = System.nanoTime();
+    long board = CardMasks.mask(boardCards);
+    List<Long> players = playersCards.stream().map(CardMasks::mask).toList();
+    BoardShowdownTable boardShowdownTable = BoardShowdownTable.of(board);
+    List<Supplier<Double>> showdownCalcTasks =
+        players.stream()
+            .<Supplier<Double>>map(player -> () -> boardShowdownTable.showdownRatio(player))
+            .toList();
+    List<Double> showdownRatios = showdownTaskExecutor.execute(showdownCalcTasks);
+    return showdownPercentages(showdownRatios, start);
+  }
+
+  @Override
+  public @Nonnull Map<List<Card>, List<ShowdownPercentageResponse>> calculateAll(
+      @Nonnull Map<List<Card>, List<List<Card>>> boardsPlayersCards) {
+    return FutureUtils.join(calculateAllAsync(boardsPlayersCards));
+  }
+
+  @Override
+  public @Nonnull CompletableFuture<Map<List<Card>, List<ShowdownPercentageResponse>>>
+      calculateAllAsync(@Nonnull Map<List<Card>, List<List<Card>>> boardsPlayersCards) {
+    List<List<Card>> boards = new ArrayList<>(boardsPlayersCards.keySet());
+    List<Supplier<List<ShowdownPercentageResponse>>> boardCalcTasks =
+        boards.stream()
+            .<Supplier<List<ShowdownPercentageResponse>>>map(
+                boardCards ->
+                    () -> boardShowdownPercentages(boardCards, boardsPlayersCards.get(boardCards)))
+            .toList();
+    return showdownTaskExecutor
+        .executeAsync(boardCalcTasks)
+        .thenApply(
+            showdownPercentages -> {
+              Map<List<Card>, List<ShowdownPercentageResponse>> boardsShowdownPercentages =
+                  new LinkedHashMap<>();
+              for (int i = 0; i < boards.size(); i++) {
+                boardsShowdownPercentages.put(boards.get(i), showdownPercentages.get(i));
+              }
+              return boardsShowdownPercentages;
+            });
+  }
+
+  private static List<ShowdownPercentageResponse> boardShowdownPercentages(
+      List<Card> boardCards, List<List<Card>> playersCards) {
+    long start = System.nanoTime();
+    BoardShowdownTable boardShowdownTable = BoardShowdownTable.of(CardMasks.mask(boardCards));
+    List<Double> showdownRatios =
+        playersCards.stream()
+            .map(cards -> boardShowdownTable.showdownRatio(CardMasks.mask(cards)))
+            .toList();
+    return showdownPercentages(showdownRatios, start);
+  }
+
+  private static List<ShowdownPercentageResponse> showdownPercentages(
+      List<Double> showdownRatios, long startNanos) {
+    double operationTime = LocalPokerHoldemCalculatorClient.operationTime(startNanos);
+    return showdownRatios.stream()
+        .map(
+            ratio ->
+                new ShowdownPercentageResponse(
+                    LocalPokerHoldemCalculatorClient.toPercentage(ratio, PERCENTAGE_SCALE),
+                    operationTime))
+        .toList();
+  }
+}
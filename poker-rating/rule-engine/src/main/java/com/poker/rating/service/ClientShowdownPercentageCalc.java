@@ -0,0 +1,72 @@
+package com.poker.rating.service;
+
+import com.poker.model.game.Card;
+import com.poker.rating.client.calc.PokerHoldemCalculatorClient;
+import com.poker.rating.client.calc.model.ShowdownPercentageRequest;
+import com.poker.rating.client.calc.model.ShowdownPercentageResponse;
+import com.poker.util.task.FutureUtils;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nonnull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * One asynchronous calculator client call per player, so the calls in flight are not bounded by a
+ * thread pool. The players of all the boards of a hand are sent in one batch call.
+ */
+@RequiredArgsConstructor
+public class ClientShowdownPercentageCalc implements ShowdownPercentageCalc {
+
+  @Nonnull private final PokerHoldemCalculatorClient pokerCalculatorClient;
+
+  @Override
+  public @Nonnull List<ShowdownPercentageResponse> calculate(
+      @Nonnull List<Card> boardCards, @Nonnull List<List<Card>> playersCards) {
+    List<CompletableFuture<ShowdownPercentageResponse>> showdownPercentages =
+        playersCards.stream()
+            .map(
+                cards ->
+                    pokerCalculatorClient.showdownPercentageAsync(
+                        new ShowdownPercentageRequest(boardCards, cards)))
+            .toList();
+    return showdownPercentages.stream().map(FutureUtils::join).toList();
+  }
+
+  @Override
+  public @Nonnull Map<List<Card>, List<ShowdownPercentageResponse>> calculateAll(
+      @Nonnull Map<List<Card>, List<List<Card>>> boardsPlayersCards) {
+    return FutureUtils.join(calculateAllAsync(boardsPlayersCards));
+  }
+
+  @Override
+  public @Nonnull CompletableFuture<Map<List<Card>, List<ShowdownPercentageResponse>>>
+      calculateAllAsync(@Nonnull Map<List<Card>, List<List<Card>>> boardsPlayersCards) {
+    List<ShowdownPercentageRequest> requests = new ArrayList<>();
+    boardsPlayersCards.forEach(
+        (boardCards, playersCards) ->
+            playersCards.forEach(
+                cards -> requests.add(new ShowdownPercentageRequest(boardCards, cards))));
+    var responses = pokerCalculatorClient.showdownPercentagesAsync(requests);
+    return FutureUtils.cancelling(
+        responses.thenApply(
+            calculated -> showdownPercentagesByBoard(boardsPlayersCards, calculated)),
+        responses);
+  }
+
+  private static Map<List<Card>, List<ShowdownPercentageResponse>> showdownPercentagesByBoard(
+      Map<List<Card>, List<List<Card>>> boardsPlayersCards,
+      List<ShowdownPercentageResponse> responses) {
+    Map<List<Card>, List<ShowdownPercentageResponse>> showdownPercentages = new LinkedHashMap<>();
+    int from = 0;
+    for (Map.Entry<List<Card>, List<List<Card>>> boardPlayersCards :
+        boardsPlayersCards.entrySet()) {
+      int to = from + boardPlayersCards.getValue().size();
+      showdownPercentages.put(boardPlayersCards.getKey(), responses.subList(from, to));
+      from = to;
+    }
+    return showdownPercentages;
+  }
+}
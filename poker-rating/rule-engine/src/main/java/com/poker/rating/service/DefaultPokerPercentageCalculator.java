@@ -5,19 +5,23 @@ import com.poker.model.game.Player;
 import com.poker.model.rating.PlayerPercentage;
 import com.poker.rating.client.calc.PokerHoldemCalculatorClient;
 import com.poker.rating.client.calc.model.HandRank;
-import com.poker.rating.client.calc.model.ShowdownPercentageRequest;
 import com.poker.rating.client.calc.model.ShowdownPercentageResponse;
 import com.poker.rating.client.calc.model.WinPercentagePlayer;
 import com.poker.rating.client.calc.model.WinPercentageRequest;
 import com.poker.rating.client.calc.model.WinPercentageResponse;
-import com.poker.util.task.TaskExecutor;
+import com.poker.util.task.FutureUtils;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
-import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import lombok.RequiredArgsConstructor;
@@ -30,7 +34,7 @@ public class DefaultPokerPercentageCalculator implements PokerPercentageCalculat
   private static final String CARDS_DELIMITER = "|";
   @Nonnull private final PokerHoldemCalculatorClient pokerCalculatorClient;
   @Nonnull private final PreFlopShowdownPercentageCalc preFlopShowdownPercentageCalc;
-  @Nonnull private final TaskExecutor showdownTaskExecutor;
+  @Nonnull private final ShowdownPercentageCalc postFlopShowdownPercentageCalc;
 
   private static @Nonnull String playerCardsToString(@Nonnull Player player) {
     return player.getCards().stream()
@@ -51,15 +55,155 @@ public class DefaultPokerPercentageCalculator implements PokerPercentageCalculat
         () -> "Unexpected missing player user ID mapping for cards: " + cards);
   }
 
+  /**
+   * The showdown percentages are launched first and the win percentage next, both computing at the
+   * same time unless both run on the caller thread. The first of them to fail fails the calculation
+   * and cancels the other, down to its calculator calls.
+   */
   @Override
   public PokerPercentageResult calculate(PercentageCalculatorContext calculatorContext) {
-    var playingPlayers = calculatorContext.getPlayingPlayers();
-    Map<String, WinPercentagePlayer> userIdToWinPercentage =
-        userIdToWinPercentage(calculatorContext);
-    Map<String, Double> userIdToShowdownPercentage = userIdToShowdownPercentage(calculatorContext);
+    CompletableFuture<Map<String, Double>> userIdToShowdownPercentage =
+        FutureUtils.composeNow(() -> userIdToShowdownPercentage(calculatorContext));
+    if (userIdToShowdownPercentage.isCompletedExceptionally()) {
+      // no win percentage to cancel when the showdown percentages failed on the caller thread
+      FutureUtils.join(userIdToShowdownPercentage);
+    }
+    CompletableFuture<Map<String, WinPercentagePlayer>> userIdToWinPercentage =
+        FutureUtils.composeNow(() -> userIdToWinPercentage(calculatorContext));
+    return FutureUtils.join(
+        FutureUtils.combineOrCancel(
+            userIdToWinPercentage,
+            userIdToShowdownPercentage,
+            (winPercentages, showdownPercentages) ->
+                percentageResult(calculatorContext, winPercentages, showdownPercentages)));
+  }
+
+  @Override
+  public List<PokerPercentageResult> calculateAll(
+      List<PercentageCalculatorContext> calculatorContexts) {
+    return FutureUtils.join(calculateAllAsync(calculatorContexts));
+  }
+
+  /**
+   * The win percentages of all the contexts are requested in one calculator batch call, and the
+   * showdown percentages of the distinct players of each board in one call per showdown calc. The
+   * calls are in flight together, the first of them to fail cancels the others, as does cancelling
+   * the calculation.
+   */
+  @Override
+  public CompletableFuture<List<PokerPercentageResult>> calculateAllAsync(
+      List<PercentageCalculatorContext> calculatorContexts) {
+    List<WinPercentageRequest> winPercentageRequests =
+        calculatorContexts.stream()
+            .filter(calculatorContext -> calculatorContext.getPlayingPlayers().size() > 1)
+            .map(DefaultPokerPercentageCalculator::winPercentageRequest)
+            .toList();
+    CompletableFuture<Map<List<Card>, Map<List<Card>, Double>>> boardShowdownPercentages =
+        FutureUtils.composeNow(() -> boardShowdownPercentages(calculatorContexts));
+    return FutureUtils.combineOrCancel(
+        FutureUtils.composeNow(
+            () -> pokerCalculatorClient.winPercentagesAsync(winPercentageRequests)),
+        boardShowdownPercentages,
+        (winPercentages, showdownPercentages) ->
+            percentageResults(calculatorContexts, winPercentages.iterator(), showdownPercentages));
+  }
 
+  private static List<PokerPercentageResult> percentageResults(
+      List<PercentageCalculatorContext> calculatorContexts,
+      Iterator<WinPercentageResponse> winPercentages,
+      Map<List<Card>, Map<List<Card>, Double>> boardShowdownPercentages) {
+    List<PokerPercentageResult> results = new ArrayList<>(calculatorContexts.size());
+    for (PercentageCalculatorContext calculatorContext : calculatorContexts) {
+      var playingPlayers = calculatorContext.getPlayingPlayers();
+      Map<String, WinPercentagePlayer> userIdToWinPercentage =
+          playingPlayers.size() == 1
+              ? singlePlayerWinPercentage(playingPlayers.get(0))
+              : userIdToWinPercentage(playingPlayers, winPercentages.next());
+      Map<String, Double> userIdToShowdownPercentage =
+          calculatorContext.getUserIdToShowdownPercentage();
+      if (userIdToShowdownPercentage == null || userIdToShowdownPercentage.isEmpty()) {
+        Map<List<Card>, Double> showdownPercentages =
+            boardShowdownPercentages.get(boardCards(calculatorContext));
+        userIdToShowdownPercentage =
+            playingPlayers.stream()
+                .collect(
+                    Collectors.toUnmodifiableMap(
+                        Player::getUserId, p -> showdownPercentages.get(p.getCards())));
+      }
+      results.add(
+          percentageResult(calculatorContext, userIdToWinPercentage, userIdToShowdownPercentage));
+    }
+    return results;
+  }
+
+  private CompletableFuture<Map<List<Card>, Map<List<Card>, Double>>> boardShowdownPercentages(
+      List<PercentageCalculatorContext> calculatorContexts) {
+    Map<List<Card>, Set<List<Card>>> boardsPlayersCards = new LinkedHashMap<>();
+    for (PercentageCalculatorContext calculatorContext : calculatorContexts) {
+      var contextUserIdToShowdownPercentage = calculatorContext.getUserIdToShowdownPercentage();
+      if (contextUserIdToShowdownPercentage == null
+          || contextUserIdToShowdownPercentage.isEmpty()) {
+        Set<List<Card>> playersCards =
+            boardsPlayersCards.computeIfAbsent(
+                boardCards(calculatorContext), boardCards -> new LinkedHashSet<>());
+        calculatorContext.getPlayingPlayers().forEach(p -> playersCards.add(p.getCards()));
+      }
+    }
+
+    Map<List<Card>, List<List<Card>>> preFlopBoards = new LinkedHashMap<>();
+    Map<List<Card>, List<List<Card>>> postFlopBoards = new LinkedHashMap<>();
+    boardsPlayersCards.forEach(
+        (boardCards, playersCards) ->
+            (boardCards.isEmpty() ? preFlopBoards : postFlopBoards)
+                .put(boardCards, List.copyOf(playersCards)));
+    var preFlopShowdownPercentages = preFlopShowdownPercentageCalc.calculateAllAsync(preFlopBoards);
+    var postFlopShowdownPercentages =
+        postFlopShowdownPercentageCalc.calculateAllAsync(postFlopBoards);
+    return FutureUtils.cancelling(
+        preFlopShowdownPercentages.thenCombine(
+            postFlopShowdownPercentages,
+            (preFlopPercentages, postFlopPercentages) -> {
+              Map<List<Card>, List<ShowdownPercentageResponse>> showdownPercentages =
+                  new HashMap<>(preFlopPercentages);
+              showdownPercentages.putAll(postFlopPercentages);
+              return boardShowdownPercentages(boardsPlayersCards, showdownPercentages);
+            }),
+        preFlopShowdownPercentages,
+        postFlopShowdownPercentages);
+  }
+
+  private static Map<List<Card>, Map<List<Card>, Double>> boardShowdownPercentages(
+      Map<List<Card>, Set<List<Card>>> boardsPlayersCards,
+      Map<List<Card>, List<ShowdownPercentageResponse>> showdownPercentages) {
+    Map<List<Card>, Map<List<Card>, Double>> boardShowdownPercentages =
+        CollectionUtils.newHashMap(boardsPlayersCards.size());
+    boardsPlayersCards.forEach(
+        (boardCards, playersCards) -> {
+          List<ShowdownPercentageResponse> boardPercentages =
+              Objects.requireNonNull(
+                  showdownPercentages.get(boardCards),
+                  () -> "Showdown percentages are missing for board: " + boardCards);
+          Map<List<Card>, Double> cardsToShowdownPercentage =
+              CollectionUtils.newHashMap(playersCards.size());
+          int i = 0;
+          for (List<Card> cards : playersCards) {
+            cardsToShowdownPercentage.put(cards, boardPercentages.get(i++).getShowdownPercentage());
+          }
+          boardShowdownPercentages.put(boardCards, cardsToShowdownPercentage);
+        });
+    return boardShowdownPercentages;
+  }
+
+  private static List<Card> boardCards(PercentageCalculatorContext calculatorContext) {
+    return Objects.requireNonNullElse(calculatorContext.getBoardCards(), List.of());
+  }
+
+  private static PokerPercentageResult percentageResult(
+      PercentageCalculatorContext calculatorContext,
+      Map<String, WinPercentagePlayer> userIdToWinPercentage,
+      Map<String, Double> userIdToShowdownPercentage) {
     Map<String, PlayerPercentage> playerPercentages =
-        playingPlayers.stream()
+        calculatorContext.getPlayingPlayers().stream()
             .map(
                 p -> {
                   var winPercentagePlayer =
@@ -87,33 +231,29 @@ public class DefaultPokerPercentageCalculator implements PokerPercentageCalculat
     return new PokerPercentageResult(playerPercentages);
   }
 
-  private Map<String, Double> userIdToShowdownPercentage(
+  private CompletableFuture<Map<String, Double>> userIdToShowdownPercentage(
       PercentageCalculatorContext calculatorContext) {
     var contextUserIdToShowdownPercentage = calculatorContext.getUserIdToShowdownPercentage();
     if (contextUserIdToShowdownPercentage != null && !contextUserIdToShowdownPercentage.isEmpty()) {
-      return contextUserIdToShowdownPercentage;
+      return CompletableFuture.completedFuture(contextUserIdToShowdownPercentage);
     }
 
-    List<Card> boardCards = calculatorContext.getBoardCards();
-    final Function<List<Card>, ShowdownPercentageResponse> showdownCalcFunc;
-    if (CollectionUtils.isEmpty(boardCards)) {
-      showdownCalcFunc = preFlopShowdownPercentageCalc::calculate;
-    } else {
-      showdownCalcFunc =
-          cards ->
-              pokerCalculatorClient.showdownPercentage(
-                  new ShowdownPercentageRequest(boardCards, cards));
-    }
+    List<Card> boardCards = boardCards(calculatorContext);
+    ShowdownPercentageCalc showdownCalc =
+        boardCards.isEmpty() ? preFlopShowdownPercentageCalc : postFlopShowdownPercentageCalc;
 
     var playingPlayers = calculatorContext.getPlayingPlayers();
-    List<Supplier<ShowdownPercentageResponse>> showdownCalcTasks =
-        playingPlayers.stream()
-            .map(player -> showdownSupplyCalcFunc(showdownCalcFunc, player))
-            .toList();
-
-    List<ShowdownPercentageResponse> showdownPercentages =
-        showdownTaskExecutor.execute(showdownCalcTasks);
+    List<List<Card>> playersCards = playingPlayers.stream().map(Player::getCards).toList();
+    var boardShowdownPercentages = showdownCalc.calculateAllAsync(Map.of(boardCards, playersCards));
+    return FutureUtils.cancelling(
+        boardShowdownPercentages.thenApply(
+            showdownPercentages ->
+                userIdToShowdownPercentage(playingPlayers, showdownPercentages.get(boardCards))),
+        boardShowdownPercentages);
+  }
 
+  private static Map<String, Double> userIdToShowdownPercentage(
+      List<Player> playingPlayers, List<ShowdownPercentageResponse> showdownPercentages) {
     Map<String, Double> userIdToShowdownPercentage =
         CollectionUtils.newHashMap(playingPlayers.size());
 
@@ -132,27 +272,31 @@ public class DefaultPokerPercentageCalculator implements PokerPercentageCalculat
     return userIdToShowdownPercentage;
   }
 
-  private Supplier<ShowdownPercentageResponse> showdownSupplyCalcFunc(
-      Function<List<Card>, ShowdownPercentageResponse> showdownCalcFunc, Player player) {
-    return () -> showdownCalcFunc.apply(player.getCards());
-  }
-
-  private Map<String, WinPercentagePlayer> userIdToWinPercentage(
+  private CompletableFuture<Map<String, WinPercentagePlayer>> userIdToWinPercentage(
       PercentageCalculatorContext calculatorContext) {
     var playingPlayers = calculatorContext.getPlayingPlayers();
     if (playingPlayers.size() == 1) {
-      // only one player remained == 100 % of wining
-      var firstPlayer = playingPlayers.get(0);
-      return Map.of(
-          firstPlayer.getUserId(),
-          new WinPercentagePlayer(playerCardsToString(firstPlayer), 100.0, new HandRank("N/A", 0)));
+      return CompletableFuture.completedFuture(singlePlayerWinPercentage(playingPlayers.get(0)));
     }
 
-    Map<String, String> playerCardsToUserId = playerCardsToUserId(playingPlayers);
     var winPercentageRequest = winPercentageRequest(calculatorContext);
-    WinPercentageResponse winPercentageRsp =
-        pokerCalculatorClient.winPercentage(winPercentageRequest);
+    var winPercentage = pokerCalculatorClient.winPercentageAsync(winPercentageRequest);
+    return FutureUtils.cancelling(
+        winPercentage.thenApply(
+            winPercentageRsp -> userIdToWinPercentage(playingPlayers, winPercentageRsp)),
+        winPercentage);
+  }
 
+  private static Map<String, WinPercentagePlayer> singlePlayerWinPercentage(Player player) {
+    // only one player remained == 100 % of wining
+    return Map.of(
+        player.getUserId(),
+        new WinPercentagePlayer(playerCardsToString(player), 100.0, new HandRank("N/A", 0)));
+  }
+
+  private static Map<String, WinPercentagePlayer> userIdToWinPercentage(
+      List<Player> playingPlayers, WinPercentageResponse winPercentageRsp) {
+    Map<String, String> playerCardsToUserId = playerCardsToUserId(playingPlayers);
     return winPercentageRsp.getPlayers().stream()
         .collect(
             Collectors.toUnmodifiableMap(
@@ -161,7 +305,8 @@ public class DefaultPokerPercentageCalculator implements PokerPercentageCalculat
                 Function.identity()));
   }
 
-  private WinPercentageRequest winPercentageRequest(PercentageCalculatorContext calculatorContext) {
+  private static WinPercentageRequest winPercentageRequest(
+      PercentageCalculatorContext calculatorContext) {
     List<String> playerCards =
         calculatorContext.getPlayingPlayers().stream()
             .map(DefaultPokerPercentageCalculator::playerCardsToString)
@@ -0,0 +1,120 @@
+package com.poker.rating.service;
+
+import com.google.common.base.Preconditions;
+import com.poker.model.game.Card;
+import com.poker.rating.client.calc.local.CardMasks;
+import com.poker.rating.client.calc.local.FlopShowdownTable;
+import com.poker.rating.client.calc.model.ShowdownPercentageResponse;
+import com.poker.util.task.FutureUtils;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nonnull;
+
+/**
+ * Flop showdown percentages looked up in the memory mapped {@link FlopShowdownTable} resource,
+ * turn and river boards are delegated.
+ */
+public class FlopTableShowdownPercentageCalc implements ShowdownPercentageCalc {
+
+  private static final String RESOURCE_NAME = "flop_showdown.bin";
+  private static final int FLOP_SIZE = 3;
+
+  @Nonnull private final FlopShowdownTable flopShowdownTable;
+  @Nonnull private final ShowdownPercentageCalc delegate;
+
+  public FlopTableShowdownPercentageCalc(@Nonnull ShowdownPercentageCalc delegate) {
+    this.flopShowdownTable = mapResource();
+    this.delegate = delegate;
+  }
+
+  @SuppressWarnings("java:S112")
+  private static FlopShowdownTable mapResource() {
+    URL resource =
+        FlopTableShowdownPercentageCalc.class.getClassLoader().getResource(RESOURCE_NAME);
+    Preconditions.checkNotNull(
+        resource, "Flop showdown table is missing in classpath: " + RESOURCE_NAME);
+    try {
+      if ("file".equals(resource.getProtocol())) {
+        return FlopShowdownTable.map(Path.of(resource.toURI()));
+      }
+      // resources packaged in a jar are not mappable, extracted to a temporary file first
+      Path file = Files.createTempFile("flop_showdown", ".bin");
+      file.toFile().deleteOnExit();
+      try (InputStream input = resource.openStream()) {
+        Files.copy(input, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+      return FlopShowdownTable.map(file);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (URISyntaxException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public @Nonnull List<ShowdownPercentageResponse> calculate(
+      @Nonnull List<Card> boardCards, @Nonnull List<List<Card>> playersCards) {
+    if (boardCards.size() != FLOP_SIZE) {
+      return delegate.calculate(boardCards, playersCards);
+    }
+    return flopShowdownPercentages(boardCards, playersCards);
+  }
+
+  @Override
+  public @Nonnull Map<List<Card>, List<ShowdownPercentageResponse>> calculateAll(
+      @Nonnull Map<List<Card>, List<List<Card>>> boardsPlayersCards) {
+    return FutureUtils.join(calculateAllAsync(boardsPlayersCards));
+  }
+
+  /** Flops are looked up while the other boards are calculated by the delegate. */
+  @Override
+  public @Nonnull CompletableFuture<Map<List<Card>, List<ShowdownPercentageResponse>>>
+      calculateAllAsync(@Nonnull Map<List<Card>, List<List<Card>>> boardsPlayersCards) {
+    Map<List<Card>, List<List<Card>>> delegatedBoards = new LinkedHashMap<>();
+    boardsPlayersCards.forEach(
+        (boardCards, playersCards) -> {
+          if (boardCards.size() != FLOP_SIZE) {
+            delegatedBoards.put(boardCards, playersCards);
+          }
+        });
+    CompletableFuture<Map<List<Card>, List<ShowdownPercentageResponse>>> delegated =
+        delegate.calculateAllAsync(delegatedBoards);
+    Map<List<Card>, List<ShowdownPercentageResponse>> flops = new LinkedHashMap<>();
+    boardsPlayersCards.forEach(
+        (boardCards, playersCards) -> {
+          if (boardCards.size() == FLOP_SIZE) {
+            flops.put(boardCards, flopShowdownPercentages(boardCards, playersCards));
+          }
+        });
+    return FutureUtils.cancelling(
+        delegated.thenApply(
+            delegatedShowdownPercentages -> {
+              Map<List<Card>, List<ShowdownPercentageResponse>> showdownPercentages =
+                  new LinkedHashMap<>(delegatedShowdownPercentages);
+              showdownPercentages.putAll(flops);
+              return showdownPercentages;
+            }),
+        delegated);
+  }
+
+  private List<ShowdownPercentageResponse> flopShowdownPercentages(
+      List<Card> boardCards, List<List<Card>> playersCards) {
+    long flop = CardMasks.mask(boardCards);
+    return playersCards.stream()
+        .map(
+            cards ->
+                new ShowdownPercentageResponse(
+                    flopShowdownTable.showdownPercentage(flop, CardMasks.mask(cards)), null))
+        .toList();
+  }
+}
@@ -0,0 +1,14 @@
+package com.poker.rating.service;
+
+/** Backends the percentages of a calculation context are routed to. */
+public enum PercentageBackend {
+  /**
+   * Precomputed tables, serving heads-up pre flop win percentages without dead cards, the other
+   * percentages calculated by the configured calculator client.
+   */
+  TABLE,
+  /** In process calculator, exhaustive enumeration with board cards and Monte Carlo without. */
+  LOCAL,
+  /** Configured calculator client, the remote calculator service unless set to local. */
+  REMOTE
+}
@@ -1,6 +1,7 @@
 package com.poker.rating.service;
 
 import com.poker.model.game.Card;
+import com.poker.model.game.CardSet;
 import com.poker.model.game.Player;
 import java.util.Collections;
 import java.util.List;
@@ -17,6 +18,8 @@ public final class PercentageCalculatorContext {
   @Nullable private final List<Card> boardCards;
   @Nullable private final Set<Card> deadCards;
   @Nullable private final Map<String, Double> userIdToShowdownPercentage;
+  @Nonnull private final CardSet boardCardSet;
+  @Nonnull private final CardSet deadCardSet;
 
   public PercentageCalculatorContext(
       @Nonnull List<Player> playingPlayers,
@@ -37,5 +40,7 @@ public final class PercentageCalculatorContext {
         userIdToShowdownPercentage != null
             ? Collections.unmodifiableMap(userIdToShowdownPercentage)
             : null;
+    this.boardCardSet = CardSet.of(boardCards);
+    this.deadCardSet = CardSet.of(deadCards);
   }
 }
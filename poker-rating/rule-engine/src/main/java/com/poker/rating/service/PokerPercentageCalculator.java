@@ -1,5 +1,28 @@
 package com.poker.rating.service;
 
+import com.poker.util.task.FutureUtils;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 public interface PokerPercentageCalculator {
   PokerPercentageResult calculate(PercentageCalculatorContext calculatorContext);
+
+  /**
+   * Percentages of all the calculation contexts of a hand, one context after the other unless
+   * overridden.
+   *
+   * @return results in the order of the contexts
+   */
+  default List<PokerPercentageResult> calculateAll(
+      List<PercentageCalculatorContext> calculatorContexts) {
+    return calculatorContexts.stream().map(this::calculate).toList();
+  }
+
+  /**
+   * @see #calculateAll(List)
+   */
+  default CompletableFuture<List<PokerPercentageResult>> calculateAllAsync(
+      List<PercentageCalculatorContext> calculatorContexts) {
+    return FutureUtils.supplyNow(() -> calculateAll(calculatorContexts));
+  }
 }
@@ -1,9 +1,20 @@
 package com.poker.rating.service;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.ConstructorBinding;
 
+/**
+ * @param showdownCalcParallelism parallelism of the local per player showdown calculations
+ * @param flopShowdownTable whether flop showdown percentages are looked up in the precomputed
+ *     table, disabled unless set to true
+ * @param preFlopWinTable whether heads-up pre flop win percentages without dead cards are looked up
+ *     in the precomputed table, disabled unless set to true
+ */
 @ConstructorBinding
 @ConfigurationProperties(prefix = "poker.percentage.calc")
-public record PokerPercentageCalculatorConfig(@Nonnull int showdownCalcParallelism) {}
+public record PokerPercentageCalculatorConfig(
+    @Nonnull int showdownCalcParallelism,
+    @Nullable Boolean flopShowdownTable,
+    @Nullable Boolean preFlopWinTable) {}
@@ -0,0 +1,42 @@
+package com.poker.rating.service;
+
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+
+/**
+ * @param enabled whether the calculation contexts are routed to backends by the routes, the remote
+ *     backend alone computing all of them otherwise
+ * @param routes routes tried in order, the first one matching a context routes it, the contexts no
+ *     route matches go to the remote backend
+ */
+@ConstructorBinding
+@ConfigurationProperties(prefix = "poker.percentage.calc.routing")
+public record PokerPercentageRoutingConfig(
+    @Nullable Boolean enabled, @Nullable List<Route> routes) {
+
+  /**
+   * Bounds left unset do not restrict the route.
+   *
+   * @param minPlayers minimum playing players of the contexts
+   * @param maxPlayers maximum playing players of the contexts
+   * @param minBoardCards minimum board cards of the contexts, 0 pre flop
+   * @param maxBoardCards maximum board cards of the contexts
+   * @param maxDeadCards maximum dead cards of the contexts, 0 for the pre flop table which does
+   *     not cover them
+   * @param minRemainingBudgetMillis minimum time left to the caller, as read by the remaining
+   *     budget given to the router, unbounded without one, so a slow backend is taken only while
+   *     there is time for it
+   * @param backends backends tried in order, the next one when a backend fails
+   */
+  public record Route(
+      @Nullable Integer minPlayers,
+      @Nullable Integer maxPlayers,
+      @Nullable Integer minBoardCards,
+      @Nullable Integer maxBoardCards,
+      @Nullable Integer maxDeadCards,
+      @Nullable Long minRemainingBudgetMillis,
+      @Nonnull List<PercentageBackend> backends) {}
+}
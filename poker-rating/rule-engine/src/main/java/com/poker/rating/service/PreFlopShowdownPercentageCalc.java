@@ -3,7 +3,7 @@ package com.poker.rating.service;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Splitter;
 import com.poker.model.game.Card;
-import com.poker.model.game.NCard;
+import com.poker.model.game.CardSet;
 import com.poker.rating.client.calc.model.ShowdownPercentageResponse;
 import java.io.IOException;
 import java.math.BigDecimal;
@@ -13,49 +13,68 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 
 /** Cached in memory implementation */
-public class PreFlopShowdownPercentageCalc {
+public class PreFlopShowdownPercentageCalc implements ShowdownPercentageCalc {
 
-  private static final Map<NCard, Double> PRE_FLOP_PERCENTAGES = initPreFlopPercentages();
+  private static final int PRE_FLOP_COMBINATIONS = 1326;
+  private static final double[] PRE_FLOP_PERCENTAGES = initPreFlopPercentages();
 
   @SuppressWarnings("java:S112")
-  private static Map<NCard, Double> initPreFlopPercentages() {
+  private static double[] initPreFlopPercentages() {
     try {
       var resourceName = "preflop_showdown.txt";
       URL resource = PreFlopShowdownPercentageCalc.class.getClassLoader().getResource(resourceName);
       Preconditions.checkNotNull(
           resource, "Pre flop showdown file is missing in classpath: " + resourceName);
-      Map<NCard, Double> preFlopPercentages =
-          Files.readAllLines(Path.of(resource.toURI())).stream()
-              .map(
-                  l -> {
-                    List<String> lineData = Splitter.on(' ').splitToList(l);
-                    BigDecimal percentage = new BigDecimal(lineData.get(2), MathContext.UNLIMITED);
-                    percentage = percentage.setScale(0, RoundingMode.HALF_UP);
-                    return Map.entry(
-                        NCard.of(Card.of(lineData.get(0)), Card.of(lineData.get(1))),
-                        percentage.doubleValue());
-                  })
-              .collect(Collectors.toMap(Entry::getKey, Entry::getValue));
+      double[] preFlopPercentages = new double[Card.DECK_SIZE * Card.DECK_SIZE];
+      Arrays.fill(preFlopPercentages, Double.NaN);
+      int loaded = 0;
+      for (String line : Files.readAllLines(Path.of(resource.toURI()))) {
+        List<String> lineData = Splitter.on(' ').splitToList(line);
+        BigDecimal percentage = new BigDecimal(lineData.get(2), MathContext.UNLIMITED);
+        percentage = percentage.setScale(0, RoundingMode.HALF_UP);
+        int key = key(CardSet.of(Card.of(lineData.get(0)), Card.of(lineData.get(1))));
+        if (Double.isNaN(preFlopPercentages[key])) {
+          loaded++;
+        }
+        preFlopPercentages[key] = percentage.doubleValue();
+      }
       Preconditions.checkArgument(
-          preFlopPercentages.size() == 1326, "Wrong pre flop percentages data");
+          loaded == PRE_FLOP_COMBINATIONS, "Wrong pre flop percentages data");
       return preFlopPercentages;
     } catch (URISyntaxException | IOException e) {
       throw new RuntimeException(e);
     }
   }
 
+  private static int key(CardSet playerCards) {
+    Preconditions.checkArgument(playerCards.size() == 2, "Invalid size of player cards");
+    long mask = playerCards.mask();
+    int low = Long.numberOfTrailingZeros(mask);
+    int high = Long.numberOfTrailingZeros(mask & (mask - 1));
+    return high * Card.DECK_SIZE + low;
+  }
+
+  @Override
+  public @Nonnull List<ShowdownPercentageResponse> calculate(
+      @Nonnull List<Card> boardCards, @Nonnull List<List<Card>> playersCards) {
+    Preconditions.checkArgument(boardCards.isEmpty(), "Pre flop must not have board cards");
+    return playersCards.stream().map(this::calculate).toList();
+  }
+
   public @Nonnull ShowdownPercentageResponse calculate(@Nonnull List<Card> playerCards) {
     Preconditions.checkArgument(playerCards.size() == 2, "Invalid size of player cards");
-    NCard key = NCard.of(playerCards.toArray(new Card[] {}));
-    Double preFlopPercentage = PRE_FLOP_PERCENTAGES.get(key);
-    Preconditions.checkNotNull(preFlopPercentage, "Pre flop percentage is missing for: " + key);
+    return calculate(CardSet.of(playerCards));
+  }
+
+  public @Nonnull ShowdownPercentageResponse calculate(@Nonnull CardSet playerCards) {
+    double preFlopPercentage = PRE_FLOP_PERCENTAGES[key(playerCards)];
+    Preconditions.checkState(
+        !Double.isNaN(preFlopPercentage), "Pre flop percentage is missing for: " + playerCards);
     return new ShowdownPercentageResponse(preFlopPercentage, null);
   }
 }
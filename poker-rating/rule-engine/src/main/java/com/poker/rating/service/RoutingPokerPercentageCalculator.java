@@ -0,0 +1,259 @@
+package com.poker.rating.service;
+
+import com.poker.rating.service.PokerPercentageRoutingConfig.Route;
+import com.poker.util.task.FutureUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Routes each calculation context to the backends of the first route matching its players, board
+ * cards, dead cards and the remaining time budget of the caller, falling back to the next backend
+ * of the route when one fails. The contexts of a same route are calculated together, and calculated
+ * each on its own from the same backend when they fail together, so a context failing does not take
+ * the others to the next backend. The contexts no route matches go to the remote backend. The calls
+ * of each backend are timed in pokerPercentageCalculator.backend.calls by outcome and the fallbacks
+ * from it counted in pokerPercentageCalculator.backend.fallbacks.
+ */
+@Slf4j
+public class RoutingPokerPercentageCalculator implements PokerPercentageCalculator {
+
+  private static final List<PercentageBackend> DEFAULT_BACKENDS =
+      List.of(PercentageBackend.REMOTE);
+
+  @Nonnull private final Map<PercentageBackend, PokerPercentageCalculator> backends;
+  @Nonnull private final List<Route> routes;
+  @Nonnull private final LongSupplier remainingBudgetMillis;
+  @Nonnull private final Map<PercentageBackend, Timer> succeededCalls;
+  @Nonnull private final Map<PercentageBackend, Timer> failedCalls;
+  @Nonnull private final Map<PercentageBackend, Counter> fallbacks;
+
+  public RoutingPokerPercentageCalculator(
+      @Nonnull Map<PercentageBackend, PokerPercentageCalculator> backends,
+      @Nonnull List<Route> routes,
+      @Nonnull MeterRegistry meterRegistry) {
+    this(backends, routes, () -> Long.MAX_VALUE, meterRegistry);
+  }
+
+  /**
+   * @param remainingBudgetMillis time left to the caller, read when routing the contexts of each
+   *     call against the minimum remaining budget of the routes
+   */
+  public RoutingPokerPercentageCalculator(
+      @Nonnull Map<PercentageBackend, PokerPercentageCalculator> backends,
+      @Nonnull List<Route> routes,
+      @Nonnull LongSupplier remainingBudgetMillis,
+      @Nonnull MeterRegistry meterRegistry) {
+    this.backends = new EnumMap<>(backends);
+    this.routes = List.copyOf(routes);
+    this.remainingBudgetMillis = remainingBudgetMillis;
+    for (Route route : routes) {
+      if (route.backends().isEmpty() || !backends.keySet().containsAll(route.backends())) {
+        throw new IllegalArgumentException(
+            "Route backends are empty or not configured: " + route.backends());
+      }
+    }
+    if (!backends.containsKey(PercentageBackend.REMOTE)) {
+      throw new IllegalArgumentException("Remote backend of the unrouted contexts is missing");
+    }
+    this.succeededCalls = new EnumMap<>(PercentageBackend.class);
+    this.failedCalls = new EnumMap<>(PercentageBackend.class);
+    this.fallbacks = new EnumMap<>(PercentageBackend.class);
+    for (PercentageBackend backend : backends.keySet()) {
+      succeededCalls.put(backend, calls(meterRegistry, backend, "success"));
+      failedCalls.put(backend, calls(meterRegistry, backend, "failure"));
+      fallbacks.put(
+          backend,
+          Counter.builder("pokerPercentageCalculator.backend.fallbacks")
+              .description("Percentage calculations falling back to the next backend")
+              .tag("backend", backend.name())
+              .register(meterRegistry));
+    }
+  }
+
+  private static Timer calls(
+      MeterRegistry meterRegistry, PercentageBackend backend, String outcome) {
+    return Timer.builder("pokerPercentageCalculator.backend.calls")
+        .description("Percentage calculations of the backend")
+        .tag("backend", backend.name())
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+
+  private static boolean matches(
+      Route route, PercentageCalculatorContext calculatorContext, long remainingBudgetMillis) {
+    int players = calculatorContext.getPlayingPlayers().size();
+    int boardCards = calculatorContext.getBoardCardSet().size();
+    int deadCards = calculatorContext.getDeadCardSet().size();
+    return within(players, route.minPlayers(), route.maxPlayers())
+        && within(boardCards, route.minBoardCards(), route.maxBoardCards())
+        && within(deadCards, null, route.maxDeadCards())
+        && (route.minRemainingBudgetMillis() == null
+            || remainingBudgetMillis >= route.minRemainingBudgetMillis());
+  }
+
+  private static boolean within(int value, @Nullable Integer min, @Nullable Integer max) {
+    return (min == null || value >= min) && (max == null || value <= max);
+  }
+
+  private List<PercentageBackend> route(
+      PercentageCalculatorContext calculatorContext, long remainingBudgetMillis) {
+    for (Route route : routes) {
+      if (matches(route, calculatorContext, remainingBudgetMillis)) {
+        return route.backends();
+      }
+    }
+    return DEFAULT_BACKENDS;
+  }
+
+  @Override
+  public PokerPercentageResult calculate(PercentageCalculatorContext calculatorContext) {
+    return FutureUtils.join(
+        callAsync(
+            route(calculatorContext, remainingBudgetMillis.getAsLong()),
+            0,
+            backend -> FutureUtils.supplyNow(() -> backend.calculate(calculatorContext)),
+            null));
+  }
+
+  @Override
+  public List<PokerPercentageResult> calculateAll(
+      List<PercentageCalculatorContext> calculatorContexts) {
+    return FutureUtils.join(calculateAllAsync(calculatorContexts));
+  }
+
+  /** The contexts of a same route are calculated together, the routes at the same time. */
+  @Override
+  public CompletableFuture<List<PokerPercentageResult>> calculateAllAsync(
+      List<PercentageCalculatorContext> calculatorContexts) {
+    long remainingBudget = remainingBudgetMillis.getAsLong();
+    Map<List<PercentageBackend>, List<Integer>> routedIndexes = new LinkedHashMap<>();
+    for (int i = 0; i < calculatorContexts.size(); i++) {
+      routedIndexes
+          .computeIfAbsent(
+              route(calculatorContexts.get(i), remainingBudget), backends -> new ArrayList<>())
+          .add(i);
+    }
+
+    var results = new PokerPercentageResult[calculatorContexts.size()];
+    List<CompletableFuture<Void>> routedCalculations = new ArrayList<>(routedIndexes.size());
+    routedIndexes.forEach(
+        (routeBackends, indexes) -> {
+          List<PercentageCalculatorContext> routedContexts =
+              indexes.stream().map(calculatorContexts::get).toList();
+          routedCalculations.add(
+              calculateRoutedAsync(routeBackends, routedContexts)
+                  .thenAccept(
+                      routedResults -> {
+                        for (int i = 0; i < indexes.size(); i++) {
+                          results[indexes.get(i)] = routedResults.get(i);
+                        }
+                      }));
+        });
+    return CompletableFuture.allOf(routedCalculations.toArray(CompletableFuture[]::new))
+        .thenApply(done -> Arrays.asList(results));
+  }
+
+  /**
+   * Contexts of a route calculated together on its first backend, each on its own from the same
+   * backend when they fail together, so each context falls back alone.
+   */
+  private CompletableFuture<List<PokerPercentageResult>> calculateRoutedAsync(
+      List<PercentageBackend> routeBackends, List<PercentageCalculatorContext> routedContexts) {
+    if (routedContexts.size() == 1) {
+      return callAsync(
+          routeBackends, 0, backend -> backend.calculateAllAsync(routedContexts), null);
+    }
+    PercentageBackend backend = routeBackends.get(0);
+    return timedAsync(backend, calculator -> calculator.calculateAllAsync(routedContexts))
+        .handle(
+            (results, e) -> {
+              if (e == null) {
+                return CompletableFuture.completedFuture(results);
+              }
+              log.warn(
+                  "Percentage calculations failed together on backend {}, retried alone: {}",
+                  backend,
+                  unwrap(e).toString());
+              List<CompletableFuture<PokerPercentageResult>> eachResults =
+                  routedContexts.stream()
+                      .map(
+                          calculatorContext ->
+                              callAsync(
+                                  routeBackends,
+                                  0,
+                                  calculator ->
+                                      calculator
+                                          .calculateAllAsync(List.of(calculatorContext))
+                                          .thenApply(contextResults -> contextResults.get(0)),
+                                  null))
+                      .toList();
+              return CompletableFuture.allOf(eachResults.toArray(CompletableFuture[]::new))
+                  .thenApply(done -> eachResults.stream().map(CompletableFuture::join).toList());
+            })
+        .thenCompose(Function.identity());
+  }
+
+  /** Calculation on the backend, timed by outcome. */
+  private <T> CompletableFuture<T> timedAsync(
+      PercentageBackend backend,
+      Function<PokerPercentageCalculator, CompletableFuture<T>> calculation) {
+    long start = System.nanoTime();
+    return FutureUtils.composeNow(() -> calculation.apply(backends.get(backend)))
+        .whenComplete(
+            (result, e) ->
+                (e == null ? succeededCalls : failedCalls)
+                    .get(backend)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+  }
+
+  private <T> CompletableFuture<T> callAsync(
+      List<PercentageBackend> routeBackends,
+      int backendIndex,
+      Function<PokerPercentageCalculator, CompletableFuture<T>> calculation,
+      @Nullable Throwable previousFailure) {
+    PercentageBackend backend = routeBackends.get(backendIndex);
+    return timedAsync(backend, calculation)
+        .handle(
+            (result, e) -> {
+              if (e == null) {
+                return CompletableFuture.completedFuture(result);
+              }
+              Throwable cause = unwrap(e);
+              Throwable failure = cause;
+              if (previousFailure != null) {
+                previousFailure.addSuppressed(cause);
+                failure = previousFailure;
+              }
+              if (backendIndex + 1 == routeBackends.size()) {
+                return CompletableFuture.<T>failedFuture(failure);
+              }
+              fallbacks.get(backend).increment();
+              log.warn(
+                  "Percentage calculation failed on backend {}, falling back to {}: {}",
+                  backend,
+                  routeBackends.get(backendIndex + 1),
+                  cause.toString());
+              return callAsync(routeBackends, backendIndex + 1, calculation, failure);
+            })
+        .thenCompose(Function.identity());
+  }
+
+  private static Throwable unwrap(Throwable e) {
+    return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+  }
+}
@@ -0,0 +1,49 @@
+package com.poker.rating.service;
+
+import com.poker.model.game.Card;
+import com.poker.rating.client.calc.model.ShowdownPercentageResponse;
+import com.poker.util.task.FutureUtils;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nonnull;
+
+/** Showdown percentage of all the playing players on the same board. */
+public interface ShowdownPercentageCalc {
+
+  /**
+   * @param boardCards board cards shared by all the players
+   * @param playersCards hole cards of each player
+   * @return showdown percentage of each player, in the order of {@code playersCards}
+   */
+  @Nonnull
+  List<ShowdownPercentageResponse> calculate(
+      @Nonnull List<Card> boardCards, @Nonnull List<List<Card>> playersCards);
+
+  /**
+   * Showdown percentages of the players of several boards of a hand, one board after the other
+   * unless overridden.
+   *
+   * @param boardsPlayersCards board cards to the hole cards of each player on that board
+   * @return board cards to the showdown percentage of each player, in the players order
+   */
+  @Nonnull
+  default Map<List<Card>, List<ShowdownPercentageResponse>> calculateAll(
+      @Nonnull Map<List<Card>, List<List<Card>>> boardsPlayersCards) {
+    Map<List<Card>, List<ShowdownPercentageResponse>> showdownPercentages = new LinkedHashMap<>();
+    boardsPlayersCards.forEach(
+        (boardCards, playersCards) ->
+            showdownPercentages.put(boardCards, calculate(boardCards, playersCards)));
+    return showdownPercentages;
+  }
+
+  /**
+   * @see #calculateAll(Map)
+   */
+  @Nonnull
+  default CompletableFuture<Map<List<Card>, List<ShowdownPercentageResponse>>> calculateAllAsync(
+      @Nonnull Map<List<Card>, List<List<Card>>> boardsPlayersCards) {
+    return FutureUtils.supplyNow(() -> calculateAll(boardsPlayersCards));
+  }
+}
@@ -0,0 +1,109 @@
+package com.poker.rating;
+
+import com.poker.model.game.BettingRoundType;
+import com.poker.model.game.Card;
+import com.poker.model.game.Player;
+import com.poker.model.rating.GameStateIndex;
+import com.poker.model.rating.PlayerPercentage;
+import com.poker.rating.service.PercentageCalculatorContext;
+import com.poker.rating.service.PokerPercentageResult;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LazyPlayerPercentageMapTest {
+
+  private static final GameStateIndex PRE_FLOP_START =
+      new GameStateIndex(BettingRoundType.PRE_FLOP, 0);
+  private static final GameStateIndex PRE_FLOP_CALL =
+      new GameStateIndex(BettingRoundType.PRE_FLOP, 1);
+  private static final GameStateIndex FLOP_START = new GameStateIndex(BettingRoundType.FLOP, 0);
+  private static final GameStateIndex FLOP_FOLD = new GameStateIndex(BettingRoundType.FLOP, 1);
+  private static final List<Player> PLAYERS =
+      List.of(
+          new Player("u1", List.of(Card.of("Ks"), Card.of("Td"))),
+          new Player("u2", List.of(Card.of("Jc"), Card.of("Th"))));
+
+  private final List<PercentageCalculatorContext> calculated = new ArrayList<>();
+  // calculations failing before the next succeeds
+  private int failures;
+  private final LazyPlayerPercentageMap percentages =
+      new LazyPlayerPercentageMap(
+          new RandomPokerPercentageCalculator() {
+            @Override
+            public PokerPercentageResult calculate(
+                PercentageCalculatorContext calculatorContext) {
+              calculated.add(calculatorContext);
+              if (failures > 0) {
+                failures--;
+                throw new IllegalStateException("Calculator failure");
+              }
+              return super.calculate(calculatorContext);
+            }
+          },
+          Map.of(
+              PRE_FLOP_START, new PercentageCalculatorContext(PLAYERS, null, null),
+              FLOP_START, new PercentageCalculatorContext(PLAYERS, List.of(), null),
+              FLOP_FOLD, new PercentageCalculatorContext(PLAYERS, List.of(), null)),
+          Map.of(PRE_FLOP_CALL, PRE_FLOP_START),
+          Map.of(FLOP_FOLD, FLOP_START));
+
+  @Test
+  void test_state_calculated_once_on_first_read() {
+    Assertions.assertTrue(percentages.containsKey(FLOP_FOLD));
+    Assertions.assertEquals(4, percentages.size());
+    Assertions.assertTrue(calculated.isEmpty());
+
+    // the shared state reads the percentages of the calculated one
+    Assertions.assertSame(percentages.get(PRE_FLOP_CALL), percentages.get(PRE_FLOP_START));
+    Assertions.assertNull(percentages.get(new GameStateIndex(BettingRoundType.RIVER, 0)));
+    Assertions.assertEquals(1, calculated.size());
+  }
+
+  @Test
+  void test_entries_calculated_once_their_value_read() {
+    // filtering the entries by key calculates none of them
+    Assertions.assertEquals(
+        1,
+        percentages.entrySet().stream()
+            .filter(e -> e.getKey().bettingRound() == BettingRoundType.FLOP)
+            .filter(e -> e.getKey().playerTurnIndex() > 0)
+            .map(Map.Entry::getValue)
+            .toList()
+            .size());
+    Assertions.assertEquals(1, calculated.size());
+
+    // all the states are there once read, the shared one included
+    Assertions.assertEquals(
+        Set.of(PRE_FLOP_START, PRE_FLOP_CALL, FLOP_START, FLOP_FOLD),
+        Map.copyOf(percentages).keySet());
+    Assertions.assertEquals(3, calculated.size());
+  }
+
+  @Test
+  void test_failed_calculation_calculated_again_on_next_read() {
+    failures = 1;
+    Assertions.assertThrows(IllegalStateException.class, () -> percentages.get(FLOP_START));
+
+    Assertions.assertNotNull(percentages.get(FLOP_START));
+    Assertions.assertEquals(2, calculated.size());
+    percentages.get(FLOP_START);
+    Assertions.assertEquals(2, calculated.size());
+  }
+
+  @Test
+  void test_fold_state_reuses_showdown_percentages_of_calculated_round_start() {
+    Map<String, PlayerPercentage> roundStart = percentages.get(FLOP_START);
+    percentages.get(FLOP_FOLD);
+
+    Assertions.assertNull(calculated.get(0).getUserIdToShowdownPercentage());
+    Assertions.assertEquals(
+        Map.of(
+            "u1", roundStart.get("u1").getShowdownPercentage(),
+            "u2", roundStart.get("u2").getShowdownPercentage()),
+        calculated.get(1).getUserIdToShowdownPercentage());
+  }
+}
@@ -1,9 +1,18 @@
 package com.poker.rating;
 
 import com.poker.model.game.GameHand;
+import com.poker.model.rating.PlayerPercentage;
 import com.poker.model.rating.RatingRuleExecResult;
+import com.poker.rating.service.PokerPercentageCalculator;
+import com.poker.rating.service.PokerPercentageResult;
 import com.poker.test.util.FileTestUtils;
 import com.poker.test.util.JacksonTestUtils;
+import com.poker.util.task.ConcurrentTaskExecutor;
+import com.poker.util.task.SequentialTaskExecutor;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -22,4 +31,76 @@ class RatingRuleEngineTest {
     Assertions.assertNotNull(ruleExecResult);
     System.out.println(JacksonTestUtils.toJson(gameHandSample1));
   }
+
+  @Test
+  void test_parallel_bets_decisions_in_bet_order() throws Exception {
+    PokerPercentageCalculator evenPokerPercentageCalculator =
+        calculatorContext ->
+            new PokerPercentageResult(
+                calculatorContext.getPlayingPlayers().stream()
+                    // the river rules compare the hand ranks
+                    .map(p -> new PlayerPercentage(p.getUserId(), 50, 50, 0, "High Card"))
+                    .collect(
+                        Collectors.toUnmodifiableMap(
+                            PlayerPercentage::getUserId, Function.identity())));
+    GameHand gameHandSample1 =
+        JacksonTestUtils.fromJson(
+            FileTestUtils.readUtf8Content("games/sample-1/game-hand.json"), GameHand.class);
+
+    RatingRuleExecResult sequentialResult =
+        new RatingRuleEngine(new RatingRuleRegister(), evenPokerPercentageCalculator)
+            .executeRules(gameHandSample1);
+    try (var betTaskExecutor = new ConcurrentTaskExecutor(Executors.newFixedThreadPool(4))) {
+      RatingRuleExecResult parallelResult =
+          new RatingRuleEngine(
+                  new RatingRuleRegister(),
+                  evenPokerPercentageCalculator,
+                  new SequentialTaskExecutor(),
+                  betTaskExecutor)
+              .executeRules(gameHandSample1);
+
+      Assertions.assertEquals(
+          JacksonTestUtils.toJson(sequentialResult.decisions()),
+          JacksonTestUtils.toJson(parallelResult.decisions()));
+    }
+  }
+
+  @Test
+  void test_parallel_hands_results_in_hand_order() throws Exception {
+    PokerPercentageCalculator evenPokerPercentageCalculator =
+        calculatorContext ->
+            new PokerPercentageResult(
+                calculatorContext.getPlayingPlayers().stream()
+                    .map(p -> new PlayerPercentage(p.getUserId(), 50, 50, 0, "N/A"))
+                    .collect(
+                        Collectors.toUnmodifiableMap(
+                            PlayerPercentage::getUserId, Function.identity())));
+    List<GameHand> gameHands =
+        List.of("sample-1", "sample-2", "successful-bluff").stream()
+            .map(
+                sample ->
+                    JacksonTestUtils.fromJson(
+                        FileTestUtils.readUtf8Content("games/" + sample + "/game-hand.json"),
+                        GameHand.class))
+            .toList();
+
+    var sequentialEngine =
+        new RatingRuleEngine(new RatingRuleRegister(), evenPokerPercentageCalculator);
+    try (var handTaskExecutor = new ConcurrentTaskExecutor(Executors.newFixedThreadPool(4))) {
+      List<RatingRuleExecResult> parallelResults =
+          new RatingRuleEngine(
+                  new RatingRuleRegister(),
+                  evenPokerPercentageCalculator,
+                  handTaskExecutor,
+                  new SequentialTaskExecutor())
+              .executeRules(gameHands);
+
+      Assertions.assertEquals(gameHands.size(), parallelResults.size());
+      for (int i = 0; i < gameHands.size(); i++) {
+        Assertions.assertEquals(
+            JacksonTestUtils.toJson(sequentialEngine.executeRules(gameHands.get(i)).decisions()),
+            JacksonTestUtils.toJson(parallelResults.get(i).decisions()));
+      }
+    }
+  }
 }
@@ -0,0 +1,36 @@
+package com.poker.rating;
+
+import com.poker.model.game.BetType;
+import com.poker.model.game.BettingRoundType;
+import com.poker.rating.rule.RatingRule;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RatingRuleRegisterTest {
+
+  private final RatingRuleRegister ratingRuleRegister = new RatingRuleRegister();
+
+  private List<String> ruleNames(BettingRoundType bettingRound, BetType betType) {
+    return ratingRuleRegister.getRules(bettingRound, betType).stream()
+        .map(RatingRule::name)
+        .toList();
+  }
+
+  @Test
+  void test_rules_dispatched_by_betting_round_and_bet_type() {
+    Assertions.assertEquals(
+        List.of("Fold Rule"), ruleNames(BettingRoundType.FLOP, BetType.FOLD));
+    Assertions.assertEquals(
+        List.of("Cracked Rule"), ruleNames(BettingRoundType.TURN, BetType.CHECK));
+    Assertions.assertEquals(
+        List.of("River Rule"), ruleNames(BettingRoundType.RIVER, BetType.FOLD));
+
+    // every bet is still rated by some rule
+    for (BettingRoundType bettingRound : BettingRoundType.values()) {
+      for (BetType betType : BetType.values()) {
+        Assertions.assertFalse(ratingRuleRegister.getRules(bettingRound, betType).isEmpty());
+      }
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package com.poker.rating.client.calc;
+
+import com.poker.model.game.Card;
+import com.poker.rating.client.calc.model.ShowdownPercentageResponse;
+import com.poker.rating.client.calc.model.WinPercentageRequest;
+import com.poker.rating.client.calc.model.WinPercentageResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class BinaryCalculatorCodecTest {
+
+  @Test
+  void test_win_request_encoded_as_card_indexes() throws Exception {
+    var bytes = new ByteArrayOutputStream();
+    BinaryCalculatorCodec.writeWin(
+        new DataOutputStream(bytes),
+        new WinPercentageRequest(
+            List.of("As|Ks", "2c|Td"),
+            List.of(Card.of("2h"), Card.of("3h"), Card.of("4h")),
+            Set.of(Card.of("9s"))));
+
+    Assertions.assertArrayEquals(
+        new byte[] {2, 50, 51, 0, 21, 3, 26, 27, 28, 1, 46}, bytes.toByteArray());
+  }
+
+  @Test
+  void test_win_response_decoded_in_request_players_order() throws Exception {
+    var bytes = new ByteArrayOutputStream();
+    var out = new DataOutputStream(bytes);
+    out.writeInt(1_250_000);
+    out.writeInt(12_300);
+    out.writeLong(-1);
+    out.writeByte(2);
+    out.writeInt(75_500_000);
+    out.writeByte(5);
+    byte[] name = "Flush".getBytes(StandardCharsets.UTF_8);
+    out.writeByte(name.length);
+    out.write(name);
+    out.writeInt(23_250_000);
+    out.writeByte(-1);
+
+    WinPercentageResponse winPercentage =
+        BinaryCalculatorCodec.readWin(
+            new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())),
+            new WinPercentageRequest(List.of("As|Ks", "2c|Td"), null, null));
+
+    Assertions.assertEquals(1.25, winPercentage.getTiesPercentage());
+    Assertions.assertEquals(0.0123, winPercentage.getOperationTime());
+    Assertions.assertNull(winPercentage.getSamples());
+    Assertions.assertEquals("As|Ks", winPercentage.getPlayers().get(0).getCards());
+    Assertions.assertEquals(75.5, winPercentage.getPlayers().get(0).getWinPercentage());
+    Assertions.assertEquals("Flush", winPercentage.getPlayers().get(0).getHandRank().getName());
+    Assertions.assertEquals("2c|Td", winPercentage.getPlayers().get(1).getCards());
+    Assertions.assertNull(winPercentage.getPlayers().get(1).getHandRank());
+  }
+
+  @Test
+  void test_showdown_batch_decoded_and_count_mismatch_rejected() throws Exception {
+    var bytes = new ByteArrayOutputStream();
+    var out = new DataOutputStream(bytes);
+    out.writeShort(1);
+    out.writeInt(42_000_000);
+    out.writeInt(-1);
+    byte[] response = bytes.toByteArray();
+
+    List<ShowdownPercentageResponse> showdownPercentages =
+        BinaryCalculatorCodec.readShowdownBatch(
+            new DataInputStream(new ByteArrayInputStream(response)), 1);
+    Assertions.assertEquals(42.0, showdownPercentages.get(0).getShowdownPercentage());
+    Assertions.assertNull(showdownPercentages.get(0).getOperationTime());
+    Assertions.assertThrows(
+        IllegalStateException.class,
+        () ->
+            BinaryCalculatorCodec.readShowdownBatch(
+                new DataInputStream(new ByteArrayInputStream(response)), 2));
+  }
+}
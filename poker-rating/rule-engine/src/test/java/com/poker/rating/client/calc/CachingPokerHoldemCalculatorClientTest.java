@@ -0,0 +1,153 @@
+package com.poker.rating.client.calc;
+
+import com.poker.model.game.Card;
+import com.poker.rating.client.calc.model.HandRank;
+import com.poker.rating.client.calc.model.ShowdownPercentageRequest;
+import com.poker.rating.client.calc.model.ShowdownPercentageResponse;
+import com.poker.rating.client.calc.model.WinPercentagePlayer;
+import com.poker.rating.client.calc.model.WinPercentageRequest;
+import com.poker.rating.client.calc.model.WinPercentageResponse;
+import com.poker.rating.client.calc.local.CanonicalSituation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CachingPokerHoldemCalculatorClientTest {
+
+  private final AtomicInteger winCalls = new AtomicInteger();
+  private final AtomicInteger showdownCalls = new AtomicInteger();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @TempDir Path tempDir;
+
+  private final PokerHoldemCalculatorClient delegate =
+      new PokerHoldemCalculatorClient() {
+        @Override
+        public WinPercentageResponse winPercentage(WinPercentageRequest winPercentageRequest) {
+          winCalls.incrementAndGet();
+          // percentages by request position, a cached result must follow the players
+          List<String> players = winPercentageRequest.getPlayers();
+          return new WinPercentageResponse(
+              List.of(
+                  new WinPercentagePlayer(players.get(0), 70.0, new HandRank("Pair", 1)),
+                  new WinPercentagePlayer(players.get(1), 20.0, new HandRank("High Card", 0)),
+                  new WinPercentagePlayer(players.get(2), 10.0, null)),
+              0.5,
+              0.0,
+              903L);
+        }
+
+        @Override
+        public ShowdownPercentageResponse showdownPercentage(
+            ShowdownPercentageRequest showdownPercentageRequest) {
+          showdownCalls.incrementAndGet();
+          return new ShowdownPercentageResponse(42.0, 0.1);
+        }
+      };
+
+  private final CachingPokerHoldemCalculatorClient client =
+      new CachingPokerHoldemCalculatorClient(
+          delegate,
+          new PokerHoldemCalculatorCacheConfig(null, null, null, null, null),
+          meterRegistry);
+
+  private double cacheGets(String cache, String result) {
+    return meterRegistry
+        .get("cache.gets")
+        .tag("cache", cache)
+        .tag("result", result)
+        .functionCounter()
+        .count();
+  }
+
+  @Test
+  void test_win_percentage_cached_up_to_suits_and_player_order() {
+    client.winPercentage(
+        new WinPercentageRequest(
+            List.of("As|Ks", "Td|Jd", "2c|2h"),
+            List.of(Card.of("Ts"), Card.of("4s"), Card.of("Qd")),
+            Set.of(Card.of("3c"))));
+
+    // spades and diamonds swapped, players reordered
+    WinPercentageResponse cached =
+        client.winPercentage(
+            new WinPercentageRequest(
+                List.of("2h|2c", "Ad|Kd", "Js|Ts"),
+                List.of(Card.of("Td"), Card.of("4d"), Card.of("Qs")),
+                Set.of(Card.of("3c"))));
+
+    Assertions.assertEquals(1, winCalls.get());
+    Assertions.assertEquals("2h|2c", cached.getPlayers().get(0).getCards());
+    Assertions.assertEquals(10.0, cached.getPlayers().get(0).getWinPercentage());
+    Assertions.assertEquals(70.0, cached.getPlayers().get(1).getWinPercentage());
+    Assertions.assertEquals("Pair", cached.getPlayers().get(1).getHandRank().getName());
+    Assertions.assertEquals(20.0, cached.getPlayers().get(2).getWinPercentage());
+    Assertions.assertEquals(903L, cached.getSamples());
+    Assertions.assertEquals(1.0, cacheGets("pokerHoldemCalculatorWin", "hit"));
+    Assertions.assertEquals(1.0, cacheGets("pokerHoldemCalculatorWin", "miss"));
+  }
+
+  @Test
+  void test_win_percentage_other_dead_cards_not_cached() {
+    var players = List.of("As|Ks", "Td|Jd", "2c|2h");
+    var board = List.of(Card.of("Ts"), Card.of("4s"), Card.of("Qd"));
+    client.winPercentage(new WinPercentageRequest(players, board, Set.of(Card.of("3c"))));
+    client.winPercentage(new WinPercentageRequest(players, board, Set.of(Card.of("3d"))));
+    // a dead card already in a hand is not part of the situation
+    client.winPercentage(new WinPercentageRequest(players, board, Set.of(Card.of("As"))));
+    client.winPercentage(new WinPercentageRequest(players, board, null));
+
+    Assertions.assertEquals(3, winCalls.get());
+  }
+
+  @Test
+  void test_showdown_percentage_cached_up_to_suits() {
+    client.showdownPercentage(
+        new ShowdownPercentageRequest(
+            List.of(Card.of("As"), Card.of("Kd"), Card.of("Ts"), Card.of("5c")),
+            List.of(Card.of("4d"), Card.of("Jd"))));
+    ShowdownPercentageResponse cached =
+        client.showdownPercentage(
+            new ShowdownPercentageRequest(
+                List.of(Card.of("Ah"), Card.of("Kc"), Card.of("Th"), Card.of("5s")),
+                List.of(Card.of("4c"), Card.of("Jc"))));
+
+    Assertions.assertEquals(1, showdownCalls.get());
+    Assertions.assertEquals(42.0, cached.getShowdownPercentage());
+    Assertions.assertEquals(1.0, cacheGets("pokerHoldemCalculatorShowdown", "hit"));
+  }
+
+  @Test
+  void test_pending_file_writes_flushed_on_close() {
+    Path file = tempDir.resolve("store.bin");
+    var fileClient =
+        new CachingPokerHoldemCalculatorClient(
+            delegate,
+            new PokerHoldemCalculatorCacheConfig(true, null, null, file.toString(), null),
+            meterRegistry);
+    List<ShowdownPercentageRequest> requests = new ArrayList<>();
+    for (String rank : List.of("2", "3", "4", "5", "6", "7", "8", "9")) {
+      requests.add(
+          new ShowdownPercentageRequest(
+              List.of(Card.of("Ts"), Card.of("Js"), Card.of("Qd")),
+              List.of(Card.of(rank + "c"), Card.of(rank + "h"))));
+    }
+    List<CompletableFuture<ShowdownPercentageResponse>> calls =
+        requests.stream().map(fileClient::showdownPercentageAsync).toList();
+
+    fileClient.close();
+    calls.forEach(CompletableFuture::join);
+    var store = new MappedEquityStore(file, 1_000_000);
+    for (ShowdownPercentageRequest request : requests) {
+      CanonicalSituation situation = CachingPokerHoldemCalculatorClient.showdownSituation(request);
+      Assertions.assertEquals(42.0, store.showdown(situation).getShowdownPercentage());
+    }
+  }
+}
@@ -0,0 +1,163 @@
+package com.poker.rating.client.calc;
+
+import com.poker.rating.client.calc.CalculatorEndpointBalancer.CircuitOpenException;
+import com.poker.rating.client.calc.CalculatorEndpointBalancer.Lease;
+import io.micrometer.core.instrument.search.RequiredSearch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class CalculatorEndpointBalancerTest {
+
+  private final AtomicLong nanoTime = new AtomicLong();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final CalculatorEndpointBalancer balancer =
+      new CalculatorEndpointBalancer(
+          List.of("http://a:8080", "http://b:8080"), meterRegistry, nanoTime::get);
+
+  private Lease endpoint(String uri) {
+    for (int i = 0; i < 100; i++) {
+      Lease lease = balancer.pick();
+      if (lease.endpoint().uri().equals(uri)) {
+        return lease;
+      }
+    }
+    throw new IllegalStateException("Endpoint never picked: " + uri);
+  }
+
+  private String pickedUri() {
+    return balancer.pick().endpoint().uri();
+  }
+
+  private void call(Lease lease, long latencyMillis, boolean healthy) {
+    call(balancer, lease, latencyMillis, healthy);
+  }
+
+  private void call(
+      CalculatorEndpointBalancer balancer, Lease lease, long latencyMillis, boolean healthy) {
+    long startNanos = balancer.start(lease);
+    nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+    balancer.finish(lease, startNanos, healthy);
+  }
+
+  @Test
+  void test_endpoint_with_less_outstanding_calls_picked() {
+    Lease a = endpoint("http://a:8080");
+    balancer.start(a);
+
+    for (int i = 0; i < 10; i++) {
+      Assertions.assertEquals("http://b:8080", pickedUri());
+    }
+  }
+
+  @Test
+  void test_slower_endpoint_picked_less() {
+    call(endpoint("http://a:8080"), 400, true);
+    Lease b = endpoint("http://b:8080");
+    call(b, 100, true);
+    balancer.start(b);
+
+    // 2 calls of 100ms cost less than 1 call of 400ms
+    for (int i = 0; i < 10; i++) {
+      Assertions.assertEquals("http://b:8080", pickedUri());
+    }
+  }
+
+  @Test
+  void test_failing_endpoint_circuit_open_until_probe_succeeds() {
+    Lease a = endpoint("http://a:8080");
+    for (int i = 0; i < CalculatorEndpointBalancer.FAILURES_TO_OPEN; i++) {
+      call(a, 10, false);
+    }
+    Lease b = endpoint("http://b:8080");
+    balancer.start(b);
+    balancer.start(b);
+
+    for (int i = 0; i < 10; i++) {
+      Assertions.assertEquals("http://b:8080", pickedUri());
+    }
+    Assertions.assertEquals(1.0, circuit("opened").counter().count());
+    Assertions.assertEquals(1.0, circuit("open").gauge().value());
+
+    nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(CalculatorEndpointBalancer.OPEN_SECONDS));
+    Lease probe = balancer.pick();
+    Assertions.assertEquals("http://a:8080", probe.endpoint().uri());
+    Assertions.assertTrue(probe.probe());
+    long startNanos = balancer.start(probe);
+    // a single probe while half open
+    for (int i = 0; i < 10; i++) {
+      Assertions.assertEquals("http://b:8080", pickedUri());
+    }
+    balancer.finish(probe, startNanos, true);
+    Assertions.assertEquals("http://a:8080", pickedUri());
+    Assertions.assertEquals(0.0, circuit("open").gauge().value());
+  }
+
+  @Test
+  void test_calls_fail_fast_while_all_circuits_open() {
+    Lease a = endpoint("http://a:8080");
+    Lease b = endpoint("http://b:8080");
+    for (int i = 0; i < CalculatorEndpointBalancer.FAILURES_TO_OPEN; i++) {
+      call(a, 10, false);
+      call(b, 10, false);
+    }
+
+    Assertions.assertThrows(CircuitOpenException.class, balancer::pick);
+    nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(CalculatorEndpointBalancer.OPEN_SECONDS));
+    Lease probe = balancer.pick();
+    call(probe, 10, false);
+    // failed probe opens the circuit again
+    Assertions.assertNotEquals(probe.endpoint().uri(), pickedUri());
+  }
+
+  @Test
+  void test_only_failed_probe_opens_circuit_again() {
+    Lease a = endpoint("http://a:8080");
+    long lateStartNanos = balancer.start(a);
+    for (int i = 0; i < CalculatorEndpointBalancer.FAILURES_TO_OPEN; i++) {
+      call(a, 10, false);
+    }
+    Lease b = endpoint("http://b:8080");
+    balancer.start(b);
+    balancer.start(b);
+    nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(CalculatorEndpointBalancer.OPEN_SECONDS));
+    Lease probe = endpoint("http://a:8080");
+    Assertions.assertTrue(probe.probe());
+    long probeStartNanos = balancer.start(probe);
+
+    // a call started before the circuit opened fails while the probe runs
+    balancer.finish(a, lateStartNanos, false);
+    Assertions.assertEquals(1.0, circuit("opened").counter().count());
+    balancer.finish(probe, probeStartNanos, true);
+    Assertions.assertEquals(0.0, circuit("open").gauge().value());
+  }
+
+  @Test
+  void test_single_endpoint_circuit_open_until_probe_succeeds() {
+    var single =
+        new CalculatorEndpointBalancer(
+            List.of("http://a:8080"), new SimpleMeterRegistry(), nanoTime::get);
+    for (int i = 0; i < CalculatorEndpointBalancer.FAILURES_TO_OPEN; i++) {
+      call(single, single.pick(), 10, false);
+    }
+
+    // no other endpoint to take the calls, they fail fast
+    Assertions.assertThrows(CircuitOpenException.class, single::pick);
+    nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(CalculatorEndpointBalancer.OPEN_SECONDS));
+    Lease probe = single.pick();
+    Assertions.assertTrue(probe.probe());
+    long startNanos = single.start(probe);
+    Assertions.assertThrows(CircuitOpenException.class, single::pick);
+    single.finish(probe, startNanos, true);
+    Assertions.assertFalse(single.pick().probe());
+  }
+
+  private RequiredSearch circuit(String meter) {
+    return meterRegistry
+        .get("pokerHoldemCalculator.client.circuit." + meter)
+        .tag("endpoint", "http://a:8080");
+  }
+}
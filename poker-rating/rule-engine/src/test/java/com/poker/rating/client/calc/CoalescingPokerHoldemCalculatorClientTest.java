@@ -0,0 +1,206 @@
+package com.poker.rating.client.calc;
+
+import com.poker.model.game.Card;
+import com.poker.rating.client.calc.model.ShowdownPercentageRequest;
+import com.poker.rating.client.calc.model.ShowdownPercentageResponse;
+import com.poker.rating.client.calc.model.WinPercentagePlayer;
+import com.poker.rating.client.calc.model.WinPercentageRequest;
+import com.poker.rating.client.calc.model.WinPercentageResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class CoalescingPokerHoldemCalculatorClientTest {
+
+  private final AtomicInteger winCalls = new AtomicInteger();
+  private final AtomicInteger showdownCalls = new AtomicInteger();
+  private final CountDownLatch called = new CountDownLatch(1);
+  private final CountDownLatch release = new CountDownLatch(1);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final CoalescingPokerHoldemCalculatorClient client =
+      new CoalescingPokerHoldemCalculatorClient(
+          new PokerHoldemCalculatorClient() {
+            @Override
+            public WinPercentageResponse winPercentage(WinPercentageRequest winPercentageRequest) {
+              winCalls.incrementAndGet();
+              awaitRelease();
+              List<String> players = winPercentageRequest.getPlayers();
+              return new WinPercentageResponse(
+                  List.of(
+                      new WinPercentagePlayer(players.get(0), 80.0, null),
+                      new WinPercentagePlayer(players.get(1), 19.0, null)),
+                  null,
+                  1.0,
+                  null);
+            }
+
+            @Override
+            public ShowdownPercentageResponse showdownPercentage(
+                ShowdownPercentageRequest showdownPercentageRequest) {
+              showdownCalls.incrementAndGet();
+              awaitRelease();
+              throw new IllegalStateException("Calculator unavailable");
+            }
+          },
+          meterRegistry);
+
+  private void awaitRelease() {
+    called.countDown();
+    try {
+      Assertions.assertTrue(release.await(10, TimeUnit.SECONDS));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private void releaseWhenCollapsed(String type) throws InterruptedException {
+    Assertions.assertTrue(called.await(10, TimeUnit.SECONDS));
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (collapsedCalls(type) < 1.0 && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+    release.countDown();
+  }
+
+  private double collapsedCalls(String type) {
+    return meterRegistry
+        .get("pokerHoldemCalculator.collapsed.calls")
+        .tag("type", type)
+        .counter()
+        .count();
+  }
+
+  @Test
+  void test_concurrent_win_percentage_shared_in_each_players_order() throws Exception {
+    var first =
+        CompletableFuture.supplyAsync(
+            () ->
+                client.winPercentage(
+                    new WinPercentageRequest(
+                        List.of("As|Ks", "Td|Jd"), List.of(Card.of("2c")), null)));
+    Assertions.assertTrue(called.await(10, TimeUnit.SECONDS));
+    // hearts for spades, players swapped
+    var second =
+        CompletableFuture.supplyAsync(
+            () ->
+                client.winPercentage(
+                    new WinPercentageRequest(
+                        List.of("Td|Jd", "Ah|Kh"), List.of(Card.of("2c")), null)));
+    releaseWhenCollapsed("win");
+
+    Assertions.assertEquals(80.0, first.get().getPlayers().get(0).getWinPercentage());
+    WinPercentageResponse shared = second.get();
+    Assertions.assertEquals("Td|Jd", shared.getPlayers().get(0).getCards());
+    Assertions.assertEquals(19.0, shared.getPlayers().get(0).getWinPercentage());
+    Assertions.assertEquals(80.0, shared.getPlayers().get(1).getWinPercentage());
+    Assertions.assertEquals(1, winCalls.get());
+    Assertions.assertEquals(1.0, collapsedCalls("win"));
+  }
+
+  @Test
+  void test_async_win_percentage_composed_on_call_in_flight() throws Exception {
+    var request = new WinPercentageRequest(List.of("As|Ks", "Td|Jd"), List.of(Card.of("2c")), null);
+    var first = CompletableFuture.supplyAsync(() -> client.winPercentageAsync(request));
+    Assertions.assertTrue(called.await(10, TimeUnit.SECONDS));
+
+    CompletableFuture<WinPercentageResponse> second = client.winPercentageAsync(request);
+    Assertions.assertFalse(second.isDone());
+    release.countDown();
+
+    Assertions.assertEquals(80.0, first.get().get().getPlayers().get(0).getWinPercentage());
+    Assertions.assertEquals(80.0, second.get().getPlayers().get(0).getWinPercentage());
+    Assertions.assertEquals(1, winCalls.get());
+    Assertions.assertEquals(1.0, collapsedCalls("win"));
+  }
+
+  @Test
+  void test_batch_win_percentages_join_call_in_flight() throws Exception {
+    var first =
+        CompletableFuture.supplyAsync(
+            () ->
+                client.winPercentage(
+                    new WinPercentageRequest(
+                        List.of("As|Ks", "Td|Jd"), List.of(Card.of("2c")), null)));
+    Assertions.assertTrue(called.await(10, TimeUnit.SECONDS));
+    var batch =
+        CompletableFuture.supplyAsync(
+            () ->
+                client.winPercentages(
+                    List.of(
+                        new WinPercentageRequest(
+                            List.of("Td|Jd", "Ah|Kh"), List.of(Card.of("2c")), null),
+                        new WinPercentageRequest(
+                            List.of("2s|2d", "Td|Jd"), List.of(Card.of("2c")), null))));
+    releaseWhenCollapsed("win");
+
+    Assertions.assertEquals(80.0, first.get().getPlayers().get(0).getWinPercentage());
+    List<WinPercentageResponse> batchPercentages = batch.get();
+    Assertions.assertEquals(80.0, batchPercentages.get(0).getPlayers().get(1).getWinPercentage());
+    Assertions.assertEquals("2s|2d", batchPercentages.get(1).getPlayers().get(0).getCards());
+    // only the request not in flight called
+    Assertions.assertEquals(2, winCalls.get());
+    Assertions.assertEquals(1.0, collapsedCalls("win"));
+  }
+
+  @Test
+  void test_concurrent_showdown_percentage_failure_shared() throws Exception {
+    var request =
+        new ShowdownPercentageRequest(
+            List.of(Card.of("As"), Card.of("Kd"), Card.of("Ts")),
+            List.of(Card.of("4d"), Card.of("Jd")));
+    var first = CompletableFuture.supplyAsync(() -> client.showdownPercentage(request));
+    Assertions.assertTrue(called.await(10, TimeUnit.SECONDS));
+    var second = CompletableFuture.supplyAsync(() -> client.showdownPercentage(request));
+    releaseWhenCollapsed("showdown");
+
+    Assertions.assertThrows(Exception.class, first::get);
+    Assertions.assertThrows(Exception.class, second::get);
+    Assertions.assertEquals(1, showdownCalls.get());
+    Assertions.assertEquals(1.0, collapsedCalls("showdown"));
+  }
+
+  @Test
+  void test_cancelled_call_cancels_delegate_call_and_collapsed_call_calls_again() {
+    List<CompletableFuture<WinPercentageResponse>> delegated = new ArrayList<>();
+    var asyncClient =
+        new CoalescingPokerHoldemCalculatorClient(
+            new PokerHoldemCalculatorClient() {
+              @Override
+              public WinPercentageResponse winPercentage(WinPercentageRequest request) {
+                throw new UnsupportedOperationException();
+              }
+
+              @Override
+              public ShowdownPercentageResponse showdownPercentage(
+                  ShowdownPercentageRequest request) {
+                throw new UnsupportedOperationException();
+              }
+
+              @Override
+              public CompletableFuture<WinPercentageResponse> winPercentageAsync(
+                  WinPercentageRequest request) {
+                var call = new CompletableFuture<WinPercentageResponse>();
+                delegated.add(call);
+                return call;
+              }
+            },
+            meterRegistry);
+    var request = new WinPercentageRequest(List.of("As|Ks", "Td|Jd"), List.of(Card.of("2c")), null);
+    CompletableFuture<WinPercentageResponse> first = asyncClient.winPercentageAsync(request);
+    CompletableFuture<WinPercentageResponse> second = asyncClient.winPercentageAsync(request);
+
+    first.cancel(true);
+    Assertions.assertTrue(delegated.get(0).isCancelled());
+    // the collapsed call did not give up, it is made again
+    Assertions.assertEquals(2, delegated.size());
+    Assertions.assertFalse(second.isDone());
+  }
+}
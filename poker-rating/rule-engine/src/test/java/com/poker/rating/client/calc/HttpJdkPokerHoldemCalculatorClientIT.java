@@ -7,6 +7,7 @@ import com.poker.rating.client.calc.model.WinPercentageRequest;
 import com.poker.rating.client.calc.model.WinPercentageResponse;
 import com.poker.test.IntegrationTag;
 import com.poker.test.util.JacksonTestUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.List;
 import java.util.Set;
 import org.junit.jupiter.api.Test;
@@ -18,7 +19,9 @@ class HttpJdkPokerHoldemCalculatorClientIT {
   void test_integration() {
     HttpJdkPokerHoldemCalculatorClient client =
         new HttpJdkPokerHoldemCalculatorClient(
-            new PokerHoldemCalculatorClientConfig("http://127.0.0.1:8081", null, null));
+            new PokerHoldemCalculatorClientConfig(
+                "http://127.0.0.1:8081", null, null, null, null, null, null, null, null),
+            new SimpleMeterRegistry());
 
     WinPercentageResponse winPercentage =
         client.winPercentage(new WinPercentageRequest(List.of("As|Ks", "Td|Jd"), null, null));
@@ -46,5 +49,26 @@ class HttpJdkPokerHoldemCalculatorClientIT {
                 List.of(Card.of("As"), Card.of("Kd"), Card.of("Ts")),
                 List.of(Card.of("4d"), Card.of("Jd"))));
     System.out.println(JacksonTestUtils.toJson(showdownPercentage));
+
+    List<WinPercentageResponse> winPercentages =
+        client.winPercentages(
+            List.of(
+                new WinPercentageRequest(List.of("As|Ks", "Td|Jd"), null, null),
+                new WinPercentageRequest(
+                    List.of("As|Ks", "Td|Jd"),
+                    List.of(Card.of("Ts"), Card.of("4s"), Card.of("Qd")),
+                    null)));
+    System.out.println(JacksonTestUtils.toJson(winPercentages));
+
+    List<ShowdownPercentageResponse> showdownPercentages =
+        client.showdownPercentages(
+            List.of(
+                new ShowdownPercentageRequest(
+                    List.of(Card.of("As"), Card.of("Kd"), Card.of("Ts")),
+                    List.of(Card.of("4d"), Card.of("Jd"))),
+                new ShowdownPercentageRequest(
+                    List.of(Card.of("As"), Card.of("Kd"), Card.of("Ts")),
+                    List.of(Card.of("Ac"), Card.of("Jd")))));
+    System.out.println(JacksonTestUtils.toJson(showdownPercentages));
   }
 }
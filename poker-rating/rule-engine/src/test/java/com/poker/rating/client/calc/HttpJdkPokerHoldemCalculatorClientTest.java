@@ -0,0 +1,214 @@
+package com.poker.rating.client.calc;
+
+import com.poker.model.game.Card;
+import com.poker.rating.client.calc.VegasConcurrencyLimiter.RejectedCallException;
+import com.poker.rating.client.calc.model.ShowdownPercentageRequest;
+import com.poker.rating.client.calc.model.ShowdownPercentageResponse;
+import com.poker.util.jdk.http.HttpClientException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntUnaryOperator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HttpJdkPokerHoldemCalculatorClientTest {
+
+  private static final ShowdownPercentageRequest SHOWDOWN_REQUEST =
+      new ShowdownPercentageRequest(
+          List.of(Card.of("As"), Card.of("Kd"), Card.of("Ts")),
+          List.of(Card.of("4d"), Card.of("Jd")));
+  private static final PokerHoldemCalculatorLimiterConfig NO_LIMITER =
+      new PokerHoldemCalculatorLimiterConfig(null, null, null, null, null, null);
+  private static final long LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private final AtomicLong nanoTime = new AtomicLong();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final AtomicInteger requests = new AtomicInteger();
+  private final CountDownLatch blockedRequestReceived = new CountDownLatch(1);
+  private final CountDownLatch blockedResponseReleased = new CountDownLatch(1);
+  private final ExecutorService serverExecutor = Executors.newCachedThreadPool();
+  private HttpServer server;
+  // request answered once released, counted from 1
+  private volatile int blockedRequest;
+  // status of each request, counted from 1
+  private volatile IntUnaryOperator status = request -> 200;
+
+  @BeforeEach
+  void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(PokerHoldemCalculatorClient.SHOWDOWN_PERCENTAGE_RESOURCE, this::answer);
+    server.setExecutor(serverExecutor);
+    server.start();
+  }
+
+  @AfterEach
+  void stopServer() {
+    blockedResponseReleased.countDown();
+    server.stop(0);
+    serverExecutor.shutdownNow();
+  }
+
+  // each request takes the same latency by the client clock
+  private void answer(HttpExchange exchange) throws IOException {
+    exchange.getRequestBody().readAllBytes();
+    nanoTime.addAndGet(LATENCY_NANOS);
+    int request = requests.incrementAndGet();
+    if (request == blockedRequest) {
+      blockedRequestReceived.countDown();
+      try {
+        blockedResponseReleased.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    int statusCode = status.applyAsInt(request);
+    byte[] body =
+        (statusCode == 200 ? "{\"showdownPercentage\":42.0}" : "Calculator failure")
+            .getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(statusCode, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  private HttpJdkPokerHoldemCalculatorClient client(
+      Double hedgePercentile,
+      Double retryBudgetRatio,
+      PokerHoldemCalculatorLimiterConfig limiterConfig) {
+    return new HttpJdkPokerHoldemCalculatorClient(
+        new PokerHoldemCalculatorClientConfig(
+            "http://127.0.0.1:" + server.getAddress().getPort(),
+            null,
+            null,
+            null,
+            null,
+            null,
+            hedgePercentile,
+            retryBudgetRatio,
+            null),
+        limiterConfig,
+        meterRegistry,
+        nanoTime::get);
+  }
+
+  private double count(String meter) {
+    return meterRegistry
+        .get("pokerHoldemCalculator.client." + meter)
+        .tag("type", "showdown")
+        .counter()
+        .count();
+  }
+
+  private double inFlight() {
+    return meterRegistry.get("pokerHoldemCalculator.limiter.inFlight").gauge().value();
+  }
+
+  @Test
+  void test_queue_timed_out_call_rejected_not_retried() throws Exception {
+    blockedRequest = 1;
+    var client =
+        client(null, null, new PokerHoldemCalculatorLimiterConfig(true, 1, 1, 1, 10, 100L));
+    CompletableFuture<ShowdownPercentageResponse> first =
+        client.showdownPercentageAsync(SHOWDOWN_REQUEST);
+    Assertions.assertTrue(blockedRequestReceived.await(10, TimeUnit.SECONDS));
+
+    // the only call allowed in flight is still answering, the next one waits for it and gives up
+    Assertions.assertThrows(
+        RejectedCallException.class, () -> client.showdownPercentage(SHOWDOWN_REQUEST));
+    Assertions.assertEquals(1, requests.get());
+
+    blockedResponseReleased.countDown();
+    Assertions.assertEquals(42.0, first.get(10, TimeUnit.SECONDS).getShowdownPercentage());
+    Assertions.assertEquals(1, requests.get());
+  }
+
+  @Test
+  void test_slow_call_hedged_after_delay_and_slow_attempt_cancelled() throws Exception {
+    var client =
+        client(0.95, null, new PokerHoldemCalculatorLimiterConfig(true, 10, 1, 200, 10, null));
+    for (int i = 0; i < 20; i++) {
+      client.showdownPercentage(SHOWDOWN_REQUEST);
+    }
+    // latencies measured, the hedge delay is taken at the next refresh
+    Assertions.assertEquals(0.0, count("hedges"));
+    nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    blockedRequest = 21;
+
+    Assertions.assertEquals(
+        42.0, client.showdownPercentage(SHOWDOWN_REQUEST).getShowdownPercentage());
+    Assertions.assertEquals(1.0, count("hedges"));
+    Assertions.assertEquals(22, requests.get());
+    // the slow attempt is given up while the calculator still computes it
+    Assertions.assertTrue(blockedRequestReceived.await(10, TimeUnit.SECONDS));
+    for (int i = 0; i < 100 && inFlight() > 0; i++) {
+      Thread.sleep(100);
+    }
+    Assertions.assertEquals(0.0, inFlight());
+  }
+
+  @Test
+  void test_call_answered_with_client_error_not_retried() {
+    status = request -> 400;
+    var client = client(null, null, NO_LIMITER);
+
+    HttpClientException e =
+        Assertions.assertThrows(
+            HttpClientException.class, () -> client.showdownPercentage(SHOWDOWN_REQUEST));
+    Assertions.assertEquals(400, e.getStatusCode());
+    Assertions.assertEquals(1, requests.get());
+    Assertions.assertEquals(0.0, count("retries"));
+  }
+
+  @Test
+  void test_failed_calls_retried_until_budget_exhausted() {
+    // every call fails once, so the endpoint circuit stays closed
+    status = request -> request % 2 == 1 ? 503 : 200;
+    var client = client(null, 0.0, NO_LIMITER);
+
+    // no deposit, the full budget is spent by a retry of each of the first calls
+    for (int i = 0; i < RetryBudget.MAX_TOKENS; i++) {
+      client.showdownPercentage(SHOWDOWN_REQUEST);
+    }
+    HttpClientException e =
+        Assertions.assertThrows(
+            HttpClientException.class, () -> client.showdownPercentage(SHOWDOWN_REQUEST));
+    Assertions.assertEquals(503, e.getStatusCode());
+    Assertions.assertEquals(RetryBudget.MAX_TOKENS, count("retries"));
+    Assertions.assertEquals(1.0, count("overBudget"));
+    Assertions.assertEquals(2 * RetryBudget.MAX_TOKENS + 1, requests.get());
+  }
+
+  @Test
+  void test_cancelled_call_cancels_its_exchange_not_retried() throws Exception {
+    blockedRequest = 1;
+    var client =
+        client(null, null, new PokerHoldemCalculatorLimiterConfig(true, 10, 1, 200, 10, null));
+    CompletableFuture<ShowdownPercentageResponse> call =
+        client.showdownPercentageAsync(SHOWDOWN_REQUEST);
+    Assertions.assertTrue(blockedRequestReceived.await(10, TimeUnit.SECONDS));
+
+    call.cancel(true);
+    for (int i = 0; i < 100 && inFlight() > 0; i++) {
+      Thread.sleep(100);
+    }
+    Assertions.assertEquals(0.0, inFlight());
+    Assertions.assertEquals(0.0, count("retries"));
+    Assertions.assertEquals(1, requests.get());
+  }
+}
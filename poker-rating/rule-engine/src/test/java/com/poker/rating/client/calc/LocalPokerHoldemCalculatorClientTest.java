@@ -0,0 +1,95 @@
+package com.poker.rating.client.calc;
+
+import com.poker.model.game.Card;
+import com.poker.rating.client.calc.model.ShowdownPercentageRequest;
+import com.poker.rating.client.calc.model.ShowdownPercentageResponse;
+import com.poker.rating.client.calc.model.WinPercentageRequest;
+import com.poker.rating.client.calc.model.WinPercentageResponse;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LocalPokerHoldemCalculatorClientTest {
+
+  private final LocalPokerHoldemCalculatorClient client =
+      new LocalPokerHoldemCalculatorClient(new LocalPokerHoldemCalculatorConfig(null, null, null));
+
+  @Test
+  void test_win_percentage_flop_exhaustive() {
+    WinPercentageResponse winPercentage =
+        client.winPercentage(
+            new WinPercentageRequest(
+                List.of("As|Ks", "Td|Jd", "2c|2h"),
+                List.of(Card.of("Ts"), Card.of("4s"), Card.of("Qd")),
+                null));
+
+    Assertions.assertEquals(56.0, winPercentage.getPlayers().get(0).getWinPercentage());
+    Assertions.assertEquals(40.0, winPercentage.getPlayers().get(1).getWinPercentage());
+    Assertions.assertEquals(4.0, winPercentage.getPlayers().get(2).getWinPercentage());
+    Assertions.assertEquals(0.0, winPercentage.getTiesPercentage());
+    Assertions.assertNull(winPercentage.getPlayers().get(0).getHandRank());
+    Assertions.assertEquals(903L, winPercentage.getSamples());
+  }
+
+  @Test
+  void test_win_percentage_pre_flop_adaptive_sampling() {
+    var adaptiveClient =
+        new LocalPokerHoldemCalculatorClient(
+            new LocalPokerHoldemCalculatorConfig(1_000_000, 0.5, null));
+
+    WinPercentageResponse winPercentage =
+        adaptiveClient.winPercentage(
+            new WinPercentageRequest(List.of("As|Ah", "7c|2d"), null, null));
+
+    var samples = winPercentage.getSamples();
+    Assertions.assertNotNull(samples);
+    Assertions.assertTrue(samples < 1_000_000, "Sampling should stop early: " + samples);
+    Assertions.assertEquals(88.0, winPercentage.getPlayers().get(0).getWinPercentage(), 2.0);
+  }
+
+  @Test
+  void test_win_percentage_river_hand_rank_and_tie() {
+    WinPercentageResponse winPercentage =
+        client.winPercentage(
+            new WinPercentageRequest(
+                List.of("As|Kd", "Ac|Kh"),
+                List.of(Card.of("Qs"), Card.of("Js"), Card.of("Ts"), Card.of("2d"), Card.of("3c")),
+                Set.of(Card.of("9s"))));
+
+    Assertions.assertEquals(100.0, winPercentage.getTiesPercentage());
+    var handRank = winPercentage.getPlayers().get(0).getHandRank();
+    Assertions.assertNotNull(handRank);
+    Assertions.assertEquals("Straight", handRank.getName());
+    Assertions.assertEquals(4, handRank.getRank());
+  }
+
+  @Test
+  void test_win_percentage_rejects_duplicate_cards() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            client.winPercentage(
+                new WinPercentageRequest(
+                    List.of("As|Ks", "As|Jd"),
+                    List.of(Card.of("Ts"), Card.of("4s"), Card.of("Qd")),
+                    null)));
+  }
+
+  @Test
+  void test_showdown_percentage() {
+    ShowdownPercentageResponse turn =
+        client.showdownPercentage(
+            new ShowdownPercentageRequest(
+                List.of(Card.of("As"), Card.of("Kd"), Card.of("Ts"), Card.of("5c")),
+                List.of(Card.of("4d"), Card.of("Jd"))));
+    ShowdownPercentageResponse river =
+        client.showdownPercentage(
+            new ShowdownPercentageRequest(
+                List.of(Card.of("As"), Card.of("Kd"), Card.of("Ts"), Card.of("5c"), Card.of("4c")),
+                List.of(Card.of("4d"), Card.of("Jd"))));
+
+    Assertions.assertEquals(30.0, turn.getShowdownPercentage());
+    Assertions.assertEquals(46.0, river.getShowdownPercentage());
+  }
+}
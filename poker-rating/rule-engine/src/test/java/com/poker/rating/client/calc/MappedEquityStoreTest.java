@@ -0,0 +1,179 @@
+package com.poker.rating.client.calc;
+
+import com.poker.model.game.Card;
+import com.poker.rating.client.calc.local.CanonicalSituation;
+import com.poker.rating.client.calc.local.CardMasks;
+import com.poker.rating.client.calc.model.HandRank;
+import com.poker.rating.client.calc.model.ShowdownPercentageResponse;
+import com.poker.rating.client.calc.model.WinPercentagePlayer;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedEquityStoreTest {
+
+  @TempDir Path tempDir;
+
+  private static CanonicalSituation showdownSituation(String... boardAndPlayer) {
+    List<Card> cards = List.of(boardAndPlayer).stream().map(Card::of).toList();
+    return CanonicalSituation.of(
+        CardMasks.mask(cards.subList(0, cards.size() - 2)),
+        0L,
+        CardMasks.mask(cards.subList(cards.size() - 2, cards.size())));
+  }
+
+  private static Object fileKey(Path file) throws IOException {
+    return Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+  }
+
+  @Test
+  void test_results_shared_between_stores_of_same_file() {
+    Path file = tempDir.resolve("equity/store.bin");
+    var writer = new MappedEquityStore(file, 1_000_000);
+    var reader = new MappedEquityStore(file, 1_000_000);
+    var winSituation =
+        CanonicalSituation.of(
+            0L,
+            CardMasks.mask(Card.of("3c")),
+            CardMasks.mask(List.of(Card.of("As"), Card.of("Ks"))),
+            CardMasks.mask(List.of(Card.of("Td"), Card.of("Jd"))));
+    var showdownSituation = showdownSituation("Ts", "4s", "Qd", "As", "Ks");
+
+    Assertions.assertNull(reader.win(winSituation));
+    writer.putWin(
+        winSituation,
+        new CachedWinPercentage(
+            List.of(
+                new WinPercentagePlayer("", 61.5, new HandRank("Pair", 2)),
+                new WinPercentagePlayer("", 37.0, null)),
+            null,
+            1.5,
+            1_712_304L));
+    writer.putShowdown(showdownSituation, new ShowdownPercentageResponse(87.0, 0.25));
+    // queued until flushed
+    Assertions.assertNull(reader.win(winSituation));
+    writer.flush();
+
+    CachedWinPercentage win = reader.win(winSituation);
+    Assertions.assertNotNull(win);
+    Assertions.assertEquals(61.5, win.canonicalPlayers().get(0).getWinPercentage());
+    Assertions.assertEquals("Pair", win.canonicalPlayers().get(0).getHandRank().getName());
+    Assertions.assertEquals(2, win.canonicalPlayers().get(0).getHandRank().getRank());
+    Assertions.assertNull(win.canonicalPlayers().get(1).getHandRank());
+    Assertions.assertNull(win.operationTime());
+    Assertions.assertEquals(1.5, win.tiesPercentage());
+    Assertions.assertEquals(1_712_304L, win.samples());
+    ShowdownPercentageResponse showdown = reader.showdown(showdownSituation);
+    Assertions.assertNotNull(showdown);
+    Assertions.assertEquals(87.0, showdown.getShowdownPercentage());
+    Assertions.assertEquals(0.25, showdown.getOperationTime());
+  }
+
+  @Test
+  void test_compacted_in_place_to_newest_records() throws IOException {
+    Path file = tempDir.resolve("store.bin");
+    long maximumBytes = 4096;
+    var store = new MappedEquityStore(file, maximumBytes);
+    var reader = new MappedEquityStore(file, maximumBytes);
+    var oldest = showdownSituation("2c", "3c", "4c", "Ah", "Kh");
+    store.putShowdown(oldest, new ShowdownPercentageResponse(10.0, null));
+    store.flush();
+    Object fileKey = fileKey(file);
+    Assertions.assertEquals(10.0, reader.showdown(oldest).getShowdownPercentage());
+    List<String> ranks = List.of("5", "6", "7", "8", "9", "T", "J", "Q", "K", "A");
+    CanonicalSituation newest = null;
+    for (String flop1 : ranks) {
+      for (String flop2 : ranks) {
+        if (!flop1.equals(flop2)) {
+          newest = showdownSituation(flop1 + "c", flop2 + "d", "2s", "3h", "4h");
+          store.putShowdown(newest, new ShowdownPercentageResponse(20.0, null));
+        }
+      }
+    }
+    // one batch past the maximum
+    store.flush();
+
+    Assertions.assertTrue(Files.size(file) <= maximumBytes);
+    Assertions.assertEquals(fileKey, fileKey(file));
+    // indexed before the compaction, reindexed once it reads a moved record
+    Assertions.assertNull(reader.showdown(oldest));
+    Assertions.assertEquals(20.0, reader.showdown(newest).getShowdownPercentage());
+    var restarted = new MappedEquityStore(file, maximumBytes);
+    Assertions.assertNull(restarted.showdown(oldest));
+    Assertions.assertEquals(20.0, restarted.showdown(newest).getShowdownPercentage());
+  }
+
+  @Test
+  void test_records_read_across_mapped_segments() {
+    Path file = tempDir.resolve("store.bin");
+    // records of 50 bytes, most spanning two segments
+    var store = new MappedEquityStore(file, 1_000_000, 32);
+    List<String> ranks = List.of("5", "6", "7", "8", "9", "T", "J", "Q", "K", "A");
+    for (int i = 0; i < ranks.size(); i++) {
+      store.putShowdown(
+          showdownSituation(ranks.get(i) + "c", "2s", "3h", "4h", "4d"),
+          new ShowdownPercentageResponse(i, null));
+    }
+    store.close();
+
+    var reader = new MappedEquityStore(file, 1_000_000, 32);
+    for (int i = 0; i < ranks.size(); i++) {
+      Assertions.assertEquals(
+          i,
+          reader
+              .showdown(showdownSituation(ranks.get(i) + "c", "2s", "3h", "4h", "4d"))
+              .getShowdownPercentage());
+    }
+  }
+
+  @Test
+  void test_torn_record_ignored_and_overwritten() throws IOException {
+    Path file = tempDir.resolve("store.bin");
+    var first = showdownSituation("Ts", "4s", "Qd", "As", "Ks");
+    var second = showdownSituation("Ts", "4s", "Qd", "2c", "2h");
+    var writer = new MappedEquityStore(file, 1_000_000);
+    writer.putShowdown(first, new ShowdownPercentageResponse(87.0, null));
+    writer.close();
+    long size = Files.size(file);
+    // a crashed writer left a record without its end, after the header and the first record
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 60, 1, 2, 3}), 62);
+    }
+
+    var store = new MappedEquityStore(file, 1_000_000);
+    Assertions.assertNotNull(store.showdown(first));
+    store.putShowdown(second, new ShowdownPercentageResponse(45.0, null));
+    store.flush();
+
+    var restarted = new MappedEquityStore(file, 1_000_000);
+    Assertions.assertEquals(87.0, restarted.showdown(first).getShowdownPercentage());
+    Assertions.assertEquals(45.0, restarted.showdown(second).getShowdownPercentage());
+    // grown by chunks, never truncated
+    Assertions.assertEquals(size, Files.size(file));
+  }
+
+  @Test
+  void test_file_of_other_format_rewritten_in_place() throws IOException {
+    Path file = tempDir.resolve("store.bin");
+    Files.write(file, new byte[] {0, 0, 0, 42, 1, 2, 3, 4, 5, 6, 7, 8});
+    Object fileKey = fileKey(file);
+    var situation = showdownSituation("Ts", "4s", "Qd", "As", "Ks");
+
+    var store = new MappedEquityStore(file, 1_000_000);
+    Assertions.assertNull(store.showdown(situation));
+    store.putShowdown(situation, new ShowdownPercentageResponse(87.0, null));
+    store.flush();
+
+    Assertions.assertEquals(fileKey, fileKey(file));
+    var restarted = new MappedEquityStore(file, 1_000_000);
+    Assertions.assertEquals(87.0, restarted.showdown(situation).getShowdownPercentage());
+  }
+}
@@ -0,0 +1,86 @@
+package com.poker.rating.client.calc;
+
+import com.poker.model.game.Card;
+import com.poker.rating.client.calc.local.WinPercentageEnumerator;
+import com.poker.rating.client.calc.local.WinTally;
+import com.poker.rating.client.calc.model.ShowdownPercentageRequest;
+import com.poker.rating.client.calc.model.ShowdownPercentageResponse;
+import com.poker.rating.client.calc.model.WinPercentageRequest;
+import com.poker.rating.client.calc.model.WinPercentageResponse;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class PreFlopTablePokerHoldemCalculatorClientTest {
+
+  private static final WinPercentageResponse DELEGATED =
+      new WinPercentageResponse(List.of(), null, 0.0, null);
+
+  private final PreFlopTablePokerHoldemCalculatorClient client =
+      new PreFlopTablePokerHoldemCalculatorClient(
+          new PokerHoldemCalculatorClient() {
+            @Override
+            public WinPercentageResponse winPercentage(WinPercentageRequest winPercentageRequest) {
+              return DELEGATED;
+            }
+
+            @Override
+            public ShowdownPercentageResponse showdownPercentage(
+                ShowdownPercentageRequest showdownPercentageRequest) {
+              throw new UnsupportedOperationException();
+            }
+          });
+
+  private void assertSameAsExhaustive(String first, String second) {
+    long[] players = {
+      LocalPokerHoldemCalculatorClient.playerCards(first),
+      LocalPokerHoldemCalculatorClient.playerCards(second)
+    };
+    WinTally tally = WinPercentageEnumerator.exhaustive(players, 0L, players[0] | players[1]);
+    WinPercentageResponse expected =
+        LocalPokerHoldemCalculatorClient.winPercentageResponse(
+            List.of(first, second), players, 0L, tally, System.nanoTime());
+
+    WinPercentageResponse winPercentage =
+        client.winPercentage(new WinPercentageRequest(List.of(first, second), null, null));
+
+    Assertions.assertEquals(tally.boards(), winPercentage.getSamples());
+    Assertions.assertEquals(expected.getTiesPercentage(), winPercentage.getTiesPercentage());
+    for (int i = 0; i < players.length; i++) {
+      Assertions.assertEquals(
+          expected.getPlayers().get(i).getWinPercentage(),
+          winPercentage.getPlayers().get(i).getWinPercentage());
+      Assertions.assertEquals(
+          expected.getPlayers().get(i).getCards(), winPercentage.getPlayers().get(i).getCards());
+    }
+  }
+
+  @Test
+  void test_heads_up_same_as_exhaustive() {
+    assertSameAsExhaustive("As|Ah", "7c|2d");
+    assertSameAsExhaustive("7h|2s", "Ad|Ac");
+    assertSameAsExhaustive("As|Ks", "Td|Jd");
+    assertSameAsExhaustive("Jh|Th", "Kh|Ah");
+    assertSameAsExhaustive("5c|5d", "5h|6h");
+  }
+
+  @Test
+  void test_other_requests_delegated() {
+    Assertions.assertSame(
+        DELEGATED,
+        client.winPercentage(
+            new WinPercentageRequest(List.of("As|Ah", "7c|2d", "Td|Jd"), null, null)));
+    Assertions.assertSame(
+        DELEGATED,
+        client.winPercentage(
+            new WinPercentageRequest(
+                List.of("As|Ah", "7c|2d"),
+                List.of(Card.of("Ts"), Card.of("4s"), Card.of("Qd")),
+                null)));
+    Assertions.assertSame(
+        DELEGATED,
+        client.winPercentage(
+            new WinPercentageRequest(List.of("As|Ah", "7c|2d"), null, Set.of(Card.of("Qd")))));
+  }
+}
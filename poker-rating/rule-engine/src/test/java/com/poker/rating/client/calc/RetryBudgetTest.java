@@ -0,0 +1,36 @@
+package com.poker.rating.client.calc;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RetryBudgetTest {
+
+  @Test
+  void test_extra_calls_bounded_by_calls_once_budget_spent() {
+    var retryBudget = new RetryBudget(0.25);
+    for (int i = 0; i < RetryBudget.MAX_TOKENS; i++) {
+      Assertions.assertTrue(retryBudget.tryWithdraw());
+    }
+    Assertions.assertFalse(retryBudget.tryWithdraw());
+
+    for (int i = 0; i < 3; i++) {
+      retryBudget.deposit();
+    }
+    Assertions.assertFalse(retryBudget.tryWithdraw());
+    retryBudget.deposit();
+    Assertions.assertTrue(retryBudget.tryWithdraw());
+    Assertions.assertFalse(retryBudget.tryWithdraw());
+  }
+
+  @Test
+  void test_deposits_bounded_by_max_tokens() {
+    var retryBudget = new RetryBudget(1);
+    for (int i = 0; i < 100; i++) {
+      retryBudget.deposit();
+    }
+    for (int i = 0; i < RetryBudget.MAX_TOKENS; i++) {
+      Assertions.assertTrue(retryBudget.tryWithdraw());
+    }
+    Assertions.assertFalse(retryBudget.tryWithdraw());
+  }
+}
@@ -0,0 +1,120 @@
+package com.poker.rating.client.calc;
+
+import com.poker.rating.client.calc.VegasConcurrencyLimiter.RejectedCallException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class VegasConcurrencyLimiterTest {
+
+  private final AtomicLong nanoTime = new AtomicLong();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private VegasConcurrencyLimiter limiter(int initialLimit) {
+    return new VegasConcurrencyLimiter(
+        initialLimit, 1, 200, 1000, 10_000, meterRegistry, nanoTime::get);
+  }
+
+  private List<CompletableFuture<Integer>> submit(VegasConcurrencyLimiter limiter, int calls) {
+    List<CompletableFuture<Integer>> inFlight = new ArrayList<>();
+    for (int i = 0; i < calls; i++) {
+      var call = new CompletableFuture<Integer>();
+      inFlight.add(call);
+      limiter.submit("win", () -> call);
+    }
+    return inFlight;
+  }
+
+  private void complete(List<CompletableFuture<Integer>> calls, long latencyMillis) {
+    nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+    calls.forEach(call -> call.complete(1));
+  }
+
+  @Test
+  void test_calls_over_limit_queued_until_call_ends() {
+    var limiter = limiter(2);
+    var first = new CompletableFuture<Integer>();
+    limiter.submit("win", () -> first);
+    limiter.submit("win", CompletableFuture::new);
+    CompletableFuture<Integer> queued =
+        limiter.submit("win", () -> CompletableFuture.completedFuture(3));
+
+    Assertions.assertFalse(queued.isDone());
+    Assertions.assertEquals(1, limiter.queued());
+    nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(5));
+    first.complete(1);
+    Assertions.assertEquals(3, queued.join());
+    Assertions.assertEquals(0, limiter.queued());
+    Assertions.assertEquals(
+        5.0,
+        meterRegistry
+            .get("pokerHoldemCalculator.limiter.queueTime")
+            .timer()
+            .max(TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  void test_limit_grows_at_min_latency_and_shrinks_when_latency_grows() {
+    var limiter = limiter(10);
+    complete(submit(limiter, 10), 10);
+    int grown = limiter.limit();
+    Assertions.assertTrue(grown > 10);
+
+    for (int i = 0; i < 5; i++) {
+      complete(submit(limiter, limiter.limit()), 100);
+    }
+    Assertions.assertTrue(limiter.limit() < grown);
+    Assertions.assertEquals(
+        limiter.limit(),
+        meterRegistry.get("pokerHoldemCalculator.limiter.limit").gauge().value());
+  }
+
+  @Test
+  void test_calls_over_queue_bound_or_timeout_rejected() {
+    var limiter = new VegasConcurrencyLimiter(1, 1, 200, 1, 50, meterRegistry, nanoTime::get);
+    limiter.submit("win", CompletableFuture::new);
+    CompletableFuture<Integer> queued = limiter.submit("win", CompletableFuture::new);
+    CompletableFuture<Integer> overBound = limiter.submit("win", CompletableFuture::new);
+
+    var e = Assertions.assertThrows(CompletionException.class, overBound::join);
+    Assertions.assertInstanceOf(RejectedCallException.class, e.getCause());
+    e = Assertions.assertThrows(CompletionException.class, queued::join);
+    Assertions.assertInstanceOf(RejectedCallException.class, e.getCause());
+    Assertions.assertEquals(0, limiter.queued());
+    Assertions.assertEquals(
+        1.0,
+        meterRegistry
+            .get("pokerHoldemCalculator.limiter.rejected")
+            .tag("reason", "queueTimeout")
+            .counter()
+            .count());
+  }
+
+  @Test
+  void test_cancelled_queued_call_not_made() {
+    var limiter = limiter(1);
+    var first = new CompletableFuture<Integer>();
+    limiter.submit("win", () -> first);
+    var made = new AtomicBoolean();
+    CompletableFuture<Integer> queued =
+        limiter.submit(
+            "win",
+            () -> {
+              made.set(true);
+              return CompletableFuture.completedFuture(2);
+            });
+
+    queued.cancel(true);
+    Assertions.assertEquals(0, limiter.queued());
+    first.complete(1);
+    Assertions.assertFalse(made.get());
+    Assertions.assertEquals(0, limiter.inFlight());
+  }
+}
@@ -0,0 +1,54 @@
+package com.poker.rating.client.calc.local;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.poker.model.game.Card;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class BoardShowdownTableTest {
+
+  private static final List<List<Card>> PLAYERS =
+      List.of(
+          List.of(Card.of("4d"), Card.of("Jd")),
+          List.of(Card.of("Ah"), Card.of("Kh")),
+          List.of(Card.of("7c"), Card.of("2s")),
+          List.of(Card.of("Td"), Card.of("Th")));
+
+  private static void assertSameAsEnumerator(List<Card> boardCards) {
+    long board = CardMasks.mask(boardCards);
+    BoardShowdownTable boardShowdownTable = BoardShowdownTable.of(board);
+    for (List<Card> playerCards : PLAYERS) {
+      long player = CardMasks.mask(playerCards);
+      assertEquals(
+          ShowdownPercentageEnumerator.showdownRatio(player, board),
+          boardShowdownTable.showdownRatio(player),
+          () -> "Player: " + playerCards);
+    }
+  }
+
+  @Test
+  void test_flop_same_as_enumerator() {
+    assertSameAsEnumerator(List.of(Card.of("As"), Card.of("Kd"), Card.of("5s")));
+  }
+
+  @Test
+  void test_turn_same_as_enumerator() {
+    assertSameAsEnumerator(List.of(Card.of("As"), Card.of("Kd"), Card.of("5s"), Card.of("5c")));
+  }
+
+  @Test
+  void test_river_same_as_enumerator() {
+    assertSameAsEnumerator(
+        List.of(Card.of("As"), Card.of("Kd"), Card.of("5s"), Card.of("5c"), Card.of("3d")));
+  }
+
+  @Test
+  void test_player_on_board_rejected() {
+    BoardShowdownTable boardShowdownTable =
+        BoardShowdownTable.of(CardMasks.mask(List.of(Card.of("As"), Card.of("Kd"), Card.of("5s"))));
+    long player = CardMasks.mask(List.of(Card.of("As"), Card.of("2c")));
+    assertThrows(IllegalArgumentException.class, () -> boardShowdownTable.showdownRatio(player));
+  }
+}
@@ -0,0 +1,43 @@
+package com.poker.rating.client.calc.local;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.poker.model.game.Card;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class WinPercentageEnumeratorTest {
+
+  private static long cards(String... cards) {
+    return CardMasks.mask(List.of(cards).stream().map(Card::of).toList());
+  }
+
+  private static void assertSameTally(WinTally expected, WinTally actual) {
+    assertEquals(expected.boards(), actual.boards());
+    assertEquals(expected.ties(), actual.ties());
+    for (int i = 0; i < expected.players(); i++) {
+      assertEquals(expected.wins(i), actual.wins(i));
+    }
+  }
+
+  @Test
+  void test_fork_join_matches_sequential_enumeration() {
+    long[] players = {cards("As", "Ks"), cards("Td", "Jd"), cards("2c", "2h")};
+    long used = players[0] | players[1] | players[2];
+    long excludes = cards("Qh", "3c");
+    var pool = ForkJoinPool.commonPool();
+
+    // pre flop: large enough to be split across the pool
+    assertSameTally(
+        WinPercentageEnumerator.exhaustive(players, 0L, used | excludes),
+        WinPercentageEnumerator.exhaustive(players, 0L, used | excludes, pool));
+
+    long flop = cards("Ts", "4s", "Qd");
+    WinTally flopTally =
+        WinPercentageEnumerator.exhaustive(players, flop, used | flop | excludes, pool);
+    assertSameTally(
+        WinPercentageEnumerator.exhaustive(players, flop, used | flop | excludes), flopTally);
+    assertEquals(820, flopTally.boards());
+  }
+}
@@ -6,7 +6,7 @@ import com.poker.model.rating.PlayerPercentage;
 import com.poker.rating.client.calc.HttpJdkPokerHoldemCalculatorClient;
 import com.poker.rating.client.calc.PokerHoldemCalculatorClientConfig;
 import com.poker.test.IntegrationTag;
-import com.poker.util.task.TaskExecutorFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -19,10 +19,14 @@ class DefaultPokerPercentageCalculatorIT {
   void test_integration() {
     HttpJdkPokerHoldemCalculatorClient client =
         new HttpJdkPokerHoldemCalculatorClient(
-            new PokerHoldemCalculatorClientConfig("http://127.0.0.1:8081", null, null));
+            new PokerHoldemCalculatorClientConfig(
+                "http://127.0.0.1:8081", null, null, null, null, null, null, null, null),
+            new SimpleMeterRegistry());
     PokerPercentageCalculator calculator =
         new DefaultPokerPercentageCalculator(
-            client, new PreFlopShowdownPercentageCalc(), new TaskExecutorFactory().create(10));
+            client,
+            new PreFlopShowdownPercentageCalc(),
+            new ClientShowdownPercentageCalc(client));
     var players =
         List.of(
             new Player("u1", List.of(Card.of("Ks"), Card.of("Td"))),
@@ -0,0 +1,59 @@
+package com.poker.rating.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.poker.model.game.Card;
+import com.poker.rating.client.calc.LocalPokerHoldemCalculatorClient;
+import com.poker.rating.client.calc.local.BoardShowdownTable;
+import com.poker.rating.client.calc.local.CardMasks;
+import com.poker.rating.client.calc.model.ShowdownPercentageResponse;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class FlopTableShowdownPercentageCalcTest {
+
+  private static final List<List<Card>> PLAYERS =
+      List.of(
+          List.of(Card.of("4d"), Card.of("Jd")),
+          List.of(Card.of("Ah"), Card.of("Kh")),
+          List.of(Card.of("7c"), Card.of("2s")),
+          List.of(Card.of("Td"), Card.of("Th")));
+
+  private final FlopTableShowdownPercentageCalc calc =
+      new FlopTableShowdownPercentageCalc(
+          (boardCards, playersCards) ->
+              playersCards.stream()
+                  .map(cards -> new ShowdownPercentageResponse(-1, null))
+                  .toList());
+
+  private static List<Card> cards(String... cards) {
+    return List.of(cards).stream().map(Card::of).toList();
+  }
+
+  private void assertSameAsBoardTable(List<Card> flop) {
+    BoardShowdownTable boardShowdownTable = BoardShowdownTable.of(CardMasks.mask(flop));
+    List<ShowdownPercentageResponse> responses = calc.calculate(flop, PLAYERS);
+    for (int i = 0; i < PLAYERS.size(); i++) {
+      assertEquals(
+          LocalPokerHoldemCalculatorClient.toPercentage(
+              boardShowdownTable.showdownRatio(CardMasks.mask(PLAYERS.get(i))), 0),
+          responses.get(i).getShowdownPercentage());
+    }
+  }
+
+  @Test
+  void test_flop_same_as_board_table() {
+    assertSameAsBoardTable(cards("As", "Ks", "5s"));
+    assertSameAsBoardTable(cards("Ac", "Kc", "5c"));
+    assertSameAsBoardTable(cards("Qc", "9h", "3s"));
+    assertSameAsBoardTable(cards("8d", "8s", "3h"));
+  }
+
+  @Test
+  void test_turn_delegated() {
+    List<ShowdownPercentageResponse> responses =
+        calc.calculate(cards("As", "Ks", "5s", "6c"), PLAYERS);
+    assertEquals(PLAYERS.size(), responses.size());
+    responses.forEach(response -> assertEquals(-1, response.getShowdownPercentage()));
+  }
+}
@@ -0,0 +1,211 @@
+package com.poker.rating.service;
+
+import com.poker.model.game.Card;
+import com.poker.model.game.Player;
+import com.poker.model.rating.PlayerPercentage;
+import com.poker.rating.service.PokerPercentageRoutingConfig.Route;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RoutingPokerPercentageCalculatorTest {
+
+  private static final List<Player> PLAYERS =
+      List.of(
+          new Player("u1", List.of(Card.of("Ks"), Card.of("Td"))),
+          new Player("u2", List.of(Card.of("Jc"), Card.of("Th"))));
+  private static final PercentageCalculatorContext PRE_FLOP =
+      new PercentageCalculatorContext(PLAYERS, List.of(), null);
+  private static final PercentageCalculatorContext FLOP =
+      new PercentageCalculatorContext(
+          PLAYERS, List.of(Card.of("2c"), Card.of("7d"), Card.of("9h")), null);
+  private static final PercentageCalculatorContext RIVER =
+      new PercentageCalculatorContext(
+          PLAYERS,
+          List.of(Card.of("2c"), Card.of("7d"), Card.of("9h"), Card.of("Qs"), Card.of("3c")),
+          null);
+
+  private static final PercentageCalculatorContext PRE_FLOP_DEAD_CARDS =
+      new PercentageCalculatorContext(PLAYERS, List.of(), Set.of(Card.of("As")));
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final List<PercentageBackend> calls = new ArrayList<>();
+
+  private PokerPercentageCalculator backend(PercentageBackend backend, boolean failing) {
+    return backend(backend, calculatorContext -> failing);
+  }
+
+  private PokerPercentageCalculator backend(
+      PercentageBackend backend, Predicate<PercentageCalculatorContext> failing) {
+    return calculatorContext -> {
+      calls.add(backend);
+      if (failing.test(calculatorContext)) {
+        throw new IllegalStateException(backend + " is down");
+      }
+      return new PokerPercentageResult(
+          Map.of(backend.name(), new PlayerPercentage(backend.name(), 0, 0)));
+    };
+  }
+
+  private RoutingPokerPercentageCalculator calculator(boolean tableFailing) {
+    return calculator(backend(PercentageBackend.LOCAL, false), tableFailing);
+  }
+
+  private RoutingPokerPercentageCalculator calculator(
+      PokerPercentageCalculator localBackend, boolean tableFailing) {
+    return calculator(localBackend, backend(PercentageBackend.TABLE, tableFailing));
+  }
+
+  private RoutingPokerPercentageCalculator calculator(
+      PokerPercentageCalculator localBackend, PokerPercentageCalculator tableBackend) {
+    return new RoutingPokerPercentageCalculator(
+        Map.of(
+            PercentageBackend.TABLE, tableBackend,
+            PercentageBackend.LOCAL, localBackend,
+            PercentageBackend.REMOTE, backend(PercentageBackend.REMOTE, false)),
+        List.of(
+            new Route(
+                null,
+                2,
+                null,
+                0,
+                0,
+                null,
+                List.of(PercentageBackend.TABLE, PercentageBackend.REMOTE)),
+            new Route(null, null, 4, null, null, null, List.of(PercentageBackend.LOCAL))),
+        meterRegistry);
+  }
+
+  private static String backend(PokerPercentageResult result) {
+    return result.getPlayerPercentages().keySet().iterator().next();
+  }
+
+  @Test
+  void test_contexts_routed_by_board_cards_in_order() {
+    var calculator = calculator(false);
+
+    List<PokerPercentageResult> results = calculator.calculateAll(List.of(RIVER, PRE_FLOP, RIVER));
+
+    Assertions.assertEquals(
+        List.of("LOCAL", "TABLE", "LOCAL"),
+        results.stream().map(RoutingPokerPercentageCalculatorTest::backend).toList());
+    // no route for the flop
+    Assertions.assertEquals("REMOTE", backend(calculator.calculate(FLOP)));
+  }
+
+  @Test
+  void test_dead_cards_not_routed_to_table() {
+    var calculator = calculator(false);
+
+    Assertions.assertEquals("REMOTE", backend(calculator.calculate(PRE_FLOP_DEAD_CARDS)));
+    Assertions.assertEquals(List.of(PercentageBackend.REMOTE), calls);
+  }
+
+  @Test
+  void test_failed_backend_falls_back_to_next_one() {
+    var calculator = calculator(true);
+
+    Assertions.assertEquals("REMOTE", backend(calculator.calculate(PRE_FLOP)));
+    Assertions.assertEquals(List.of(PercentageBackend.TABLE, PercentageBackend.REMOTE), calls);
+    Assertions.assertEquals(
+        1.0,
+        meterRegistry
+            .get("pokerPercentageCalculator.backend.fallbacks")
+            .tag("backend", "TABLE")
+            .counter()
+            .count());
+    Assertions.assertEquals(
+        1,
+        meterRegistry
+            .get("pokerPercentageCalculator.backend.calls")
+            .tag("backend", "REMOTE")
+            .tag("outcome", "success")
+            .timer()
+            .count());
+  }
+
+  @Test
+  void test_context_failing_with_others_falls_back_alone() {
+    var otherPreFlop =
+        new PercentageCalculatorContext(
+            List.of(
+                new Player("u3", List.of(Card.of("9s"), Card.of("9d"))),
+                new Player("u4", List.of(Card.of("Ac"), Card.of("Qh")))),
+            List.of(),
+            null);
+    var calculator =
+        calculator(
+            backend(PercentageBackend.LOCAL, false),
+            backend(PercentageBackend.TABLE, context -> context == otherPreFlop));
+
+    List<PokerPercentageResult> results =
+        calculator.calculateAll(List.of(PRE_FLOP, otherPreFlop, PRE_FLOP));
+
+    Assertions.assertEquals(
+        List.of("TABLE", "REMOTE", "TABLE"),
+        results.stream().map(RoutingPokerPercentageCalculatorTest::backend).toList());
+    Assertions.assertEquals(
+        1.0,
+        meterRegistry
+            .get("pokerPercentageCalculator.backend.fallbacks")
+            .tag("backend", "TABLE")
+            .counter()
+            .count());
+  }
+
+  @Test
+  void test_route_taken_while_remaining_budget_allows() {
+    var remainingBudgetMillis = new AtomicLong(500);
+    var calculator =
+        new RoutingPokerPercentageCalculator(
+            Map.of(
+                PercentageBackend.LOCAL, backend(PercentageBackend.LOCAL, false),
+                PercentageBackend.REMOTE, backend(PercentageBackend.REMOTE, false)),
+            List.of(
+                new Route(null, null, null, null, null, 100L, List.of(PercentageBackend.REMOTE)),
+                new Route(null, null, null, null, null, null, List.of(PercentageBackend.LOCAL))),
+            remainingBudgetMillis::get,
+            meterRegistry);
+
+    Assertions.assertEquals("REMOTE", backend(calculator.calculate(FLOP)));
+    remainingBudgetMillis.set(50);
+    Assertions.assertEquals("LOCAL", backend(calculator.calculate(FLOP)));
+  }
+
+  @Test
+  void test_routes_calculated_at_the_same_time() {
+    var localResults = new CompletableFuture<List<PokerPercentageResult>>();
+    var localBackend =
+        new PokerPercentageCalculator() {
+          @Override
+          public PokerPercentageResult calculate(PercentageCalculatorContext calculatorContext) {
+            throw new UnsupportedOperationException();
+          }
+
+          @Override
+          public CompletableFuture<List<PokerPercentageResult>> calculateAllAsync(
+              List<PercentageCalculatorContext> calculatorContexts) {
+            return localResults;
+          }
+        };
+    var calculator = calculator(localBackend, false);
+
+    CompletableFuture<List<PokerPercentageResult>> results =
+        calculator.calculateAllAsync(List.of(RIVER, PRE_FLOP));
+    // the pre flop route does not wait for the river one
+    Assertions.assertEquals(List.of(PercentageBackend.TABLE), calls);
+    Assertions.assertFalse(results.isDone());
+
+    localResults.complete(List.of(calculator(false).calculate(RIVER)));
+    Assertions.assertEquals(
+        List.of("LOCAL", "TABLE"),
+        results.join().stream().map(RoutingPokerPercentageCalculatorTest::backend).toList());
+  }
+}
@@ -2,6 +2,8 @@ package com.poker.util.json;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
 
 public class JacksonUtils {
   private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
@@ -18,6 +20,14 @@ public class JacksonUtils {
     }
   }
 
+  public static <T> T fromJson(InputStream json, Class<T> valueType) {
+    try {
+      return OBJECT_MAPPER.readValue(json, valueType);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   public static String toJson(Object value) {
     try {
       return OBJECT_MAPPER.writeValueAsString(value);
@@ -31,6 +31,15 @@ public class ConcurrentTaskExecutor implements TaskExecutor {
     return taskFeatures.stream().map(CompletableFuture::join).toList();
   }
 
+  @Nonnull
+  @Override
+  public <T> CompletableFuture<List<T>> executeAsync(@Nonnull List<Supplier<T>> tasks) {
+    List<CompletableFuture<T>> taskFeatures =
+        tasks.stream().map(t -> CompletableFuture.supplyAsync(t, executor)).toList();
+    return CompletableFuture.allOf(taskFeatures.toArray(CompletableFuture[]::new))
+        .thenApply(done -> taskFeatures.stream().map(CompletableFuture::join).toList());
+  }
+
   @Override
   public void close() throws Exception {
     executor.shutdown();
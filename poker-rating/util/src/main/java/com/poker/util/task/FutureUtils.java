@@ -0,0 +1,153 @@
+package com.poker.util.task;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+
+public class FutureUtils {
+
+  private FutureUtils() {
+    throw new UnsupportedOperationException("No instance for util class");
+  }
+
+  /**
+   * @return future completed by the value of the supplier called on the caller thread, or failed by
+   *     its exception
+   */
+  @Nonnull
+  public static <T> CompletableFuture<T> supplyNow(@Nonnull Supplier<T> supplier) {
+    try {
+      return CompletableFuture.completedFuture(supplier.get());
+    } catch (Exception e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  /**
+   * @return future supplied by the supplier called on the caller thread, or failed by its exception
+   */
+  @Nonnull
+  public static <T> CompletableFuture<T> composeNow(
+      @Nonnull Supplier<CompletableFuture<T>> supplier) {
+    try {
+      return supplier.get();
+    } catch (Exception e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  /**
+   * @return the dependent future, cancelling the futures it depends on when cancelled, which the
+   *     stages of {@link CompletableFuture} do not
+   */
+  @Nonnull
+  public static <T> CompletableFuture<T> cancelling(
+      @Nonnull CompletableFuture<T> dependent, @Nonnull CompletableFuture<?>... sources) {
+    dependent.whenComplete(
+        (result, e) -> {
+          if (dependent.isCancelled()) {
+            for (CompletableFuture<?> source : sources) {
+              source.cancel(true);
+            }
+          }
+        });
+    return dependent;
+  }
+
+  /**
+   * @return future of the future composed from the result of the source, cancelling the source or
+   *     the composed future when cancelled
+   */
+  @Nonnull
+  public static <T, U> CompletableFuture<U> composeCancelling(
+      @Nonnull CompletableFuture<T> source,
+      @Nonnull Function<? super T, ? extends CompletableFuture<U>> compose) {
+    var composed = new CompletableFuture<U>();
+    source.whenComplete(
+        (result, e) -> {
+          if (e != null) {
+            composed.completeExceptionally(e);
+            return;
+          }
+          CompletableFuture<U> next = composeNow(() -> compose.apply(result));
+          cancelling(composed, next);
+          next.whenComplete(
+              (nextResult, nextFailure) -> {
+                if (nextFailure != null) {
+                  composed.completeExceptionally(nextFailure);
+                } else {
+                  composed.complete(nextResult);
+                }
+              });
+        });
+    return cancelling(composed, source);
+  }
+
+  /**
+   * @return whether the failure is the cancellation of a future, wrapped or not by a stage
+   */
+  public static boolean isCancellation(@Nonnull Throwable failure) {
+    return failure instanceof CancellationException
+        || failure instanceof CompletionException
+            && failure.getCause() instanceof CancellationException;
+  }
+
+  /**
+   * @return future of the combined results of both futures, failed as soon as either fails, in
+   *     which case both are cancelled, the cancellation reaching the calls they depend on as far
+   *     as their stages are {@link #cancelling}
+   */
+  @Nonnull
+  public static <A, B, R> CompletableFuture<R> combineOrCancel(
+      @Nonnull CompletableFuture<A> first,
+      @Nonnull CompletableFuture<B> second,
+      @Nonnull BiFunction<? super A, ? super B, ? extends R> combiner) {
+    var combined = new CompletableFuture<R>();
+    first.whenComplete(
+        (result, e) -> {
+          if (e != null) {
+            combined.completeExceptionally(e);
+          }
+        });
+    second.whenComplete(
+        (result, e) -> {
+          if (e != null) {
+            combined.completeExceptionally(e);
+          }
+        });
+    first
+        .thenCombine(second, combiner)
+        .whenComplete(
+            (result, e) -> {
+              if (e != null) {
+                combined.completeExceptionally(e);
+              } else {
+                combined.complete(result);
+              }
+            });
+    combined.whenComplete(
+        (result, e) -> {
+          if (e != null) {
+            first.cancel(true);
+            second.cancel(true);
+          }
+        });
+    return combined;
+  }
+
+  /** Waits for the future, rethrowing its runtime exception as is rather than wrapped. */
+  public static <T> T join(@Nonnull CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+}
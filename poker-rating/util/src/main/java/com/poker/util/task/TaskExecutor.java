@@ -1,10 +1,20 @@
 package com.poker.util.task;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 
 public interface TaskExecutor extends AutoCloseable {
   @Nonnull
   <T> List<T> execute(@Nonnull List<Supplier<T>> tasks);
+
+  /**
+   * @return future of the results of the tasks, in the order of the tasks, executed on the caller
+   *     thread unless overridden
+   */
+  @Nonnull
+  default <T> CompletableFuture<List<T>> executeAsync(@Nonnull List<Supplier<T>> tasks) {
+    return FutureUtils.supplyNow(() -> execute(tasks));
+  }
 }
@@ -0,0 +1,62 @@
+package com.poker.util.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+class FutureUtilsTest {
+
+  @Test
+  void test_combine_or_cancel_combines_both_results() {
+    var first = new CompletableFuture<Integer>();
+    var second = new CompletableFuture<Integer>();
+    CompletableFuture<Integer> combined = FutureUtils.combineOrCancel(first, second, Integer::sum);
+
+    first.complete(1);
+    assertFalse(combined.isDone());
+    second.complete(2);
+    assertEquals(3, FutureUtils.join(combined));
+  }
+
+  @Test
+  void test_combine_or_cancel_fails_on_first_failure_and_cancels_other() {
+    var first = new CompletableFuture<Integer>();
+    var second = new CompletableFuture<Integer>();
+    CompletableFuture<Integer> combined = FutureUtils.combineOrCancel(first, second, Integer::sum);
+
+    var failure = new IllegalStateException("showdown failed");
+    second.completeExceptionally(failure);
+    assertTrue(first.isCancelled());
+    assertSame(
+        failure, assertThrows(IllegalStateException.class, () -> FutureUtils.join(combined)));
+  }
+
+  @Test
+  void test_cancelling_stage_cancels_its_source() {
+    var source = new CompletableFuture<Integer>();
+    CompletableFuture<Integer> stage = FutureUtils.cancelling(source.thenApply(i -> i + 1), source);
+
+    stage.cancel(true);
+    assertTrue(source.isCancelled());
+  }
+
+  @Test
+  void test_compose_cancelling_cancels_composed_future() {
+    var source = new CompletableFuture<Integer>();
+    var next = new CompletableFuture<Integer>();
+    CompletableFuture<Integer> composed = FutureUtils.composeCancelling(source, i -> next);
+
+    source.complete(1);
+    composed.cancel(true);
+    assertTrue(next.isCancelled());
+
+    var pending = new CompletableFuture<Integer>();
+    FutureUtils.composeCancelling(pending, i -> next).cancel(true);
+    assertTrue(pending.isCancelled());
+  }
+}
@@ -18,6 +18,7 @@ rootProject.name = "poker-rating"
 include(":poker-holdem-calculator-rest")
 include(":poker-rating:model")
 include(":poker-rating:util")
+include(":poker-rating:evaluator")
 include(":poker-rating:test-util")
 include(":poker-rating:rule-engine")
 include(":poker-rating:rest")